@@ -4,16 +4,28 @@ import android.app.Application;
 
 import de.tum.ase.kleo.android.BuildConfig;
 import de.tum.ase.kleo.app.client.BackendClient;
+import de.tum.ase.kleo.app.group.GroupRepository;
+import de.tum.ase.kleo.app.group.attendance.advertisement.handshake.PendingAttendanceStore;
+import de.tum.ase.kleo.app.support.cache.ResourceCache;
+import de.tum.ase.kleo.app.user.UserRepository;
 
 public class KleoApplication extends Application {
 
     private BackendClient backendClient;
+    private ResourceCache resourceCache;
+    private GroupRepository groupRepository;
+    private UserRepository userRepository;
+    private PendingAttendanceStore pendingAttendanceStore;
 
     @Override
     public void onCreate() {
         super.onCreate();
 
         backendClient = buildBackendClient();
+        resourceCache = new ResourceCache(this);
+        groupRepository = new GroupRepository(backendClient, resourceCache);
+        userRepository = new UserRepository(backendClient, resourceCache);
+        pendingAttendanceStore = new PendingAttendanceStore(this);
     }
 
     private BackendClient buildBackendClient() {
@@ -24,4 +36,20 @@ public class KleoApplication extends Application {
     public BackendClient backendClient() {
         return backendClient;
     }
+
+    public ResourceCache resourceCache() {
+        return resourceCache;
+    }
+
+    public GroupRepository groupRepository() {
+        return groupRepository;
+    }
+
+    public UserRepository userRepository() {
+        return userRepository;
+    }
+
+    public PendingAttendanceStore pendingAttendanceStore() {
+        return pendingAttendanceStore;
+    }
 }
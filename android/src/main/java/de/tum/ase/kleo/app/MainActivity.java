@@ -10,6 +10,7 @@ import android.support.v7.app.ActionBar;
 import android.support.v7.app.ActionBarDrawerToggle;
 import android.support.v7.app.AppCompatActivity;
 import android.support.v7.widget.Toolbar;
+import android.util.Log;
 import android.view.Menu;
 import android.view.View;
 import android.widget.TextView;
@@ -21,12 +22,16 @@ import de.tum.ase.kleo.app.group.GroupListFragment;
 import de.tum.ase.kleo.app.group.attendance.GroupAttendanceVerifierFragment;
 import de.tum.ase.kleo.app.group.attendance.advertisement.GroupAdvertisementBroadcasterFragment;
 import de.tum.ase.kleo.app.group.attendance.advertisement.GroupAdvertisementScannerFragment;
+import de.tum.ase.kleo.app.support.cache.ResourceCache;
 import de.tum.ase.kleo.app.user.UserAttendanceListFragment;
 import de.tum.ase.kleo.app.user.UserListFragment;
 import io.reactivex.Completable;
+import io.reactivex.schedulers.Schedulers;
 
 public class MainActivity extends AppCompatActivity {
 
+    private static final String TAG = MainActivity.class.getSimpleName();
+
     private BackendClient backendClient;
     private DrawerLayout drawer;
 
@@ -112,6 +117,7 @@ public class MainActivity extends AppCompatActivity {
                 .setOnClickAction(
                         R.id.menu_logout, () -> {
                             backendClient.logout();
+                            clearResourceCache();
                             startActivity(new Intent(MainActivity.this, LoginActivity.class));
                             finish();
                         })
@@ -122,6 +128,13 @@ public class MainActivity extends AppCompatActivity {
         .build();
     }
 
+    private void clearResourceCache() {
+        final ResourceCache resourceCache = ((KleoApplication) getApplication()).resourceCache();
+        Completable.fromAction(resourceCache::clear)
+                .subscribeOn(Schedulers.io())
+                .subscribe(() -> {}, e -> Log.w(TAG, "Failed to clear resource cache", e));
+    }
+
     private Completable closeDrawer() {
         return Completable.create(emitter -> {
             drawer.closeDrawer(GravityCompat.START);
@@ -11,6 +11,7 @@ import android.widget.TextView;
 import java.util.List;
 
 import de.tum.ase.kleo.android.R;
+import de.tum.ase.kleo.app.KleoApplication;
 import de.tum.ase.kleo.app.client.GroupsApi;
 import de.tum.ase.kleo.app.client.Principal;
 import de.tum.ase.kleo.app.client.dto.GroupDTO;
@@ -114,7 +115,7 @@ public class GroupListFragment extends ResourceListLayoutFragment<GroupDTO> {
 
     @Override
     protected Observable<List<GroupDTO>> fetchResources() {
-        return backendClient.as(GroupsApi.class).getGroups();
+        return ((KleoApplication) getActivity().getApplication()).groupRepository().getGroups();
     }
 
     @Override
@@ -0,0 +1,36 @@
+package de.tum.ase.kleo.app.group;
+
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import de.tum.ase.kleo.app.client.BackendClient;
+import de.tum.ase.kleo.app.client.GroupsApi;
+import de.tum.ase.kleo.app.client.dto.GroupDTO;
+import de.tum.ase.kleo.app.support.cache.CachingRepository;
+import de.tum.ase.kleo.app.support.cache.ResourceCache;
+import io.reactivex.Observable;
+
+/**
+ * Groups and their sessions, served from the cache first and then as
+ * fetched from {@link GroupsApi}.
+ */
+public class GroupRepository extends CachingRepository {
+
+    private static final Type GROUP_LIST = new TypeToken<List<GroupDTO>>() {}.getType();
+
+    public GroupRepository(BackendClient backendClient, ResourceCache resourceCache) {
+        super(backendClient, resourceCache);
+    }
+
+    public Observable<List<GroupDTO>> getGroups() {
+        return cachedThenFetched("groups", GROUP_LIST,
+                backendClient.as(GroupsApi.class).getGroups());
+    }
+
+    public Observable<GroupDTO> getGroup(String groupId) {
+        return cachedThenFetched("groups/" + groupId, GroupDTO.class,
+                backendClient.as(GroupsApi.class).getGroup(groupId));
+    }
+}
@@ -0,0 +1,161 @@
+package de.tum.ase.kleo.app.group.attendance.advertisement;
+
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.tum.ase.kleo.app.client.GroupsApi;
+import de.tum.ase.kleo.app.client.dto.GroupDTO;
+import de.tum.ase.kleo.app.client.dto.SessionDTO;
+import de.tum.ase.kleo.app.group.attendance.advertisement.handshake.Advertisement;
+import de.tum.ase.kleo.app.group.attendance.advertisement.handshake.CompactAdvertisement;
+import io.reactivex.Completable;
+import io.reactivex.Single;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Resolves group codes of scanned advertisements. Every tutor device in a
+ * room broadcasting the same group shares one backend request: requests in
+ * flight are joined and their results are kept for {@link #TTL_MILLIS}.
+ * Failed requests aren't kept, so the next advertisement retries.
+ * <p>
+ * Groups known beforehand are matched against compact advertisements
+ * without any request, along with the advertised session.
+ */
+public class AdvertisedGroupCache {
+
+    private static final long TTL_MILLIS = 2 * 60 * 1000;
+
+    private final GroupsApi groupsApi;
+
+    private final Map<String, CachedGroup> groups = new ConcurrentHashMap<>();
+    private volatile List<GroupDTO> knownGroups = emptyList();
+
+    public AdvertisedGroupCache(GroupsApi groupsApi) {
+        this.groupsApi = groupsApi;
+    }
+
+    /**
+     * Fetches all groups once, so compact advertisements of them are
+     * resolved locally.
+     */
+    public Completable prime() {
+        return groupsApi.getGroups()
+                .doOnNext(groups -> knownGroups = groups)
+                .ignoreElements();
+    }
+
+    public Single<AdvertisedGroup> resolve(Advertisement advertisement) {
+        final CompactAdvertisement compact = advertisement.compact();
+        if (compact != null) {
+            for (GroupDTO group : knownGroups) {
+                if (compact.isOfGroup(group.getId()))
+                    return Single.just(new AdvertisedGroup(group, compact));
+            }
+        }
+
+        return resolve(advertisement.toString());
+    }
+
+    public Single<AdvertisedGroup> resolve(String groupCode) {
+        final long now = System.currentTimeMillis();
+
+        return groups.compute(groupCode, (code, cachedGroup) -> {
+            if (cachedGroup != null && !cachedGroup.isStaleAt(now))
+                return cachedGroup;
+
+            return fetch(code, now);
+        }).group;
+    }
+
+    public void clear() {
+        groups.clear();
+    }
+
+    private CachedGroup fetch(String groupCode, long now) {
+        final CachedGroup cachedGroup = new CachedGroup(now + TTL_MILLIS);
+        cachedGroup.group = groupsApi.getGroup(groupCode)
+                .singleOrError()
+                .map(AdvertisedGroup::new)
+                .doOnError(e -> groups.remove(groupCode, cachedGroup))
+                .cache();
+
+        return cachedGroup;
+    }
+
+    /**
+     * A group with its current or next session precomputed once it has
+     * been fetched.
+     */
+    public static class AdvertisedGroup {
+
+        private final GroupDTO group;
+        private final SessionDTO nextSession;
+
+        private AdvertisedGroup(GroupDTO group) {
+            this.group = group;
+            this.nextSession = nextSession(group.getSessions());
+        }
+
+        private AdvertisedGroup(GroupDTO group, CompactAdvertisement compact) {
+            this.group = group;
+            this.nextSession = advertisedSession(group.getSessions(), compact)
+                    .orElseGet(() -> nextSession(group.getSessions()));
+        }
+
+        public GroupDTO group() {
+            return group;
+        }
+
+        /**
+         * The session running or beginning next, null if there is none.
+         */
+        public SessionDTO nextSession() {
+            return nextSession;
+        }
+
+        public boolean hasStudent(String studentId) {
+            final List<String> studentIds = group.getStudentIds();
+            return studentIds != null && studentIds.contains(studentId);
+        }
+
+        private static Optional<SessionDTO> advertisedSession(List<SessionDTO> sessions,
+                                                              CompactAdvertisement compact) {
+            if (sessions == null)
+                return Optional.empty();
+
+            return sessions.stream()
+                    .filter(session -> compact.isOfSession(session.getId()))
+                    .findFirst();
+        }
+
+        private static SessionDTO nextSession(List<SessionDTO> sessions) {
+            if (sessions == null)
+                return null;
+
+            final OffsetDateTime now = OffsetDateTime.now();
+            return sessions.stream()
+                    .filter(session -> session.getEnds().isAfter(now))
+                    .min(Comparator.comparing(SessionDTO::getBegins))
+                    .orElse(null);
+        }
+    }
+
+    private static class CachedGroup {
+
+        private final long staleAtMillis;
+        private Single<AdvertisedGroup> group;
+
+        private CachedGroup(long staleAtMillis) {
+            this.staleAtMillis = staleAtMillis;
+        }
+
+        private boolean isStaleAt(long epochMillis) {
+            return epochMillis >= staleAtMillis;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package de.tum.ase.kleo.app.group.attendance.advertisement;
 
 import android.os.Bundle;
+import android.util.Log;
 import android.view.View;
 import android.widget.ArrayAdapter;
+import android.widget.CheckBox;
 import android.widget.Spinner;
 import android.widget.Toast;
 import android.widget.ToggleButton;
@@ -14,12 +16,18 @@ import de.tum.ase.kleo.android.R;
 import de.tum.ase.kleo.app.KleoApplication;
 import de.tum.ase.kleo.app.client.BackendClient;
 import de.tum.ase.kleo.app.client.GroupsApi;
+import de.tum.ase.kleo.app.client.dto.GroupDTO;
 import de.tum.ase.kleo.app.group.attendance.advertisement.handshake.Advertisement;
 import de.tum.ase.kleo.app.group.attendance.advertisement.handshake.AdvertisementBroadcaster;
+import de.tum.ase.kleo.app.group.attendance.advertisement.handshake.AttendanceBatchUploader;
 import de.tum.ase.kleo.app.group.attendance.advertisement.handshake.BackendHandshakeSupplier;
+import de.tum.ase.kleo.app.group.attendance.advertisement.handshake.CompactAdvertisement;
+import de.tum.ase.kleo.app.group.attendance.advertisement.handshake.DelegatedHandshakeSupplier;
 import de.tum.ase.kleo.app.group.attendance.advertisement.handshake.HandshakeServer;
+import de.tum.ase.kleo.app.group.attendance.advertisement.handshake.PendingAttendanceStore;
 import de.tum.ase.kleo.app.support.ui.ArrayAdapterItem;
 import de.tum.ase.kleo.app.support.ReactiveLayoutFragment;
+import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.schedulers.Schedulers;
@@ -28,10 +36,17 @@ import static java.util.stream.Collectors.toList;
 
 public class GroupAdvertisementBroadcasterFragment extends ReactiveLayoutFragment {
 
+    private static final String TAG = GroupAdvertisementBroadcasterFragment.class.getSimpleName();
+
     private GroupsApi groupsApi;
     private Spinner spinner;
+    private CheckBox batchUploadCheckbox;
     private AdvertisementBroadcaster adBroadcaster;
+    private BackendHandshakeSupplier backendHandshakeSupplier;
+    private DelegatedHandshakeSupplier handshakeSupplier;
     private HandshakeServer handshakeServer;
+    private PendingAttendanceStore pendingAttendances;
+    private AttendanceBatchUploader attendanceUploader;
 
     public GroupAdvertisementBroadcasterFragment() {
         super(R.layout.fragment_group_advertisement_broadcaster);
@@ -41,49 +56,143 @@ public class GroupAdvertisementBroadcasterFragment extends ReactiveLayoutFragmen
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        final BackendClient backendClient =
-                ((KleoApplication) getActivity().getApplication()).backendClient();
+        final KleoApplication application = (KleoApplication) getActivity().getApplication();
+        final BackendClient backendClient = application.backendClient();
+        pendingAttendances = application.pendingAttendanceStore();
 
         groupsApi = backendClient.as(GroupsApi.class);
         adBroadcaster = AdvertisementBroadcaster.createDefault(HandshakeServer.SERVICE_UUID);
-        handshakeServer = HandshakeServer.create(getContext(), new BackendHandshakeSupplier(groupsApi));
+        backendHandshakeSupplier = new BackendHandshakeSupplier(groupsApi);
+        handshakeSupplier = new DelegatedHandshakeSupplier(groupsApi, backendHandshakeSupplier);
+        handshakeServer = HandshakeServer.create(getContext(), handshakeSupplier);
     }
 
     @Override
     protected void onFragmentCreated(View view, Bundle state) {
         spinner = view.findViewById(R.id.group_ad_broadcaster_group_chooser);
+        batchUploadCheckbox = view.findViewById(R.id.group_ad_broadcaster_batch_upload_checkbox);
         populateGroupChooser();
+        uploadLeftoverAttendances();
 
         final ToggleButton broadcastToggle = view.findViewById(R.id.group_ad_broadcaster_switch_btn);
         broadcastToggle.setOnCheckedChangeListener((buttonView, isChecked) -> {
             if (isChecked) {
-                final Optional<String> chosenGroupCode = getChosenGroupCode();
-                if (!chosenGroupCode.isPresent()) {
+                final Optional<GroupDTO> chosenGroup = getChosenGroup();
+                if (!chosenGroup.isPresent()) {
                     Toast.makeText(getContext(), R.string.group_ad_broadcaster_warning_choose_group_first_toast, Toast.LENGTH_LONG).show();
                     return;
                 }
 
-                final String groupCode = chosenGroupCode.get();
-                adBroadcaster.broadcast(Advertisement.from(groupCode));
-                handshakeServer.listen().subscribe(this::disableGroupChooser);
+                final GroupDTO group = chosenGroup.get();
+                final String groupCode = group.getCode();
+                disableGroupChooser();
+
+                // Session keys are fetched before broadcasting, so passes are minted offline.
+                // Without them, passes are prefetched or requested one by one as a fallback
+                final Disposable prefetchReq = handshakeSupplier.prefetch(groupCode)
+                        .onErrorResumeNext(e -> backendHandshakeSupplier.prefetch(groupCode))
+                        .subscribeOn(Schedulers.io())
+                        .observeOn(AndroidSchedulers.mainThread())
+                        .doOnError(this::showError)
+                        .onErrorComplete()
+                        .subscribe(() -> {
+                            if (!broadcastToggle.isChecked())
+                                return;
+
+                            if (batchUploadCheckbox.isChecked()) {
+                                attendanceUploader = new AttendanceBatchUploader(groupsApi,
+                                        pendingAttendances, groupCode, handshakeSupplier::serverTimeMillis);
+                                attendanceUploader.start();
+                            }
+
+                            handshakeServer.collectAttendances(attendanceUploader);
+                            adBroadcaster.broadcast(advertisementOf(group));
+                            handshakeServer.listen().subscribe(this::disableGroupChooser);
+                        });
+
+                disposeOnDestroy(prefetchReq);
             } else {
                 adBroadcaster.stop();
                 handshakeServer.stop();
+                stopAttendanceUploader();
+                handshakeSupplier.clear();
+                backendHandshakeSupplier.clear();
                 enableGroupChooser();
             }
         });
     }
 
+    /**
+     * Advertises the group code along with a compact advertisement of the
+     * group and its current session, if there is one.
+     */
+    private static Advertisement advertisementOf(GroupDTO group) {
+        final List<String> sessionIds = BackendHandshakeSupplier.upcomingSessionIds(group);
+        if (sessionIds.isEmpty())
+            return Advertisement.from(group.getCode());
+
+        return Advertisement.from(group.getCode(), CompactAdvertisement.of(group.getId(), sessionIds.get(0)));
+    }
+
+    private void stopAttendanceUploader() {
+        if (attendanceUploader == null)
+            return;
+
+        final AttendanceBatchUploader uploader = attendanceUploader;
+        attendanceUploader = null;
+
+        final Disposable uploadReq = uploader.stop()
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(() -> showUploadReport(uploader, 0), e -> {
+                    if (e instanceof AttendanceBatchUploader.PendingAttendancesException) {
+                        showUploadReport(uploader,
+                                ((AttendanceBatchUploader.PendingAttendancesException) e).pendingCount());
+                    } else {
+                        showError(e);
+                    }
+                });
+
+        disposeOnDestroy(uploadReq);
+    }
+
+    /**
+     * Tells the tutor about passes that didn't make it into attendances,
+     * as students have been told theirs were recorded once collected.
+     */
+    private void showUploadReport(AttendanceBatchUploader uploader, long pendingCount) {
+        if (uploader.rejectedCount() == 0 && pendingCount == 0)
+            return;
+
+        Toast.makeText(getContext(), getString(R.string.group_ad_broadcaster_upload_report_toast,
+                uploader.uploadedCount(), uploader.rejectedCount(), pendingCount), Toast.LENGTH_LONG).show();
+    }
+
+    /**
+     * Uploads attendances collected before but left pending, e.g. as the
+     * device was offline or the app was closed while uploading.
+     */
+    private void uploadLeftoverAttendances() {
+        final Disposable uploadReq = Observable.fromCallable(pendingAttendances::groups)
+                .flatMapIterable(groupIdsOrCodes -> groupIdsOrCodes)
+                .concatMapCompletable(groupIdOrCode -> new AttendanceBatchUploader(groupsApi,
+                        pendingAttendances, groupIdOrCode, handshakeSupplier::serverTimeMillis).upload())
+                .subscribeOn(Schedulers.io())
+                .subscribe(() -> {}, e -> Log.w(TAG, "uploadLeftoverAttendances: Attendances left pending", e));
+
+        disposeOnDestroy(uploadReq);
+    }
+
     private void populateGroupChooser() {
         final Disposable groupsReq = groupsApi.getGroups()
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(groups -> {
-                    final List<ArrayAdapterItem<String>> groupChooserItems = groups.stream()
-                            .map(group -> ArrayAdapterItem.of(group.getName(), group.getCode()))
+                    final List<ArrayAdapterItem<GroupDTO>> groupChooserItems = groups.stream()
+                            .map(group -> ArrayAdapterItem.of(group.getName(), group))
                             .collect(toList());
 
-                    final ArrayAdapter<ArrayAdapterItem<String>> adapter
+                    final ArrayAdapter<ArrayAdapterItem<GroupDTO>> adapter
                             = new ArrayAdapter<>(getContext(), android.R.layout.simple_spinner_item,
                                 groupChooserItems);
                     adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
@@ -95,21 +204,23 @@ public class GroupAdvertisementBroadcasterFragment extends ReactiveLayoutFragmen
     }
 
     @SuppressWarnings("unchecked")
-    private Optional<String> getChosenGroupCode() {
+    private Optional<GroupDTO> getChosenGroup() {
         final Object selectedItem = spinner.getSelectedItem();
 
         if (selectedItem == null)
             return Optional.empty();
 
-        return Optional.of(((ArrayAdapterItem<String>) selectedItem).value());
+        return Optional.of(((ArrayAdapterItem<GroupDTO>) selectedItem).value());
     }
 
     private void enableGroupChooser() {
         spinner.setEnabled(true);
+        batchUploadCheckbox.setEnabled(true);
     }
 
     private void disableGroupChooser() {
         spinner.setEnabled(false);
+        batchUploadCheckbox.setEnabled(false);
     }
 
     private void showError(Throwable e) {
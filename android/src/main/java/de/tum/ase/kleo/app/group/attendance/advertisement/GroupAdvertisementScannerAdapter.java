@@ -11,13 +11,13 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import java.time.LocalTime;
-import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 import de.tum.ase.kleo.android.R;
 import de.tum.ase.kleo.app.client.dto.GroupDTO;
 import de.tum.ase.kleo.app.client.dto.SessionDTO;
+import de.tum.ase.kleo.app.group.attendance.advertisement.AdvertisedGroupCache.AdvertisedGroup;
 
 import static de.tum.ase.kleo.app.support.DateTimeFormatters.simpleTime;
 
@@ -27,13 +27,19 @@ public class GroupAdvertisementScannerAdapter
     private final List<AdvertisementRecord> advertisementRecords = new ArrayList<>();
     private GroupSessionOnClickListener groupSessionOnClickListener;
 
-    public void appendActiveAdvertisement(BluetoothDevice device, GroupDTO group) {
-        advertisementRecords.add(new AdvertisementRecord(device, group, true));
-        notifyDataSetChanged();
+    public void appendActiveAdvertisement(BluetoothDevice device, AdvertisedGroup group) {
+        appendAdvertisement(new AdvertisementRecord(device, group, true));
+    }
+
+    public void appendInactiveAdvertisement(BluetoothDevice device, AdvertisedGroup group) {
+        appendAdvertisement(new AdvertisementRecord(device, group, false));
     }
 
-    public void appendInactiveAdvertisement(BluetoothDevice device, GroupDTO group) {
-        advertisementRecords.add(new AdvertisementRecord(device, group, false));
+    private void appendAdvertisement(AdvertisementRecord advertisementRecord) {
+        // Devices out of reach for a while are reported again by the scanner
+        advertisementRecords.removeIf(record -> record.device.getAddress()
+                .equals(advertisementRecord.device.getAddress()));
+        advertisementRecords.add(advertisementRecord);
         notifyDataSetChanged();
     }
 
@@ -49,15 +55,19 @@ public class GroupAdvertisementScannerAdapter
     public void onBindViewHolder(GroupAdListItem holder, int position) {
         final AdvertisementRecord advertisementRecord = advertisementRecords.get(position);
         final BluetoothDevice device = advertisementRecord.device;
-        final GroupDTO group = advertisementRecord.group;
+        final GroupDTO group = advertisementRecord.group.group();
+        final SessionDTO nextNearestSession = advertisementRecord.group.nextSession();
         final boolean isActive = advertisementRecord.isActive;
 
-        final OffsetDateTime now = OffsetDateTime.now();
-        final SessionDTO nextNearestSession = group.getSessions().stream()
-                .filter(session -> session.getBegins().isAfter(now))
-                .findFirst().orElse(null);
-
         holder.setName(group.getName());
+
+        if (nextNearestSession == null) {
+            holder.setNoSession();
+            holder.grayout();
+            holder.itemView.setOnClickListener(null);
+            return;
+        }
+
         holder.setSessionTime(nextNearestSession.getBegins().toLocalTime(),
                 nextNearestSession.getEnds().toLocalTime());
         holder.setSessionType(nextNearestSession.getType().toString());
@@ -120,6 +130,12 @@ public class GroupAdvertisementScannerAdapter
             this.sessionType.setText(sessionType);
         }
 
+        public void setNoSession() {
+            this.sessionTime.setText(R.string.group_ad_scanner_item_no_upcoming_session);
+            this.sessionType.setText(null);
+            this.sessionLocation.setText(null);
+        }
+
         public void grayout() {
             name.setTextColor(Color.GRAY);
             sessionTime.setTextColor(Color.GRAY);
@@ -134,10 +150,10 @@ public class GroupAdvertisementScannerAdapter
 
     private static class AdvertisementRecord {
         BluetoothDevice device;
-        GroupDTO group;
+        AdvertisedGroup group;
         boolean isActive;
 
-        AdvertisementRecord(BluetoothDevice device, GroupDTO group, boolean isActive) {
+        AdvertisementRecord(BluetoothDevice device, AdvertisedGroup group, boolean isActive) {
             this.device = device;
             this.group = group;
             this.isActive = isActive;
@@ -14,8 +14,6 @@ import android.widget.ProgressBar;
 import android.widget.Toast;
 import android.widget.ToggleButton;
 
-import java.util.List;
-
 import de.tum.ase.kleo.android.R;
 import de.tum.ase.kleo.app.KleoApplication;
 import de.tum.ase.kleo.app.client.BackendClient;
@@ -44,6 +42,7 @@ public class GroupAdvertisementScannerFragment extends ReactiveLayoutFragment
     private AdvertisementScanner adScanner;
     private GroupsApi groupsApi;
     private HandshakeClient handshakeClient;
+    private AdvertisedGroupCache groupCache;
     private String currentUserId;
     private RecyclerView listView;
     private ToggleButton scanToggle;
@@ -63,6 +62,7 @@ public class GroupAdvertisementScannerFragment extends ReactiveLayoutFragment
         currentUserId = backendClient.principal().id();
 
         groupsApi = backendClient.as(GroupsApi.class);
+        groupCache = new AdvertisedGroupCache(groupsApi);
 
         adScanner = AdvertisementScanner.createDefault(HandshakeServer.SERVICE_UUID);
         handshakeClient = HandshakeClient.create(getContext(), HandshakeServer.SERVICE_UUID);
@@ -113,6 +113,15 @@ public class GroupAdvertisementScannerFragment extends ReactiveLayoutFragment
 
     private void startScanning() {
         final GroupAdvertisementScannerAdapter adapter = setupGroupAdvertisementList();
+
+        // Groups known upfront are matched against compact advertisements offline,
+        // the others are still resolved by their codes
+        final Disposable primeReq = groupCache.prime()
+                .subscribeOn(Schedulers.io())
+                .onErrorComplete()
+                .subscribe();
+        disposeOnDestroy(primeReq);
+
         adScanner.scanUnique()
                 .subscribeOn(Schedulers.computation())
                 .observeOn(AndroidSchedulers.mainThread())
@@ -120,15 +129,11 @@ public class GroupAdvertisementScannerFragment extends ReactiveLayoutFragment
                     final BluetoothDevice device = deviceAdv.first;
                     final Advertisement advertisement = deviceAdv.second;
 
-                    Disposable disposable = groupsApi.getGroup(advertisement.toString())
+                    Disposable disposable = groupCache.resolve(advertisement)
                             .subscribeOn(Schedulers.io())
                             .observeOn(AndroidSchedulers.mainThread())
                             .subscribe(group -> {
-                                final List<String> registeredStudentIds = group.getStudentIds();
-                                boolean isIRegistered = registeredStudentIds != null
-                                        && registeredStudentIds.contains(currentUserId);
-
-                                if (isIRegistered) {
+                                if (group.hasStudent(currentUserId)) {
                                     adapter.appendActiveAdvertisement(device, group);
                                 } else {
                                     adapter.appendInactiveAdvertisement(device, group);
@@ -147,15 +152,22 @@ public class GroupAdvertisementScannerFragment extends ReactiveLayoutFragment
                     .observeOn(AndroidSchedulers.mainThread())
                     .doOnSubscribe(r -> this.showProgressBar())
                     .doOnError(e -> this.hideProgressBar())
-                    .subscribe((passCode) -> {
-                        groupsApi.utilizeSessionPass(group.getId(), passCode)
+                    .subscribe((handshakeRes) -> {
+                        // The tutor's device uploads collected attendances itself
+                        if (handshakeRes.isCollected()) {
+                            hideProgressBar();
+                            Toast.makeText(getContext(), R.string.group_ad_scanner_item_joined_welcome_notice, Toast.LENGTH_SHORT).show();
+                            return;
+                        }
+
+                        groupsApi.utilizeSessionPass(group.getId(), handshakeRes.handshake())
                                 .subscribeOn(Schedulers.io())
                                 .observeOn(AndroidSchedulers.mainThread())
                                 .doFinally(this::hideProgressBar)
                                 .subscribe(() -> {
                                     Toast.makeText(getContext(), R.string.group_ad_scanner_item_joined_welcome_notice, Toast.LENGTH_SHORT).show();
                                 });
-                    });
+                    }, this::showError);
         });
 
         listView.setAdapter(adapter);
@@ -183,5 +195,6 @@ public class GroupAdvertisementScannerFragment extends ReactiveLayoutFragment
     public void onDestroy() {
         super.onDestroy();
         stopScanning();
+        handshakeClient.close();
     }
 }
@@ -2,27 +2,65 @@ package de.tum.ase.kleo.app.group.attendance.advertisement.handshake;
 
 import java.nio.charset.Charset;
 
+/**
+ * Advertisement of a group by its code. Broadcasters of this version add
+ * a {@link CompactAdvertisement} identifying the group and session, which
+ * older broadcasters lack.
+ */
 public class Advertisement {
 
     public static final int MAX_BYTES = 15;
     private static final Charset ENCODING = Charset.forName("US-ASCII");
 
     private final byte[] content;
+    private final CompactAdvertisement compact;
 
-    private Advertisement(byte[] content) {
+    private Advertisement(byte[] content, CompactAdvertisement compact) {
         this.content = content;
+        this.compact = compact;
     }
 
     public static Advertisement from(String text) {
+        return from(text, null);
+    }
+
+    public static Advertisement from(String text, CompactAdvertisement compact) {
         final byte[] textBytes = text.getBytes(ENCODING);
         if (textBytes.length > MAX_BYTES) {
             throw new IllegalArgumentException("Advertisement is too big. Allowed <= " + MAX_BYTES);
         }
-        return new Advertisement(textBytes);
+        return new Advertisement(textBytes, compact);
     }
 
     public static Advertisement fromBytes(byte[] bytes) {
-        return new Advertisement(bytes);
+        return new Advertisement(bytes, null);
+    }
+
+    /**
+     * Parses both formats, ignoring compact advertisements that are
+     * malformed or stale.
+     */
+    public static Advertisement fromBytes(byte[] bytes, byte[] compactBytes) {
+        if (!CompactAdvertisement.isCompact(compactBytes))
+            return fromBytes(bytes);
+
+        final CompactAdvertisement compact = CompactAdvertisement.fromBytes(compactBytes);
+        return new Advertisement(bytes, compact.isFresh() ? compact : null);
+    }
+
+    /**
+     * The same advertisement with its compact part's nonce rolled.
+     */
+    public Advertisement rolled() {
+        return compact == null ? this : new Advertisement(content, compact.rolled());
+    }
+
+    public boolean hasCompact() {
+        return compact != null;
+    }
+
+    public CompactAdvertisement compact() {
+        return compact;
     }
 
     @Override
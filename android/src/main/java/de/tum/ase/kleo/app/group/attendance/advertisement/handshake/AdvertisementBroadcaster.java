@@ -9,10 +9,19 @@ import android.os.ParcelUuid;
 import android.util.Log;
 
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
 
 import static android.bluetooth.le.AdvertiseSettings.ADVERTISE_MODE_LOW_LATENCY;
 import static android.bluetooth.le.AdvertiseSettings.ADVERTISE_TX_POWER_HIGH;
 
+/**
+ * Broadcasts group advertisements. The legacy group code goes into the
+ * advertising packet; the compact advertisement, if any, goes into the
+ * scan response and is re-broadcast whenever its nonce rolls.
+ */
 public class AdvertisementBroadcaster {
     private static final String TAG = AdvertisementBroadcaster.class.getSimpleName();
 
@@ -23,6 +32,9 @@ public class AdvertisementBroadcaster {
     private final AdvertiseCallback advertiseCallback;
     private final AdvertiseSettings advertiseSettings;
 
+    private Advertisement advertisement;
+    private Disposable nonceRolling;
+
     private AdvertisementBroadcaster(UUID serviceId, int advertiseMode, int txPowerLevel,
                                      AdvertiseCallback advertiseCallback) {
         this.serviceId = serviceId;
@@ -46,16 +58,57 @@ public class AdvertisementBroadcaster {
                 ADVERTISE_MODE_LOW_LATENCY, ADVERTISE_TX_POWER_HIGH, null);
     }
 
-    public void broadcast(Advertisement advertisement) {
+    public synchronized void broadcast(Advertisement advertisement) {
+        stopRolling();
+
+        this.advertisement = advertisement;
+        startAdvertising(advertisement);
+
+        if (advertisement.hasCompact()) {
+            nonceRolling = Schedulers.computation().schedulePeriodicallyDirect(this::rollNonce,
+                    CompactAdvertisement.NONCE_PERIOD_SECONDS, CompactAdvertisement.NONCE_PERIOD_SECONDS,
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    public synchronized void stop() {
+        stopRolling();
+        advertisement = null;
+        broadcaster.stopAdvertising(advertiseCallback);
+    }
+
+    private synchronized void rollNonce() {
+        if (advertisement == null)
+            return;
+
+        advertisement = advertisement.rolled();
+        broadcaster.stopAdvertising(advertiseCallback);
+        startAdvertising(advertisement);
+    }
+
+    private void startAdvertising(Advertisement advertisement) {
         final AdvertiseData adData = new AdvertiseData.Builder()
                 .addServiceData(new ParcelUuid(serviceId), advertisement.toBytes())
                 .build();
 
-        broadcaster.startAdvertising(advertiseSettings, adData, advertiseCallback);
+        if (!advertisement.hasCompact()) {
+            broadcaster.startAdvertising(advertiseSettings, adData, advertiseCallback);
+            return;
+        }
+
+        final AdvertiseData scanResponse = new AdvertiseData.Builder()
+                .addServiceData(new ParcelUuid(CompactAdvertisement.SERVICE_DATA_UUID),
+                        advertisement.compact().toBytes())
+                .build();
+
+        broadcaster.startAdvertising(advertiseSettings, adData, scanResponse, advertiseCallback);
     }
 
-    public void stop() {
-        broadcaster.stopAdvertising(advertiseCallback);
+    private void stopRolling() {
+        if (nonceRolling != null) {
+            nonceRolling.dispose();
+            nonceRolling = null;
+        }
     }
 
     private static final AdvertiseCallback defaultAdvertiseCallback = new AdvertiseCallback() {
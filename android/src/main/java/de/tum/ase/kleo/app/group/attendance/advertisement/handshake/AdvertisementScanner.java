@@ -4,6 +4,7 @@ import android.bluetooth.BluetoothAdapter;
 import android.bluetooth.BluetoothDevice;
 import android.bluetooth.le.BluetoothLeScanner;
 import android.bluetooth.le.ScanCallback;
+import android.bluetooth.le.ScanFilter;
 import android.bluetooth.le.ScanRecord;
 import android.bluetooth.le.ScanResult;
 import android.bluetooth.le.ScanSettings;
@@ -12,93 +13,149 @@ import android.util.Log;
 import android.util.Pair;
 
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import io.reactivex.Observable;
 import io.reactivex.ObservableEmitter;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
 
+import static android.bluetooth.le.ScanSettings.SCAN_MODE_BALANCED;
 import static android.bluetooth.le.ScanSettings.SCAN_MODE_LOW_LATENCY;
 import static java.lang.String.format;
-
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Scans for advertisements of the handshake service. Only advertisements
+ * carrying the service's data pass the scan filter, which the controller
+ * evaluates if it supports filter offloading, and results are delivered in
+ * batches where the controller supports batching. Scanning starts in a
+ * short burst of the given scan mode and continues in a mode easier on the
+ * battery. Devices reported once are skipped by unique scans until they
+ * haven't been seen for {@link #KNOWN_DEVICE_TTL_MILLIS}.
+ */
 public class AdvertisementScanner {
 
     private static final String TAG = AdvertisementScanner.class.getSimpleName();
 
+    private static final long BURST_WINDOW_MILLIS = 10_000;
+    private static final long REPORT_DELAY_MILLIS = 1_000;
+    private static final long KNOWN_DEVICE_TTL_MILLIS = 60_000;
+
     private final UUID serviceId;
-    private final ScanSettings scanSettings;
+    private final List<ScanFilter> scanFilters;
+    private final ScanSettings burstScanSettings;
+    private final ScanSettings steadyScanSettings;
 
-    private final HashSet<BluetoothDevice> knownDevices = new HashSet<>();
+    private final Map<String, KnownDevice> knownDevices = new ConcurrentHashMap<>();
     private BluetoothLeScanner bluetoothLeScanner;
 
     private ScanCallback scanCallback;
     private ObservableEmitter<Pair<BluetoothDevice, Advertisement>> scanStreamEmitter;
+    private Disposable dutyCycle;
 
-    private AdvertisementScanner(UUID serviceId, BluetoothLeScanner bluetoothLeScanner, ScanSettings scanSettings) {
+    private AdvertisementScanner(UUID serviceId, BluetoothLeScanner bluetoothLeScanner,
+                                 ScanSettings burstScanSettings, ScanSettings steadyScanSettings) {
         this.bluetoothLeScanner = bluetoothLeScanner;
         this.serviceId = serviceId;
-        this.scanSettings = scanSettings;
+        this.burstScanSettings = burstScanSettings;
+        this.steadyScanSettings = steadyScanSettings;
+        this.scanFilters = Collections.singletonList(new ScanFilter.Builder()
+                .setServiceData(new ParcelUuid(serviceId), new byte[0])
+                .build());
     }
 
-    public static AdvertisementScanner create(UUID serviceId, int scanMode) {
-        final BluetoothLeScanner bleScanner
-                = BluetoothAdapter.getDefaultAdapter().getBluetoothLeScanner();
-
-        final ScanSettings scanSettings = new ScanSettings.Builder()
-                .setScanMode(scanMode)
-                .build();
+    public static AdvertisementScanner create(UUID serviceId, int burstScanMode, int steadyScanMode) {
+        final BluetoothAdapter bluetoothAdapter = BluetoothAdapter.getDefaultAdapter();
+        final long reportDelay = bluetoothAdapter.isOffloadedScanBatchingSupported() ? REPORT_DELAY_MILLIS : 0;
 
-        return new AdvertisementScanner(serviceId, bleScanner, scanSettings);
+        return new AdvertisementScanner(serviceId, bluetoothAdapter.getBluetoothLeScanner(),
+                scanSettings(burstScanMode, 0), scanSettings(steadyScanMode, reportDelay));
     }
 
     public static AdvertisementScanner createDefault(UUID serviceId) {
-        return create(serviceId, SCAN_MODE_LOW_LATENCY);
+        return create(serviceId, SCAN_MODE_LOW_LATENCY, SCAN_MODE_BALANCED);
+    }
+
+    private static ScanSettings scanSettings(int scanMode, long reportDelayMillis) {
+        return new ScanSettings.Builder()
+                .setScanMode(scanMode)
+                .setReportDelay(reportDelayMillis)
+                .build();
     }
 
     private Observable<Pair<BluetoothDevice, Advertisement>> scan(boolean onlyOnceFromDevice) {
         return Observable.create(emitter -> {
-            scanStreamEmitter = emitter;
+            scanStreamEmitter = emitter.serialize();
 
             scanCallback = new ScanCallback() {
                 @Override
                 public void onScanResult(int callbackType, ScanResult result) {
-                    if (result == null)
-                        return;
-
-                    final BluetoothDevice sender = result.getDevice();
-                    if (sender == null)
-                        return;
-
-                    if (knownDevices.contains(sender) && onlyOnceFromDevice)
-                        return;
-
-                    final ScanRecord scanRecord = result.getScanRecord();
-                    final byte[] serviceData = scanRecord.getServiceData(new ParcelUuid(serviceId));
+                    handleResult(result, onlyOnceFromDevice);
+                }
 
-                    if (serviceData == null) {
-                        return;
+                @Override
+                public void onBatchScanResults(List<ScanResult> results) {
+                    for (ScanResult result : results) {
+                        handleResult(result, onlyOnceFromDevice);
                     }
-
-                    knownDevices.add(sender);
-
-                    final Advertisement advertisement = Advertisement.fromBytes(serviceData);
-                    Log.d(TAG, format("Advertisement arrived %s from %s",
-                            advertisement.toString(), sender.getAddress()));
-
-                    emitter.onNext(Pair.create(sender, advertisement));
                 }
 
                 @Override
                 public void onScanFailed(int errorCode) {
-                    emitter.onError(new RuntimeException("Failed to scan ad, code = " + errorCode));
+                    scanStreamEmitter.onError(new RuntimeException("Failed to scan ad, code = " + errorCode));
                 }
             };
 
-            bluetoothLeScanner.startScan(Collections.emptyList(), scanSettings, scanCallback);
+            bluetoothLeScanner.startScan(scanFilters, burstScanSettings, scanCallback);
+            dutyCycle = Schedulers.computation().scheduleDirect(this::continueSteadily,
+                    BURST_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
         });
     }
 
+    private synchronized void continueSteadily() {
+        if (scanCallback == null)
+            return;
+
+        Log.d(TAG, "Burst window is over, continuing to scan steadily");
+        bluetoothLeScanner.stopScan(scanCallback);
+        bluetoothLeScanner.startScan(scanFilters, steadyScanSettings, scanCallback);
+    }
+
+    private void handleResult(ScanResult result, boolean onlyOnceFromDevice) {
+        if (result == null)
+            return;
+
+        final BluetoothDevice sender = result.getDevice();
+        final ScanRecord scanRecord = result.getScanRecord();
+        if (sender == null || scanRecord == null)
+            return;
+
+        final byte[] serviceData = scanRecord.getServiceData(new ParcelUuid(serviceId));
+        if (serviceData == null)
+            return;
+
+        final long now = System.currentTimeMillis();
+        final KnownDevice previouslySeen = knownDevices.put(sender.getAddress(),
+                new KnownDevice(sender, now + KNOWN_DEVICE_TTL_MILLIS));
+
+        if (onlyOnceFromDevice && previouslySeen != null && !previouslySeen.isExpiredAt(now))
+            return;
+
+        final byte[] compactServiceData = scanRecord.getServiceData(
+                new ParcelUuid(CompactAdvertisement.SERVICE_DATA_UUID));
+        final Advertisement advertisement = Advertisement.fromBytes(serviceData, compactServiceData);
+        Log.d(TAG, format("Advertisement arrived %s from %s",
+                advertisement.toString(), sender.getAddress()));
+
+        scanStreamEmitter.onNext(Pair.create(sender, advertisement));
+    }
+
     public Observable<Pair<BluetoothDevice, Advertisement>> scanUnique() {
         return scan(true);
     }
@@ -107,9 +164,15 @@ public class AdvertisementScanner {
         return scan(false);
     }
 
-    public void stop() {
+    public synchronized void stop() {
+        if (dutyCycle != null) {
+            dutyCycle.dispose();
+            dutyCycle = null;
+        }
+
         if (scanCallback != null) {
             bluetoothLeScanner.stopScan(scanCallback);
+            scanCallback = null;
 
             if (scanStreamEmitter != null) {
                 scanStreamEmitter.onComplete();
@@ -118,10 +181,30 @@ public class AdvertisementScanner {
     }
 
     public Set<BluetoothDevice> knownDevices() {
-        return Collections.unmodifiableSet(knownDevices);
+        final long now = System.currentTimeMillis();
+        knownDevices.values().removeIf(knownDevice -> knownDevice.isExpiredAt(now));
+
+        return knownDevices.values().stream()
+                .map(knownDevice -> knownDevice.device)
+                .collect(toSet());
     }
 
     public void clearKnownDevices() {
         knownDevices.clear();
     }
+
+    private static class KnownDevice {
+
+        private final BluetoothDevice device;
+        private final long expiresAtMillis;
+
+        private KnownDevice(BluetoothDevice device, long expiresAtMillis) {
+            this.device = device;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        private boolean isExpiredAt(long epochMillis) {
+            return epochMillis >= expiresAtMillis;
+        }
+    }
 }
@@ -0,0 +1,195 @@
+package de.tum.ase.kleo.app.group.attendance.advertisement.handshake;
+
+import android.util.Log;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import de.tum.ase.kleo.app.client.GroupsApi;
+import de.tum.ase.kleo.app.client.dto.AttendanceBatchDTO;
+import de.tum.ase.kleo.app.client.dto.AttendanceResultDTO;
+import de.tum.ase.kleo.app.client.dto.CollectedPassDTO;
+import de.tum.ase.kleo.app.group.attendance.advertisement.handshake.PendingAttendanceStore.PendingAttendance;
+import de.tum.ase.kleo.handshake.AttendanceCollector;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Collects pass codes handed out in handshakes and redeems them on behalf
+ * of the students in batches, so a lecture start costs the backend a few
+ * requests instead of one per student. A batch is uploaded once it is full
+ * or every {@link #FLUSH_INTERVAL_SECONDS}, whatever comes first.
+ * <p>
+ * Pass codes are kept in the {@link PendingAttendanceStore} along with the
+ * time they were collected at until the backend has answered for them, so
+ * batches failed to upload are retried with the next one, even by another
+ * uploader after the process has been restarted. The backend checks them
+ * for expiry at their collection time.
+ */
+public class AttendanceBatchUploader implements AttendanceCollector {
+
+    private static final String TAG = AttendanceBatchUploader.class.getSimpleName();
+
+    private static final int MAX_BATCH_SIZE = 200;
+    private static final long FLUSH_INTERVAL_SECONDS = 5;
+
+    private static final int UPLOAD_ATTEMPTS = 4;
+    private static final long UPLOAD_RETRY_DELAY_SECONDS = 2;
+
+    // Shared by all uploaders, so two of them never upload the same stored pass codes
+    private static final Object UPLOAD_LOCK = new Object();
+
+    private final GroupsApi groupsApi;
+    private final PendingAttendanceStore pendingAttendances;
+    private final String groupIdOrCode;
+    private final LongSupplier clock;
+
+    private final AtomicInteger uploadedCount = new AtomicInteger();
+    private final AtomicInteger rejectedCount = new AtomicInteger();
+
+    private Disposable flushTimer;
+
+    /**
+     * @param clock current time in epoch millis the passes are collected at,
+     *              preferably corrected to the backend's clock
+     */
+    public AttendanceBatchUploader(GroupsApi groupsApi, PendingAttendanceStore pendingAttendances,
+                                   String groupIdOrCode, LongSupplier clock) {
+        this.groupsApi = groupsApi;
+        this.pendingAttendances = pendingAttendances;
+        this.groupIdOrCode = groupIdOrCode;
+        this.clock = clock;
+    }
+
+    public void start() {
+        flushTimer = Observable.interval(FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS, Schedulers.io())
+                .subscribe(tick -> flush(), e -> Log.e(TAG, "start: Flush timer failed", e));
+    }
+
+    @Override
+    public void collect(String passCode) {
+        pendingAttendances.add(groupIdOrCode, passCode, clock.getAsLong());
+
+        if (pendingAttendances.count(groupIdOrCode) >= MAX_BATCH_SIZE)
+            Schedulers.io().scheduleDirect(this::flush);
+    }
+
+    /**
+     * Stops the timer and uploads attendances collected so far.
+     *
+     * @see #upload()
+     */
+    public Completable stop() {
+        if (flushTimer != null)
+            flushTimer.dispose();
+
+        return upload();
+    }
+
+    /**
+     * Uploads all pending attendances of the group, retrying a few times
+     * with growing delays if uploads fail. Fails with
+     * {@link PendingAttendancesException} if attendances are left, which
+     * stay stored for the next upload.
+     */
+    public Completable upload() {
+        return Completable.fromAction(() -> {
+            while (flush() > 0) {
+                // Upload until nothing is left or an upload fails
+            }
+
+            final long pendingCount = pendingAttendances.count(groupIdOrCode);
+            if (pendingCount > 0)
+                throw new PendingAttendancesException(pendingCount);
+        }).retryWhen(errors -> errors
+                .zipWith(Flowable.range(1, UPLOAD_ATTEMPTS), (e, attempt) -> attempt < UPLOAD_ATTEMPTS
+                        ? Flowable.timer(attempt * UPLOAD_RETRY_DELAY_SECONDS, TimeUnit.SECONDS)
+                        : Flowable.<Long>error(e))
+                .flatMap(retry -> retry));
+    }
+
+    /**
+     * Number of attendances the backend has registered.
+     */
+    public int uploadedCount() {
+        return uploadedCount.get();
+    }
+
+    /**
+     * Number of passes the backend has rejected, e.g. as expired.
+     */
+    public int rejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Uploads one batch and returns how many passes the backend has answered for.
+     */
+    private int flush() {
+        synchronized (UPLOAD_LOCK) {
+            final List<PendingAttendance> batch = pendingAttendances.next(groupIdOrCode, MAX_BATCH_SIZE);
+            if (batch.isEmpty())
+                return 0;
+
+            final List<CollectedPassDTO> passes = batch.stream()
+                    .map(attendance -> new CollectedPassDTO()
+                            .passCode(attendance.passCode())
+                            .collectedAt(OffsetDateTime.ofInstant(
+                                    Instant.ofEpochMilli(attendance.collectedAtMillis()), ZoneOffset.UTC)))
+                    .collect(toList());
+
+            final List<AttendanceResultDTO> results;
+            try {
+                results = groupsApi.utilizeSessionPasses(groupIdOrCode,
+                        new AttendanceBatchDTO().passes(passes)).blockingFirst();
+            } catch (RuntimeException e) {
+                Log.w(TAG, "flush: Failed to upload " + batch.size() + " attendances, retrying later", e);
+                return 0;
+            }
+
+            final List<String> answeredPassCodes = new ArrayList<>(results.size());
+            for (AttendanceResultDTO result : results) {
+                answeredPassCodes.add(result.getPassCode());
+
+                if (result.getStatus() == AttendanceResultDTO.StatusEnum.ATTENDED) {
+                    uploadedCount.incrementAndGet();
+                } else {
+                    rejectedCount.incrementAndGet();
+                    Log.w(TAG, "flush: Pass " + result.getPassCode() + " rejected, " + result.getStatus());
+                }
+            }
+            pendingAttendances.remove(groupIdOrCode, answeredPassCodes);
+
+            Log.i(TAG, "flush: Uploaded " + batch.size() + " attendances of group " + groupIdOrCode);
+            return answeredPassCodes.size();
+        }
+    }
+
+    /**
+     * Signals attendances are left to upload, e.g. as the device is offline.
+     */
+    public static class PendingAttendancesException extends RuntimeException {
+
+        private final long pendingCount;
+
+        public PendingAttendancesException(long pendingCount) {
+            super(pendingCount + " attendances are left to upload");
+            this.pendingCount = pendingCount;
+        }
+
+        public long pendingCount() {
+            return pendingCount;
+        }
+    }
+}
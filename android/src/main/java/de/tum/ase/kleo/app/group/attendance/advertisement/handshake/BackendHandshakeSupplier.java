@@ -1,22 +1,69 @@
 package de.tum.ase.kleo.app.group.attendance.advertisement.handshake;
 
+import android.util.Log;
+
 import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import de.tum.ase.kleo.app.client.GroupsApi;
+import de.tum.ase.kleo.app.client.dto.GroupDTO;
 import de.tum.ase.kleo.app.client.dto.PassDTO;
+import de.tum.ase.kleo.app.client.dto.SessionDTO;
+import de.tum.ase.kleo.handshake.HandshakeSupplier;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Supplies handshakes with passes issued by the backend. Passes of all
+ * registered students of the current and upcoming session are prefetched
+ * in bulk before broadcasting, so a handshake is answered from memory on
+ * the BLE callback thread. Unknown students and stale passes fall back to
+ * a backend request per student.
+ */
+public class BackendHandshakeSupplier implements HandshakeSupplier {
 
-public class BackendHandshakeSupplier implements HandshakeServer.HandshakeSupplier {
+    private static final String TAG = BackendHandshakeSupplier.class.getSimpleName();
 
-    private static final Duration PASS_EXPIRE_IN = Duration.ofMinutes(2);
+    private static final Duration PREFETCHED_PASS_EXPIRE_IN = Duration.ofMinutes(20);
 
     private final GroupsApi groupsApi;
 
+    private final Map<String, PrefetchedPasses> sessionPasses = new ConcurrentHashMap<>();
+
     public BackendHandshakeSupplier(GroupsApi groupsApi) {
         this.groupsApi = groupsApi;
     }
 
+    /**
+     * Fetches passes of the sessions of the group that are running or begin
+     * next, i.e. those students' devices request handshakes for.
+     */
+    public Completable prefetch(String groupIdOrCode) {
+        return groupsApi.getGroup(groupIdOrCode)
+                .flatMap(group -> Observable.fromIterable(upcomingSessionIds(group)))
+                .flatMap(sessionId -> groupsApi.generateSessionPasses(groupIdOrCode, sessionId,
+                        (int) PREFETCHED_PASS_EXPIRE_IN.getSeconds())
+                        .doOnNext(passes -> cache(sessionId, passes)))
+                .ignoreElements();
+    }
+
     @Override
     public String supply(String studentId, String groupIdOrCode, String sessionId) {
+        final PrefetchedPasses prefetchedPasses = sessionPasses.get(sessionId);
+        if (prefetchedPasses != null && prefetchedPasses.isFresh()) {
+            final String passCode = prefetchedPasses.passCodes.get(studentId);
+            if (passCode != null)
+                return passCode;
+        }
+
+        Log.i(TAG, "supply: No prefetched pass for student " + studentId + ", requesting backend");
+
         final PassDTO passReqDto = new PassDTO()
                 .studentId(studentId)
                 .sessionId(sessionId)
@@ -24,4 +71,48 @@ public class BackendHandshakeSupplier implements HandshakeServer.HandshakeSuppli
 
         return groupsApi.generateSessionPass(groupIdOrCode, passReqDto).blockingFirst().getCode();
     }
+
+    public void clear() {
+        sessionPasses.clear();
+    }
+
+    private void cache(String sessionId, List<PassDTO> passes) {
+        final Map<String, String> passCodes = passes.stream()
+                .collect(toMap(PassDTO::getStudentId, PassDTO::getCode, (code, otherCode) -> code));
+
+        sessionPasses.put(sessionId, new PrefetchedPasses(passCodes));
+        Log.i(TAG, "cache: Prefetched " + passCodes.size() + " passes for session " + sessionId);
+    }
+
+    public static List<String> upcomingSessionIds(GroupDTO group) {
+        final OffsetDateTime now = OffsetDateTime.now();
+
+        final List<SessionDTO> runningSessions = group.getSessions().stream()
+                .filter(session -> !session.getBegins().isAfter(now) && session.getEnds().isAfter(now))
+                .collect(toList());
+
+        group.getSessions().stream()
+                .filter(session -> session.getBegins().isAfter(now))
+                .min((session, other) -> session.getBegins().compareTo(other.getBegins()))
+                .ifPresent(runningSessions::add);
+
+        return runningSessions.stream().map(SessionDTO::getId).collect(toList());
+    }
+
+    private static class PrefetchedPasses {
+
+        private final Map<String, String> passCodes;
+        private final long staleAtMillis;
+
+        private PrefetchedPasses(Map<String, String> passCodes) {
+            this.passCodes = passCodes;
+            // Passes handed out must stay valid for as long as the ones requested one by one
+            this.staleAtMillis = System.currentTimeMillis()
+                    + PREFETCHED_PASS_EXPIRE_IN.minus(PASS_EXPIRE_IN).toMillis();
+        }
+
+        private boolean isFresh() {
+            return System.currentTimeMillis() < staleAtMillis;
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package de.tum.ase.kleo.app.group.attendance.advertisement.handshake;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Binary advertisement identifying the advertised group and session, so
+ * scanners can match groups they have cached without a backend request.
+ * It is broadcast in the scan response next to the legacy group code and
+ * takes 13 bytes, the room left by a 128-bit service data UUID:
+ * <pre>
+ *   version (1) | group short id (6) | session short id (4) | nonce (2)
+ * </pre>
+ * Short ids are the leading bytes of the group's and session's UUIDs. The
+ * nonce rolls every {@link #NONCE_PERIOD_SECONDS}, so scanners can tell
+ * stale advertisements apart.
+ */
+public class CompactAdvertisement {
+
+    public static final UUID SERVICE_DATA_UUID = UUID.fromString("3A4F4B1E-8A7C-4E2B-9C55-0D6E2A61B7F3");
+
+    public static final byte VERSION = 1;
+    public static final int BYTES = 13;
+    public static final long NONCE_PERIOD_SECONDS = 60;
+
+    private static final int GROUP_SHORT_ID_BYTES = 6;
+    private static final int MAX_NONCE_DRIFT = 2;
+
+    private final long groupShortId;
+    private final int sessionShortId;
+    private final int nonce;
+
+    private CompactAdvertisement(long groupShortId, int sessionShortId, int nonce) {
+        this.groupShortId = groupShortId;
+        this.sessionShortId = sessionShortId;
+        this.nonce = nonce & 0xFFFF;
+    }
+
+    public static CompactAdvertisement of(String groupId, String sessionId) {
+        return new CompactAdvertisement(groupShortId(groupId), sessionShortId(sessionId), currentNonce());
+    }
+
+    public static CompactAdvertisement fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != BYTES || bytes[0] != VERSION)
+            throw new IllegalArgumentException("Not a compact advertisement of version " + VERSION);
+
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, BYTES - 1);
+        final long groupShortId = ((buffer.getShort() & 0xFFFFL) << 32) | (buffer.getInt() & 0xFFFFFFFFL);
+        final int sessionShortId = buffer.getInt();
+        final int nonce = buffer.getShort();
+
+        return new CompactAdvertisement(groupShortId, sessionShortId, nonce);
+    }
+
+    public static boolean isCompact(byte[] bytes) {
+        return bytes != null && bytes.length == BYTES && bytes[0] == VERSION;
+    }
+
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(BYTES)
+                .put(VERSION)
+                .putShort((short) (groupShortId >>> 32))
+                .putInt((int) groupShortId)
+                .putInt(sessionShortId)
+                .putShort((short) nonce)
+                .array();
+    }
+
+    /**
+     * The same advertisement with the nonce of the current period.
+     */
+    public CompactAdvertisement rolled() {
+        return new CompactAdvertisement(groupShortId, sessionShortId, currentNonce());
+    }
+
+    public boolean isFresh() {
+        final int drift = Math.abs((short) (currentNonce() - nonce));
+        return drift <= MAX_NONCE_DRIFT;
+    }
+
+    public boolean isOfGroup(String groupId) {
+        return groupShortId == groupShortId(groupId);
+    }
+
+    public boolean isOfSession(String sessionId) {
+        return sessionShortId == sessionShortId(sessionId);
+    }
+
+    static int currentNonce() {
+        return (int) (System.currentTimeMillis() / 1000 / NONCE_PERIOD_SECONDS) & 0xFFFF;
+    }
+
+    private static long groupShortId(String groupId) {
+        return UUID.fromString(groupId).getMostSignificantBits() >>> (8 * (Long.BYTES - GROUP_SHORT_ID_BYTES));
+    }
+
+    private static int sessionShortId(String sessionId) {
+        return (int) (UUID.fromString(sessionId).getMostSignificantBits() >>> 32);
+    }
+
+    @Override
+    public String toString() {
+        return "CompactAdvertisement(group=" + Long.toHexString(groupShortId)
+                + ", session=" + Integer.toHexString(sessionShortId) + ", nonce=" + nonce + ")";
+    }
+}
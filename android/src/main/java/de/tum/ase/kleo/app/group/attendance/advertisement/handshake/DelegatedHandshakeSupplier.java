@@ -0,0 +1,163 @@
+package de.tum.ase.kleo.app.group.attendance.advertisement.handshake;
+
+import android.util.Log;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import de.tum.ase.kleo.app.client.GroupsApi;
+import de.tum.ase.kleo.app.client.dto.SessionDelegationDTO;
+import de.tum.ase.kleo.handshake.HandshakeSupplier;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+
+/**
+ * Mints passes on the device with session keys delegated by the backend, so
+ * handshakes need no connectivity once the keys of the current and upcoming
+ * session have been fetched. Without a valid key for the requested session,
+ * handshakes are left to the fallback supplier.
+ * <p>
+ * The backend checks delegated passes against its own clock, so passes are
+ * minted in server time: the device's clock is corrected by the offset to
+ * the server time returned with the latest delegation.
+ * <p>
+ * The pass format mirrors the backend's {@code SessionDelegation}: "dlg-"
+ * followed by the hex of session id, student id, delegation window, issuing
+ * time (epoch seconds) and the first 16 bytes of their HMAC-SHA256.
+ */
+public class DelegatedHandshakeSupplier implements HandshakeSupplier {
+
+    private static final String TAG = DelegatedHandshakeSupplier.class.getSimpleName();
+
+    private static final String PASS_CODE_PREFIX = "dlg-";
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_BYTES = 16;
+    private static final int PAYLOAD_BYTES = 2 * 2 * Long.BYTES + 3 * Long.BYTES;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final GroupsApi groupsApi;
+    private final HandshakeSupplier fallbackSupplier;
+
+    private final Map<String, Delegation> sessionDelegations = new ConcurrentHashMap<>();
+
+    private volatile long clockOffsetMillis;
+
+    public DelegatedHandshakeSupplier(GroupsApi groupsApi, HandshakeSupplier fallbackSupplier) {
+        this.groupsApi = groupsApi;
+        this.fallbackSupplier = fallbackSupplier;
+    }
+
+    public Completable prefetch(String groupIdOrCode) {
+        return groupsApi.getGroup(groupIdOrCode)
+                .flatMap(group -> Observable.fromIterable(BackendHandshakeSupplier.upcomingSessionIds(group)))
+                .flatMap(sessionId -> groupsApi.delegateSessionPasses(groupIdOrCode, sessionId)
+                        .doOnNext(delegation -> {
+                            if (delegation.getServerTime() != null) {
+                                clockOffsetMillis = delegation.getServerTime().toInstant().toEpochMilli()
+                                        - System.currentTimeMillis();
+                            }
+                            sessionDelegations.put(sessionId, Delegation.from(delegation));
+                        }))
+                .ignoreElements();
+    }
+
+    @Override
+    public String supply(String studentId, String groupIdOrCode, String sessionId) {
+        final Delegation delegation = sessionDelegations.get(sessionId);
+        final long nowSeconds = serverTimeMillis() / 1000;
+
+        if (delegation == null || !delegation.isValidAt(nowSeconds)) {
+            Log.i(TAG, "supply: No valid delegation for session " + sessionId + ", using fallback");
+            return fallbackSupplier.supply(studentId, groupIdOrCode, sessionId);
+        }
+
+        return delegation.mintPassCode(sessionId, studentId, nowSeconds);
+    }
+
+    /**
+     * Current time of the backend as estimated from the latest delegation,
+     * the device's time if no delegation was fetched yet.
+     */
+    public long serverTimeMillis() {
+        return System.currentTimeMillis() + clockOffsetMillis;
+    }
+
+    public void clear() {
+        sessionDelegations.clear();
+    }
+
+    private static class Delegation {
+
+        private final byte[] key;
+        private final long notBefore;
+        private final long notAfter;
+
+        private Delegation(byte[] key, long notBefore, long notAfter) {
+            this.key = key;
+            this.notBefore = notBefore;
+            this.notAfter = notAfter;
+        }
+
+        private static Delegation from(SessionDelegationDTO dto) {
+            return new Delegation(fromHex(dto.getKey()),
+                    dto.getNotBefore().toEpochSecond(), dto.getNotAfter().toEpochSecond());
+        }
+
+        private boolean isValidAt(long epochSecond) {
+            return epochSecond >= notBefore && epochSecond <= notAfter;
+        }
+
+        private String mintPassCode(String sessionId, String studentId, long issuedAt) {
+            final byte[] payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+                    .put(uuidBytes(sessionId))
+                    .put(uuidBytes(studentId))
+                    .putLong(notBefore)
+                    .putLong(notAfter)
+                    .putLong(issuedAt)
+                    .array();
+
+            try {
+                final Mac mac = Mac.getInstance(MAC_ALGORITHM);
+                mac.init(new SecretKeySpec(key, MAC_ALGORITHM));
+
+                final byte[] signature = Arrays.copyOf(mac.doFinal(payload), MAC_BYTES);
+                return PASS_CODE_PREFIX + toHex(payload) + toHex(signature);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Failed to sign delegated pass", e);
+            }
+        }
+    }
+
+    private static byte[] uuidBytes(String uuid) {
+        final UUID parsedUuid = UUID.fromString(uuid);
+        return ByteBuffer.allocate(2 * Long.BYTES)
+                .putLong(parsedUuid.getMostSignificantBits())
+                .putLong(parsedUuid.getLeastSignificantBits())
+                .array();
+    }
+
+    private static String toHex(byte[] bytes) {
+        final char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    private static byte[] fromHex(String hex) {
+        final byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
+}
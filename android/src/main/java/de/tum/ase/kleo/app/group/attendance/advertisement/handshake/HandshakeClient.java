@@ -1,127 +1,248 @@
 package de.tum.ase.kleo.app.group.attendance.advertisement.handshake;
 
+import android.bluetooth.BluetoothAdapter;
 import android.bluetooth.BluetoothDevice;
 import android.bluetooth.BluetoothGatt;
 import android.bluetooth.BluetoothGattCallback;
 import android.bluetooth.BluetoothGattCharacteristic;
+import android.bluetooth.BluetoothGattDescriptor;
+import android.bluetooth.BluetoothGattService;
 import android.bluetooth.BluetoothProfile;
 import android.content.Context;
 import android.util.Log;
 
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+import de.tum.ase.kleo.handshake.ClientTransport;
+import de.tum.ase.kleo.handshake.HandshakeClientProtocol;
+import de.tum.ase.kleo.handshake.HandshakeRequest;
+import de.tum.ase.kleo.handshake.HandshakeResponse;
 import io.reactivex.Single;
 
 import static android.bluetooth.BluetoothGatt.GATT_SUCCESS;
-import static java.lang.Math.max;
 
+/**
+ * Requests handshakes from tutors' devices through the
+ * {@link HandshakeClientProtocol}, which keeps connections open, times out
+ * and retries; this class merely carries its operations over GATT.
+ */
 public class HandshakeClient {
 
     private static final String TAG = HandshakeClient.class.getSimpleName();
 
-    private static final int MTU = max(HandshakeRequest.MAX_BYTES, HandshakeResponse.MAX_BYTES);
-
     private final UUID serviceId;
     private final Context context;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final HandshakeClientProtocol protocol;
 
     private HandshakeClient(Context context, UUID serviceId) {
         this.serviceId = serviceId;
         this.context = context;
+        this.protocol = new HandshakeClientProtocol(GattTransport::new, scheduler);
     }
 
     public static HandshakeClient create(Context ctx, UUID serviceId) {
         return new HandshakeClient(ctx, serviceId);
     }
 
-    public Single<String> requestHandshake(BluetoothDevice device, String studentId,
-                                           String groupIdOrCode, String sessionId) {
+    public Single<HandshakeResponse> requestHandshake(BluetoothDevice device, String studentId,
+                                                      String groupIdOrCode, String sessionId) {
+        final HandshakeRequest handshakeReq = new HandshakeRequest(studentId, groupIdOrCode, sessionId);
 
-        final CompletableFuture<Void> connectionConfigured = new CompletableFuture<>();
+        return Single.create(emitter -> protocol.requestHandshake(device.getAddress(), handshakeReq)
+                .whenComplete((handshakeRes, error) -> {
+                    if (emitter.isDisposed())
+                        return;
 
-        final CompletableFuture<Void> handshakeReqSent = new CompletableFuture<>();
-        final CompletableFuture<Void> handshakeResReceived = new CompletableFuture<>();
+                    if (error != null) {
+                        emitter.onError(error.getCause() != null ? error.getCause() : error);
+                    } else {
+                        emitter.onSuccess(handshakeRes);
+                    }
+                }));
+    }
 
-        final BluetoothGatt bluetoothGatt = device.connectGatt(context, false, new BluetoothGattCallback() {
-            @Override
-            public void onConnectionStateChange(BluetoothGatt gatt, int status, int newState) {
-                if (newState == BluetoothProfile.STATE_CONNECTED) {
-                    Log.i(TAG, "BluetoothDevice connected to " + device.getAddress());
-                    gatt.requestMtu(MTU);
-                }
-            }
+    /**
+     * Closes all connections kept open.
+     */
+    public void close() {
+        protocol.close();
+        scheduler.shutdown();
+    }
 
-            @Override
-            public void onServicesDiscovered(BluetoothGatt gatt, int status) {
-                Log.d(TAG, device.getAddress() + "'s services discovered");
-                connectionConfigured.complete(null);
-            }
+    private class GattTransport extends BluetoothGattCallback implements ClientTransport {
 
-            @Override
-            public void onMtuChanged(BluetoothGatt gatt, int mtu, int status) {
-                Log.d(TAG, " MTU with device " + device.getAddress()
-                        + " has been set to " + mtu);
-                gatt.discoverServices();
-            }
+        private final String address;
 
-            @Override
-            public void onCharacteristicWrite(BluetoothGatt gatt, BluetoothGattCharacteristic c, int status) {
-                Log.d(TAG, "onCharacteristicWrite: c.value()= " + new String(c.getValue()));
-                if (HandshakeRequest.CHAR_UUID.equals(c.getUuid())) {
-                    if (status == GATT_SUCCESS) {
-                        handshakeReqSent.complete(null);
-                    } else {
-                        handshakeReqSent.completeExceptionally
-                                (new IllegalStateException("Failed to request handshake. " +
-                                        "Gatt answer status = " + status));
-                    }
-                }
-            }
+        private final CompletableFuture<Void> connected = new CompletableFuture<>();
+        private volatile CompletableFuture<Boolean> subscribed;
+        private volatile CompletableFuture<Void> written;
+        private volatile CompletableFuture<byte[]> read;
 
-            @Override
-            public void onCharacteristicChanged(BluetoothGatt gatt, BluetoothGattCharacteristic c) {
-                Log.d(TAG, "onCharacteristicChanged: c.value()= " + new String(c.getValue()));
+        private volatile BluetoothGatt gatt;
+        private volatile Consumer<byte[]> notificationListener;
+        private volatile int mtu;
+        private volatile boolean closed;
+
+        private GattTransport(String address) {
+            this.address = address;
+        }
+
+        @Override
+        public CompletableFuture<Void> connect(int mtu) {
+            this.mtu = mtu;
+
+            final BluetoothDevice device = BluetoothAdapter.getDefaultAdapter().getRemoteDevice(address);
+            gatt = device.connectGatt(context, false, this, BluetoothDevice.TRANSPORT_LE);
+            return connected;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> subscribe(Consumer<byte[]> notificationListener) {
+            this.notificationListener = notificationListener;
+            subscribed = new CompletableFuture<>();
+
+            final BluetoothGattCharacteristic responseChr = characteristic(HandshakeResponse.CHAR_UUID);
+            final BluetoothGattDescriptor clientConfig = responseChr.getDescriptor(HandshakeResponse.CLIENT_CONFIG_UUID);
+
+            // Servers without notifications are read instead
+            if (clientConfig == null || !gatt.setCharacteristicNotification(responseChr, true)) {
+                subscribed.complete(false);
+                return subscribed;
             }
 
-            @Override
-            public void onCharacteristicRead(BluetoothGatt gatt, BluetoothGattCharacteristic c, int status) {
-                Log.d(TAG, "onCharacteristicRead: c.value()= " + new String(c.getValue()));
+            clientConfig.setValue(BluetoothGattDescriptor.ENABLE_NOTIFICATION_VALUE);
+            if (!gatt.writeDescriptor(clientConfig))
+                subscribed.complete(false);
+
+            return subscribed;
+        }
+
+        @Override
+        public CompletableFuture<Void> write(byte[] request) {
+            written = new CompletableFuture<>();
+
+            final BluetoothGattCharacteristic requestChr = characteristic(HandshakeRequest.CHAR_UUID);
+            requestChr.setValue(request);
+            if (!gatt.writeCharacteristic(requestChr))
+                written.completeExceptionally(new IllegalStateException("Failed to write handshake request"));
+
+            return written;
+        }
+
+        @Override
+        public CompletableFuture<byte[]> read() {
+            read = new CompletableFuture<>();
+
+            if (!gatt.readCharacteristic(characteristic(HandshakeResponse.CHAR_UUID)))
+                read.completeExceptionally(new IllegalStateException("Failed to read handshake"));
+
+            return read;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            if (closed)
+                return;
+
+            closed = true;
+
+            final IllegalStateException error = new IllegalStateException("Connection to " + address + " closed");
+            connected.completeExceptionally(error);
+            failIfPending(subscribed, error);
+            failIfPending(written, error);
+            failIfPending(read, error);
+
+            if (gatt != null)
+                gatt.close();
+        }
+
+        private BluetoothGattCharacteristic characteristic(UUID characteristicId) {
+            return gatt.getService(serviceId).getCharacteristic(characteristicId);
+        }
+
+        private void failIfPending(CompletableFuture<?> operation, Throwable error) {
+            if (operation != null)
+                operation.completeExceptionally(error);
+        }
+
+        @Override
+        public void onConnectionStateChange(BluetoothGatt gatt, int status, int newState) {
+            if (newState == BluetoothProfile.STATE_CONNECTED) {
+                Log.i(TAG, "BluetoothDevice connected to " + address);
+                gatt.requestMtu(mtu);
+            } else if (newState == BluetoothProfile.STATE_DISCONNECTED) {
+                Log.i(TAG, "BluetoothDevice disconnected from " + address);
+                close();
+            }
+        }
+
+        @Override
+        public void onMtuChanged(BluetoothGatt gatt, int mtu, int status) {
+            Log.d(TAG, " MTU with device " + address + " has been set to " + mtu);
+            gatt.discoverServices();
+        }
+
+        @Override
+        public void onServicesDiscovered(BluetoothGatt gatt, int status) {
+            Log.d(TAG, address + "'s services discovered");
+
+            final BluetoothGattService service = gatt.getService(serviceId);
+            if (status != GATT_SUCCESS || service == null) {
+                connected.completeExceptionally(new IllegalStateException("Device "
+                        + address + " offers no handshake service"));
+                return;
+            }
 
-                if (HandshakeResponse.CHAR_UUID.equals(c.getUuid())) {
-                    if (status == GATT_SUCCESS) {
-                        handshakeResReceived.complete(null);
-                    } else {
-                        handshakeReqSent.completeExceptionally
-                                (new IllegalStateException("Failed to receive handshake. " +
-                                        "Gatt answer status = " + status));
-                    }
-                }
+            connected.complete(null);
+        }
+
+        @Override
+        public void onDescriptorWrite(BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status) {
+            if (HandshakeResponse.CLIENT_CONFIG_UUID.equals(descriptor.getUuid()))
+                subscribed.complete(status == GATT_SUCCESS);
+        }
+
+        @Override
+        public void onCharacteristicWrite(BluetoothGatt gatt, BluetoothGattCharacteristic c, int status) {
+            if (!HandshakeRequest.CHAR_UUID.equals(c.getUuid()))
+                return;
+
+            if (status == GATT_SUCCESS) {
+                written.complete(null);
+            } else {
+                written.completeExceptionally(new IllegalStateException("Failed to request " +
+                        "handshake. Gatt answer status = " + status));
+            }
+        }
+
+        @Override
+        public void onCharacteristicChanged(BluetoothGatt gatt, BluetoothGattCharacteristic c) {
+            final Consumer<byte[]> notificationListener = this.notificationListener;
+            if (HandshakeResponse.CHAR_UUID.equals(c.getUuid()) && notificationListener != null)
+                notificationListener.accept(c.getValue());
+        }
+
+        @Override
+        public void onCharacteristicRead(BluetoothGatt gatt, BluetoothGattCharacteristic c, int status) {
+            if (!HandshakeResponse.CHAR_UUID.equals(c.getUuid()))
+                return;
+
+            if (status == GATT_SUCCESS) {
+                read.complete(c.getValue());
+            } else {
+                read.completeExceptionally(new IllegalStateException("Failed to receive " +
+                        "handshake. Gatt answer status = " + status));
             }
-        });
-
-        return Single.fromFuture(connectionConfigured.thenRun(() -> {
-            Log.i(TAG, "Handshake client configured. Retrieving handshake...");
-            final HandshakeRequest handshakeReq
-                    = new HandshakeRequest(studentId, groupIdOrCode, sessionId);
-
-            final BluetoothGattCharacteristic remoteHandshakeReqCharacteristic
-                    = bluetoothGatt.getService(serviceId)
-                    .getCharacteristic(HandshakeRequest.CHAR_UUID);
-
-            remoteHandshakeReqCharacteristic.setValue(handshakeReq.toBytes());
-            bluetoothGatt.writeCharacteristic(remoteHandshakeReqCharacteristic);
-        }).thenCombine(handshakeReqSent, (na, na2) -> {
-            final BluetoothGattCharacteristic remoteHandshakeResCharacteristic
-                    = bluetoothGatt.getService(serviceId)
-                    .getCharacteristic(HandshakeResponse.CHAR_UUID);
-            bluetoothGatt.readCharacteristic(remoteHandshakeResCharacteristic);
-
-            return remoteHandshakeResCharacteristic;
-        }).thenCombine(handshakeResReceived, (handshakeResCharacteristic, na) -> {
-            final HandshakeResponse handshakeRes
-                    = HandshakeResponse.fromBytes(handshakeResCharacteristic.getValue());
-
-            return handshakeRes.toString();
-        })).doFinally(bluetoothGatt::close);
+        }
     }
 }
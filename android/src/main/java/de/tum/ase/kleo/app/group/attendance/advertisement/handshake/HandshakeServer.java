@@ -11,41 +11,62 @@ import android.bluetooth.BluetoothProfile;
 import android.content.Context;
 import android.util.Log;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
-
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.tum.ase.kleo.handshake.AttendanceCollector;
+import de.tum.ase.kleo.handshake.HandshakeRequest;
+import de.tum.ase.kleo.handshake.HandshakeResponse;
+import de.tum.ase.kleo.handshake.HandshakeServerProtocol;
+import de.tum.ase.kleo.handshake.HandshakeSupplier;
+import de.tum.ase.kleo.handshake.ServerTransport;
 import io.reactivex.Completable;
 
 import static android.bluetooth.BluetoothGatt.GATT_FAILURE;
 import static android.bluetooth.BluetoothGatt.GATT_SUCCESS;
+import static android.bluetooth.BluetoothGattCharacteristic.PERMISSION_READ;
+import static android.bluetooth.BluetoothGattCharacteristic.PERMISSION_WRITE;
+import static android.bluetooth.BluetoothGattCharacteristic.PROPERTY_NOTIFY;
+import static android.bluetooth.BluetoothGattCharacteristic.PROPERTY_READ;
+import static android.bluetooth.BluetoothGattCharacteristic.PROPERTY_WRITE;
 import static android.bluetooth.BluetoothGattService.SERVICE_TYPE_PRIMARY;
 import static android.content.Context.BLUETOOTH_SERVICE;
-import static java.lang.String.format;
 
+/**
+ * GATT server handing out handshakes to students' devices. GATT requests
+ * are forwarded to the {@link HandshakeServerProtocol}, which answers them
+ * over this server.
+ */
 public class HandshakeServer {
 
     public static final UUID SERVICE_UUID = UUID.fromString("7CFC44E2-26BE-4932-8304-C5C68A1C66D2");
 
     private static final String TAG = HandshakeServer.class.getSimpleName();
 
+    // Every BLE link starts with the minimal ATT MTU until a larger one is negotiated
+    private static final int DEFAULT_MTU = 23;
+    private static final int NOTIFICATION_HEADER_BYTES = 3;
+
     private static final BluetoothGattService gattService = new BluetoothGattService(SERVICE_UUID,
             SERVICE_TYPE_PRIMARY) {{
-        addCharacteristic(HandshakeRequest.characteristic());
-        addCharacteristic(HandshakeResponse.characteristic());
+        addCharacteristic(requestCharacteristic());
+        addCharacteristic(responseCharacteristic());
     }};
 
-    private final HandshakeStorage handshakeStorage = new HandshakeStorage();
     private final Context context;
     private final BluetoothManager bluetoothManager;
-    private final HandshakeSupplier handshakeSupplier;
+    private final HandshakeServerProtocol protocol;
 
-    private BluetoothGattServer gattServer;
+    private final Map<String, BluetoothDevice> connectedDevices = new ConcurrentHashMap<>();
+    private final Map<String, Integer> deviceMtus = new ConcurrentHashMap<>();
+
+    private volatile BluetoothGattServer gattServer;
 
     private HandshakeServer(Context ctx, BluetoothManager blMgr, HandshakeSupplier handshakeSupplier) {
         this.context = ctx;
         this.bluetoothManager = blMgr;
-        this.handshakeSupplier = handshakeSupplier;
+        this.protocol = new HandshakeServerProtocol(handshakeSupplier, new GattServerTransport());
     }
 
     public static HandshakeServer create(Context ctx, HandshakeSupplier handshakeSupplier) {
@@ -53,15 +74,31 @@ public class HandshakeServer {
         return new HandshakeServer(ctx, blMgr, handshakeSupplier);
     }
 
+    /**
+     * Makes the server collect pass codes of completed handshakes for a batch
+     * upload instead of leaving students to redeem their passes themselves.
+     * Must be set before {@link #listen()}.
+     */
+    public HandshakeServer collectAttendances(AttendanceCollector attendanceCollector) {
+        protocol.collectAttendances(attendanceCollector);
+        return this;
+    }
+
     public Completable listen() {
         return Completable.create(emitter -> {
+            protocol.open();
+
             gattServer = bluetoothManager.openGattServer(context, new BluetoothGattServerCallback() {
                 @Override
                 public void onConnectionStateChange(BluetoothDevice device, int status, int newState) {
                     if (newState == BluetoothProfile.STATE_CONNECTED) {
                         Log.i(TAG, "BluetoothDevice " + device.getAddress() + "CONNECTED");
+                        connectedDevices.put(device.getAddress(), device);
                     } else if (newState == BluetoothProfile.STATE_DISCONNECTED) {
                         Log.i(TAG, "BluetoothDevice " + device.getAddress() + "DISCONNECTED");
+                        connectedDevices.remove(device.getAddress());
+                        deviceMtus.remove(device.getAddress());
+                        protocol.onDisconnected(device.getAddress());
                     }
                 }
 
@@ -77,20 +114,8 @@ public class HandshakeServer {
                         return;
                     }
 
-                    if (!handshakeStorage.hasHandshake(device)) {
-                        Log.w(TAG, "onCharacteristicReadRequest: " +
-                                "Device tried to access a handshake without handshake request");
-                        gattServer.sendResponse(device, requestId, GATT_FAILURE, 0, null);
-                        return;
-                    }
-
-                    final String handshake = handshakeStorage.getHandshake(device);
-                    final HandshakeResponse handshakeRes = HandshakeResponse.from(handshake);
-                    gattServer.sendResponse(device, requestId, GATT_SUCCESS, 0, handshakeRes.toBytes());
-
-                    Log.i(TAG, "onCharacteristicReadRequest: " +
-                            format("Handshake %s has been sent to device %s",
-                                    handshake, device.getAddress()));
+                    connectedDevices.putIfAbsent(device.getAddress(), device);
+                    protocol.onRead(device.getAddress(), requestId);
                 }
 
                 @Override
@@ -100,8 +125,7 @@ public class HandshakeServer {
                                                          int offset, byte[] value) {
                     Log.i(TAG, "onCharacteristicWriteRequest: " + device.getAddress()
                             + ", characteristic = " + chr.getUuid() + ", responseNeeded = "
-                            + responseNeeded + ", offset = " + offset
-                            + ", value = " + new String(value) + " ~ " + value.length);
+                            + responseNeeded + ", offset = " + offset + ", size = " + value.length);
 
                     if (!HandshakeRequest.CHAR_UUID.equals(chr.getUuid())) {
                         Log.i(TAG, "onCharacteristicWriteRequest: " +
@@ -109,21 +133,8 @@ public class HandshakeServer {
                         return;
                     }
 
-                    final HandshakeRequest handshakeReq = HandshakeRequest.fromBytes(value);
-                    final String handshake = handshakeSupplier.supply(handshakeReq.studentId(),
-                            handshakeReq.groupIdOrCode(),
-                            handshakeReq.sessionId());
-
-                    handshakeStorage.storeHandshake(device, handshake);
-
-                    Log.i(TAG, "onCharacteristicWriteRequest: " +
-                            format("Handshake %s has been created and saved for device %s",
-                                    handshake, device.getAddress()));
-
-                    if (responseNeeded) {
-                        gattServer.sendResponse(device, requestId, GATT_SUCCESS, 0, null);
-                        Log.i(TAG, "onCharacteristicWriteRequest: Device notified with GATT_SUCCESS");
-                    }
+                    connectedDevices.putIfAbsent(device.getAddress(), device);
+                    protocol.onRequest(device.getAddress(), requestId, value, responseNeeded);
                 }
 
                 @Override
@@ -131,6 +142,14 @@ public class HandshakeServer {
                                                     int offset, BluetoothGattDescriptor descr) {
                     Log.i(TAG, "onDescriptorReadRequest: " + device.getAddress()
                             + ", descriptor = " + descr.getUuid());
+
+                    if (!HandshakeResponse.CLIENT_CONFIG_UUID.equals(descr.getUuid())) {
+                        gattServer.sendResponse(device, requestId, GATT_FAILURE, 0, null);
+                        return;
+                    }
+
+                    connectedDevices.putIfAbsent(device.getAddress(), device);
+                    protocol.onSubscriptionRead(device.getAddress(), requestId);
                 }
 
                 @Override
@@ -140,6 +159,15 @@ public class HandshakeServer {
                                                      int offset, byte[] value) {
                     Log.i(TAG, "onDescriptorWriteRequest: " + device.getAddress()
                             + ", descriptor = " + descriptor.getUuid());
+
+                    if (!HandshakeResponse.CLIENT_CONFIG_UUID.equals(descriptor.getUuid())) {
+                        if (responseNeeded)
+                            gattServer.sendResponse(device, requestId, GATT_FAILURE, 0, null);
+                        return;
+                    }
+
+                    connectedDevices.putIfAbsent(device.getAddress(), device);
+                    protocol.onSubscribe(device.getAddress(), requestId, value, responseNeeded);
                 }
 
                 @Override
@@ -157,6 +185,7 @@ public class HandshakeServer {
                 public void onMtuChanged(BluetoothDevice device, int mtu) {
                     Log.i(TAG, "onMtuChanged: " + device.getAddress()
                             + ", new mtu = " + mtu);
+                    deviceMtus.put(device.getAddress(), mtu);
                 }
             });
 
@@ -165,29 +194,70 @@ public class HandshakeServer {
     }
 
     public void stop() {
+        protocol.close();
+
         if (gattServer != null) {
             gattServer.close();
         }
+
+        connectedDevices.clear();
+        deviceMtus.clear();
+    }
+
+    private static BluetoothGattCharacteristic requestCharacteristic() {
+        return new BluetoothGattCharacteristic(HandshakeRequest.CHAR_UUID, PROPERTY_WRITE, PERMISSION_WRITE);
     }
 
-    private static class HandshakeStorage {
+    private static BluetoothGattCharacteristic responseCharacteristic() {
+        final BluetoothGattCharacteristic characteristic = new BluetoothGattCharacteristic(
+                HandshakeResponse.CHAR_UUID, PROPERTY_READ | PROPERTY_NOTIFY, PERMISSION_READ);
+        characteristic.addDescriptor(new BluetoothGattDescriptor(HandshakeResponse.CLIENT_CONFIG_UUID,
+                BluetoothGattDescriptor.PERMISSION_READ | BluetoothGattDescriptor.PERMISSION_WRITE));
+        return characteristic;
+    }
 
-        private final Map<BluetoothDevice, String> deviceHandshakes = new HashMap<>();
+    private class GattServerTransport implements ServerTransport {
 
-        public boolean hasHandshake(BluetoothDevice device) {
-            return deviceHandshakes.containsKey(device);
+        @Override
+        public boolean respond(String peer, int requestId, byte[] value) {
+            return send(peer, requestId, GATT_SUCCESS, value);
         }
 
-        public void storeHandshake(BluetoothDevice device, String handshake) {
-            deviceHandshakes.put(device, handshake);
+        @Override
+        public boolean reject(String peer, int requestId) {
+            return send(peer, requestId, GATT_FAILURE, null);
         }
 
-        public String getHandshake(BluetoothDevice device) {
-            return deviceHandshakes.get(device);
+        /**
+         * Android truncates notifications to the MTU without failing, so
+         * values that don't fit aren't sent but left to be read.
+         */
+        @Override
+        public boolean notify(String peer, byte[] value) {
+            final BluetoothDevice device = connectedDevices.get(peer);
+            final BluetoothGattServer gattServer = HandshakeServer.this.gattServer;
+            if (device == null || gattServer == null)
+                return false;
+
+            if (value.length > deviceMtus.getOrDefault(peer, DEFAULT_MTU) - NOTIFICATION_HEADER_BYTES)
+                return false;
+
+            final BluetoothGattCharacteristic responseChr = gattServer.getService(SERVICE_UUID)
+                    .getCharacteristic(HandshakeResponse.CHAR_UUID);
+
+            synchronized (responseChr) {
+                responseChr.setValue(value);
+                return gattServer.notifyCharacteristicChanged(device, responseChr, false);
+            }
         }
-    }
 
-    public interface HandshakeSupplier {
-        String supply(String studentId, String groupIdOrCode, String sessionId);
+        private boolean send(String peer, int requestId, int status, byte[] value) {
+            final BluetoothDevice device = connectedDevices.get(peer);
+            final BluetoothGattServer gattServer = HandshakeServer.this.gattServer;
+            if (device == null || gattServer == null)
+                return false;
+
+            return gattServer.sendResponse(device, requestId, status, 0, value);
+        }
     }
 }
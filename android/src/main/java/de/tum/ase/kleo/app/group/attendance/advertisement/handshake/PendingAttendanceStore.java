@@ -0,0 +1,131 @@
+package de.tum.ase.kleo.app.group.attendance.advertisement.handshake;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * SQLite table of pass codes collected by the tutor's device but not yet
+ * uploaded, per group, so they survive the broadcasting screen and the
+ * process until the backend has redeemed them. Unlike the resource cache,
+ * its rows are the only copy of a student's attendance and must never be
+ * dropped by an upgrade.
+ */
+public class PendingAttendanceStore extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "pending_attendances.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE = "pending_attendance";
+    private static final String COLUMN_GROUP = "group_id_or_code";
+    private static final String COLUMN_PASS_CODE = "pass_code";
+    private static final String COLUMN_COLLECTED_AT = "collected_at";
+
+    public PendingAttendanceStore(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " ("
+                + COLUMN_GROUP + " TEXT NOT NULL, "
+                + COLUMN_PASS_CODE + " TEXT NOT NULL, "
+                + COLUMN_COLLECTED_AT + " INTEGER NOT NULL, "
+                + "PRIMARY KEY (" + COLUMN_GROUP + ", " + COLUMN_PASS_CODE + "))");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Nothing to migrate yet, pending attendances must be kept anyway
+    }
+
+    /**
+     * Stores the pass code unless it has been collected for the group before.
+     */
+    public void add(String groupIdOrCode, String passCode, long collectedAtMillis) {
+        final ContentValues values = new ContentValues(3);
+        values.put(COLUMN_GROUP, groupIdOrCode);
+        values.put(COLUMN_PASS_CODE, passCode);
+        values.put(COLUMN_COLLECTED_AT, collectedAtMillis);
+
+        getWritableDatabase().insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+    }
+
+    /**
+     * Returns up to the given number of the group's pass codes, oldest first.
+     */
+    public List<PendingAttendance> next(String groupIdOrCode, int limit) {
+        try (Cursor cursor = getReadableDatabase().query(TABLE,
+                new String[] {COLUMN_PASS_CODE, COLUMN_COLLECTED_AT},
+                COLUMN_GROUP + " = ?", new String[] {groupIdOrCode},
+                null, null, COLUMN_COLLECTED_AT, String.valueOf(limit))) {
+            final List<PendingAttendance> attendances = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                attendances.add(new PendingAttendance(cursor.getString(0), cursor.getLong(1)));
+            }
+            return attendances;
+        }
+    }
+
+    public long count(String groupIdOrCode) {
+        return DatabaseUtils.queryNumEntries(getReadableDatabase(), TABLE,
+                COLUMN_GROUP + " = ?", new String[] {groupIdOrCode});
+    }
+
+    /**
+     * Returns the groups having pass codes left to upload.
+     */
+    public List<String> groups() {
+        try (Cursor cursor = getReadableDatabase().query(true, TABLE, new String[] {COLUMN_GROUP},
+                null, null, null, null, null, null)) {
+            final List<String> groups = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                groups.add(cursor.getString(0));
+            }
+            return groups;
+        }
+    }
+
+    /**
+     * Removes pass codes of the group the backend has answered for.
+     */
+    public void remove(String groupIdOrCode, Collection<String> passCodes) {
+        final SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String passCode : passCodes) {
+                db.delete(TABLE, COLUMN_GROUP + " = ? AND " + COLUMN_PASS_CODE + " = ?",
+                        new String[] {groupIdOrCode, passCode});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public static class PendingAttendance {
+
+        private final String passCode;
+        private final long collectedAtMillis;
+
+        private PendingAttendance(String passCode, long collectedAtMillis) {
+            this.passCode = passCode;
+            this.collectedAtMillis = collectedAtMillis;
+        }
+
+        public String passCode() {
+            return passCode;
+        }
+
+        public long collectedAtMillis() {
+            return collectedAtMillis;
+        }
+    }
+}
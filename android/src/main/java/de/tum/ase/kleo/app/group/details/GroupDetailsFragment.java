@@ -12,6 +12,7 @@ import de.tum.ase.kleo.app.KleoApplication;
 import de.tum.ase.kleo.app.client.BackendClient;
 import de.tum.ase.kleo.app.client.GroupsApi;
 import de.tum.ase.kleo.app.client.dto.GroupDTO;
+import de.tum.ase.kleo.app.group.GroupRepository;
 import de.tum.ase.kleo.app.group.details.session.GroupDetailsSessionListFragment;
 import de.tum.ase.kleo.app.support.ReactiveLayoutFragment;
 import io.reactivex.android.schedulers.AndroidSchedulers;
@@ -23,7 +24,9 @@ public class GroupDetailsFragment extends ReactiveLayoutFragment {
     public static final String ARG_BUNDLE_GROUP_ID = "group_details_id";
 
     private BackendClient backendClient;
+    private GroupRepository groupRepository;
     private String groupId;
+    private boolean sessionListEmbedded;
 
     public GroupDetailsFragment() {
         super(R.layout.fragment_group_details);
@@ -39,6 +42,7 @@ public class GroupDetailsFragment extends ReactiveLayoutFragment {
         }
 
         backendClient = ((KleoApplication) getActivity().getApplication()).backendClient();
+        groupRepository = ((KleoApplication) getActivity().getApplication()).groupRepository();
     }
 
     @Override
@@ -46,7 +50,8 @@ public class GroupDetailsFragment extends ReactiveLayoutFragment {
         final EditText groupNameInput = view.findViewById(R.id.group_details_name_input);
         final Button groupRenameBtn = view.findViewById(R.id.group_details_rename_btn);
 
-        backendClient.as(GroupsApi.class).getGroup(groupId)
+        // Emitted as cached and again as fetched, sessions are listed once
+        final Disposable groupReq = groupRepository.getGroup(groupId)
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(group -> {
@@ -60,8 +65,13 @@ public class GroupDetailsFragment extends ReactiveLayoutFragment {
                         groupNameInput.setEnabled(false);
                     }
 
-                    embedGroupSessionList();
-                });
+                    if (!sessionListEmbedded) {
+                        sessionListEmbedded = true;
+                        embedGroupSessionList();
+                    }
+                }, e -> Toast.makeText(getContext(), e.getMessage(), Toast.LENGTH_LONG).show());
+
+        disposeOnDestroy(groupReq);
     }
 
     private void embedGroupSessionList() {
@@ -76,9 +76,7 @@ public class GroupDetailsSessionListFragment extends ResourceListLayoutFragment<
 
     @Override
     protected Observable<List<SessionDTO>> fetchResources() {
-        return backendClient.as(GroupsApi.class).getGroup(groupId)
-                .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread())
+        return ((KleoApplication) getActivity().getApplication()).groupRepository().getGroup(groupId)
                 .map(group -> defaultIfNull(group.getSessions(), emptyList()));
     }
 
@@ -91,6 +91,10 @@ public abstract class ResourceListLayoutFragment<T> extends ReactiveLayoutFragme
         }
     }
 
+    /**
+     * Resources to list, emitted again whenever they change, e.g. once as
+     * cached and once as fetched.
+     */
     protected abstract Observable<List<T>> fetchResources();
 
     protected abstract void populateListItem(View view, T resource, int position);
@@ -100,11 +104,14 @@ public abstract class ResourceListLayoutFragment<T> extends ReactiveLayoutFragme
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .doOnSubscribe((r) -> this.showProgressBar())
+                .doOnNext((r) -> this.hideProgressBar())
                 .doOnTerminate(this::hideProgressBar)
                 .subscribe(resources -> {
                     if (resources == null || resources.isEmpty()) {
-                        showNoResourcesNotice();
+                        // Drops resources listed as cached before
+                        changeResources(emptyList());
                     } else {
+                        hideNoResourcesNotice();
                         changeResources(resources);
                     }
                 }, this::showErrorMessage);
@@ -231,7 +238,7 @@ public abstract class ResourceListLayoutFragment<T> extends ReactiveLayoutFragme
         }
 
         void changeResources(List<T> resources) {
-            this.resources = defaultIfNull(resources, emptyList());
+            this.resources = new ArrayList<>(defaultIfNull(resources, emptyList()));
             this.notifyDataSetChanged();
         }
 
@@ -0,0 +1,73 @@
+package de.tum.ase.kleo.app.support.cache;
+
+import android.util.Log;
+import android.util.Pair;
+
+import com.google.gson.Gson;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicReference;
+
+import de.tum.ase.kleo.app.client.BackendClient;
+import de.tum.ase.kleo.app.client.invoker.JSON;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+
+/**
+ * Base of repositories serving backend resources from the
+ * {@link ResourceCache} first and revalidating them against the backend
+ * right after. Resources are cached per user, and fetches started before
+ * the cache was cleared don't write to it.
+ */
+public abstract class CachingRepository {
+
+    private static final String TAG = CachingRepository.class.getSimpleName();
+
+    protected final BackendClient backendClient;
+    private final ResourceCache resourceCache;
+    private final Gson gson = new JSON().getGson();
+
+    protected CachingRepository(BackendClient backendClient, ResourceCache resourceCache) {
+        this.backendClient = backendClient;
+        this.resourceCache = resourceCache;
+    }
+
+    /**
+     * Emits the cached resource, if any, followed by the fetched one unless
+     * it is unchanged. Fetch errors are only passed on if nothing was
+     * cached, so screens stay usable offline. Reads and writes the cache on
+     * the subscribing thread.
+     */
+    protected <T> Observable<T> cachedThenFetched(String key, Type type, Observable<T> fetch) {
+        return Observable.defer(() -> {
+            final String owner = backendClient.principal().id();
+            final long cacheGeneration = resourceCache.generation();
+            final AtomicReference<String> cachedJson = new AtomicReference<>();
+
+            final Observable<T> cached = Maybe.fromCallable(() -> resourceCache.read(owner, key))
+                    .doOnSuccess(cachedJson::set)
+                    .<T>map(json -> gson.fromJson(json, type))
+                    .toObservable()
+                    .onErrorResumeNext(e -> {
+                        Log.w(TAG, "Ignoring unreadable cached " + key, e);
+                        cachedJson.set(null);
+                        return Observable.empty();
+                    });
+
+            final Observable<T> fetched = fetch
+                    .map(resource -> Pair.create(resource, gson.toJson(resource, type)))
+                    .doOnNext(fetchedJson -> resourceCache.write(owner, key, fetchedJson.second, cacheGeneration))
+                    .filter(fetchedJson -> !fetchedJson.second.equals(cachedJson.get()))
+                    .map(fetchedJson -> fetchedJson.first)
+                    .onErrorResumeNext(e -> {
+                        if (cachedJson.get() == null)
+                            return Observable.error(e);
+
+                        Log.w(TAG, "Failed to revalidate " + key + ", keeping cached", e);
+                        return Observable.empty();
+                    });
+
+            return cached.concatWith(fetched);
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package de.tum.ase.kleo.app.support.cache;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+/**
+ * SQLite table of backend resources as last fetched, stored as JSON per
+ * user and resource key, so screens have something to show right away
+ * even after the process has been killed. It is a cache only: upgrades
+ * drop it and everything is fetched again.
+ * <p>
+ * Clearing starts a new generation of the cache. Writes of an earlier
+ * generation, e.g. of revalidations still in flight on logout, are
+ * discarded rather than bringing cleared resources back.
+ */
+public class ResourceCache extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "resource_cache.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE = "resource";
+    private static final String COLUMN_OWNER = "owner";
+    private static final String COLUMN_KEY = "key";
+    private static final String COLUMN_BODY = "body";
+    private static final String COLUMN_FETCHED_AT = "fetched_at";
+
+    private long generation;
+
+    public ResourceCache(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+
+        // Screens read while revalidated resources are written
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " ("
+                + COLUMN_OWNER + " TEXT NOT NULL, "
+                + COLUMN_KEY + " TEXT NOT NULL, "
+                + COLUMN_BODY + " TEXT NOT NULL, "
+                + COLUMN_FETCHED_AT + " INTEGER NOT NULL, "
+                + "PRIMARY KEY (" + COLUMN_OWNER + ", " + COLUMN_KEY + "))");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+        onCreate(db);
+    }
+
+    @Override
+    public void onDowngrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        onUpgrade(db, oldVersion, newVersion);
+    }
+
+    /**
+     * Returns the resource's JSON as last written for the user, or null.
+     */
+    public String read(String owner, String key) {
+        try (Cursor cursor = getReadableDatabase().query(TABLE, new String[] {COLUMN_BODY},
+                COLUMN_OWNER + " = ? AND " + COLUMN_KEY + " = ?", new String[] {owner, key},
+                null, null, null)) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    /**
+     * Returns the generation writes have to name, to be taken before
+     * fetching the resources to write.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Writes the resource unless the cache has been cleared since the given
+     * generation.
+     */
+    public synchronized void write(String owner, String key, String body, long generation) {
+        if (generation != this.generation)
+            return;
+
+        final ContentValues values = new ContentValues(4);
+        values.put(COLUMN_OWNER, owner);
+        values.put(COLUMN_KEY, key);
+        values.put(COLUMN_BODY, body);
+        values.put(COLUMN_FETCHED_AT, System.currentTimeMillis());
+
+        getWritableDatabase().insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    /**
+     * Drops the resources of all users, e.g. on logout.
+     */
+    public synchronized void clear() {
+        generation++;
+        getWritableDatabase().delete(TABLE, null, null);
+    }
+}
@@ -6,7 +6,7 @@ import android.widget.TextView;
 import java.util.List;
 
 import de.tum.ase.kleo.android.R;
-import de.tum.ase.kleo.app.client.StudentsApi;
+import de.tum.ase.kleo.app.KleoApplication;
 import de.tum.ase.kleo.app.client.dto.AttendanceDTO;
 import de.tum.ase.kleo.app.support.ResourceListLayoutFragment;
 import io.reactivex.Observable;
@@ -25,7 +25,7 @@ public class UserAttendanceListFragment extends ResourceListLayoutFragment<Atten
 
     @Override
     protected Observable<List<AttendanceDTO>> fetchResources() {
-        return backendClient.as(StudentsApi.class)
+        return ((KleoApplication) getActivity().getApplication()).userRepository()
                 .getStudentAttendances(backendClient.principal().id());
     }
 
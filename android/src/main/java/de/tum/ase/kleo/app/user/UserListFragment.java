@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import de.tum.ase.kleo.android.R;
+import de.tum.ase.kleo.app.KleoApplication;
 import de.tum.ase.kleo.app.client.UsersApi;
 import de.tum.ase.kleo.app.client.dto.UserDTO;
 import de.tum.ase.kleo.app.support.ResourceListLayoutFragment;
@@ -64,7 +65,7 @@ public class UserListFragment extends ResourceListLayoutFragment<UserDTO> {
 
     @Override
     protected Observable<List<UserDTO>> fetchResources() {
-        return backendClient.as(UsersApi.class).getUsers();
+        return ((KleoApplication) getActivity().getApplication()).userRepository().getUsers();
     }
 
     @Override
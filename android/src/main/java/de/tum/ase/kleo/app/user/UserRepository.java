@@ -0,0 +1,39 @@
+package de.tum.ase.kleo.app.user;
+
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import de.tum.ase.kleo.app.client.BackendClient;
+import de.tum.ase.kleo.app.client.StudentsApi;
+import de.tum.ase.kleo.app.client.UsersApi;
+import de.tum.ase.kleo.app.client.dto.AttendanceDTO;
+import de.tum.ase.kleo.app.client.dto.UserDTO;
+import de.tum.ase.kleo.app.support.cache.CachingRepository;
+import de.tum.ase.kleo.app.support.cache.ResourceCache;
+import io.reactivex.Observable;
+
+/**
+ * Users and students' attendances, served from the cache first and then
+ * as fetched from {@link UsersApi} and {@link StudentsApi}.
+ */
+public class UserRepository extends CachingRepository {
+
+    private static final Type USER_LIST = new TypeToken<List<UserDTO>>() {}.getType();
+    private static final Type ATTENDANCE_LIST = new TypeToken<List<AttendanceDTO>>() {}.getType();
+
+    public UserRepository(BackendClient backendClient, ResourceCache resourceCache) {
+        super(backendClient, resourceCache);
+    }
+
+    public Observable<List<UserDTO>> getUsers() {
+        return cachedThenFetched("users", USER_LIST,
+                backendClient.as(UsersApi.class).getUsers());
+    }
+
+    public Observable<List<AttendanceDTO>> getStudentAttendances(String studentId) {
+        return cachedThenFetched("students/" + studentId + "/attendances", ATTENDANCE_LIST,
+                backendClient.as(StudentsApi.class).getStudentAttendances(studentId));
+    }
+}
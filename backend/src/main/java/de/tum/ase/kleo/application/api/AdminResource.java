@@ -0,0 +1,45 @@
+package de.tum.ase.kleo.application.api;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+
+import de.tum.ase.kleo.application.api.dto.QueryStatisticDTO;
+import de.tum.ase.kleo.application.api.dto.QueryStatisticToDtoSerializer;
+import de.tum.ase.kleo.application.persistence.QueryStatistics;
+
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+
+@Controller
+public class AdminResource implements AdminApiDelegate {
+
+    private static final int DEFAULT_QUERIES_LIMIT = 20;
+    private static final int MAX_QUERIES_LIMIT = 200;
+
+    private final QueryStatistics queryStatistics;
+    private final QueryStatisticToDtoSerializer queryStatisticSerializer;
+
+    public AdminResource(QueryStatistics queryStatistics,
+                         QueryStatisticToDtoSerializer queryStatisticSerializer) {
+        this.queryStatistics = queryStatistics;
+        this.queryStatisticSerializer = queryStatisticSerializer;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('SUPERUSER')")
+    public ResponseEntity<List<QueryStatisticDTO>> getQueryStatistics(Integer limit) {
+        final int queriesLimit = Math.min(defaultIfNull(limit, DEFAULT_QUERIES_LIMIT), MAX_QUERIES_LIMIT);
+
+        return ResponseEntity.ok(queryStatisticSerializer.toDto(queryStatistics.topByTotalTime(queriesLimit)));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('SUPERUSER')")
+    public ResponseEntity<Void> resetQueryStatistics() {
+        queryStatistics.reset();
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+}
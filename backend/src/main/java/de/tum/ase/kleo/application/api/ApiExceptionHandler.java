@@ -0,0 +1,46 @@
+package de.tum.ase.kleo.application.api;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletResponse;
+
+import de.tum.ase.kleo.application.api.dto.MalformedRequestBodyException;
+import de.tum.ase.kleo.application.service.InvalidPassExpiryException;
+import de.tum.ase.kleo.application.service.MalformedRosterException;
+import de.tum.ase.kleo.application.service.RecordNotFoundException;
+import de.tum.ase.kleo.application.service.SessionEndedException;
+import de.tum.ase.kleo.domain.id.MalformedIdentifierException;
+
+/**
+ * Maps exceptions caused by clients to 4xx responses rather than letting
+ * them become internal server errors. The error body is rendered by Spring
+ * Boot's error controller, as for any other error.
+ */
+@ControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler({MalformedRosterException.class, InvalidPassExpiryException.class,
+            MalformedRequestBodyException.class})
+    public void handleBadRequest(IllegalArgumentException e, HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+    }
+
+    /**
+     * An id in the path that is no UUID can't name any record, so it is not
+     * found rather than a server failure. Ids in request bodies are parsed
+     * to {@link MalformedRequestBodyException}s instead.
+     */
+    @ExceptionHandler({MalformedIdentifierException.class, RecordNotFoundException.class})
+    public void handleNotFound(RuntimeException e, HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.NOT_FOUND.value(), e.getMessage());
+    }
+
+    @ExceptionHandler(SessionEndedException.class)
+    public void handleConflict(SessionEndedException e, HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.CONFLICT.value(), e.getMessage());
+    }
+}
@@ -0,0 +1,79 @@
+package de.tum.ase.kleo.application.api;
+
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import de.tum.ase.kleo.application.api.dto.AttendanceEventToDtoSerializer;
+import de.tum.ase.kleo.application.service.AttendanceFeed;
+import de.tum.ase.kleo.application.service.AttendanceRegisteredEvent;
+import de.tum.ase.kleo.application.service.GroupService;
+import de.tum.ase.kleo.application.service.RecordNotFoundException;
+import de.tum.ase.kleo.domain.Group;
+import de.tum.ase.kleo.domain.id.SessionId;
+import lombok.val;
+
+/**
+ * Streams attendances of a group as Server-Sent Events. Swagger 2 can't
+ * describe event streams, so unlike the other resources this one is not
+ * generated from the API definition; its payload is {@code AttendanceEventDTO}.
+ */
+@RestController
+public class AttendanceFeedResource {
+
+    private static final long EMITTER_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private static final String ATTENDANCE_EVENT = "attendance";
+
+    private final GroupService groupService;
+    private final AttendanceFeed attendanceFeed;
+    private final AttendanceEventToDtoSerializer attendanceEventSerializer;
+
+    public AttendanceFeedResource(GroupService groupService, AttendanceFeed attendanceFeed,
+                                  AttendanceEventToDtoSerializer attendanceEventSerializer) {
+        this.groupService = groupService;
+        this.attendanceFeed = attendanceFeed;
+        this.attendanceEventSerializer = attendanceEventSerializer;
+    }
+
+    @PreAuthorize("hasRole('TUTOR')")
+    @GetMapping(value = "/groups/{groupIdOrCode}/attendances/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getAttendanceFeed(@PathVariable String groupIdOrCode,
+                                        @RequestParam(required = false) String sessionId) {
+        val group = groupService.getGroup(groupIdOrCode).orElseThrow(()
+                -> new RecordNotFoundException("Unknown group id or code", Group.class));
+
+        final SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        final AttendanceFeed.Subscription subscription = attendanceFeed.subscribe(group.id(),
+                sessionId == null ? null : SessionId.of(sessionId), new AttendanceFeed.Sink() {
+                    @Override
+                    public void send(AttendanceRegisteredEvent event) throws IOException {
+                        emitter.send(SseEmitter.event()
+                                .name(ATTENDANCE_EVENT)
+                                .data(attendanceEventSerializer.toDto(event), MediaType.APPLICATION_JSON));
+                    }
+
+                    @Override
+                    public void heartbeat() throws IOException {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+
+                    @Override
+                    public void close() {
+                        emitter.complete();
+                    }
+                });
+
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+
+        return emitter;
+    }
+}
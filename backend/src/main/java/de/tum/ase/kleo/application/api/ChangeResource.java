@@ -0,0 +1,53 @@
+package de.tum.ase.kleo.application.api;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+
+import java.util.Collections;
+
+import de.tum.ase.kleo.application.api.dto.ChangeSetDTO;
+import de.tum.ase.kleo.application.api.dto.ChangeToDtoSerializer;
+import de.tum.ase.kleo.application.auth.CurrentUserSecurity;
+import de.tum.ase.kleo.application.service.ChangeLog;
+import de.tum.ase.kleo.application.service.ChangeSet;
+import de.tum.ase.kleo.domain.UserRole;
+import lombok.val;
+
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+
+@Controller
+public class ChangeResource implements ChangesApiDelegate {
+
+    private static final int DEFAULT_CHANGES_LIMIT = 100;
+    private static final int MAX_CHANGES_LIMIT = 1000;
+
+    private final ChangeLog changeLog;
+    private final CurrentUserSecurity currentUser;
+    private final ChangeToDtoSerializer changeSerializer;
+
+    public ChangeResource(ChangeLog changeLog, CurrentUserSecurity currentUser,
+                          ChangeToDtoSerializer changeSerializer) {
+        this.changeLog = changeLog;
+        this.currentUser = currentUser;
+        this.changeSerializer = changeSerializer;
+    }
+
+    @Override
+    public ResponseEntity<ChangeSetDTO> getChanges(Long since, Integer limit) {
+        if ((since != null && since < 0) || (limit != null && limit <= 0))
+            return ResponseEntity.badRequest().build();
+
+        if (since == null)
+            return ResponseEntity.ok(changeSerializer.toDto(
+                    new ChangeSet(Collections.emptyList(), changeLog.head(), false)));
+
+        val changesLimit = Math.min(defaultIfNull(limit, DEFAULT_CHANGES_LIMIT), MAX_CHANGES_LIMIT);
+
+        val user = currentUser.user();
+        val allStudents = user.userRoles().contains(UserRole.TUTOR)
+                || user.userRoles().contains(UserRole.SUPERUSER);
+
+        val changes = changeLog.changesSince(since, changesLimit, user.id(), allStudents);
+        return ResponseEntity.ok(changeSerializer.toDto(changes));
+    }
+}
@@ -6,17 +6,30 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import de.tum.ase.kleo.application.api.dto.AttendanceBatchDTO;
+import de.tum.ase.kleo.application.api.dto.AttendanceResultDTO;
 import de.tum.ase.kleo.application.api.dto.GroupDTO;
 import de.tum.ase.kleo.application.api.dto.GroupFromDtoFactory;
 import de.tum.ase.kleo.application.api.dto.GroupToDtoSerializer;
 import de.tum.ase.kleo.application.api.dto.PassDTO;
+import de.tum.ase.kleo.application.api.dto.PassDtoMapper;
+import de.tum.ase.kleo.application.api.dto.RosterImportResultDTO;
 import de.tum.ase.kleo.application.api.dto.SessionDTO;
+import de.tum.ase.kleo.application.api.dto.SessionDelegationDTO;
+import de.tum.ase.kleo.application.api.dto.SessionDelegationToDtoSerializer;
+import de.tum.ase.kleo.application.api.dto.SessionRecurrenceFromDtoFactory;
+import de.tum.ase.kleo.application.api.dto.SessionScheduleDTO;
 import de.tum.ase.kleo.application.api.dto.SessionToDtoSerializer;
 import de.tum.ase.kleo.application.api.dto.UserDTO;
 import de.tum.ase.kleo.application.api.dto.UserToDtoSerializer;
+import de.tum.ase.kleo.application.service.CollectedPassCode;
 import de.tum.ase.kleo.application.service.GroupService;
 import de.tum.ase.kleo.domain.Session;
 import de.tum.ase.kleo.domain.SessionType;
@@ -24,6 +37,7 @@ import de.tum.ase.kleo.domain.id.SessionId;
 import de.tum.ase.kleo.domain.id.UserId;
 import lombok.val;
 
+import static de.tum.ase.kleo.application.api.dto.MalformedRequestBodyException.parseBodyId;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.isNull;
 import static java.util.stream.Collectors.toList;
@@ -38,17 +52,26 @@ public class GroupResource implements GroupsApiDelegate {
     private final GroupFromDtoFactory groupFactory;
     private final UserToDtoSerializer userSerializer;
     private final SessionToDtoSerializer sessionSerializer;
+    private final SessionRecurrenceFromDtoFactory recurrenceFactory;
+    private final PassDtoMapper passMapper;
+    private final SessionDelegationToDtoSerializer delegationSerializer;
 
     public GroupResource(GroupService groupService,
                          GroupToDtoSerializer groupSerializer,
                          GroupFromDtoFactory groupFactory,
                          UserToDtoSerializer userSerializer,
-                         SessionToDtoSerializer sessionSerializer) {
+                         SessionToDtoSerializer sessionSerializer,
+                         SessionRecurrenceFromDtoFactory recurrenceFactory,
+                         PassDtoMapper passMapper,
+                         SessionDelegationToDtoSerializer delegationSerializer) {
         this.groupService = groupService;
         this.groupSerializer = groupSerializer;
         this.groupFactory = groupFactory;
         this.userSerializer = userSerializer;
         this.sessionSerializer = sessionSerializer;
+        this.recurrenceFactory = recurrenceFactory;
+        this.passMapper = passMapper;
+        this.delegationSerializer = delegationSerializer;
     }
 
     @Override
@@ -69,6 +92,19 @@ public class GroupResource implements GroupsApiDelegate {
         return ResponseEntity.ok().build();
     }
 
+    @Override
+    @Transactional
+    @PreAuthorize("hasRole('TUTOR')")
+    public ResponseEntity<RosterImportResultDTO> importGroupStudents(String groupIdOrCode, String roster) {
+        val result = groupService.importGroupStudents(groupIdOrCode, new StringReader(roster));
+
+        return ResponseEntity.ok(new RosterImportResultDTO()
+                .enrolled(result.enrolled())
+                .alreadyEnrolled(result.alreadyEnrolled())
+                .unresolved(result.unresolved())
+                .ambiguous(result.ambiguous()));
+    }
+
     @Override
     @Transactional
     @PreAuthorize("hasRole('TUTOR')")
@@ -124,7 +160,8 @@ public class GroupResource implements GroupsApiDelegate {
     public ResponseEntity<GroupDTO> updateGroup(String groupIdOrCode, GroupDTO groupDto) {
         val newName = groupDto.getName();
         val newUserIds = !isNull(groupDto.getStudentIds())
-                ? groupDto.getStudentIds().stream().map(UserId::of).collect(toSet())
+                ? groupDto.getStudentIds().stream()
+                    .map(studentId -> parseBodyId("studentIds", studentId, UserId::of)).collect(toSet())
                     : (Set<UserId>) null;
 
         val updatedGroup = groupService.updateGroup(groupIdOrCode, newName, newUserIds);
@@ -135,8 +172,8 @@ public class GroupResource implements GroupsApiDelegate {
     @Transactional
     @PreAuthorize("hasRole('TUTOR')")
     public ResponseEntity<PassDTO> generateSessionPass(String groupIdOrCode, PassDTO passDto) {
-        val sessionId = SessionId.of(passDto.getSessionId());
-        val userId = UserId.of(passDto.getStudentId());
+        val sessionId = parseBodyId("sessionId", passDto.getSessionId(), SessionId::of);
+        val userId = parseBodyId("studentId", passDto.getStudentId(), UserId::of);
 
         val passCode = groupService.generateSessionPassCode(groupIdOrCode, sessionId, userId);
 
@@ -144,6 +181,25 @@ public class GroupResource implements GroupsApiDelegate {
         return ResponseEntity.ok(passDto);
     }
 
+    @Override
+    @PreAuthorize("hasRole('TUTOR')")
+    public ResponseEntity<List<PassDTO>> generateSessionPasses(String groupIdOrCode, String sessionId,
+                                                               Integer expireIn) {
+        val passCodes = groupService.generateSessionPassCodes(groupIdOrCode, SessionId.of(sessionId),
+                expireIn == null ? null : Duration.ofSeconds(expireIn));
+
+        return ResponseEntity.ok(passCodes.stream()
+                .map(passCode -> passMapper.toDto(passCode.getLeft(), passCode.getRight()))
+                .collect(toList()));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('TUTOR')")
+    public ResponseEntity<SessionDelegationDTO> delegateSessionPasses(String groupIdOrCode, String sessionId) {
+        val delegation = groupService.delegateSessionPasses(groupIdOrCode, SessionId.of(sessionId));
+        return ResponseEntity.ok(delegationSerializer.toDto(delegation));
+    }
+
     @Override
     @Transactional
     @PreAuthorize("hasRole('STUDENT')")
@@ -152,6 +208,29 @@ public class GroupResource implements GroupsApiDelegate {
         return ResponseEntity.ok().build();
     }
 
+    @Override
+    @Transactional
+    @PreAuthorize("hasRole('TUTOR')")
+    public ResponseEntity<List<AttendanceResultDTO>> utilizeSessionPasses(String groupIdOrCode,
+                                                                          AttendanceBatchDTO batch) {
+        // Codes without collection time are taken as collected just now
+        val now = OffsetDateTime.now();
+        val passCodes = new ArrayList<CollectedPassCode>();
+        defaultIfNull(batch.getPassCodes(), emptyList())
+                .forEach(passCode -> passCodes.add(new CollectedPassCode(passCode, now)));
+        defaultIfNull(batch.getPasses(), emptyList())
+                .forEach(pass -> passCodes.add(new CollectedPassCode(pass.getPassCode(),
+                        defaultIfNull(pass.getCollectedAt(), now))));
+
+        val utilizations = groupService.utilizeCollectedPassCodes(groupIdOrCode, passCodes);
+
+        return ResponseEntity.ok(utilizations.stream()
+                .map(utilization -> new AttendanceResultDTO()
+                        .passCode(utilization.passCode())
+                        .status(AttendanceResultDTO.StatusEnum.valueOf(utilization.status().name())))
+                .collect(toList()));
+    }
+
     @Override
     @Transactional
     @PreAuthorize("hasRole('TUTOR')")
@@ -167,6 +246,21 @@ public class GroupResource implements GroupsApiDelegate {
         return ResponseEntity.ok(sessionSerializer.toDto(createdSession));
     }
 
+    @Override
+    @Transactional
+    @PreAuthorize("hasRole('TUTOR')")
+    public ResponseEntity<List<SessionDTO>> scheduleGroupSessions(String groupIdOrCode,
+                                                                  SessionScheduleDTO scheduleDTO) {
+        val sessionType = SessionType.from(scheduleDTO.getType());
+        val location = scheduleDTO.getLocation();
+        val recurrence = recurrenceFactory.create(scheduleDTO);
+
+        val scheduledSessions = groupService.scheduleGroupSessions(groupIdOrCode,
+                sessionType, location, recurrence);
+
+        return ResponseEntity.ok(sessionSerializer.toDto(scheduledSessions));
+    }
+
     @Override
     @Transactional
     @PreAuthorize("hasRole('TUTOR')")
@@ -10,6 +10,7 @@ import de.tum.ase.kleo.application.service.GroupService;
 import de.tum.ase.kleo.application.service.UserService;
 import de.tum.ase.kleo.domain.UserRole;
 import de.tum.ase.kleo.domain.id.UserId;
+import lombok.val;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,9 +20,13 @@ import java.util.List;
 
 import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toList;
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 
 @Controller
 public class UserResource implements UsersApiDelegate {
+
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int MAX_SEARCH_LIMIT = 50;
     
     private final UserService userService;
     private final GroupService groupService;
@@ -55,6 +60,15 @@ public class UserResource implements UsersApiDelegate {
                 .collect(collectingAndThen(toList(), ResponseEntity::ok));
     }
 
+    @Override
+    public ResponseEntity<List<UserDTO>> searchUsers(String query, Integer limit) {
+        val searchLimit = Math.min(defaultIfNull(limit, DEFAULT_SEARCH_LIMIT), MAX_SEARCH_LIMIT);
+
+        return userService.searchUsers(query, searchLimit)
+                .map(userSerializer::toDto)
+                .collect(collectingAndThen(toList(), ResponseEntity::ok));
+    }
+
     @Override
     @PreAuthorize("hasRole('SUPERUSER')")
     public ResponseEntity<Void> updateUserRoles(String userId, List<String> roles) {
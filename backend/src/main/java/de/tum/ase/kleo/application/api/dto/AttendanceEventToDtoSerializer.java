@@ -0,0 +1,20 @@
+package de.tum.ase.kleo.application.api.dto;
+
+import org.springframework.stereotype.Component;
+
+import de.tum.ase.kleo.application.service.AttendanceRegisteredEvent;
+
+@Component
+public class AttendanceEventToDtoSerializer {
+
+    public AttendanceEventDTO toDto(AttendanceRegisteredEvent event) {
+        if (event == null)
+            return null;
+
+        return new AttendanceEventDTO()
+                .groupId(event.groupId().toString())
+                .sessionId(event.attendance().sessionId().toString())
+                .studentId(event.attendance().studentId().toString())
+                .attendedAt(event.attendance().attendedAt());
+    }
+}
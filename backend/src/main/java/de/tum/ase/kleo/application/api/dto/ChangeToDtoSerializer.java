@@ -0,0 +1,46 @@
+package de.tum.ase.kleo.application.api.dto;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import de.tum.ase.kleo.application.service.Change;
+import de.tum.ase.kleo.application.service.ChangeSet;
+import de.tum.ase.kleo.domain.id.Identifier;
+
+import static java.util.stream.Collectors.toList;
+
+@Component
+public class ChangeToDtoSerializer {
+
+    public ChangeDTO toDto(Change source) {
+        if (source == null)
+            return null;
+
+        return new ChangeDTO()
+                .sequence(source.sequence())
+                .type(ChangeDTO.TypeEnum.fromValue(source.type().name()))
+                .deleted(source.deleted())
+                .groupId(toIdDto(source.groupId()))
+                .sessionId(toIdDto(source.sessionId()))
+                .userId(toIdDto(source.userId()));
+    }
+
+    public List<ChangeDTO> toDto(List<Change> sources) {
+        return sources.stream().map(this::toDto).collect(toList());
+    }
+
+    public ChangeSetDTO toDto(ChangeSet source) {
+        if (source == null)
+            return null;
+
+        return new ChangeSetDTO()
+                .changes(toDto(source.changes()))
+                .cursor(source.cursor())
+                .hasMore(source.hasMore());
+    }
+
+    private static String toIdDto(Identifier id) {
+        return id == null ? null : id.toString();
+    }
+}
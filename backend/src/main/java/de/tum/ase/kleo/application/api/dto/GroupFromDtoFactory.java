@@ -6,6 +6,8 @@ import de.tum.ase.kleo.domain.Group;
 import de.tum.ase.kleo.domain.id.UserId;
 import lombok.val;
 
+import static de.tum.ase.kleo.application.api.dto.MalformedRequestBodyException.parseBodyId;
+
 @Component
 public class GroupFromDtoFactory {
 
@@ -16,7 +18,7 @@ public class GroupFromDtoFactory {
         val group = new Group(groupDTO.getName());
 
         if (groupDTO.getStudentIds() != null && !groupDTO.getStudentIds().isEmpty())
-            groupDTO.getStudentIds().forEach(sId -> group.addStudent(UserId.of(sId)));
+            groupDTO.getStudentIds().forEach(sId -> group.addStudent(parseBodyId("studentIds", sId, UserId::of)));
 
         return group;
     }
@@ -0,0 +1,33 @@
+package de.tum.ase.kleo.application.api.dto;
+
+import java.util.function.Function;
+
+import de.tum.ase.kleo.domain.id.Identifier;
+import de.tum.ase.kleo.domain.id.MalformedIdentifierException;
+
+/**
+ * Thrown if a request body can't be mapped, e.g. an id in it is no UUID.
+ * Unlike a malformed id in the path, that can't name any record, such a
+ * body makes a bad request.
+ */
+public class MalformedRequestBodyException extends IllegalArgumentException {
+
+    public MalformedRequestBodyException(String s) {
+        super(s);
+    }
+
+    public MalformedRequestBodyException(String s, Throwable throwable) {
+        super(s, throwable);
+    }
+
+    /**
+     * Parses the id given in the named field of a request body.
+     */
+    public static <T extends Identifier> T parseBodyId(String field, String id, Function<String, T> parser) {
+        try {
+            return parser.apply(id);
+        } catch (MalformedIdentifierException e) {
+            throw new MalformedRequestBodyException(e.getMessage() + " in " + field, e);
+        }
+    }
+}
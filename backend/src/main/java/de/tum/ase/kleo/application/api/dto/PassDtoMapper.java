@@ -10,6 +10,8 @@ import de.tum.ase.kleo.domain.id.SessionId;
 import de.tum.ase.kleo.domain.id.UserId;
 import lombok.val;
 
+import static de.tum.ase.kleo.application.api.dto.MalformedRequestBodyException.parseBodyId;
+
 @Component
 public class PassDtoMapper {
 
@@ -23,7 +25,12 @@ public class PassDtoMapper {
         if (source == null)
             return null;
 
-        val passCode = passTokenizer.tokenizeToString(source);
+        return toDto(source, passTokenizer.tokenizeToString(source));
+    }
+
+    public PassDTO toDto(Pass source, String passCode) {
+        if (source == null)
+            return null;
 
         return new PassDTO()
                 .code(passCode)
@@ -37,8 +44,8 @@ public class PassDtoMapper {
         if (passDTO == null)
             return null;
 
-        return new Pass(SessionId.of(passDTO.getSessionId()),
-                UserId.of(passDTO.getStudentId()),
+        return new Pass(parseBodyId("sessionId", passDTO.getSessionId(), SessionId::of),
+                parseBodyId("studentId", passDTO.getStudentId(), UserId::of),
                 Duration.ofSeconds(passDTO.getExpireIn()));
     }
 }
@@ -0,0 +1,31 @@
+package de.tum.ase.kleo.application.api.dto;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import de.tum.ase.kleo.application.persistence.QueryStatistic;
+
+import static java.util.stream.Collectors.toList;
+
+@Component
+public class QueryStatisticToDtoSerializer {
+
+    public QueryStatisticDTO toDto(QueryStatistic source) {
+        if (source == null)
+            return null;
+
+        return new QueryStatisticDTO()
+                .query(source.query())
+                .executions(source.executions())
+                .totalTimeMillis(source.totalTimeMillis())
+                .meanTimeMillis(source.meanTimeMillis())
+                .maxTimeMillis(source.maxTimeMillis())
+                .rows(source.rows())
+                .origin(source.lastOrigin());
+    }
+
+    public List<QueryStatisticDTO> toDto(List<QueryStatistic> sources) {
+        return sources.stream().map(this::toDto).collect(toList());
+    }
+}
@@ -0,0 +1,29 @@
+package de.tum.ase.kleo.application.api.dto;
+
+import org.apache.commons.codec.binary.Hex;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import de.tum.ase.kleo.domain.SessionDelegation;
+
+/**
+ * Serializes delegations along with the server's current time, which
+ * devices correct their clock by when minting passes.
+ */
+@Component
+public class SessionDelegationToDtoSerializer {
+
+    public SessionDelegationDTO toDto(SessionDelegation source) {
+        if (source == null)
+            return null;
+
+        return new SessionDelegationDTO()
+                .sessionId(source.sessionId().toString())
+                .notBefore(OffsetDateTime.ofInstant(source.notBefore(), ZoneOffset.UTC))
+                .notAfter(OffsetDateTime.ofInstant(source.notAfter(), ZoneOffset.UTC))
+                .key(Hex.encodeHexString(source.key()))
+                .serverTime(OffsetDateTime.now(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,42 @@
+package de.tum.ase.kleo.application.api.dto;
+
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+
+import de.tum.ase.kleo.domain.SessionRecurrence;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+@Component
+public class SessionRecurrenceFromDtoFactory {
+
+    /**
+     * Creates the recurrence the schedule describes, failing with a
+     * {@link MalformedRequestBodyException} if it is incomplete or invalid,
+     * e.g. names an unknown time zone.
+     */
+    public SessionRecurrence create(SessionScheduleDTO scheduleDTO) {
+        if (scheduleDTO == null)
+            return null;
+
+        if (scheduleDTO.getBegins() == null || scheduleDTO.getEnds() == null || scheduleDTO.getUntil() == null)
+            throw new MalformedRequestBodyException("Session schedule requires 'begins', 'ends' and 'until'");
+
+        final ZoneId zone;
+        try {
+            zone = isBlank(scheduleDTO.getTimeZone()) ? null : ZoneId.of(scheduleDTO.getTimeZone());
+        } catch (DateTimeException e) {
+            throw new MalformedRequestBodyException("Unknown time zone " + scheduleDTO.getTimeZone(), e);
+        }
+
+        try {
+            return new SessionRecurrence(scheduleDTO.getBegins(), scheduleDTO.getEnds(),
+                    scheduleDTO.getUntil(), scheduleDTO.getIntervalWeeks(), zone,
+                    scheduleDTO.getExcludedDates());
+        } catch (IllegalArgumentException e) {
+            throw new MalformedRequestBodyException(e.getMessage(), e);
+        }
+    }
+}
@@ -33,4 +33,9 @@ public class CurrentUserSecurity {
     public boolean hasUserId(String userIdRaw) {
         return hasUserId(UserId.of(userIdRaw));
     }
+
+    public User user() {
+        val authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (User) authentication.getPrincipal();
+    }
 }
@@ -0,0 +1,67 @@
+package de.tum.ase.kleo.application.auth.provider;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.val;
+
+import static org.apache.commons.lang3.Validate.notBlank;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * {@code TimedAuthenticationProvider} decorates an {@link AuthenticationProvider}
+ * measuring its authentication latency, tagged by the provider name and the
+ * authentication outcome.
+ */
+public class TimedAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String METRIC_NAME = "kleo.authentications";
+
+    private final AuthenticationProvider authenticationProvider;
+    private final MeterRegistry meterRegistry;
+
+    private final Timer successTimer;
+    private final Timer skippedTimer;
+    private final Timer failureTimer;
+
+    public TimedAuthenticationProvider(AuthenticationProvider authenticationProvider,
+                                       MeterRegistry meterRegistry, String providerName) {
+        this.authenticationProvider = notNull(authenticationProvider);
+        this.meterRegistry = notNull(meterRegistry);
+        notBlank(providerName);
+
+        this.successTimer = outcomeTimer(providerName, "success");
+        this.skippedTimer = outcomeTimer(providerName, "skipped");
+        this.failureTimer = outcomeTimer(providerName, "failure");
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        val sample = Timer.start(meterRegistry);
+        Timer timer = failureTimer;
+        try {
+            val result = authenticationProvider.authenticate(authentication);
+            timer = result == null ? skippedTimer : successTimer;
+            return result;
+        } finally {
+            sample.stop(timer);
+        }
+    }
+
+    private Timer outcomeTimer(String providerName, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .tag("provider", providerName)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return authenticationProvider.supports(authentication);
+    }
+}
@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import de.tum.ase.kleo.application.service.UserSearchIndex;
 import de.tum.ase.kleo.domain.User;
 import de.tum.ase.kleo.domain.UserRepository;
 import de.tum.ase.kleo.domain.UserRole;
@@ -45,21 +46,26 @@ public class TumAuthenticationProvider implements AuthenticationProvider {
     private static final String MOODLE_EDIT_PROFILE_MATRIK_INPUT_NAME = "idnumber";
 
     private final UserRepository userRepository;
+    private final UserSearchIndex userSearchIndex;
     private final PasswordEncoder passwordEncoder;
     private final List<UserRole> userRoles = new ArrayList<>();
 
-    public TumAuthenticationProvider(UserRepository userRepository, PasswordEncoder passwordEncoder, List<UserRole> userRoles) {
+    public TumAuthenticationProvider(UserRepository userRepository, UserSearchIndex userSearchIndex,
+                                     PasswordEncoder passwordEncoder, List<UserRole> userRoles) {
         this.userRepository = userRepository;
+        this.userSearchIndex = userSearchIndex;
         this.passwordEncoder = passwordEncoder;
         this.userRoles.addAll(userRoles);
     }
 
-    public TumAuthenticationProvider(UserRepository userRepository, PasswordEncoder passwordEncoder, UserRole... userRoles) {
-        this(userRepository, passwordEncoder, asList(userRoles));
+    public TumAuthenticationProvider(UserRepository userRepository, UserSearchIndex userSearchIndex,
+                                     PasswordEncoder passwordEncoder, UserRole... userRoles) {
+        this(userRepository, userSearchIndex, passwordEncoder, asList(userRoles));
     }
 
-    public TumAuthenticationProvider(UserRepository userRepository, PasswordEncoder passwordEncoder) {
-        this(userRepository, passwordEncoder, User.DEFAULT_USER_ROLES);
+    public TumAuthenticationProvider(UserRepository userRepository, UserSearchIndex userSearchIndex,
+                                     PasswordEncoder passwordEncoder) {
+        this(userRepository, userSearchIndex, passwordEncoder, User.DEFAULT_USER_ROLES);
     }
 
     @Override
@@ -67,8 +73,8 @@ public class TumAuthenticationProvider implements AuthenticationProvider {
         val email = authentication.getName();
         val password = authentication.getCredentials().toString();
 
-        val shibbolethUser = fetchShibbolethUser(email, password);
-        userRepository.save(shibbolethUser);
+        val shibbolethUser = userRepository.save(fetchShibbolethUser(email, password));
+        userSearchIndex.index(shibbolethUser);
 
         val userGrantedAthorities = UserGrantedAuthorities.fromUserRoles(shibbolethUser.userRoles());
         return new UsernamePasswordAuthenticationToken(shibbolethUser, null, userGrantedAthorities);
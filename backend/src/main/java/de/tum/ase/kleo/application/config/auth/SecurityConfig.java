@@ -16,10 +16,13 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import de.tum.ase.kleo.application.auth.provider.TimedAuthenticationProvider;
 import de.tum.ase.kleo.application.auth.provider.TumAuthenticationProvider;
 import de.tum.ase.kleo.application.auth.provider.UserRepositoryAuthenticationProvider;
+import de.tum.ase.kleo.application.service.UserSearchIndex;
 import de.tum.ase.kleo.domain.UserRepository;
 import de.tum.ase.kleo.domain.UserRole;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableWebSecurity
@@ -35,6 +38,12 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http
@@ -69,11 +78,13 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     }
 
     private AuthenticationProvider userRepositoryAuthenticationProvider() {
-        return new UserRepositoryAuthenticationProvider(userRepository, passwordEncoder());
+        return new TimedAuthenticationProvider(new UserRepositoryAuthenticationProvider(userRepository,
+                passwordEncoder()), meterRegistry, "repository");
     }
 
     private AuthenticationProvider tumAuthenticationProvider() {
-        return new TumAuthenticationProvider(userRepository, passwordEncoder(), tumUserRoles);
+        return new TimedAuthenticationProvider(new TumAuthenticationProvider(userRepository,
+                userSearchIndex, passwordEncoder(), tumUserRoles), meterRegistry, "tum");
     }
 
     private PasswordEncoder passwordEncoder() {
@@ -0,0 +1,77 @@
+package de.tum.ase.kleo.application.config.dataset;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDate;
+
+import de.tum.ase.kleo.application.persistence.dataset.DatasetGenerator;
+import de.tum.ase.kleo.application.persistence.dataset.DatasetSpec;
+
+/**
+ * Generates a synthetic semester on startup, e.g. into a file database:
+ * <pre>
+ * java -jar backend-exec.jar --spring.profiles.active=dataset --spring.main.web-environment=false \
+ *      --spring.datasource.url=jdbc:h2:file:./kleo-dataset --dataset.users=200000
+ * </pre>
+ * Without a web environment the application exits once the dataset is
+ * written. All users share the password {@code dataset.password}.
+ */
+@Configuration
+@Profile("dataset")
+public class DatasetConfig {
+
+    private static final int BCRYPT_MIN_STRENGTH = 4;
+
+    @Value("${dataset.seed}")
+    private long seed;
+
+    @Value("${dataset.groups}")
+    private int groups;
+
+    @Value("${dataset.users}")
+    private int users;
+
+    @Value("${dataset.tutorsRatio}")
+    private double tutorsRatio;
+
+    @Value("${dataset.maxGroupsPerStudent}")
+    private int maxGroupsPerStudent;
+
+    @Value("${dataset.groupPopularitySkew}")
+    private double groupPopularitySkew;
+
+    @Value("${dataset.semesterStart}")
+    private String semesterStart;
+
+    @Value("${dataset.semesterWeeks}")
+    private int semesterWeeks;
+
+    @Value("${dataset.meanAttendanceRate}")
+    private double meanAttendanceRate;
+
+    @Value("${dataset.batchSize}")
+    private int batchSize;
+
+    @Value("${dataset.password}")
+    private String password;
+
+    @Bean
+    DatasetSpec datasetSpec() {
+        return new DatasetSpec(seed, groups, users, tutorsRatio, maxGroupsPerStudent, groupPopularitySkew,
+                LocalDate.parse(semesterStart), semesterWeeks, meanAttendanceRate, batchSize);
+    }
+
+    @Bean
+    ApplicationRunner datasetGeneratorRunner(JdbcTemplate jdbcTemplate, DatasetSpec datasetSpec) {
+        return args -> {
+            final String passwordHash = new BCryptPasswordEncoder(BCRYPT_MIN_STRENGTH).encode(password);
+            new DatasetGenerator(jdbcTemplate, passwordHash).generate(datasetSpec);
+        };
+    }
+}
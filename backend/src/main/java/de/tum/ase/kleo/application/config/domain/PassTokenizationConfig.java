@@ -14,6 +14,7 @@ import javax.crypto.spec.SecretKeySpec;
 
 import de.tum.ase.kleo.domain.PassDetokenizer;
 import de.tum.ase.kleo.domain.PassTokenizer;
+import de.tum.ase.kleo.domain.SessionKeyDerivation;
 import lombok.val;
 
 @Configuration
@@ -22,16 +23,19 @@ public class PassTokenizationConfig {
     private final Cipher cipher;
     private final SecretKeySpec key;
     private final AlgorithmParameterSpec algParamSpec;
+    private final byte[] delegationKey;
 
     public PassTokenizationConfig(@Value("${security.passes.keyAlgorithm}") String keyAlg,
                                   @Value("${security.passes.key}") String[] keyBytes,
                                   @Value("${security.passes.cipherAlgorithm}") String cipherAlg,
-                                  @Value("${security.passes.cipherAlgorithmParameterSpec}") String[] cipherAlgParams)
+                                  @Value("${security.passes.cipherAlgorithmParameterSpec}") String[] cipherAlgParams,
+                                  @Value("${security.passes.delegationKey}") String[] delegationKeyBytes)
             throws NoSuchPaddingException, NoSuchAlgorithmException {
 
         cipher = Cipher.getInstance(cipherAlg);
         key = new SecretKeySpec(parseBytes(keyBytes), keyAlg);
         algParamSpec = new IvParameterSpec(parseBytes(cipherAlgParams));
+        delegationKey = parseBytes(delegationKeyBytes);
     }
 
     @Bean
@@ -40,8 +44,14 @@ public class PassTokenizationConfig {
     }
 
     @Bean
-    PassDetokenizer passDetokenizer() throws NoSuchPaddingException, NoSuchAlgorithmException {
-        return new PassDetokenizer(cipher, key, algParamSpec);
+    SessionKeyDerivation sessionKeyDerivation() {
+        return new SessionKeyDerivation(delegationKey);
+    }
+
+    @Bean
+    PassDetokenizer passDetokenizer(SessionKeyDerivation sessionKeyDerivation)
+            throws NoSuchPaddingException, NoSuchAlgorithmException {
+        return new PassDetokenizer(cipher, key, algParamSpec, sessionKeyDerivation);
     }
 
     private static byte[] parseBytes(String[] bytesAsStrings) {
@@ -1,6 +1,7 @@
 package de.tum.ase.kleo.application.config.ethereum;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.web3j.crypto.Credentials;
@@ -8,9 +9,12 @@ import org.web3j.protocol.Web3j;
 import org.web3j.tx.Contract;
 import org.web3j.tx.ManagedTransaction;
 
+import de.tum.ase.kleo.application.service.AttendanceRecorder;
+import de.tum.ase.kleo.application.service.EthereumAttendanceRecorder;
 import de.tum.ase.kleo.ethereum.AttendanceTracker;
 
 @Configuration
+@ConditionalOnProperty(name = "ethereum.enabled", matchIfMissing = true)
 public class AttendanceTrackerConfig {
 
     @Value("${ethereum.attendanceTracker.address}")
@@ -21,4 +25,9 @@ public class AttendanceTrackerConfig {
         return AttendanceTracker.load(address, web3j, credentials,
                 ManagedTransaction.GAS_PRICE, Contract.GAS_LIMIT);
     }
+
+    @Bean
+    AttendanceRecorder attendanceRecorder(AttendanceTracker attendanceTracker) {
+        return new EthereumAttendanceRecorder(attendanceTracker);
+    }
 }
@@ -0,0 +1,18 @@
+package de.tum.ase.kleo.application.config.ethereum;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import de.tum.ase.kleo.application.service.AttendanceRecorder;
+import de.tum.ase.kleo.application.service.NoopAttendanceRecorder;
+
+@Configuration
+@ConditionalOnProperty(name = "ethereum.enabled", havingValue = "false")
+public class NoEthereumConfig {
+
+    @Bean
+    AttendanceRecorder attendanceRecorder() {
+        return new NoopAttendanceRecorder();
+    }
+}
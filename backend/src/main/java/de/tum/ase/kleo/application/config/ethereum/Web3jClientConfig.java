@@ -1,6 +1,7 @@
 package de.tum.ase.kleo.application.config.ethereum;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.web3j.crypto.CipherException;
@@ -13,6 +14,7 @@ import java.io.IOException;
 import static org.web3j.crypto.WalletUtils.loadCredentials;
 
 @Configuration
+@ConditionalOnProperty(name = "ethereum.enabled", matchIfMissing = true)
 public class Web3jClientConfig {
 
     @Value("${ethereum.infura}")
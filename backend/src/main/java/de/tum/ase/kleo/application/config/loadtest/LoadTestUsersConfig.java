@@ -0,0 +1,58 @@
+package de.tum.ase.kleo.application.config.loadtest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+
+import de.tum.ase.kleo.domain.User;
+import de.tum.ase.kleo.domain.UserRepository;
+import de.tum.ase.kleo.domain.UserRole;
+import lombok.val;
+
+import static java.lang.String.format;
+import static java.util.Collections.singletonList;
+
+/**
+ * Seeds a tutor and the students of a simulated classroom for load tests.
+ * Passwords are hashed with the lowest BCrypt strength once for all users,
+ * so logging thousands of virtual students in measures the API rather than
+ * the key stretching.
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestUsersConfig {
+
+    public static final String TUTOR_EMAIL = "tutor@loadtest.kleo";
+    public static final String STUDENT_EMAIL_FORMAT = "student%d@loadtest.kleo";
+
+    private static final int BCRYPT_MIN_STRENGTH = 4;
+
+    @Value("${loadtest.students}")
+    private int students;
+
+    @Value("${loadtest.password}")
+    private String password;
+
+    @Bean
+    ApplicationRunner loadTestUsersSeeder(UserRepository userRepository) {
+        return args -> {
+            val passwordHash = new BCryptPasswordEncoder(BCRYPT_MIN_STRENGTH).encode(password);
+
+            val users = new ArrayList<User>(students + 1);
+            users.add(new User(TUTOR_EMAIL, passwordHash, singletonList(UserRole.TUTOR),
+                    "Load Test Tutor", null));
+
+            for (int i = 0; i < students; i++) {
+                users.add(new User(format(STUDENT_EMAIL_FORMAT, i), passwordHash,
+                        singletonList(UserRole.STUDENT), "Load Test Student " + i, format("9%07d", i)));
+            }
+
+            userRepository.save(users);
+        };
+    }
+}
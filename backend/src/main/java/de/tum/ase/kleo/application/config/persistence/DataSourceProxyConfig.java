@@ -0,0 +1,65 @@
+package de.tum.ase.kleo.application.config.persistence;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+import de.tum.ase.kleo.application.persistence.ConnectionPoolMetrics;
+import de.tum.ase.kleo.application.persistence.QueryStatistics;
+import de.tum.ase.kleo.application.persistence.routing.ReplicaRoutingDataSource;
+import lombok.val;
+
+import static java.util.Collections.singletonMap;
+
+@Configuration
+public class DataSourceProxyConfig {
+
+    private static final String PROXY_NAME = "kleo";
+
+    @Bean
+    static QueryStatistics queryStatistics(@Value("${queries.slowThresholdMillis}") long slowThresholdMillis) {
+        return new QueryStatistics(slowThresholdMillis);
+    }
+
+    @Bean
+    static BeanPostProcessor dataSourceProxyPostProcessor(QueryStatistics queryStatistics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource)
+                    return bean;
+
+                return ProxyDataSourceBuilder.create((DataSource) bean)
+                        .name(PROXY_NAME)
+                        .listener(queryStatistics)
+                        .methodListener(queryStatistics)
+                        .proxyResultSet()
+                        .build();
+            }
+        };
+    }
+
+    /**
+     * Publishes the state of the single connection pool hidden behind the
+     * proxy. Pools behind the replica routing are published by
+     * {@link ReplicaRoutingConfig} instead.
+     */
+    @Bean
+    ConnectionPoolMetrics connectionPoolMetrics(DataSource dataSource) {
+        val pooledDataSource = dataSource instanceof ProxyDataSource
+                ? ((ProxyDataSource) dataSource).getDataSource() : dataSource;
+
+        return new ConnectionPoolMetrics(singletonMap(ReplicaRoutingDataSource.PRIMARY, pooledDataSource));
+    }
+}
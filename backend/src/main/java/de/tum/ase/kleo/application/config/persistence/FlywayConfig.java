@@ -0,0 +1,23 @@
+package de.tum.ase.kleo.application.config.persistence;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import de.tum.ase.kleo.application.persistence.MigrationLocations;
+
+@Configuration
+public class FlywayConfig {
+
+    /**
+     * Migrates the database with the shared migrations and those written
+     * for it, see {@link MigrationLocations}.
+     */
+    @Bean
+    FlywayMigrationStrategy vendorMigrationStrategy() {
+        return flyway -> {
+            flyway.setLocations(MigrationLocations.of(flyway.getDataSource()));
+            flyway.migrate();
+        };
+    }
+}
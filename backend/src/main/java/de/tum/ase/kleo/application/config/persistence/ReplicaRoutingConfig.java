@@ -0,0 +1,125 @@
+package de.tum.ase.kleo.application.config.persistence;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceBuilder;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import de.tum.ase.kleo.application.persistence.ConnectionPoolMetrics;
+import de.tum.ase.kleo.application.persistence.routing.ReadYourWritesTracker;
+import de.tum.ase.kleo.application.persistence.routing.Replica;
+import de.tum.ase.kleo.application.persistence.routing.ReplicaRoutingDataSource;
+import lombok.val;
+
+import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Routes read-only transactions to the replicas listed in {@code replicas.urls}.
+ * Without replicas configured the auto-configured single data source is used.
+ */
+@Configuration
+@ConditionalOnProperty("replicas.urls")
+public class ReplicaRoutingConfig implements DisposableBean {
+
+    @Value("${replicas.urls}")
+    private String[] replicaUrls;
+
+    @Value("${replicas.username:}")
+    private String replicaUsername;
+
+    @Value("${replicas.password:}")
+    private String replicaPassword;
+
+    @Value("${replicas.lagQuery:}")
+    private String lagQuery;
+
+    @Value("${replicas.maxLagMillis}")
+    private long maxLagMillis;
+
+    @Value("${replicas.probeIntervalMillis}")
+    private long probeIntervalMillis;
+
+    @Value("${replicas.readYourWritesMillis}")
+    private long readYourWritesMillis;
+
+    private final Map<String, DataSource> pools = new LinkedHashMap<>();
+
+    private ScheduledExecutorService replicaProbe;
+
+    @Bean
+    @Primary
+    DataSource dataSource(DataSourceProperties dataSourceProperties) {
+        val primary = register(ReplicaRoutingDataSource.PRIMARY,
+                dataSourceProperties.initializeDataSourceBuilder().build());
+
+        val replicas = new ArrayList<Replica>(replicaUrls.length);
+        for (int i = 0; i < replicaUrls.length; i++) {
+            val replicaName = "replica-" + i;
+            val replicaDataSource = register(replicaName, DataSourceBuilder.create(dataSourceProperties.getClassLoader())
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(replicaUrls[i].trim())
+                    .username(defaultIfBlank(replicaUsername, dataSourceProperties.determineUsername()))
+                    .password(defaultIfBlank(replicaPassword, dataSourceProperties.determinePassword()))
+                    .build());
+
+            replicas.add(new Replica(replicaName, replicaDataSource));
+        }
+
+        val readYourWrites = new ReadYourWritesTracker(Duration.ofMillis(readYourWritesMillis));
+        val routingDataSource = new ReplicaRoutingDataSource(primary, replicas, readYourWrites, () -> {
+            val authentication = SecurityContextHolder.getContext().getAuthentication();
+            return authentication == null ? null : authentication.getName();
+        });
+
+        replicaProbe = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            val thread = new Thread(runnable, "replica-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        replicaProbe.scheduleWithFixedDelay(() -> routingDataSource.probeReplicas(
+                isBlank(lagQuery) ? null : lagQuery, maxLagMillis), 0, probeIntervalMillis, TimeUnit.MILLISECONDS);
+
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Publishes the state of the primary's and each replica's pool, which
+     * the routing data source and its lazy proxy hide.
+     */
+    @Bean
+    ConnectionPoolMetrics replicaPoolMetrics(DataSource dataSource) {
+        return new ConnectionPoolMetrics(pools);
+    }
+
+    @Override
+    public void destroy() {
+        if (replicaProbe != null)
+            replicaProbe.shutdownNow();
+
+        pools.values().stream()
+                .filter(pool -> pool instanceof org.apache.tomcat.jdbc.pool.DataSource)
+                .forEach(pool -> ((org.apache.tomcat.jdbc.pool.DataSource) pool).close());
+    }
+
+    private DataSource register(String name, DataSource pool) {
+        pools.put(name, pool);
+        return pool;
+    }
+}
@@ -0,0 +1,57 @@
+package de.tum.ase.kleo.application.config.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import de.tum.ase.kleo.application.tracing.FileSpanExporter;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class TracingConfig {
+
+    private static final String INSTRUMENTATION_NAME = "de.tum.ase.kleo";
+
+    @Value("${tracing.serviceName}")
+    private String serviceName;
+
+    @Value("${tracing.samplingRatio}")
+    private double samplingRatio;
+
+    @Value("${tracing.file}")
+    private String file;
+
+    @Bean
+    SpanExporter spanExporter() throws IOException {
+        return new FileSpanExporter(Paths.get(file));
+    }
+
+    @Bean(destroyMethod = "close")
+    SdkTracerProvider tracerProvider(SpanExporter spanExporter) {
+        final Resource resource = Resource.getDefault().merge(Resource.create(
+                Attributes.of(AttributeKey.stringKey("service.name"), serviceName)));
+
+        return SdkTracerProvider.builder()
+                .setResource(resource)
+                .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(samplingRatio)))
+                .addSpanProcessor(BatchSpanProcessor.builder(spanExporter).build())
+                .build();
+    }
+
+    @Bean
+    Tracer tracer(SdkTracerProvider tracerProvider) {
+        return tracerProvider.get(INSTRUMENTATION_NAME);
+    }
+}
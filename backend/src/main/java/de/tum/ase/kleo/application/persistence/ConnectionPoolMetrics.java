@@ -0,0 +1,40 @@
+package de.tum.ase.kleo.application.persistence;
+
+import org.apache.tomcat.jdbc.pool.DataSource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.val;
+
+/**
+ * {@code ConnectionPoolMetrics} publishes the state of Tomcat JDBC
+ * connection pools, tagged by the pool's name, e.g. the primary and each
+ * replica. The pools are given directly, as the default pool metrics can't
+ * see them through the proxies and the routing data source wrapping them.
+ */
+public class ConnectionPoolMetrics implements MeterBinder {
+
+    private final Map<String, DataSource> pools = new LinkedHashMap<>();
+
+    public ConnectionPoolMetrics(Map<String, ? extends javax.sql.DataSource> dataSources) {
+        dataSources.forEach((name, dataSource) -> {
+            if (dataSource instanceof DataSource)
+                pools.put(name, (DataSource) dataSource);
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        pools.forEach((name, pool) -> {
+            val tags = Tags.of("pool", name);
+            meterRegistry.gauge("kleo.db.pool.active", tags, pool, DataSource::getActive);
+            meterRegistry.gauge("kleo.db.pool.idle", tags, pool, DataSource::getIdle);
+            meterRegistry.gauge("kleo.db.pool.waiting", tags, pool, DataSource::getWaitCount);
+            meterRegistry.gauge("kleo.db.pool.max", tags, pool, DataSource::getMaxActive);
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package de.tum.ase.kleo.application.persistence;
+
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import java.util.Locale;
+
+import javax.sql.DataSource;
+
+import lombok.val;
+
+/**
+ * Locations of the Flyway migrations of a database. Migrations written in
+ * portable SQL are shared in {@code db/migration/common}, whereas those
+ * whose DDL differs per database, e.g. converting a column's type, are
+ * written once per supported database in {@code db/migration/h2} and
+ * {@code db/migration/postgresql}.
+ */
+public final class MigrationLocations {
+
+    public static final String COMMON = "classpath:db/migration/common";
+
+    private static final String VENDOR_PREFIX = "classpath:db/migration/";
+
+    private MigrationLocations() {
+    }
+
+    public static String[] of(DataSource dataSource) {
+        final String url;
+        try {
+            url = (String) JdbcUtils.extractDatabaseMetaData(dataSource, "getURL");
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Failed to determine the database to migrate", e);
+        }
+
+        val driver = DatabaseDriver.fromJdbcUrl(url);
+        if (driver != DatabaseDriver.H2 && driver != DatabaseDriver.POSTGRESQL)
+            throw new IllegalStateException("No migrations written for database " + url);
+
+        return new String[] {COMMON, VENDOR_PREFIX + driver.name().toLowerCase(Locale.ROOT)};
+    }
+}
@@ -0,0 +1,40 @@
+package de.tum.ase.kleo.application.persistence;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * {@code QueryOrigin} remembers the application service method the current
+ * thread executes, so SQL statements can be attributed to the service call
+ * that caused them.
+ */
+@Aspect
+@Component
+public class QueryOrigin {
+
+    private static final ThreadLocal<Deque<String>> origins = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Returns the outermost service method the current thread is in, if any.
+     */
+    public static String current() {
+        return origins.get().peekLast();
+    }
+
+    @Around("@within(org.springframework.stereotype.Service) && within(de.tum.ase.kleo.application.service..*)")
+    public Object trackOrigin(ProceedingJoinPoint joinPoint) throws Throwable {
+        final Deque<String> threadOrigins = origins.get();
+        threadOrigins.push(joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            threadOrigins.pop();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package de.tum.ase.kleo.application.persistence;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+/**
+ * {@code QueryStatistic} accumulates executions of a single SQL statement.
+ */
+@ToString
+@Accessors(fluent = true)
+public class QueryStatistic {
+
+    @Getter
+    private final String query;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder totalTimeMillis = new LongAdder();
+    private final AtomicLong maxTimeMillis = new AtomicLong();
+    private final LongAdder rows = new LongAdder();
+
+    @Getter
+    private volatile String lastOrigin;
+
+    QueryStatistic(String query) {
+        this.query = query;
+    }
+
+    void record(long elapsedMillis, String origin) {
+        executions.increment();
+        totalTimeMillis.add(elapsedMillis);
+        maxTimeMillis.accumulateAndGet(elapsedMillis, Math::max);
+
+        if (origin != null)
+            lastOrigin = origin;
+    }
+
+    void addRows(long count) {
+        rows.add(count);
+    }
+
+    public long executions() {
+        return executions.sum();
+    }
+
+    public long totalTimeMillis() {
+        return totalTimeMillis.sum();
+    }
+
+    public long maxTimeMillis() {
+        return maxTimeMillis.get();
+    }
+
+    public double meanTimeMillis() {
+        final long executions = executions();
+        return executions == 0 ? 0 : (double) totalTimeMillis() / executions;
+    }
+
+    public long rows() {
+        return rows.sum();
+    }
+}
@@ -0,0 +1,185 @@
+package de.tum.ase.kleo.application.persistence;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.ResultSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.val;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * {@code QueryStatistics} listens to the statements executed through the
+ * proxied {@link javax.sql.DataSource}, aggregating time and rows per SQL
+ * statement and logging statements slower than a threshold along with the
+ * service method they originate from.
+ * <p>
+ * Rows of selects are counted by {@link ResultSet#next()} calls, attributed
+ * to the select last executed by the same thread, which holds for Hibernate
+ * as it reads results right after executing a query.
+ */
+public class QueryStatistics implements QueryExecutionListener, MethodExecutionListener, MeterBinder {
+
+    private static final int MAX_TRACKED_QUERIES = 1000;
+
+    private static final Pattern IN_LIST_PARAMS = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+    private static final ThreadLocal<QueryStatistic> lastSelect = new ThreadLocal<>();
+    private static final ThreadLocal<int[]> statementCounter = new ThreadLocal<>();
+
+    private final Logger logger = LoggerFactory.getLogger(QueryStatistics.class);
+
+    private final long slowQueryThresholdMillis;
+
+    private final ConcurrentMap<String, QueryStatistic> statistics = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry meterRegistry;
+
+    public QueryStatistics(long slowQueryThresholdMillis) {
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+    }
+
+    /**
+     * Starts counting statements executed by the current thread,
+     * e.g. for the duration of a request.
+     */
+    public static void startCounting() {
+        statementCounter.set(new int[1]);
+    }
+
+    /**
+     * Stops counting statements executed by the current thread and
+     * returns their number.
+     */
+    public static int stopCounting() {
+        final int[] counter = statementCounter.get();
+        statementCounter.remove();
+        lastSelect.remove();
+
+        return counter == null ? 0 : counter[0];
+    }
+
+    public List<QueryStatistic> topByTotalTime(int limit) {
+        return statistics.values().stream()
+                .sorted(Comparator.comparingLong(QueryStatistic::totalTimeMillis).reversed())
+                .limit(limit)
+                .collect(toList());
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        val origin = QueryOrigin.current();
+        val elapsedMillis = execInfo.getElapsedTime();
+
+        final int[] counter = statementCounter.get();
+        if (counter != null)
+            counter[0] += queryInfoList.size();
+
+        for (val queryInfo : queryInfoList) {
+            val query = normalize(queryInfo.getQuery());
+            val statistic = statistic(query);
+
+            statistic.record(elapsedMillis, origin);
+            countRows(statistic, execInfo.getResult());
+            recordTimer(query, elapsedMillis, execInfo.isSuccess());
+
+            if (elapsedMillis >= slowQueryThresholdMillis) {
+                logger.warn("Slow query ({} ms) from {}: {}", elapsedMillis,
+                        origin == null ? "unknown origin" : origin, query);
+            }
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (!(executionContext.getTarget() instanceof ResultSet))
+            return;
+
+        if (!"next".equals(executionContext.getMethod().getName())
+                || !Boolean.TRUE.equals(executionContext.getResult()))
+            return;
+
+        val statistic = lastSelect.get();
+        if (statistic != null)
+            statistic.addRows(1);
+    }
+
+    private QueryStatistic statistic(String query) {
+        val statistic = statistics.get(query);
+        if (statistic != null)
+            return statistic;
+
+        if (statistics.size() >= MAX_TRACKED_QUERIES)
+            return new QueryStatistic(query); // recorded, but not tracked anymore
+
+        return statistics.computeIfAbsent(query, QueryStatistic::new);
+    }
+
+    private static void countRows(QueryStatistic statistic, Object result) {
+        if (result instanceof ResultSet) {
+            lastSelect.set(statistic);
+        } else if (result instanceof Integer) {
+            statistic.addRows((Integer) result);
+        } else if (result instanceof int[]) {
+            for (val count : (int[]) result) {
+                if (count > 0)
+                    statistic.addRows(count);
+            }
+        }
+    }
+
+    private void recordTimer(String query, long elapsedMillis, boolean success) {
+        val registry = meterRegistry;
+        if (registry == null)
+            return;
+
+        registry.timer("kleo.db.statements",
+                "type", statementType(query),
+                "outcome", success ? "success" : "failure")
+                .record(elapsedMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static String statementType(String query) {
+        val firstSpace = query.indexOf(' ');
+        return (firstSpace < 0 ? query : query.substring(0, firstSpace)).toLowerCase(Locale.ROOT);
+    }
+
+    static String normalize(String query) {
+        val singleLine = WHITESPACES.matcher(query.trim()).replaceAll(" ");
+        return IN_LIST_PARAMS.matcher(singleLine).replaceAll("(?...)");
+    }
+}
@@ -0,0 +1,58 @@
+package de.tum.ase.kleo.application.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@code StatementsPerRequestFilter} counts the SQL statements every request
+ * executes and warns about requests exceeding a threshold, which usually
+ * points to an N+1 select pattern.
+ */
+@Component
+public class StatementsPerRequestFilter extends OncePerRequestFilter {
+
+    private final Logger logger = LoggerFactory.getLogger(StatementsPerRequestFilter.class);
+
+    private final DistributionSummary statementsPerRequest;
+
+    private final int warnThreshold;
+
+    public StatementsPerRequestFilter(MeterRegistry meterRegistry,
+                                      @Value("${queries.perRequestWarnThreshold}") int warnThreshold) {
+        this.statementsPerRequest = DistributionSummary.builder("kleo.db.statements.per_request")
+                .description("SQL statements executed to serve a single request")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryStatistics.startCounting();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            final int statements = QueryStatistics.stopCounting();
+            statementsPerRequest.record(statements);
+
+            if (statements > warnThreshold) {
+                logger.warn("{} {} executed {} SQL statements", request.getMethod(),
+                        request.getRequestURI(), statements);
+            }
+        }
+    }
+}
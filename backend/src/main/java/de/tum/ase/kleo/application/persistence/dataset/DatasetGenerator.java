@@ -0,0 +1,262 @@
+package de.tum.ase.kleo.application.persistence.dataset;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import de.tum.ase.kleo.domain.SessionType;
+import de.tum.ase.kleo.domain.UserRole;
+import lombok.val;
+
+import static java.lang.String.format;
+import static java.time.temporal.TemporalAdjusters.nextOrSame;
+import static org.apache.commons.lang3.Validate.notBlank;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * {@code DatasetGenerator} fills the database with a synthetic semester:
+ * groups with weekly sessions, tutors and students, registrations and
+ * attendances. Rows are written with batched JDBC inserts bypassing JPA,
+ * so millions of attendances take minutes rather than hours.
+ * <p>
+ * The data is skewed like a real semester: few lectures attract most of
+ * the students, students differ in diligence and attendance drops as the
+ * semester goes on. All randomness derives from the spec's seed, so equal
+ * specs produce the same rows on every run.
+ */
+public class DatasetGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final String[] SUBJECTS = {
+            "Advanced Software Engineering", "Algorithms", "Databases", "Discrete Structures",
+            "Linear Algebra", "Analysis", "Operating Systems", "Computer Networks", "Compilers",
+            "Machine Learning", "IT Security", "Distributed Systems", "Numerical Programming"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Anna", "Lukas", "Marie", "Felix", "Sophie", "Jonas", "Laura", "Paul", "Lea", "Max",
+            "Hannah", "Leon", "Julia", "Tim", "Emma", "David", "Mia", "Jan", "Lena", "Niklas"
+    };
+    private static final String[] LAST_NAMES = {
+            "Mueller", "Schmidt", "Schneider", "Fischer", "Weber", "Meyer", "Wagner", "Becker",
+            "Schulz", "Hoffmann", "Koch", "Richter", "Klein", "Wolf", "Neumann", "Schwarz"
+    };
+    private static final SessionType[] SESSION_TYPES = {
+            SessionType.TUTORIAL, SessionType.EXERCISE, SessionType.SEMINAR
+    };
+
+    private static final int FIRST_SESSION_HOUR = 8;
+    private static final int LAST_SESSION_HOUR = 18;
+    private static final int MAX_MINUTES_LATE = 15;
+    private static final double END_OF_SEMESTER_ATTENDANCE_DROP = 0.3;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String passwordHash;
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate, String passwordHash) {
+        this.jdbcTemplate = notNull(jdbcTemplate);
+        this.passwordHash = notBlank(passwordHash);
+    }
+
+    public DatasetStatistics generate(DatasetSpec spec) {
+        logger.info("Generating dataset {}", spec);
+
+        val random = new Random(spec.seed());
+        val statistics = new DatasetStatistics();
+
+        val groupInserts = new BatchInsert("INSERT INTO gr0up (group_id, name, code) VALUES (?, ?, ?)",
+                spec.batchSize(), null);
+        val sessionInserts = new BatchInsert("INSERT INTO session (session_id, session_type, location, " +
+                "begins, ends, group_id) VALUES (?, ?, ?, ?, ?, ?)", spec.batchSize(), groupInserts);
+
+        val groups = new GeneratedGroup[spec.groups()];
+        for (int groupIndex = 0; groupIndex < spec.groups(); groupIndex++) {
+            groups[groupIndex] = generateGroup(groupIndex, spec, random, groupInserts, sessionInserts);
+            statistics.addGroup(spec.semesterWeeks());
+        }
+        sessionInserts.flush();
+
+        logger.info("Generated {} groups with {} sessions", statistics.groups(), statistics.sessions());
+
+        val userInserts = new BatchInsert("INSERT INTO users (user_id, email, name, password_hash, student_id) " +
+                "VALUES (?, ?, ?, ?, ?)", spec.batchSize(), null);
+        val userRoleInserts = new BatchInsert("INSERT INTO user_roles (user_id, user_roles) VALUES (?, ?)",
+                spec.batchSize(), userInserts);
+        val registrationInserts = new BatchInsert("INSERT INTO group_students (group_id, user_id) VALUES (?, ?)",
+                spec.batchSize(), null);
+        val attendanceInserts = new BatchInsert("INSERT INTO group_attendances (group_id, session_id, " +
+                "student_id, attended_at) VALUES (?, ?, ?, ?)", spec.batchSize(), null);
+
+        val groupPopularity = new ZipfDistribution(spec.groups(), spec.groupPopularitySkew());
+        for (int userIndex = 0; userIndex < spec.users(); userIndex++) {
+            val userId = randomUuid(random);
+            val isTutor = random.nextDouble() < spec.tutorsRatio();
+            val name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " +
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+
+            userInserts.add(userId, format("user%d@dataset.kleo", userIndex), name, passwordHash,
+                    isTutor ? null : format("%08d", userIndex));
+            userRoleInserts.add(userId, (isTutor ? UserRole.TUTOR : UserRole.STUDENT).name());
+            statistics.addUser();
+
+            if (isTutor)
+                continue;
+
+            val diligence = randomDiligence(spec.meanAttendanceRate(), random);
+            for (val group : randomGroups(spec.maxGroupsPerStudent(), groupPopularity, groups, random)) {
+                registrationInserts.add(group.id, userId);
+                statistics.addRegistration(generateAttendances(group, userId, diligence, random, attendanceInserts));
+            }
+
+            if ((userIndex + 1) % 10_000 == 0)
+                logger.info("Generated {} of {} users", userIndex + 1, spec.users());
+        }
+
+        userRoleInserts.flush();
+        registrationInserts.flush();
+        attendanceInserts.flush();
+
+        logger.info("Generated dataset {}", statistics);
+        return statistics;
+    }
+
+    private GeneratedGroup generateGroup(int groupIndex, DatasetSpec spec, Random random,
+                                         BatchInsert groupInserts, BatchInsert sessionInserts) {
+        val group = new GeneratedGroup(randomUuid(random), spec.semesterWeeks());
+        val subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+
+        groupInserts.add(group.id, format("%s Group %d", subject, groupIndex + 1), format("DSG-%06d", groupIndex));
+
+        val weekday = DayOfWeek.of(1 + random.nextInt(5));
+        val startTime = LocalTime.of(FIRST_SESSION_HOUR + random.nextInt(LAST_SESSION_HOUR - FIRST_SESSION_HOUR), 0);
+        val durationMinutes = random.nextBoolean() ? 90 : 120;
+        val sessionType = SESSION_TYPES[random.nextInt(SESSION_TYPES.length)];
+        val location = format("MI %02d.%02d", random.nextInt(4), 1 + random.nextInt(20));
+
+        val firstBegins = LocalDateTime.of(spec.semesterStart().with(nextOrSame(weekday)), startTime);
+        for (int week = 0; week < spec.semesterWeeks(); week++) {
+            val begins = firstBegins.plusWeeks(week);
+
+            group.sessionIds[week] = randomUuid(random);
+            group.sessionBegins[week] = begins;
+
+            sessionInserts.add(group.sessionIds[week], sessionType.name(), location,
+                    Timestamp.valueOf(begins), Timestamp.valueOf(begins.plusMinutes(durationMinutes)), group.id);
+        }
+
+        return group;
+    }
+
+    private int generateAttendances(GeneratedGroup group, UUID studentId, double diligence,
+                                    Random random, BatchInsert attendanceInserts) {
+        val weeks = group.sessionIds.length;
+
+        int attendances = 0;
+        for (int week = 0; week < weeks; week++) {
+            val attendanceRate = diligence * (1 - END_OF_SEMESTER_ATTENDANCE_DROP * week / weeks);
+            if (random.nextDouble() >= attendanceRate)
+                continue;
+
+            val attendedAt = group.sessionBegins[week].plusSeconds(random.nextInt(MAX_MINUTES_LATE * 60));
+            attendanceInserts.add(group.id, group.sessionIds[week], studentId, Timestamp.valueOf(attendedAt));
+            attendances++;
+        }
+
+        return attendances;
+    }
+
+    private static List<GeneratedGroup> randomGroups(int maxGroups, ZipfDistribution groupPopularity,
+                                                     GeneratedGroup[] groups, Random random) {
+        val groupsCount = 1 + random.nextInt(maxGroups);
+        val groupIndexes = new HashSet<Integer>();
+
+        // Popular groups are drawn repeatedly, give up rather than spin on tiny datasets
+        for (int attempt = 0; groupIndexes.size() < groupsCount && attempt < groupsCount * 10; attempt++) {
+            groupIndexes.add(groupPopularity.sample(random));
+        }
+
+        val randomGroups = new ArrayList<GeneratedGroup>(groupIndexes.size());
+        groupIndexes.stream().sorted().forEach(groupIndex -> randomGroups.add(groups[groupIndex]));
+        return randomGroups;
+    }
+
+    /**
+     * Draws a per-student attendance rate: {@code U^a} with {@code a = 1/mean - 1}
+     * has the given mean and yields both very diligent and absent students.
+     */
+    private static double randomDiligence(double meanAttendanceRate, Random random) {
+        if (meanAttendanceRate == 0)
+            return 0;
+
+        return Math.pow(random.nextDouble(), 1 / meanAttendanceRate - 1);
+    }
+
+    private static UUID randomUuid(Random random) {
+        val mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        val leastSigBits = (random.nextLong() & ~(0x3L << 62)) | (0x2L << 62);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private static class GeneratedGroup {
+
+        private final UUID id;
+        private final UUID[] sessionIds;
+        private final LocalDateTime[] sessionBegins;
+
+        private GeneratedGroup(UUID id, int sessions) {
+            this.id = id;
+            this.sessionIds = new UUID[sessions];
+            this.sessionBegins = new LocalDateTime[sessions];
+        }
+    }
+
+    /**
+     * Buffers rows of a single insert statement and writes them as a JDBC
+     * batch. Rows referencing another table flush the referenced table's
+     * buffer first to keep foreign keys satisfied.
+     */
+    private class BatchInsert {
+
+        private final String sql;
+        private final int batchSize;
+        private final BatchInsert referenced;
+        private final List<Object[]> rows;
+
+        private BatchInsert(String sql, int batchSize, BatchInsert referenced) {
+            this.sql = sql;
+            this.batchSize = batchSize;
+            this.referenced = referenced;
+            this.rows = new ArrayList<>(batchSize);
+        }
+
+        private void add(Object... row) {
+            rows.add(row);
+
+            if (rows.size() >= batchSize)
+                flush();
+        }
+
+        private void flush() {
+            if (referenced != null)
+                referenced.flush();
+
+            if (rows.isEmpty())
+                return;
+
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package de.tum.ase.kleo.application.persistence.dataset;
+
+import java.time.LocalDate;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+import static org.apache.commons.lang3.Validate.inclusiveBetween;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * {@code DatasetSpec} describes the size and shape of a synthetic semester
+ * generated by {@link DatasetGenerator}. Equal specs produce equal datasets.
+ */
+@ToString
+@Getter @Accessors(fluent = true)
+public class DatasetSpec {
+
+    private final long seed;
+
+    private final int groups;
+
+    private final int users;
+
+    private final double tutorsRatio;
+
+    private final int maxGroupsPerStudent;
+
+    private final double groupPopularitySkew;
+
+    private final LocalDate semesterStart;
+
+    private final int semesterWeeks;
+
+    private final double meanAttendanceRate;
+
+    private final int batchSize;
+
+    public DatasetSpec(long seed, int groups, int users, double tutorsRatio, int maxGroupsPerStudent,
+                       double groupPopularitySkew, LocalDate semesterStart, int semesterWeeks,
+                       double meanAttendanceRate, int batchSize) {
+        isTrue(groups > 0, "Dataset must contain at least one group");
+        isTrue(users > 0, "Dataset must contain at least one user");
+        inclusiveBetween(0.0, 1.0, tutorsRatio, "Tutors ratio must be between 0 and 1");
+        inclusiveBetween(1, groups, maxGroupsPerStudent, "Groups per student must be between 1 and groups");
+        isTrue(groupPopularitySkew >= 0, "Group popularity skew must not be negative");
+        isTrue(semesterWeeks > 0, "Semester must last at least one week");
+        inclusiveBetween(0.0, 1.0, meanAttendanceRate, "Mean attendance rate must be between 0 and 1");
+        isTrue(batchSize > 0, "Batch size must be positive");
+
+        this.seed = seed;
+        this.groups = groups;
+        this.users = users;
+        this.tutorsRatio = tutorsRatio;
+        this.maxGroupsPerStudent = maxGroupsPerStudent;
+        this.groupPopularitySkew = groupPopularitySkew;
+        this.semesterStart = notNull(semesterStart);
+        this.semesterWeeks = semesterWeeks;
+        this.meanAttendanceRate = meanAttendanceRate;
+        this.batchSize = batchSize;
+    }
+}
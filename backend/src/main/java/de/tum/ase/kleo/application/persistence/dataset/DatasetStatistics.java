@@ -0,0 +1,37 @@
+package de.tum.ase.kleo.application.persistence.dataset;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+/**
+ * Number of rows written by a {@link DatasetGenerator} run.
+ */
+@ToString
+@Getter @Accessors(fluent = true)
+public class DatasetStatistics {
+
+    private long groups;
+
+    private long sessions;
+
+    private long users;
+
+    private long registrations;
+
+    private long attendances;
+
+    void addGroup(int sessions) {
+        this.groups++;
+        this.sessions += sessions;
+    }
+
+    void addUser() {
+        this.users++;
+    }
+
+    void addRegistration(int attendances) {
+        this.registrations++;
+        this.attendances += attendances;
+    }
+}
@@ -0,0 +1,35 @@
+package de.tum.ase.kleo.application.persistence.dataset;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Samples ranks {@code 0..n-1} where the probability of rank {@code k} is
+ * proportional to {@code 1 / (k + 1)^skew}, so a few ranks are drawn very
+ * often and most of them rarely. A skew of zero is a uniform distribution.
+ */
+class ZipfDistribution {
+
+    private final double[] cumulativeProbabilities;
+
+    ZipfDistribution(int n, double skew) {
+        cumulativeProbabilities = new double[n];
+
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, skew);
+            cumulativeProbabilities[rank] = sum;
+        }
+
+        for (int rank = 0; rank < n; rank++) {
+            cumulativeProbabilities[rank] /= sum;
+        }
+    }
+
+    int sample(Random random) {
+        final int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+        final int rank = index >= 0 ? index : -index - 1;
+
+        return Math.min(rank, cumulativeProbabilities.length - 1);
+    }
+}
@@ -0,0 +1,50 @@
+package de.tum.ase.kleo.application.persistence.routing;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.val;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Remembers who wrote to the primary recently. Until replicas have surely
+ * caught up, their reads go to the primary as well, so users always see
+ * their own changes, e.g. a group they have just joined.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = notNull(window).toNanos();
+    }
+
+    public void recordWrite(String userKey) {
+        lastWriteNanos.put(userKey, System.nanoTime());
+    }
+
+    public boolean requiresPrimary(String userKey) {
+        val writtenAt = lastWriteNanos.get(userKey);
+        if (writtenAt == null)
+            return false;
+
+        if (System.nanoTime() - writtenAt < windowNanos)
+            return true;
+
+        lastWriteNanos.remove(userKey, writtenAt);
+        return false;
+    }
+
+    public void purgeExpired() {
+        val now = System.nanoTime();
+        lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+    }
+
+    public int size() {
+        return lastWriteNanos.size();
+    }
+}
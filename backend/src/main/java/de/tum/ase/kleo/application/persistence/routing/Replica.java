@@ -0,0 +1,71 @@
+package de.tum.ase.kleo.application.persistence.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import static org.apache.commons.lang3.Validate.notBlank;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * {@code Replica} is a read-only copy of the primary database together with
+ * its last probed state. A replica serves reads only while it is reachable
+ * and lags behind the primary no more than allowed.
+ */
+@Getter @Accessors(fluent = true)
+public class Replica {
+
+    private static final Logger logger = LoggerFactory.getLogger(Replica.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String name;
+
+    private final DataSource dataSource;
+
+    private volatile boolean available;
+
+    private volatile long lagMillis;
+
+    public Replica(String name, DataSource dataSource) {
+        this.name = notBlank(name);
+        this.dataSource = notNull(dataSource);
+    }
+
+    /**
+     * Checks the replica is reachable and, given a query returning the
+     * replication lag in milliseconds, that it is not lagging behind more
+     * than {@code maxLagMillis}. Without a lag query replicas are assumed
+     * to be in sync.
+     */
+    public void probe(String lagQuery, long maxLagMillis) {
+        final boolean wasAvailable = available;
+
+        try (Connection connection = dataSource.getConnection()) {
+            lagMillis = lagQuery == null ? 0 : queryLagMillis(connection, lagQuery);
+            available = connection.isValid(VALIDATION_TIMEOUT_SECONDS) && lagMillis <= maxLagMillis;
+        } catch (SQLException e) {
+            available = false;
+            logger.debug("Replica {} probe failed", name, e);
+        }
+
+        if (wasAvailable != available)
+            logger.warn("Replica {} is {} (lag {} ms)", name, available ? "available" : "unavailable", lagMillis);
+    }
+
+    private static long queryLagMillis(Connection connection, String lagQuery) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package de.tum.ase.kleo.application.persistence.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import lombok.val;
+
+import static org.apache.commons.lang3.Validate.noNullElements;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Sends read-only transactions round-robin to available replicas and
+ * everything else to the primary. The user's key is recorded on every
+ * read-write transaction, and their reads stick to the primary until the
+ * {@link ReadYourWritesTracker} window has passed.
+ * <p>
+ * Transactions are flagged read-only only after their connection has been
+ * requested, so this data source must be wrapped into a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * deferring the lookup to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+
+    private final ReadYourWritesTracker readYourWrites;
+
+    private final Supplier<String> currentUserKey;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas,
+                                    ReadYourWritesTracker readYourWrites, Supplier<String> currentUserKey) {
+        this.replicas = new ArrayList<>(noNullElements(replicas));
+        this.readYourWrites = notNull(readYourWrites);
+        this.currentUserKey = notNull(currentUserKey);
+
+        val targetDataSources = new HashMap<Object, Object>();
+        targetDataSources.put(PRIMARY, notNull(primary));
+        replicas.forEach(replica -> targetDataSources.put(replica.name(), replica.dataSource()));
+
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public void probeReplicas(String lagQuery, long maxLagMillis) {
+        replicas.forEach(replica -> replica.probe(lagQuery, maxLagMillis));
+        readYourWrites.purgeExpired();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive())
+            return PRIMARY;
+
+        val userKey = currentUserKey.get();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userKey != null)
+                readYourWrites.recordWrite(userKey);
+
+            return PRIMARY;
+        }
+
+        if (userKey != null && readYourWrites.requiresPrimary(userKey))
+            return PRIMARY;
+
+        return nextAvailableReplica();
+    }
+
+    private String nextAvailableReplica() {
+        val replicasCount = replicas.size();
+        val start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(replicasCount, 1));
+
+        for (int i = 0; i < replicasCount; i++) {
+            val replica = replicas.get((start + i) % replicasCount);
+            if (replica.available())
+                return replica.name();
+        }
+
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,306 @@
+package de.tum.ase.kleo.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.tum.ase.kleo.domain.id.GroupId;
+import de.tum.ase.kleo.domain.id.SessionId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.val;
+
+import static java.util.Collections.emptyList;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * {@code AttendanceFeed} fans committed attendances out to live subscribers,
+ * e.g. tutor dashboards, without them polling the database.
+ * <p>
+ * Every subscriber has a bounded buffer drained by a dispatcher pool, so a
+ * slow connection never blocks the committing request. Events and heartbeats
+ * of a subscriber are written by one drain at a time. Writes block, so the
+ * pool starts a thread per drain up to {@code feed.dispatchThreads} before
+ * queueing drains, rather than letting a few stalled connections hold up the
+ * other subscribers. A subscriber whose buffer overflows, whose drain doesn't
+ * fit into the {@code feed.dispatchQueueSize} queue or whose write takes
+ * longer than {@code feed.writeTimeoutMillis} is dropped and has to
+ * resubscribe.
+ */
+@Component
+public class AttendanceFeed implements DisposableBean {
+
+    private final Logger logger = LoggerFactory.getLogger(AttendanceFeed.class);
+
+    private static final long IDLE_DISPATCH_THREAD_SECONDS = 60;
+
+    private final int bufferSize;
+    private final long writeTimeoutNanos;
+
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeats;
+    private final ThreadFactory closers = daemonThreads("attendance-feed-close");
+
+    private final Map<GroupId, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscribersCount;
+    private final Counter droppedSubscribers;
+
+    public AttendanceFeed(@Value("${feed.bufferSize}") int bufferSize,
+                          @Value("${feed.dispatchThreads}") int dispatchThreads,
+                          @Value("${feed.dispatchQueueSize}") int dispatchQueueSize,
+                          @Value("${feed.heartbeatMillis}") long heartbeatMillis,
+                          @Value("${feed.writeTimeoutMillis}") long writeTimeoutMillis,
+                          MeterRegistry meterRegistry) {
+        isTrue(bufferSize > 0, "Feed buffer size must be positive");
+        isTrue(writeTimeoutMillis > 0, "Feed write timeout must be positive");
+        this.bufferSize = bufferSize;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+
+        // As many core as maximum threads, so threads are started before drains are queued
+        val dispatcherPool = new ThreadPoolExecutor(dispatchThreads, dispatchThreads,
+                IDLE_DISPATCH_THREAD_SECONDS, TimeUnit.SECONDS, new ArrayBlockingQueue<>(dispatchQueueSize),
+                daemonThreads("attendance-feed"));
+        dispatcherPool.allowCoreThreadTimeOut(true);
+        this.dispatcher = dispatcherPool;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemonThreads("attendance-feed-heartbeat"));
+        this.heartbeats.scheduleWithFixedDelay(this::sendHeartbeats,
+                heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        this.heartbeats.scheduleWithFixedDelay(this::dropStalledSubscribers,
+                writeTimeoutMillis, Math.max(1, writeTimeoutMillis / 2), TimeUnit.MILLISECONDS);
+
+        this.subscribersCount = meterRegistry.gauge("kleo.feed.subscribers", emptyList(), new AtomicInteger());
+        this.droppedSubscribers = meterRegistry.counter("kleo.feed.subscribers.dropped");
+    }
+
+    /**
+     * Subscribes the sink to attendances of the group, or of a single session
+     * of the group if a session id is given.
+     */
+    public Subscription subscribe(GroupId groupId, SessionId sessionId, Sink sink) {
+        val subscriber = new Subscriber(notNull(groupId), sessionId, notNull(sink));
+
+        subscribers.compute(groupId, (id, groupSubscribers) -> {
+            final Set<Subscriber> updatedSubscribers = groupSubscribers != null
+                    ? groupSubscribers : ConcurrentHashMap.newKeySet();
+            updatedSubscribers.add(subscriber);
+            return updatedSubscribers;
+        });
+        subscribersCount.incrementAndGet();
+
+        return subscriber;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAttendanceRegistered(AttendanceRegisteredEvent event) {
+        val groupSubscribers = subscribers.get(event.groupId());
+        if (groupSubscribers == null)
+            return;
+
+        groupSubscribers.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    public int subscribersCount() {
+        return subscribersCount.get();
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        subscribers.values().forEach(groupSubscribers -> groupSubscribers.forEach(Subscriber::cancel));
+        dispatcher.shutdownNow();
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(groupSubscribers -> groupSubscribers.forEach(Subscriber::requestHeartbeat));
+    }
+
+    private void dropStalledSubscribers() {
+        val now = System.nanoTime();
+        subscribers.values().forEach(groupSubscribers -> groupSubscribers.forEach(subscriber -> {
+            if (subscriber.isWritingSince(now - writeTimeoutNanos)) {
+                logger.warn("Dropping stalled attendance feed subscriber of group {}", subscriber.groupId);
+                droppedSubscribers.increment();
+                subscriber.abandon();
+            }
+        }));
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        val threadNumber = new AtomicInteger();
+        return runnable -> {
+            val thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Receiving end of a subscription, e.g. an open HTTP response. Failing
+     * sends cancel the subscription.
+     */
+    public interface Sink {
+
+        void send(AttendanceRegisteredEvent event) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    public interface Subscription {
+
+        void cancel();
+    }
+
+    private class Subscriber implements Subscription {
+
+        private final GroupId groupId;
+        private final SessionId sessionId;
+        private final Sink sink;
+
+        private final BlockingQueue<AttendanceRegisteredEvent> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        // System.nanoTime() the pending write started at, 0 while not writing.
+        // Written by the one running drain only, read by the stall detection.
+        private volatile long writeStartedAt;
+
+        private Subscriber(GroupId groupId, SessionId sessionId, Sink sink) {
+            this.groupId = groupId;
+            this.sessionId = sessionId;
+            this.sink = sink;
+        }
+
+        private void offer(AttendanceRegisteredEvent event) {
+            if (sessionId != null && !sessionId.equals(event.attendance().sessionId()))
+                return;
+
+            if (!buffer.offer(event)) {
+                logger.warn("Dropping slow attendance feed subscriber of group {}", groupId);
+                droppedSubscribers.increment();
+                cancel();
+                return;
+            }
+
+            scheduleDrain();
+        }
+
+        private void requestHeartbeat() {
+            if (cancelled.get())
+                return;
+
+            heartbeatDue.set(true);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true))
+                return;
+
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                logger.warn("Dropping attendance feed subscriber of group {} as dispatching is saturated", groupId);
+                droppedSubscribers.increment();
+                cancel();
+            }
+        }
+
+        /**
+         * Writes buffered events, then a heartbeat if one is due.
+         */
+        private void drain() {
+            try {
+                while (!cancelled.get()) {
+                    val event = buffer.poll();
+                    if (event == null && !heartbeatDue.getAndSet(false))
+                        break;
+
+                    writeStartedAt = System.nanoTime();
+                    if (event != null) {
+                        sink.send(event);
+                    } else {
+                        sink.heartbeat();
+                    }
+                    writeStartedAt = 0;
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Attendance feed subscriber of group {} failed", groupId, e);
+                cancel();
+            } finally {
+                writeStartedAt = 0;
+                draining.set(false);
+            }
+
+            // Events or heartbeats requested after the last poll but before releasing the flag
+            if (!cancelled.get() && (!buffer.isEmpty() || heartbeatDue.get()))
+                scheduleDrain();
+        }
+
+        private boolean isWritingSince(long nanoTime) {
+            val startedAt = writeStartedAt;
+            return startedAt != 0 && startedAt - nanoTime < 0;
+        }
+
+        @Override
+        public void cancel() {
+            if (unsubscribe())
+                sink.close();
+        }
+
+        /**
+         * Cancels the subscription of a stalled sink. Closing may block
+         * behind the stalled write, so it doesn't run on the caller's thread,
+         * nor on a thread of its own if dispatching is saturated.
+         */
+        private void abandon() {
+            if (!unsubscribe())
+                return;
+
+            try {
+                dispatcher.execute(sink::close);
+            } catch (RejectedExecutionException e) {
+                closers.newThread(sink::close).start();
+            }
+        }
+
+        private boolean unsubscribe() {
+            if (!cancelled.compareAndSet(false, true))
+                return false;
+
+            subscribers.computeIfPresent(groupId, (id, groupSubscribers) -> {
+                groupSubscribers.remove(this);
+                return groupSubscribers.isEmpty() ? null : groupSubscribers;
+            });
+            subscribersCount.decrementAndGet();
+
+            buffer.clear();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package de.tum.ase.kleo.application.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import de.tum.ase.kleo.domain.AttendanceRejectedException;
+import de.tum.ase.kleo.domain.PassTokenizationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.val;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * {@code AttendanceMetrics} instruments the attendance hot path: pass
+ * generation, pass (de)tokenization, attendance registering and the
+ * following recording of attendances to the blockchain.
+ */
+@Component
+public class AttendanceMetrics {
+
+    private static final String REJECTION_INVALID_PASS = "invalid_pass";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer passGenerationTimer;
+    private final Timer passTokenizationTimer;
+    private final Timer passDetokenizationTimer;
+    private final Timer attendanceTimer;
+    private final Timer chainSendTimer;
+
+    private final Counter chainSendSuccesses;
+    private final Counter chainSendFailures;
+
+    private final AtomicInteger attendancesInFlight;
+    private final AtomicInteger chainSendsPending;
+
+    public AttendanceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.passGenerationTimer = latencyTimer("kleo.passes.generation",
+                "Time to issue a session pass to a student");
+        this.passTokenizationTimer = latencyTimer("kleo.passes.tokenization",
+                "Time to serialize and encrypt a pass");
+        this.passDetokenizationTimer = latencyTimer("kleo.passes.detokenization",
+                "Time to decrypt and deserialize a pass");
+        this.attendanceTimer = latencyTimer("kleo.attendances.registration",
+                "Time to register an attendance utilizing a pass");
+        this.chainSendTimer = latencyTimer("kleo.chain.sends",
+                "Time until an attendance recorded to the blockchain has been mined");
+
+        this.chainSendSuccesses = meterRegistry.counter("kleo.chain.sends.completed", "outcome", "success");
+        this.chainSendFailures = meterRegistry.counter("kleo.chain.sends.completed", "outcome", "failure");
+
+        this.attendancesInFlight = meterRegistry.gauge("kleo.attendances.in_flight",
+                emptyList(), new AtomicInteger());
+        this.chainSendsPending = meterRegistry.gauge("kleo.chain.sends.pending",
+                emptyList(), new AtomicInteger());
+    }
+
+    public <T> T recordPassGeneration(Supplier<T> passGeneration) {
+        return passGenerationTimer.record(passGeneration);
+    }
+
+    public <T> T recordPassTokenization(Supplier<T> passTokenization) {
+        return passTokenizationTimer.record(passTokenization);
+    }
+
+    public <T> T recordPassDetokenization(Supplier<T> passDetokenization) {
+        return passDetokenizationTimer.record(passDetokenization);
+    }
+
+    /**
+     * Times the attendance registering and counts rejected attendances by
+     * their reason.
+     */
+    public <T> T recordAttendance(Supplier<T> attendance) {
+        attendancesInFlight.incrementAndGet();
+        try {
+            return attendanceTimer.record(attendance);
+        } catch (AttendanceRejectedException e) {
+            countRejection(e.reason().name().toLowerCase());
+            throw e;
+        } catch (PassTokenizationException e) {
+            countRejection(REJECTION_INVALID_PASS);
+            throw e;
+        } finally {
+            attendancesInFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Tracks an asynchronous blockchain transaction until it completes.
+     */
+    public <T> CompletableFuture<T> recordChainSend(Supplier<CompletableFuture<T>> chainSend) {
+        val sample = Timer.start(meterRegistry);
+        chainSendsPending.incrementAndGet();
+
+        final CompletableFuture<T> futureResult;
+        try {
+            futureResult = chainSend.get();
+        } catch (RuntimeException e) {
+            chainSendsPending.decrementAndGet();
+            chainSendFailures.increment();
+            throw e;
+        }
+
+        return futureResult.whenComplete((result, error) -> {
+            chainSendsPending.decrementAndGet();
+            sample.stop(chainSendTimer);
+
+            if (error == null) {
+                chainSendSuccesses.increment();
+            } else {
+                chainSendFailures.increment();
+            }
+        });
+    }
+
+    private void countRejection(String reason) {
+        meterRegistry.counter("kleo.attendances.rejected", "reason", reason).increment();
+    }
+
+    private Timer latencyTimer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
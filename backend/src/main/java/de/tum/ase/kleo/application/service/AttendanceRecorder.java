@@ -0,0 +1,18 @@
+package de.tum.ase.kleo.application.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import de.tum.ase.kleo.domain.Attendance;
+
+/**
+ * {@code AttendanceRecorder} keeps a tamper-proof record of registered
+ * {@link Attendance}s outside of the application's database.
+ */
+public interface AttendanceRecorder {
+
+    /**
+     * Records the attendance asynchronously, completing with a reference to
+     * the record, e.g. a transaction hash.
+     */
+    CompletableFuture<String> recordAttendance(Attendance attendance);
+}
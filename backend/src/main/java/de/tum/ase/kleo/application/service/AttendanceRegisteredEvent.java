@@ -0,0 +1,28 @@
+package de.tum.ase.kleo.application.service;
+
+import de.tum.ase.kleo.domain.Attendance;
+import de.tum.ase.kleo.domain.id.GroupId;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Published when a student has attended a session of a group. Listeners
+ * bound to the commit of the transaction only see attendances that have
+ * actually been stored.
+ */
+@ToString
+@Getter @Accessors(fluent = true)
+public class AttendanceRegisteredEvent {
+
+    private final GroupId groupId;
+
+    private final Attendance attendance;
+
+    public AttendanceRegisteredEvent(GroupId groupId, Attendance attendance) {
+        this.groupId = notNull(groupId);
+        this.attendance = notNull(attendance);
+    }
+}
@@ -0,0 +1,67 @@
+package de.tum.ase.kleo.application.service;
+
+import de.tum.ase.kleo.domain.id.GroupId;
+import de.tum.ase.kleo.domain.id.SessionId;
+import de.tum.ase.kleo.domain.id.UserId;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * {@code Change} tells a client which resource to refetch or drop. It names
+ * the resource only, e.g. the group and the student of an enrollment,
+ * rather than carrying its state. The sequence is assigned by the
+ * {@link ChangeLog} and is 0 for changes not recorded yet.
+ */
+@ToString @EqualsAndHashCode
+@Getter @Accessors(fluent = true)
+public class Change {
+
+    public enum Type {
+        GROUP, SESSION, ENROLLMENT, ATTENDANCE, USER
+    }
+
+    private final long sequence;
+
+    private final Type type;
+
+    private final boolean deleted;
+
+    private final GroupId groupId;
+
+    private final SessionId sessionId;
+
+    private final UserId userId;
+
+    Change(long sequence, Type type, boolean deleted, GroupId groupId, SessionId sessionId, UserId userId) {
+        this.sequence = sequence;
+        this.type = notNull(type);
+        this.deleted = deleted;
+        this.groupId = groupId;
+        this.sessionId = sessionId;
+        this.userId = userId;
+    }
+
+    public static Change group(GroupId groupId, boolean deleted) {
+        return new Change(0, Type.GROUP, deleted, notNull(groupId), null, null);
+    }
+
+    public static Change session(GroupId groupId, SessionId sessionId, boolean deleted) {
+        return new Change(0, Type.SESSION, deleted, notNull(groupId), notNull(sessionId), null);
+    }
+
+    public static Change enrollment(GroupId groupId, UserId studentId, boolean deleted) {
+        return new Change(0, Type.ENROLLMENT, deleted, notNull(groupId), null, notNull(studentId));
+    }
+
+    public static Change attendance(GroupId groupId, SessionId sessionId, UserId studentId) {
+        return new Change(0, Type.ATTENDANCE, false, notNull(groupId), notNull(sessionId), notNull(studentId));
+    }
+
+    public static Change user(UserId userId, boolean deleted) {
+        return new Change(0, Type.USER, deleted, null, null, notNull(userId));
+    }
+}
@@ -0,0 +1,206 @@
+package de.tum.ase.kleo.application.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import de.tum.ase.kleo.domain.id.GroupId;
+import de.tum.ase.kleo.domain.id.SessionId;
+import de.tum.ase.kleo.domain.id.UserId;
+import lombok.val;
+
+import static java.util.Collections.singletonList;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * {@code ChangeLog} numbers mutations of groups, sessions, enrollments,
+ * attendances and users, so that clients fetch what changed since their
+ * last sync rather than everything again.
+ * <p>
+ * Changes recorded within a transaction are buffered and inserted right
+ * before it commits, so they get their sequence from an auto increment
+ * column and their time as the transaction completes rather than while a
+ * long one, e.g. a roster import, is still running. Between the insert and
+ * the commit, another transaction may still commit a later sequence, and
+ * replicas lag behind the primary, so a client reading right away could
+ * step past a sequence that becomes visible only afterwards and never see
+ * that change. Changes are therefore served only after
+ * {@code changes.settleMillis}, which must exceed both the time a
+ * transaction takes to commit, including the final flush, and the
+ * replication lag.
+ */
+@Component
+public class ChangeLog {
+
+    private static final String INSERT_CHANGE = "INSERT INTO change_log "
+            + "(changed_at, change_type, deleted, group_id, session_id, user_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_CHANGES = "SELECT seq, change_type, deleted, group_id, session_id, user_id "
+            + "FROM change_log WHERE seq > ? AND changed_at <= ? ORDER BY seq LIMIT ?";
+
+    private static final String SELECT_HEAD = "SELECT COALESCE(MAX(seq), 0) FROM change_log WHERE changed_at <= ?";
+
+    private static final String SELECT_VIEWER_GROUPS = "SELECT group_id FROM group_students WHERE user_id = ?";
+
+    private static final RowMapper<Change> CHANGE_MAPPER = (rs, rowNum) -> new Change(
+            rs.getLong("seq"),
+            Change.Type.valueOf(rs.getString("change_type")),
+            rs.getBoolean("deleted"),
+            toId((UUID) rs.getObject("group_id"), GroupId::new),
+            toId((UUID) rs.getObject("session_id"), SessionId::new),
+            toId((UUID) rs.getObject("user_id"), UserId::new));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final long settleMillis;
+
+    @Autowired
+    public ChangeLog(JdbcTemplate jdbcTemplate, @Value("${changes.settleMillis}") long settleMillis) {
+        isTrue(settleMillis >= 0, "Negative settle time of changes");
+
+        this.jdbcTemplate = notNull(jdbcTemplate);
+        this.settleMillis = settleMillis;
+    }
+
+    public void record(Change change) {
+        recordAll(singletonList(change));
+    }
+
+    /**
+     * Records the changes as the current transaction commits, or right
+     * away if there is none.
+     */
+    public void recordAll(Collection<Change> changes) {
+        if (changes.isEmpty())
+            return;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingChanges().changes.addAll(changes);
+        } else {
+            insert(changes);
+        }
+    }
+
+    private PendingChanges pendingChanges() {
+        for (val synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges && ((PendingChanges) synchronization).changeLog == this)
+                return (PendingChanges) synchronization;
+        }
+
+        val pendingChanges = new PendingChanges(this);
+        TransactionSynchronizationManager.registerSynchronization(pendingChanges);
+        return pendingChanges;
+    }
+
+    private void insert(Collection<Change> changes) {
+        val changedAt = new Timestamp(System.currentTimeMillis());
+        val rows = new ArrayList<Object[]>(changes.size());
+        for (val change : changes) {
+            rows.add(new Object[] {
+                    changedAt,
+                    change.type().name(),
+                    change.deleted(),
+                    change.groupId() == null ? null : change.groupId().toUuid(),
+                    change.sessionId() == null ? null : change.sessionId().toUuid(),
+                    change.userId() == null ? null : change.userId().toUuid()
+            });
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, rows);
+    }
+
+    /**
+     * Returns up to {@code limit} settled changes following the cursor
+     * {@code since}. Unless {@code allStudents} is set, attendances of other
+     * students, and their enrollments in groups the viewer doesn't belong
+     * to, are skipped, yet still advance the cursor.
+     */
+    @Transactional(readOnly = true)
+    public ChangeSet changesSince(long since, int limit, UserId viewer, boolean allStudents) {
+        isTrue(since >= 0, "Negative change cursor");
+        isTrue(limit > 0, "Non-positive changes limit");
+        notNull(viewer);
+
+        val scanned = jdbcTemplate.query(SELECT_CHANGES, CHANGE_MAPPER, since, settledBefore(), limit + 1);
+        val hasMore = scanned.size() > limit;
+        val page = hasMore ? scanned.subList(0, limit) : scanned;
+
+        val changes = new ArrayList<Change>(page.size());
+        Set<GroupId> viewerGroupIds = null;
+        for (val change : page) {
+            if (!allStudents && !viewer.equals(change.userId())) {
+                if (change.type() == Change.Type.ATTENDANCE)
+                    continue;
+
+                if (change.type() == Change.Type.ENROLLMENT) {
+                    if (viewerGroupIds == null)
+                        viewerGroupIds = viewerGroupIds(viewer);
+
+                    if (!viewerGroupIds.contains(change.groupId()))
+                        continue;
+                }
+            }
+
+            changes.add(change);
+        }
+
+        val cursor = page.isEmpty() ? since : page.get(page.size() - 1).sequence();
+        return new ChangeSet(changes, cursor, hasMore);
+    }
+
+    /**
+     * Returns the cursor of the latest settled change, to be taken before
+     * a client's full fetch of resources it then keeps in sync.
+     */
+    @Transactional(readOnly = true)
+    public long head() {
+        return jdbcTemplate.queryForObject(SELECT_HEAD, Long.class, settledBefore());
+    }
+
+    private Set<GroupId> viewerGroupIds(UserId viewer) {
+        return new HashSet<>(jdbcTemplate.query(SELECT_VIEWER_GROUPS,
+                (rs, rowNum) -> new GroupId((UUID) rs.getObject("group_id")), viewer.toUuid()));
+    }
+
+    private Timestamp settledBefore() {
+        return new Timestamp(System.currentTimeMillis() - settleMillis);
+    }
+
+    /**
+     * Changes recorded within a transaction, inserted before it commits.
+     */
+    private static class PendingChanges extends TransactionSynchronizationAdapter {
+
+        private final ChangeLog changeLog;
+        private final List<Change> changes = new ArrayList<>();
+
+        private PendingChanges(ChangeLog changeLog) {
+            this.changeLog = changeLog;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!changes.isEmpty())
+                changeLog.insert(changes);
+        }
+    }
+
+    private static <T> T toId(UUID uuid, Function<UUID, T> idFactory) {
+        return uuid == null ? null : idFactory.apply(uuid);
+    }
+}
@@ -0,0 +1,31 @@
+package de.tum.ase.kleo.application.service;
+
+import java.util.Collections;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * {@code ChangeSet} is a page of the {@link ChangeLog} and the cursor to
+ * pass for the page that follows it.
+ */
+@ToString
+@Getter @Accessors(fluent = true)
+public class ChangeSet {
+
+    private final List<Change> changes;
+
+    private final long cursor;
+
+    private final boolean hasMore;
+
+    public ChangeSet(List<Change> changes, long cursor, boolean hasMore) {
+        this.changes = Collections.unmodifiableList(notNull(changes));
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+}
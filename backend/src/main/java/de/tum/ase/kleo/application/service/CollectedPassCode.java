@@ -0,0 +1,29 @@
+package de.tum.ase.kleo.application.service;
+
+import java.time.OffsetDateTime;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * {@code CollectedPassCode} is a pass code handed to a tutor's device in a
+ * handshake, along with the time it was handed over. The pass is checked
+ * for expiry at that time rather than when the device uploads it.
+ */
+@ToString @EqualsAndHashCode
+@Getter @Accessors(fluent = true)
+public class CollectedPassCode {
+
+    private final String passCode;
+
+    private final OffsetDateTime collectedAt;
+
+    public CollectedPassCode(String passCode, OffsetDateTime collectedAt) {
+        this.passCode = passCode;
+        this.collectedAt = notNull(collectedAt);
+    }
+}
@@ -0,0 +1,28 @@
+package de.tum.ase.kleo.application.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import de.tum.ase.kleo.domain.Attendance;
+import de.tum.ase.kleo.ethereum.AttendanceTracker;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Records attendances with the {@link AttendanceTracker} smart contract.
+ */
+public class EthereumAttendanceRecorder implements AttendanceRecorder {
+
+    private final AttendanceTracker attendanceTracker;
+
+    public EthereumAttendanceRecorder(AttendanceTracker attendanceTracker) {
+        this.attendanceTracker = notNull(attendanceTracker);
+    }
+
+    @Override
+    public CompletableFuture<String> recordAttendance(Attendance attendance) {
+        return attendanceTracker.recordAttendance(
+                attendance.sessionId().toString(),
+                attendance.studentId().toString()).sendAsync()
+                .thenApply(txReceipt -> txReceipt.getTransactionHash());
+    }
+}
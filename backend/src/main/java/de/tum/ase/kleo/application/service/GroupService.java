@@ -3,28 +3,45 @@ package de.tum.ase.kleo.application.service;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.Reader;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
+import de.tum.ase.kleo.application.tracing.AsyncTracer;
 import de.tum.ase.kleo.domain.Attendance;
+import de.tum.ase.kleo.domain.AttendanceRejectedException;
 import de.tum.ase.kleo.domain.Group;
 import de.tum.ase.kleo.domain.GroupRepository;
 import de.tum.ase.kleo.domain.Pass;
 import de.tum.ase.kleo.domain.PassDetokenizer;
+import de.tum.ase.kleo.domain.PassTokenizationException;
 import de.tum.ase.kleo.domain.PassTokenizer;
 import de.tum.ase.kleo.domain.Session;
+import de.tum.ase.kleo.domain.SessionDelegation;
+import de.tum.ase.kleo.domain.SessionKeyDerivation;
+import de.tum.ase.kleo.domain.SessionRecurrence;
 import de.tum.ase.kleo.domain.SessionType;
 import de.tum.ase.kleo.domain.User;
 import de.tum.ase.kleo.domain.id.SessionId;
 import de.tum.ase.kleo.domain.id.UserId;
-import de.tum.ase.kleo.ethereum.AttendanceTracker;
 import lombok.val;
 
+import static java.util.stream.Collectors.partitioningBy;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.StreamSupport.stream;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
@@ -32,6 +49,15 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 @Transactional(readOnly = true)
 public class GroupService {
 
+    private static final int ROSTER_CHUNK_SIZE = 500;
+    private static final int MAX_PASS_BATCH_SIZE = 1000;
+
+    private static final Duration MAX_PREFETCHED_PASS_EXPIRE = Duration.ofMinutes(30);
+    private static final Duration MAX_COLLECTED_PASS_AGE = Duration.ofHours(24);
+
+    private static final Duration MAX_DELEGATION_VALIDITY = Duration.ofHours(6);
+    private static final Duration DELEGATION_CLOCK_SKEW = Duration.ofMinutes(5);
+
     private final Logger logger = LoggerFactory.getLogger(GroupService.class);
 
     private final GroupRepository groupRepository;
@@ -39,17 +65,31 @@ public class GroupService {
 
     private final PassTokenizer passTokenizer;
     private final PassDetokenizer passDetokenizer;
+    private final SessionKeyDerivation sessionKeyDerivation;
+
+    private final AttendanceRecorder attendanceRecorder;
 
-    private final AttendanceTracker attendanceTracker;
+    private final AttendanceMetrics attendanceMetrics;
+    private final AsyncTracer asyncTracer;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeLog changeLog;
 
     public GroupService(GroupRepository groupRepository, UserService userService,
                         PassTokenizer passTokenizer, PassDetokenizer passDetokenizer,
-                        AttendanceTracker attendanceTracker) {
+                        SessionKeyDerivation sessionKeyDerivation, AttendanceRecorder attendanceRecorder,
+                        AttendanceMetrics attendanceMetrics, AsyncTracer asyncTracer,
+                        ApplicationEventPublisher eventPublisher, ChangeLog changeLog) {
         this.groupRepository = groupRepository;
         this.userService = userService;
         this.passTokenizer = passTokenizer;
         this.passDetokenizer = passDetokenizer;
-        this.attendanceTracker = attendanceTracker;
+        this.sessionKeyDerivation = sessionKeyDerivation;
+        this.attendanceRecorder = attendanceRecorder;
+        this.attendanceMetrics = attendanceMetrics;
+        this.asyncTracer = asyncTracer;
+        this.eventPublisher = eventPublisher;
+        this.changeLog = changeLog;
     }
 
     public boolean groupExists(String groupIdOrCode) {
@@ -58,7 +98,13 @@ public class GroupService {
 
     @Transactional
     public Group saveGroup(Group group) {
-        return groupRepository.save(group);
+        val savedGroup = groupRepository.save(group);
+
+        changeLog.record(Change.group(savedGroup.id(), false));
+        changeLog.recordAll(savedGroup.studentIds().stream()
+                .map(studentId -> Change.enrollment(savedGroup.id(), studentId, false))
+                .collect(toList()));
+        return savedGroup;
     }
 
     public Optional<Group> getGroup(String groupIdOrCode) {
@@ -84,6 +130,7 @@ public class GroupService {
 
         if (!isBlank(newName)) {
             group.rename(newName);
+            changeLog.record(Change.group(group.id(), false));
         }
 
         return group;
@@ -96,10 +143,19 @@ public class GroupService {
 
         if (!isBlank(newName)) {
             group.rename(newName);
+            changeLog.record(Change.group(group.id(), false));
         }
 
         if (newStudents != null) {
+            val oldStudents = new HashSet<UserId>(group.studentIds());
             group.studentIds(newStudents);
+
+            val enrollmentChanges = new ArrayList<Change>();
+            oldStudents.stream().filter(studentId -> !newStudents.contains(studentId))
+                    .forEach(studentId -> enrollmentChanges.add(Change.enrollment(group.id(), studentId, true)));
+            newStudents.stream().filter(studentId -> !oldStudents.contains(studentId))
+                    .forEach(studentId -> enrollmentChanges.add(Change.enrollment(group.id(), studentId, false)));
+            changeLog.recordAll(enrollmentChanges);
         }
 
         return group;
@@ -125,35 +181,176 @@ public class GroupService {
             group.rescheduleSession(sessionId, newBegins, newEnds);
         }
 
+        changeLog.record(Change.session(group.id(), sessionId, false));
         return group.session(sessionId).get();
     }
 
     public String generateSessionPassCode(String groupIdOrCode, SessionId sessionId, UserId studentId) {
+        return attendanceMetrics.recordPassGeneration(() -> {
+            val group = getGroup(groupIdOrCode).orElseThrow(()
+                    -> new RecordNotFoundException("Unknown group id or code", Group.class));
+
+            group.session(sessionId).orElseThrow(()
+                    -> new RecordNotFoundException("Unknown session id", Session.class));
+
+            final Pass newPass = new Pass(sessionId, studentId);
+            return attendanceMetrics.recordPassTokenization(() -> passTokenizer.tokenizeToString(newPass));
+        });
+    }
+
+    /**
+     * Issues passes for every student registered in the group at once, so
+     * a tutor's device can answer handshakes without a backend round trip.
+     * Passes are encrypted in parallel. They expire at most in
+     * {@link #MAX_PREFETCHED_PASS_EXPIRE}, as a device holding them may be
+     * lost, while single passes always expire in the default time.
+     *
+     * @throws InvalidPassExpiryException if the expiry isn't positive or
+     *                                    exceeds the maximum
+     */
+    public List<Pair<Pass, String>> generateSessionPassCodes(String groupIdOrCode, SessionId sessionId,
+                                                             Duration expireIn) {
+        if (expireIn != null && (expireIn.isNegative() || expireIn.isZero()
+                || expireIn.compareTo(MAX_PREFETCHED_PASS_EXPIRE) > 0))
+            throw new InvalidPassExpiryException("Passes must expire within "
+                    + MAX_PREFETCHED_PASS_EXPIRE.getSeconds() + " seconds");
+
+        return attendanceMetrics.recordPassGeneration(() -> {
+            val group = getGroup(groupIdOrCode).orElseThrow(()
+                    -> new RecordNotFoundException("Unknown group id or code", Group.class));
+
+            group.session(sessionId).orElseThrow(()
+                    -> new RecordNotFoundException("Unknown session id", Session.class));
+
+            final List<Pass> passes = group.studentIds().stream()
+                    .map(studentId -> expireIn == null
+                            ? new Pass(sessionId, studentId) : new Pass(sessionId, studentId, expireIn))
+                    .collect(toList());
+
+            return passes.parallelStream()
+                    .map(pass -> Pair.of(pass, passTokenizer.tokenizeToString(pass)))
+                    .collect(toList());
+        });
+    }
+
+    /**
+     * Delegates pass minting for the session to a tutor's device until the
+     * session ends, at most for {@link #MAX_DELEGATION_VALIDITY}. The window
+     * opens slightly in the past to tolerate clocks of devices running late.
+     *
+     * @throws SessionEndedException if the session has already ended
+     */
+    public SessionDelegation delegateSessionPasses(String groupIdOrCode, SessionId sessionId) {
         val group = getGroup(groupIdOrCode).orElseThrow(()
                 -> new RecordNotFoundException("Unknown group id or code", Group.class));
 
-        group.session(sessionId).orElseThrow(()
+        val session = group.session(sessionId).orElseThrow(()
                 -> new RecordNotFoundException("Unknown session id", Session.class));
 
-        final Pass newPass = new Pass(sessionId, studentId);
-        return passTokenizer.tokenizeToString(newPass);
+        val now = Instant.now();
+        val sessionEnds = session.ends().toInstant();
+        if (!sessionEnds.isAfter(now))
+            throw new SessionEndedException("Passes of sessions that are over can't be delegated");
+
+        val maxNotAfter = now.plus(MAX_DELEGATION_VALIDITY);
+        return sessionKeyDerivation.delegate(sessionId, now.minus(DELEGATION_CLOCK_SKEW),
+                sessionEnds.isBefore(maxNotAfter) ? sessionEnds : maxNotAfter);
     }
 
     @Transactional
     public void utilizeSessionPassCode(String groupIdOrCode, String passCode) {
+        final Attendance attendance = attendanceMetrics.recordAttendance(() -> {
+            val group = getGroup(groupIdOrCode).orElseThrow(()
+                    -> new RecordNotFoundException("Unknown group id or code", Group.class));
+
+            val groupAttendance = attend(group, passCode);
+            changeLog.record(Change.attendance(group.id(), groupAttendance.sessionId(), groupAttendance.studentId()));
+            return groupAttendance;
+        });
+
+        recordToChain(attendance);
+    }
+
+    /**
+     * Redeems pass codes collected by a tutor's device just now.
+     *
+     * @see #utilizeCollectedPassCodes(String, List)
+     */
+    @Transactional
+    public List<PassUtilization> utilizeSessionPassCodes(String groupIdOrCode, List<String> passCodes) {
+        val now = OffsetDateTime.now();
+        return utilizeCollectedPassCodes(groupIdOrCode, passCodes.stream()
+                .map(passCode -> new CollectedPassCode(passCode, now))
+                .collect(toList()));
+    }
+
+    /**
+     * Redeems pass codes collected by a tutor's device within a single
+     * transaction, so attendances are flushed in JDBC batches. A pass that
+     * can't be redeemed doesn't fail the batch but is reported as rejected.
+     * <p>
+     * Passes are checked for expiry at the time they were collected, so a
+     * device that was offline for a while doesn't have them rejected. That
+     * time is taken as now if it lies in the future and is bounded by
+     * {@link #MAX_COLLECTED_PASS_AGE} in the past.
+     */
+    @Transactional
+    public List<PassUtilization> utilizeCollectedPassCodes(String groupIdOrCode, List<CollectedPassCode> passCodes) {
+        if (passCodes.size() > MAX_PASS_BATCH_SIZE)
+            throw new IllegalArgumentException("At most " + MAX_PASS_BATCH_SIZE + " passes can be utilized at once");
+
         val group = getGroup(groupIdOrCode).orElseThrow(()
                 -> new RecordNotFoundException("Unknown group id or code", Group.class));
 
-        final Pass pass = passDetokenizer.detokenize(passCode);
-        val attendanceRecord = group.attend(pass);
+        val now = OffsetDateTime.now();
+        val collectedNotBefore = now.minus(MAX_COLLECTED_PASS_AGE);
+
+        val utilizations = new ArrayList<PassUtilization>(passCodes.size());
+        val attendanceChanges = new ArrayList<Change>(passCodes.size());
+        for (val collectedPassCode : passCodes) {
+            val passCode = collectedPassCode.passCode();
+            val collectedAt = collectedPassCode.collectedAt().isAfter(now) ? now
+                    : collectedPassCode.collectedAt().isBefore(collectedNotBefore) ? collectedNotBefore
+                    : collectedPassCode.collectedAt();
+            try {
+                final Attendance attendance = attendanceMetrics.recordAttendance(()
+                        -> attend(group, passCode, collectedAt));
+
+                recordToChain(attendance);
+                attendanceChanges.add(Change.attendance(group.id(), attendance.sessionId(), attendance.studentId()));
+                utilizations.add(new PassUtilization(passCode, PassUtilization.Status.ATTENDED));
+            } catch (AttendanceRejectedException e) {
+                utilizations.add(new PassUtilization(passCode, PassUtilization.Status.from(e.reason())));
+            } catch (PassTokenizationException e) {
+                utilizations.add(new PassUtilization(passCode, PassUtilization.Status.INVALID_PASS));
+            }
+        }
+
+        changeLog.recordAll(attendanceChanges);
+        return utilizations;
+    }
+
+    private Attendance attend(Group group, String passCode) {
+        return attend(group, passCode, OffsetDateTime.now());
+    }
 
-        val futureTxReceipt = attendanceTracker.recordAttendance(
-                attendanceRecord.sessionId().toString(),
-                attendanceRecord.studentId().toString()).sendAsync();
+    private Attendance attend(Group group, String passCode, OffsetDateTime presentedAt) {
+        final Pass pass = attendanceMetrics.recordPassDetokenization(()
+                -> passDetokenizer.detokenize(passCode));
+        final Attendance attendance = group.attend(pass, presentedAt);
 
-        futureTxReceipt.thenAccept((txReceipt) -> {
+        eventPublisher.publishEvent(new AttendanceRegisteredEvent(group.id(), attendance));
+        return attendance;
+    }
+
+    private void recordToChain(Attendance attendance) {
+        final CompletableFuture<String> futureTxHash = attendanceMetrics.recordChainSend(()
+                -> asyncTracer.trace("AttendanceRecorder.recordAttendance", ()
+                        -> attendanceRecorder.recordAttendance(attendance)));
+
+        futureTxHash.thenAccept((txHash) -> {
             logger.info("Attendance has been recorded to the blockchain." +
-                    "TxHash = {}", txReceipt.getTransactionHash());
+                    "TxHash = {}", txHash);
         });
     }
 
@@ -165,7 +362,84 @@ public class GroupService {
         val group = getGroup(groupIdOrCode).orElseThrow(()
                 -> new RecordNotFoundException("Unknown group id or code", Group.class));
 
-        return group.addStudent(userId);
+        val added = group.addStudent(userId);
+        if (added)
+            changeLog.record(Change.enrollment(group.id(), userId, false));
+
+        return added;
+    }
+
+    /**
+     * Enrolls the students listed in the roster, resolving them by email or
+     * matriculation number in chunks of {@value #ROSTER_CHUNK_SIZE}. Only
+     * students not yet registered are added to the group.
+     */
+    @Transactional
+    public RosterImportResult importGroupStudents(String groupIdOrCode, Reader roster) {
+        val group = getGroup(groupIdOrCode).orElseThrow(()
+                -> new RecordNotFoundException("Unknown group id or code", Group.class));
+
+        val result = new RosterImportResult();
+        val rosterReader = new RosterReader(roster);
+
+        List<String> identifiers;
+        while (!(identifiers = rosterReader.nextChunk(ROSTER_CHUNK_SIZE)).isEmpty()) {
+            val studentIds = resolveStudents(identifiers, result);
+            val newStudentIds = studentIds.stream()
+                    .filter(studentId -> !group.isStudentRegistered(studentId))
+                    .distinct()
+                    .collect(toList());
+            val enrolled = group.enroll(studentIds);
+
+            changeLog.recordAll(newStudentIds.stream()
+                    .map(studentId -> Change.enrollment(group.id(), studentId, false))
+                    .collect(toList()));
+
+            result.enrolled(enrolled);
+            result.alreadyEnrolled(studentIds.size() - enrolled);
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves students by email or matriculation number. An identifier
+     * shared by several users, e.g. a matriculation number entered twice,
+     * is reported as ambiguous rather than resolved to either of them.
+     */
+    private List<UserId> resolveStudents(List<String> identifiers, RosterImportResult result) {
+        val isEmail = identifiers.stream().collect(partitioningBy(RosterReader::isEmail));
+
+        val usersByIdentifier = new HashMap<String, UserId>();
+        val ambiguousIdentifiers = new HashSet<String>();
+        if (!isEmail.get(true).isEmpty())
+            userService.getUsersByEmails(isEmail.get(true))
+                    .forEach(user -> resolved(usersByIdentifier, ambiguousIdentifiers, user.email(), user.id()));
+        if (!isEmail.get(false).isEmpty())
+            userService.getUsersByStudentIds(isEmail.get(false))
+                    .forEach(user -> resolved(usersByIdentifier, ambiguousIdentifiers, user.studentId(), user.id()));
+
+        val studentIds = new ArrayList<UserId>(identifiers.size());
+        for (val identifier : identifiers) {
+            val studentId = usersByIdentifier.get(identifier);
+
+            if (ambiguousIdentifiers.contains(identifier)) {
+                result.ambiguous(identifier);
+            } else if (studentId == null) {
+                result.unresolved(identifier);
+            } else {
+                studentIds.add(studentId);
+            }
+        }
+
+        return studentIds;
+    }
+
+    private static void resolved(Map<String, UserId> usersByIdentifier, Set<String> ambiguousIdentifiers,
+                                 String identifier, UserId userId) {
+        val previousUserId = usersByIdentifier.put(identifier, userId);
+        if (previousUserId != null && !previousUserId.equals(userId))
+            ambiguousIdentifiers.add(identifier);
     }
 
     @Transactional
@@ -175,11 +449,34 @@ public class GroupService {
                 -> new RecordNotFoundException("Unknown group id or code", Group.class));
 
         val newSessionId = group.addSession(sessionType, location, begins, ends);
+
+        changeLog.record(Change.session(group.id(), newSessionId, false));
         return group.session(newSessionId).get();
     }
 
+    @Transactional
+    public List<Session> scheduleGroupSessions(String groupIdOrCode, SessionType sessionType,
+                                               String location, SessionRecurrence recurrence) {
+        val group = getGroup(groupIdOrCode).orElseThrow(()
+                -> new RecordNotFoundException("Unknown group id or code", Group.class));
+
+        val newSessionIds = group.scheduleSessions(sessionType, location, recurrence);
+
+        changeLog.recordAll(newSessionIds.stream()
+                .map(sessionId -> Change.session(group.id(), sessionId, false))
+                .collect(toList()));
+        return newSessionIds.stream()
+                .map(sessionId -> group.session(sessionId).get())
+                .collect(toList());
+    }
+
     @Transactional
     public boolean deleteGroup(String groupIdOrCode) {
+        val group = getGroup(groupIdOrCode);
+        if (!group.isPresent())
+            return false;
+
+        changeLog.record(Change.group(group.get().id(), true));
         return groupRepository.deleteByIdOrCode(groupIdOrCode);
     }
 
@@ -191,7 +488,11 @@ public class GroupService {
         val group = getGroup(groupIdOrCode).orElseThrow(()
                 -> new RecordNotFoundException("Unknown group id or code", Group.class));
 
-        return group.removeStudent(userId);
+        val removed = group.removeStudent(userId);
+        if (removed)
+            changeLog.record(Change.enrollment(group.id(), userId, true));
+
+        return removed;
     }
 
     @Transactional
@@ -199,7 +500,11 @@ public class GroupService {
         val group = getGroup(groupIdOrCode).orElseThrow(()
                 -> new RecordNotFoundException("Unknown group id or code", Group.class));
 
-        return group.removeSession(sessionId);
+        val removed = group.removeSession(sessionId);
+        if (removed)
+            changeLog.record(Change.session(group.id(), sessionId, true));
+
+        return removed;
     }
 
     public Stream<Pair<Group, Set<Attendance>>> getUserGroupAttendances(UserId userId) {
@@ -0,0 +1,11 @@
+package de.tum.ase.kleo.application.service;
+
+/**
+ * Thrown if passes are requested to expire too soon or too late.
+ */
+public class InvalidPassExpiryException extends IllegalArgumentException {
+
+    public InvalidPassExpiryException(String s) {
+        super(s);
+    }
+}
@@ -0,0 +1,11 @@
+package de.tum.ase.kleo.application.service;
+
+/**
+ * Thrown if a roster can't be parsed, e.g. a JSON line is no valid JSON.
+ */
+public class MalformedRosterException extends IllegalArgumentException {
+
+    public MalformedRosterException(String s, Throwable throwable) {
+        super(s, throwable);
+    }
+}
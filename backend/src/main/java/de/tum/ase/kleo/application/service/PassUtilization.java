@@ -0,0 +1,44 @@
+package de.tum.ase.kleo.application.service;
+
+import de.tum.ase.kleo.domain.AttendanceRejectedException;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * {@code PassUtilization} is the outcome of redeeming a single pass code
+ * of a batch uploaded by a tutor's device.
+ */
+@ToString @EqualsAndHashCode
+@Getter @Accessors(fluent = true)
+public class PassUtilization {
+
+    public enum Status {
+        ATTENDED, EXPIRED, DUPLICATE, UNREGISTERED, INVALID_PASS;
+
+        static Status from(AttendanceRejectedException.Reason reason) {
+            switch (reason) {
+                case EXPIRED:
+                    return EXPIRED;
+                case DUPLICATE:
+                    return DUPLICATE;
+                case UNREGISTERED:
+                    return UNREGISTERED;
+                default:
+                    throw new IllegalArgumentException("Unknown attendance rejection reason " + reason);
+            }
+        }
+    }
+
+    private final String passCode;
+
+    private final Status status;
+
+    public PassUtilization(String passCode, Status status) {
+        this.passCode = passCode;
+        this.status = notNull(status);
+    }
+}
@@ -0,0 +1,46 @@
+package de.tum.ase.kleo.application.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+@ToString
+@Getter @Accessors(fluent = true)
+public class RosterImportResult {
+
+    private int enrolled;
+
+    private int alreadyEnrolled;
+
+    private final List<String> unresolved = new ArrayList<>();
+
+    private final List<String> ambiguous = new ArrayList<>();
+
+    void enrolled(int count) {
+        enrolled += count;
+    }
+
+    void alreadyEnrolled(int count) {
+        alreadyEnrolled += count;
+    }
+
+    void unresolved(String identifier) {
+        unresolved.add(identifier);
+    }
+
+    void ambiguous(String identifier) {
+        ambiguous.add(identifier);
+    }
+
+    public List<String> unresolved() {
+        return Collections.unmodifiableList(unresolved);
+    }
+
+    public List<String> ambiguous() {
+        return Collections.unmodifiableList(ambiguous);
+    }
+}
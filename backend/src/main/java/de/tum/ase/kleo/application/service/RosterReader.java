@@ -0,0 +1,120 @@
+package de.tum.ase.kleo.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import lombok.val;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * {@code RosterReader} reads student identifiers (emails or matriculation
+ * numbers) from a roster line by line, so the roster is never held as a
+ * whole in memory. Both CSV (any column containing an email or a
+ * matriculation number, header lines are skipped) and JSON lines (either
+ * plain strings or objects with {@code email} or {@code studentId} fields)
+ * are understood.
+ */
+public class RosterReader implements Closeable {
+
+    private static final Pattern CSV_SEPARATORS = Pattern.compile("[,;\\t]");
+    private static final Pattern STUDENT_ID = Pattern.compile("\\d{5,}");
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BufferedReader reader;
+
+    public RosterReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader
+                ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Returns up to {@code size} next identifiers, an empty list once the
+     * roster is exhausted.
+     *
+     * @throws MalformedRosterException if a JSON line can't be parsed
+     */
+    public List<String> nextChunk(int size) {
+        val chunk = new ArrayList<String>(size);
+
+        try {
+            String line;
+            while (chunk.size() < size && (line = reader.readLine()) != null) {
+                val identifier = parseLine(line.trim());
+                if (identifier != null)
+                    chunk.add(identifier);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read roster", e);
+        }
+
+        return chunk;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static String parseLine(String line) throws IOException {
+        if (line.isEmpty())
+            return null;
+
+        if (line.startsWith("{") || line.startsWith("\""))
+            return parseJsonLine(line);
+
+        for (val cell : CSV_SEPARATORS.split(line)) {
+            val identifier = toIdentifier(cell);
+            if (identifier != null)
+                return identifier;
+        }
+
+        return null;
+    }
+
+    private static String parseJsonLine(String line) throws IOException {
+        final JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new MalformedRosterException("Malformed JSON roster line: " + e.getOriginalMessage(), e);
+        }
+
+        if (node.isTextual())
+            return toIdentifier(node.asText());
+
+        if (node.hasNonNull("email"))
+            return toIdentifier(node.get("email").asText());
+
+        if (node.hasNonNull("studentId"))
+            return toIdentifier(node.get("studentId").asText());
+
+        return null;
+    }
+
+    private static String toIdentifier(String cell) {
+        if (isBlank(cell))
+            return null;
+
+        val value = cell.trim().replace("\"", "");
+        if (isEmail(value) || STUDENT_ID.matcher(value).matches())
+            return value;
+
+        return null;
+    }
+
+    public static boolean isEmail(String identifier) {
+        return identifier.indexOf('@') > 0;
+    }
+}
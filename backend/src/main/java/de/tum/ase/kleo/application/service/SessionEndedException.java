@@ -0,0 +1,12 @@
+package de.tum.ase.kleo.application.service;
+
+/**
+ * Thrown if an action requires a session that hasn't ended yet, e.g.
+ * delegating its passes.
+ */
+public class SessionEndedException extends IllegalArgumentException {
+
+    public SessionEndedException(String s) {
+        super(s);
+    }
+}
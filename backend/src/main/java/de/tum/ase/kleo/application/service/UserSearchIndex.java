@@ -0,0 +1,173 @@
+package de.tum.ase.kleo.application.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+import de.tum.ase.kleo.domain.User;
+import de.tum.ase.kleo.domain.UserRepository;
+import de.tum.ase.kleo.domain.id.UserId;
+import lombok.val;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.stripAccents;
+
+/**
+ * {@code UserSearchIndex} is an in-memory prefix index over users' names,
+ * emails and matriculation numbers. Writes are serialized and rare (logins,
+ * role updates), whereas lookups are lock-free and never touch the database.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Pattern QUERY_SEPARATORS = Pattern.compile("\\s+");
+    private static final Pattern TOKEN_SEPARATORS = Pattern.compile("[\\s@._\\-+]+");
+
+    private final UserRepository userRepository;
+
+    private final ConcurrentNavigableMap<String, Set<UserId>> tokenUserIds = new ConcurrentSkipListMap<>();
+    private final Map<UserId, IndexEntry> entries = new ConcurrentHashMap<>();
+
+    public UserSearchIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        tokenUserIds.clear();
+        entries.clear();
+
+        userRepository.findAll().forEach(this::index);
+    }
+
+    public synchronized void index(User user) {
+        val entry = new IndexEntry(user, tokenize(user));
+
+        val previousEntry = entries.put(user.id(), entry);
+        if (previousEntry != null)
+            unlink(user.id(), previousEntry.tokens);
+
+        entry.tokens.forEach(token -> tokenUserIds
+                .computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet())
+                .add(user.id()));
+    }
+
+    public synchronized void remove(UserId userId) {
+        val entry = entries.remove(userId);
+        if (entry != null)
+            unlink(userId, entry.tokens);
+    }
+
+    /**
+     * Finds up to {@code limit} users every query term is a prefix of one of
+     * their name, email or matriculation number tokens. Only the users
+     * matching the longest term are scanned, those matching it exactly first,
+     * until {@code limit} of them match every term. These are ranked by how
+     * many terms they match exactly.
+     */
+    public List<User> search(String query, int limit) {
+        if (isBlank(query) || limit <= 0)
+            return emptyList();
+
+        val terms = QUERY_SEPARATORS.splitAsStream(normalize(query))
+                .filter(term -> !term.isEmpty())
+                .collect(toList());
+        if (terms.isEmpty())
+            return emptyList();
+
+        val scannedTerm = terms.stream().max(Comparator.comparingInt(String::length)).get();
+        val scannedTokens = tokenUserIds.subMap(scannedTerm, true, scannedTerm + Character.MAX_VALUE, true);
+        val matches = new LinkedHashMap<UserId, IndexEntry>();
+
+        scan:
+        for (val userIds : scannedTokens.values()) {
+            for (val userId : userIds) {
+                val entry = entries.get(userId);
+                if (entry != null && entry.prefixMatchesAll(terms))
+                    matches.putIfAbsent(userId, entry);
+
+                if (matches.size() >= limit)
+                    break scan;
+            }
+        }
+
+        return matches.values().stream()
+                .sorted(Comparator.<IndexEntry>comparingInt(entry -> entry.exactMatches(terms)).reversed()
+                        .thenComparing(entry -> entry.user.name()))
+                .map(entry -> entry.user)
+                .collect(toList());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void unlink(UserId userId, Set<String> tokens) {
+        for (val token : tokens) {
+            tokenUserIds.computeIfPresent(token, (t, userIds) -> {
+                userIds.remove(userId);
+                return userIds.isEmpty() ? null : userIds;
+            });
+        }
+    }
+
+    private static Set<String> tokenize(User user) {
+        val tokens = new LinkedHashSet<String>();
+
+        addTokens(tokens, user.name());
+        addTokens(tokens, user.email());
+        addTokens(tokens, user.studentId());
+
+        return tokens;
+    }
+
+    private static void addTokens(Set<String> tokens, String value) {
+        if (isBlank(value))
+            return;
+
+        val normalizedValue = normalize(value);
+        tokens.add(normalizedValue);
+
+        TOKEN_SEPARATORS.splitAsStream(normalizedValue)
+                .filter(token -> !token.isEmpty())
+                .forEach(tokens::add);
+    }
+
+    private static String normalize(String value) {
+        return stripAccents(value.trim()).toLowerCase(Locale.ROOT);
+    }
+
+    private static class IndexEntry {
+
+        private final User user;
+        private final Set<String> tokens;
+
+        private IndexEntry(User user, Set<String> tokens) {
+            this.user = user;
+            this.tokens = tokens.isEmpty() ? emptySet() : tokens;
+        }
+
+        private boolean prefixMatchesAll(List<String> terms) {
+            return terms.stream().allMatch(term -> tokens.stream().anyMatch(token -> token.startsWith(term)));
+        }
+
+        private int exactMatches(List<String> terms) {
+            return (int) terms.stream().filter(tokens::contains).count();
+        }
+    }
+}
@@ -8,10 +8,10 @@ import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -23,10 +23,14 @@ import static java.util.stream.StreamSupport.stream;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserSearchIndex userSearchIndex;
+    private final ChangeLog changeLog;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserSearchIndex userSearchIndex, ChangeLog changeLog) {
         this.userRepository = userRepository;
+        this.userSearchIndex = userSearchIndex;
+        this.changeLog = changeLog;
     }
 
     public boolean userExists(UserId userId) {
@@ -47,6 +51,18 @@ public class UserService {
         val users = userRepository.findAll(userIds);
         return stream(users.spliterator(), false);
     }
+
+    public List<User> getUsersByEmails(Collection<String> emails) {
+        return userRepository.findAllByEmailIn(emails);
+    }
+
+    public List<User> getUsersByStudentIds(Collection<String> studentIds) {
+        return userRepository.findAllByStudentIdIn(studentIds);
+    }
+
+    public Stream<User> searchUsers(String query, int limit) {
+        return userSearchIndex.search(query, limit).stream();
+    }
     
     @Transactional
     public boolean updateUserRoles(UserId userId, List<UserRole> userRoles) {
@@ -54,7 +70,10 @@ public class UserService {
         if (!userOpt.isPresent())
             return false;
 
-        userOpt.get().userRoles(userRoles);
+        val user = userOpt.get();
+        user.userRoles(userRoles);
+        afterCommit(() -> userSearchIndex.index(user));
+        changeLog.record(Change.user(userId, false));
         return true;
     }
 
@@ -65,6 +84,26 @@ public class UserService {
             return false;
         
         userRepository.delete(userOpt.get());
+        afterCommit(() -> userSearchIndex.remove(userId));
+        changeLog.record(Change.user(userId, true));
         return true;
     }
+
+    /**
+     * Runs the action once the current transaction has committed, so
+     * searches never see changes that are rolled back.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
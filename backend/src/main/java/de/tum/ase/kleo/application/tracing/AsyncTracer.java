@@ -0,0 +1,52 @@
+package de.tum.ase.kleo.application.tracing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+
+import static de.tum.ase.kleo.application.tracing.TracingAspect.endWithError;
+
+/**
+ * {@code AsyncTracer} traces operations completing asynchronously, such as
+ * transactions sent to the blockchain, which outlive the calling method.
+ */
+@Component
+public class AsyncTracer {
+
+    private final Tracer tracer;
+
+    public AsyncTracer(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Starts a span that ends once the stage returned by the operation completes.
+     */
+    public <T extends CompletionStage<?>> T trace(String spanName, Supplier<T> operation) {
+        final Span span = tracer.spanBuilder(spanName).setSpanKind(SpanKind.CLIENT).startSpan();
+
+        final T completionStage;
+        try (Scope ignored = span.makeCurrent()) {
+            completionStage = operation.get();
+        } catch (RuntimeException e) {
+            endWithError(span, e);
+            throw e;
+        }
+
+        completionStage.whenComplete((result, error) -> {
+            if (error != null) {
+                endWithError(span, error);
+            } else {
+                span.end();
+            }
+        });
+
+        return completionStage;
+    }
+}
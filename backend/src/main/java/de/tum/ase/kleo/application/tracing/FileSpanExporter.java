@@ -0,0 +1,90 @@
+package de.tum.ase.kleo.application.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.val;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * {@code FileSpanExporter} appends finished spans to a file as JSON lines,
+ * one span per line, so traces can be inspected next to the application log
+ * without running a tracing backend.
+ */
+public class FileSpanExporter implements SpanExporter {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BufferedWriter writer;
+
+    public FileSpanExporter(Path file) throws IOException {
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, CREATE, APPEND);
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            for (val span : spans) {
+                writer.write(objectMapper.writeValueAsString(toMap(span)));
+                writer.newLine();
+            }
+            writer.flush();
+
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        try {
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        try {
+            writer.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    private static Map<String, Object> toMap(SpanData span) {
+        val spanMap = new LinkedHashMap<String, Object>();
+        spanMap.put("traceId", span.getTraceId());
+        spanMap.put("spanId", span.getSpanId());
+        spanMap.put("parentSpanId", span.getParentSpanId());
+        spanMap.put("name", span.getName());
+        spanMap.put("kind", span.getKind().name());
+        spanMap.put("startEpochMicros", NANOSECONDS.toMicros(span.getStartEpochNanos()));
+        spanMap.put("durationMicros", NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()));
+        spanMap.put("status", span.getStatus().getStatusCode().name());
+
+        val attributes = new LinkedHashMap<String, Object>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        spanMap.put("attributes", attributes);
+
+        return spanMap;
+    }
+}
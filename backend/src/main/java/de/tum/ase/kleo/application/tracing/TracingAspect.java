@@ -0,0 +1,108 @@
+package de.tum.ase.kleo.application.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+
+/**
+ * {@code TracingAspect} wraps REST resources, application services and
+ * repositories into spans. It precedes the transaction interceptor, so the
+ * flush & commit of a transaction is accounted to the resource span.
+ * Trace and span ids are put into the logging MDC while a span is current.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingAspect {
+
+    public static final String MDC_TRACE_ID = "traceId";
+    public static final String MDC_SPAN_ID = "spanId";
+
+    private static final AttributeKey<String> CODE_NAMESPACE = AttributeKey.stringKey("code.namespace");
+    private static final AttributeKey<String> CODE_FUNCTION = AttributeKey.stringKey("code.function");
+
+    private final Tracer tracer;
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Resources are the hand written {@code @Controller}s and
+     * {@code @RestController}s, including implementations of the delegates
+     * of the controllers generated from the API definition. The generated
+     * controllers only forward to them, so they are not wrapped as well.
+     */
+    @Around("within(de.tum.ase.kleo.application.api..*)"
+            + " && !within(de.tum.ase.kleo.application.api.*ApiController)"
+            + " && (@within(org.springframework.stereotype.Controller)"
+            + " || @within(org.springframework.web.bind.annotation.RestController)"
+            + " || within(de.tum.ase.kleo.application.api.*ApiDelegate+))")
+    public Object traceResource(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedInSpan(joinPoint, SpanKind.SERVER);
+    }
+
+    @Around("@within(org.springframework.stereotype.Service) && within(de.tum.ase.kleo.application.service..*)")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedInSpan(joinPoint, SpanKind.INTERNAL);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedInSpan(joinPoint, SpanKind.CLIENT);
+    }
+
+    private Object proceedInSpan(ProceedingJoinPoint joinPoint, SpanKind spanKind) throws Throwable {
+        final String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        final String methodName = joinPoint.getSignature().getName();
+
+        final Span span = tracer.spanBuilder(className + "." + methodName)
+                .setSpanKind(spanKind)
+                .setAttribute(CODE_NAMESPACE, joinPoint.getSignature().getDeclaringTypeName())
+                .setAttribute(CODE_FUNCTION, methodName)
+                .startSpan();
+
+        final String previousTraceId = MDC.get(MDC_TRACE_ID);
+        final String previousSpanId = MDC.get(MDC_SPAN_ID);
+
+        try (Scope ignored = span.makeCurrent()) {
+            MDC.put(MDC_TRACE_ID, span.getSpanContext().getTraceId());
+            MDC.put(MDC_SPAN_ID, span.getSpanContext().getSpanId());
+
+            final Object result = joinPoint.proceed();
+            span.end();
+            return result;
+        } catch (Throwable e) {
+            endWithError(span, e);
+            throw e;
+        } finally {
+            restoreMdc(MDC_TRACE_ID, previousTraceId);
+            restoreMdc(MDC_SPAN_ID, previousSpanId);
+        }
+    }
+
+    static void endWithError(Span span, Throwable error) {
+        span.recordException(error);
+        span.setStatus(StatusCode.ERROR, error.getClass().getSimpleName());
+        span.end();
+    }
+
+    private static void restoreMdc(String key, String previousValue) {
+        if (previousValue == null) {
+            MDC.remove(key);
+        } else {
+            MDC.put(key, previousValue);
+        }
+    }
+}
@@ -25,11 +25,11 @@ import static org.apache.commons.lang3.Validate.notNull;
 public class Attendance implements Serializable {
 
     @Column(nullable = false)
-    @AttributeOverride(name = "id", column = @Column(name = "session_id"))
+    @AttributeOverride(name = "id", column = @Column(name = "session_id", columnDefinition = "uuid"))
     private final SessionId sessionId;
 
     @Column(nullable = false)
-    @AttributeOverride(name = "id", column = @Column(name = "student_id"))
+    @AttributeOverride(name = "id", column = @Column(name = "student_id", columnDefinition = "uuid"))
     private final UserId studentId;
 
     @Column(name = "attended_at", nullable = false)
@@ -0,0 +1,22 @@
+package de.tum.ase.kleo.domain;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+/**
+ * Thrown if a {@link Pass} can't be utilized to register an {@link Attendance}.
+ */
+@Getter @Accessors(fluent = true)
+public class AttendanceRejectedException extends IllegalArgumentException {
+
+    public enum Reason {
+        EXPIRED, DUPLICATE, UNREGISTERED
+    }
+
+    private final Reason reason;
+
+    public AttendanceRejectedException(Reason reason, String s) {
+        super(s);
+        this.reason = reason;
+    }
+}
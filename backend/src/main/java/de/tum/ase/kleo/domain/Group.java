@@ -4,6 +4,7 @@ import org.apache.commons.lang3.Validate;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -33,6 +34,9 @@ import lombok.ToString;
 import lombok.experimental.Accessors;
 import lombok.val;
 
+import static de.tum.ase.kleo.domain.AttendanceRejectedException.Reason.DUPLICATE;
+import static de.tum.ase.kleo.domain.AttendanceRejectedException.Reason.EXPIRED;
+import static de.tum.ase.kleo.domain.AttendanceRejectedException.Reason.UNREGISTERED;
 import static org.apache.commons.lang3.Validate.notBlank;
 
 /**
@@ -86,8 +90,21 @@ public class Group {
         return studentIds.add(studentId);
     }
 
+    /**
+     * Adds the given students not yet registered and returns how many of
+     * them were new, leaving already registered students untouched.
+     */
+    public int enroll(Collection<UserId> newStudentIds) {
+        int enrolled = 0;
+        for (val studentId : newStudentIds) {
+            if (studentIds.add(studentId))
+                enrolled++;
+        }
+        return enrolled;
+    }
+
     public boolean isStudentRegistered(UserId studentId) {
-        return studentIds.stream().anyMatch(sId -> sId.equals(studentId));
+        return studentIds.contains(studentId);
     }
 
     public Set<UserId> studentIds() {
@@ -98,12 +115,12 @@ public class Group {
         if (studentIds == null || studentIds.isEmpty())
             throw new IllegalArgumentException("Empty or null studentIds given");
 
-        this.studentIds.clear();
+        this.studentIds.retainAll(studentIds);
         this.studentIds.addAll(studentIds);
     }
 
     public boolean removeStudent(UserId studentId) {
-        return studentIds.removeIf(sId -> sId.equals(studentId));
+        return studentIds.remove(studentId);
     }
 
     public SessionId addSession(SessionId sessionId, SessionType sessionType, String location, OffsetDateTime begins, OffsetDateTime ends) {
@@ -116,6 +133,12 @@ public class Group {
         return addSession(null, sessionType, location, begins, ends);
     }
 
+    public List<SessionId> scheduleSessions(SessionType sessionType, String location, SessionRecurrence recurrence) {
+        return recurrence.occurrences().stream()
+                .map(occurrence -> addSession(sessionType, location, occurrence.getLeft(), occurrence.getRight()))
+                .collect(Collectors.toList());
+    }
+
     public List<Session> sessions() {
         return Collections.unmodifiableList(sessions);
     }
@@ -160,13 +183,22 @@ public class Group {
     }
 
     public Attendance attend(Pass pass) {
-        if (pass.isExpired())
-            throw new IllegalArgumentException("The Pass given is expired");
+        return attend(pass, OffsetDateTime.now());
+    }
+
+    /**
+     * Registers the attendance of a pass presented at the given time, e.g.
+     * handed to a tutor's device that uploads it later.
+     */
+    public Attendance attend(Pass pass, OffsetDateTime presentedAt) {
+        if (pass.isExpiredAt(presentedAt))
+            throw new AttendanceRejectedException(EXPIRED, "The Pass given is expired");
         else if (hasAttended(pass.studentId(), pass.sessionId()))
-            throw new IllegalArgumentException("Student attendance for the session provided by " +
-                    "the pass has already been registered");
+            throw new AttendanceRejectedException(DUPLICATE, "Student attendance for the session " +
+                    "provided by the pass has already been registered");
         else if (!isStudentRegistered(pass.studentId()))
-            throw new IllegalArgumentException("Non registered student cant attend group sessions");
+            throw new AttendanceRejectedException(UNREGISTERED, "Non registered student cant " +
+                    "attend group sessions");
 
         val newAttendance = new Attendance(pass.sessionId(), pass.studentId());
         attendances.add(newAttendance);
@@ -24,11 +24,11 @@ public interface GroupRepository extends CrudRepository<Group, GroupId> {
     }
 
     default Optional<Group> findOneByIdOrCode(String groupIdOrCode) {
-        val groupId = GroupId.of(groupIdOrCode);
-
-        val groupById = findOne(groupId);
-        if (groupById != null)
-            return Optional.of(groupById);
+        if (GroupId.isValid(groupIdOrCode)) {
+            val groupById = findOne(GroupId.of(groupIdOrCode));
+            if (groupById != null)
+                return Optional.of(groupById);
+        }
 
         val groupCode = GroupCode.fromString(groupIdOrCode);
 
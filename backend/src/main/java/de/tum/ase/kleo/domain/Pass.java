@@ -5,6 +5,7 @@ import java.nio.charset.Charset;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 
+import de.tum.ase.kleo.domain.id.Identifier;
 import de.tum.ase.kleo.domain.id.SessionId;
 import de.tum.ase.kleo.domain.id.UserId;
 import lombok.EqualsAndHashCode;
@@ -35,7 +36,7 @@ public class Pass {
 
     private final OffsetDateTime expiresAt;
 
-    private Pass(SessionId sessionId, UserId studentId, OffsetDateTime requestedAt, OffsetDateTime expiresAt) {
+    Pass(SessionId sessionId, UserId studentId, OffsetDateTime requestedAt, OffsetDateTime expiresAt) {
         this.sessionId = notNull(sessionId);
         this.studentId = notNull(studentId);
         this.requestedAt = requestedAt == null ? OffsetDateTime.now() : requestedAt;
@@ -57,7 +58,11 @@ public class Pass {
     }
 
     public boolean isExpired() {
-        return OffsetDateTime.now().isAfter(expiresAt);
+        return isExpiredAt(OffsetDateTime.now());
+    }
+
+    public boolean isExpiredAt(OffsetDateTime time) {
+        return time.isAfter(expiresAt);
     }
 
     public boolean notExpired() {
@@ -65,12 +70,6 @@ public class Pass {
     }
 
     public ByteBuffer toBytes(Charset charset) {
-        val sessionIdBytes = sessionId.toBytes(charset);
-        val sessionIdBytesLength = sessionIdBytes.length;
-
-        val studentIdBytes = studentId.toBytes(charset);
-        val studentIdBytesLength = studentIdBytes.length;
-
         val requestedAtBytes = requestedAt.toString().getBytes(charset);
         val requestedAtBytesLength = requestedAtBytes.length;
 
@@ -79,16 +78,12 @@ public class Pass {
 
 
         val passBuffer = ByteBuffer.allocate(
-                Integer.BYTES + Integer.BYTES + // sessionIdBytesLength && studentIdBytesLength
-                        sessionIdBytes.length + studentIdBytes.length +
+                Identifier.BYTES + Identifier.BYTES + // sessionId && studentId
                         Integer.BYTES + Integer.BYTES + // requestedAtBytesLength && expiresAtBytesLength
                         requestedAtBytes.length + expiresAtBytes.length);
         passBuffer
-                .putInt(sessionIdBytesLength)
-                .put(sessionIdBytes)
-
-                .putInt(studentIdBytesLength)
-                .put(studentIdBytes)
+                .put(sessionId.toBytes())
+                .put(studentId.toBytes())
 
                 .putInt(requestedAtBytesLength)
                 .put(requestedAtBytes)
@@ -104,13 +99,8 @@ public class Pass {
     }
 
     public static Pass fromBytes(ByteBuffer token, Charset charset) {
-        val sessionIdBytesLength = token.getInt();
-        val sessionIdBytes = new byte[sessionIdBytesLength];
-        token.get(sessionIdBytes);
-
-        val studentIdBytesLength = token.getInt();
-        val studentIdBytes = new byte[studentIdBytesLength];
-        token.get(studentIdBytes);
+        val sessionId = SessionId.fromBytes(token);
+        val studentId = UserId.fromBytes(token);
 
         val requestedAtBytesLength = token.getInt();
         val requestedAtBytes = new byte[requestedAtBytesLength];
@@ -120,8 +110,6 @@ public class Pass {
         val expiresAtBytes = new byte[expiresAtBytesLength];
         token.get(expiresAtBytes);
 
-        val sessionId = SessionId.of(new String(sessionIdBytes, charset));
-        val studentId = UserId.of(new String(studentIdBytes, charset));
         val requestedAt = OffsetDateTime.parse(new String(requestedAtBytes, charset));
         val expiresAt = OffsetDateTime.parse(new String(expiresAtBytes, charset));
 
@@ -23,7 +23,7 @@ import static org.apache.commons.lang3.Validate.notNull;
  */
 public class PassDetokenizer {
 
-    private final Cipher cipher;
+    private final ThreadLocal<Cipher> cipher;
 
     private final SecretKeySpec key;
 
@@ -31,11 +31,24 @@ public class PassDetokenizer {
 
     private final Charset charset;
 
-    public PassDetokenizer(Cipher cipher, SecretKeySpec key, AlgorithmParameterSpec algParamSpec, Charset charset) {
-        this.cipher = notNull(cipher);
+    private final SessionKeyDerivation sessionKeyDerivation;
+
+    public PassDetokenizer(Cipher cipher, SecretKeySpec key, AlgorithmParameterSpec algParamSpec, Charset charset,
+                           SessionKeyDerivation sessionKeyDerivation) {
+        this.cipher = PassTokenizer.threadLocalCipher(notNull(cipher));
         this.key = notNull(key);
         this.algParamSpec = notNull(algParamSpec);
         this.charset = notNull(charset);
+        this.sessionKeyDerivation = sessionKeyDerivation;
+    }
+
+    public PassDetokenizer(Cipher cipher, SecretKeySpec key, AlgorithmParameterSpec algParamSpec, Charset charset) {
+        this(cipher, key, algParamSpec, charset, null);
+    }
+
+    public PassDetokenizer(Cipher cipher, SecretKeySpec key, AlgorithmParameterSpec algParamSpec,
+                           SessionKeyDerivation sessionKeyDerivation) {
+        this(cipher, key, algParamSpec, DEFAULT_TEXT_CHARSET, sessionKeyDerivation);
     }
 
     public PassDetokenizer(Cipher cipher, SecretKeySpec key, AlgorithmParameterSpec algParamSpec) {
@@ -44,6 +57,7 @@ public class PassDetokenizer {
 
     public Pass detokenize(ByteBuffer tokenBuffer) {
         try {
+            val cipher = this.cipher.get();
             cipher.init(Cipher.DECRYPT_MODE, key, algParamSpec);
 
             val passBuffer = ByteBuffer.allocate(cipher.getOutputSize(tokenBuffer.remaining()));
@@ -60,7 +74,19 @@ public class PassDetokenizer {
         return detokenize(ByteBuffer.wrap(bytes));
     }
 
+    /**
+     * Decodes passes encrypted by the backend as well as passes minted by
+     * tutors' devices with a {@link SessionDelegation}, if delegations are
+     * accepted.
+     */
     public Pass detokenize(String tokenString) {
+        if (SessionKeyDerivation.isDelegatedPassCode(tokenString)) {
+            if (sessionKeyDerivation == null)
+                throw new PassTokenizationException("Delegated passes are not accepted");
+
+            return sessionKeyDerivation.verifyPassCode(tokenString);
+        }
+
         try {
             return detokenize(Hex.decodeHex(tokenString.toCharArray()));
         } catch (DecoderException e) {
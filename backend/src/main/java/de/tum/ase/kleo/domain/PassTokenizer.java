@@ -5,9 +5,11 @@ import org.apache.commons.codec.binary.Hex;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
 import java.security.spec.AlgorithmParameterSpec;
 
 import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
 import javax.crypto.spec.SecretKeySpec;
 
 import lombok.val;
@@ -22,7 +24,7 @@ import static org.apache.commons.lang3.Validate.notNull;
  */
 public class PassTokenizer {
 
-    private final Cipher cipher;
+    private final ThreadLocal<Cipher> cipher;
 
     private final SecretKeySpec key;
 
@@ -31,7 +33,7 @@ public class PassTokenizer {
     private final Charset charset;
 
     public PassTokenizer(Cipher cipher, SecretKeySpec key, AlgorithmParameterSpec algParamSpec, Charset charset) {
-        this.cipher = notNull(cipher);
+        this.cipher = threadLocalCipher(notNull(cipher));
         this.key = notNull(key);
         this.algParamSpec = notNull(algParamSpec);
         this.charset = notNull(charset);
@@ -43,6 +45,7 @@ public class PassTokenizer {
 
     public ByteBuffer tokenize(Pass pass) {
         try {
+            val cipher = this.cipher.get();
             cipher.init(Cipher.ENCRYPT_MODE, key, algParamSpec);
 
             val passBuffer = pass.toBytes(charset);
@@ -70,4 +73,18 @@ public class PassTokenizer {
     public String tokenizeToString(Pass pass) {
         return Hex.encodeHexString(tokenizeToBytes(pass));
     }
+
+    /**
+     * Ciphers are stateful and not thread-safe, so every thread gets its own
+     * instance of the given cipher's transformation and provider.
+     */
+    static ThreadLocal<Cipher> threadLocalCipher(Cipher cipher) {
+        return ThreadLocal.withInitial(() -> {
+            try {
+                return Cipher.getInstance(cipher.getAlgorithm(), cipher.getProvider());
+            } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+                throw new PassTokenizationException("Failed to instantiate the cipher", e);
+            }
+        });
+    }
 }
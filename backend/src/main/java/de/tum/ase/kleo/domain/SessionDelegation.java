@@ -0,0 +1,107 @@
+package de.tum.ase.kleo.domain;
+
+import org.apache.commons.codec.binary.Hex;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import de.tum.ase.kleo.domain.id.Identifier;
+import de.tum.ase.kleo.domain.id.SessionId;
+import de.tum.ase.kleo.domain.id.UserId;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+import lombok.val;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * {@code SessionDelegation} value object is a key derived for a single
+ * {@link Session} and validity window, handed to a tutor's device to mint
+ * passes for that session without contacting the backend.
+ * <p>
+ * Delegated pass codes are {@value #PASS_CODE_PREFIX} followed by the hex of
+ * session id, student id, the delegation window and the issuing time (epoch
+ * seconds), and a truncated HMAC of these under the delegated key. They are
+ * authenticated but not encrypted, as they only contain ids the student
+ * knows anyway.
+ */
+@ToString(exclude = "key") @EqualsAndHashCode
+@Getter @Accessors(fluent = true)
+public class SessionDelegation {
+
+    public static final String PASS_CODE_PREFIX = "dlg-";
+
+    public static final Duration PASS_EXPIRE = Duration.ofMinutes(2);
+
+    static final String MAC_ALGORITHM = "HmacSHA256";
+    static final int MAC_BYTES = 16;
+    static final int PAYLOAD_BYTES = 2 * Identifier.BYTES + 3 * Long.BYTES;
+
+    private final SessionId sessionId;
+
+    private final Instant notBefore;
+
+    private final Instant notAfter;
+
+    private final byte[] key;
+
+    SessionDelegation(SessionId sessionId, Instant notBefore, Instant notAfter, byte[] key) {
+        this.sessionId = notNull(sessionId);
+        this.notBefore = notNull(notBefore);
+        this.notAfter = notNull(notAfter);
+        this.key = notNull(key).clone();
+
+        isTrue(notAfter.isAfter(notBefore), "Delegation must end after it begins");
+    }
+
+    public byte[] key() {
+        return key.clone();
+    }
+
+    public boolean isValidAt(Instant instant) {
+        return !instant.isBefore(notBefore) && !instant.isAfter(notAfter);
+    }
+
+    public String mintPassCode(UserId studentId, Instant issuedAt) {
+        isTrue(isValidAt(issuedAt), "Pass can't be issued outside of the delegation window");
+
+        val payload = payload(sessionId, notNull(studentId), notBefore.getEpochSecond(),
+                notAfter.getEpochSecond(), issuedAt.getEpochSecond());
+
+        return PASS_CODE_PREFIX + Hex.encodeHexString(payload) + Hex.encodeHexString(mac(key, payload));
+    }
+
+    static byte[] payload(SessionId sessionId, UserId studentId, long notBefore, long notAfter, long issuedAt) {
+        return ByteBuffer.allocate(PAYLOAD_BYTES)
+                .put(sessionId.toBytes())
+                .put(studentId.toBytes())
+                .putLong(notBefore)
+                .putLong(notAfter)
+                .putLong(issuedAt)
+                .array();
+    }
+
+    static byte[] mac(byte[] key, byte[]... messages) {
+        try {
+            val mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key, MAC_ALGORITHM));
+
+            for (val message : messages) {
+                mac.update(message);
+            }
+
+            return Arrays.copyOf(mac.doFinal(), MAC_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new PassTokenizationException("Failed to authenticate the delegated pass", e);
+        }
+    }
+}
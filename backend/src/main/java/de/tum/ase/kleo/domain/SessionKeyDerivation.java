@@ -0,0 +1,108 @@
+package de.tum.ase.kleo.domain;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+import de.tum.ase.kleo.domain.id.SessionId;
+import de.tum.ase.kleo.domain.id.UserId;
+import lombok.val;
+
+import static de.tum.ase.kleo.domain.SessionDelegation.MAC_BYTES;
+import static de.tum.ase.kleo.domain.SessionDelegation.PASS_CODE_PREFIX;
+import static de.tum.ase.kleo.domain.SessionDelegation.PASS_EXPIRE;
+import static de.tum.ase.kleo.domain.SessionDelegation.PAYLOAD_BYTES;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * {@code SessionKeyDerivation} domain service derives {@link SessionDelegation}
+ * keys from a master key and verifies passes minted with them. Keys are
+ * never stored: the key of a delegation is derived again from the session
+ * id and validity window carried by every delegated pass.
+ */
+public class SessionKeyDerivation {
+
+    private static final byte[] DERIVATION_LABEL = "kleo-session-delegation".getBytes(StandardCharsets.UTF_8);
+
+    private static final int MIN_MASTER_KEY_BYTES = 16;
+
+    private final byte[] masterKey;
+
+    public SessionKeyDerivation(byte[] masterKey) {
+        isTrue(notNull(masterKey).length >= MIN_MASTER_KEY_BYTES,
+                "Delegation master key must be at least %d bytes long", MIN_MASTER_KEY_BYTES);
+        this.masterKey = masterKey.clone();
+    }
+
+    public SessionDelegation delegate(SessionId sessionId, Instant notBefore, Instant notAfter) {
+        val notBeforeSeconds = notBefore.truncatedTo(ChronoUnit.SECONDS);
+        val notAfterSeconds = notAfter.truncatedTo(ChronoUnit.SECONDS);
+
+        return new SessionDelegation(sessionId, notBeforeSeconds, notAfterSeconds,
+                deriveKey(sessionId, notBeforeSeconds.getEpochSecond(), notAfterSeconds.getEpochSecond()));
+    }
+
+    public static boolean isDelegatedPassCode(String passCode) {
+        return passCode != null && passCode.startsWith(PASS_CODE_PREFIX);
+    }
+
+    /**
+     * Verifies the delegated pass code was minted with a key derived by this
+     * service and within the delegation window. The pass expires
+     * {@link SessionDelegation#PASS_EXPIRE} after being issued, but not
+     * later than the delegation ends.
+     */
+    public Pass verifyPassCode(String passCode) {
+        if (!isDelegatedPassCode(passCode))
+            throw new PassTokenizationException("Pass code is not delegated");
+
+        final byte[] codeBytes;
+        try {
+            codeBytes = Hex.decodeHex(passCode.substring(PASS_CODE_PREFIX.length()).toCharArray());
+        } catch (DecoderException e) {
+            throw new PassTokenizationException("Failed to decode hexed delegated pass", e);
+        }
+
+        if (codeBytes.length != PAYLOAD_BYTES + MAC_BYTES)
+            throw new PassTokenizationException("Delegated pass has invalid length");
+
+        val payload = Arrays.copyOf(codeBytes, PAYLOAD_BYTES);
+        val mac = Arrays.copyOfRange(codeBytes, PAYLOAD_BYTES, codeBytes.length);
+
+        val payloadBuffer = ByteBuffer.wrap(payload);
+        val sessionId = SessionId.fromBytes(payloadBuffer);
+        val studentId = UserId.fromBytes(payloadBuffer);
+        val notBefore = payloadBuffer.getLong();
+        val notAfter = payloadBuffer.getLong();
+        val issuedAt = payloadBuffer.getLong();
+
+        val expectedMac = SessionDelegation.mac(deriveKey(sessionId, notBefore, notAfter), payload);
+        if (!MessageDigest.isEqual(expectedMac, mac))
+            throw new PassTokenizationException("Delegated pass has invalid signature");
+
+        if (issuedAt < notBefore || issuedAt > notAfter)
+            throw new PassTokenizationException("Delegated pass was issued outside of the delegation window");
+
+        val requestedAt = Instant.ofEpochSecond(issuedAt);
+        val expiresAt = requestedAt.plus(PASS_EXPIRE).isBefore(Instant.ofEpochSecond(notAfter))
+                ? requestedAt.plus(PASS_EXPIRE) : Instant.ofEpochSecond(notAfter);
+
+        return new Pass(sessionId, studentId,
+                OffsetDateTime.ofInstant(requestedAt, ZoneOffset.UTC),
+                OffsetDateTime.ofInstant(expiresAt, ZoneOffset.UTC));
+    }
+
+    private byte[] deriveKey(SessionId sessionId, long notBefore, long notAfter) {
+        val window = ByteBuffer.allocate(2 * Long.BYTES).putLong(notBefore).putLong(notAfter).array();
+        return SessionDelegation.mac(masterKey, DERIVATION_LABEL, sessionId.toBytes(), window);
+    }
+}
@@ -0,0 +1,101 @@
+package de.tum.ase.kleo.domain;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+import lombok.val;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * {@code SessionRecurrence} value object describes a {@link Session} that
+ * takes place every given number of weeks on the weekday and at the time of
+ * its first occurrence until (inclusive) a given date, except for excluded
+ * dates such as public holidays.
+ */
+@ToString @EqualsAndHashCode
+@Getter @Accessors(fluent = true)
+public class SessionRecurrence {
+
+    public static final int MAX_OCCURRENCES = 200;
+
+    private final OffsetDateTime firstBegins;
+
+    private final OffsetDateTime firstEnds;
+
+    private final LocalDate until;
+
+    private final int intervalWeeks;
+
+    private final ZoneId zone;
+
+    private final Set<LocalDate> excludedDates = new HashSet<>();
+
+    public SessionRecurrence(OffsetDateTime firstBegins, OffsetDateTime firstEnds, LocalDate until,
+                             Integer intervalWeeks, ZoneId zone, Collection<LocalDate> excludedDates) {
+        this.firstBegins = notNull(firstBegins);
+        this.firstEnds = notNull(firstEnds);
+        this.until = notNull(until);
+        this.intervalWeeks = intervalWeeks == null ? 1 : intervalWeeks;
+        this.zone = zone == null ? firstBegins.getOffset() : zone;
+
+        Validate.isTrue(firstEnds.isAfter(firstBegins), "Session 'ends' datetime must be after 'begins' datetime");
+        Validate.isTrue(this.intervalWeeks > 0, "Session recurrence interval must be at least one week");
+        Validate.isTrue(!until.isBefore(firstBegins.atZoneSameInstant(this.zone).toLocalDate()),
+                "Session recurrence must not end before the first session begins");
+
+        if (excludedDates != null)
+            this.excludedDates.addAll(excludedDates);
+    }
+
+    public SessionRecurrence(OffsetDateTime firstBegins, OffsetDateTime firstEnds, LocalDate until) {
+        this(firstBegins, firstEnds, until, 1, null, null);
+    }
+
+    public Set<LocalDate> excludedDates() {
+        return Collections.unmodifiableSet(excludedDates);
+    }
+
+    /**
+     * Expands the recurrence into begin & end date times of every session
+     * occurrence. The local time of day is kept in the recurrence's zone,
+     * so sessions do not shift by an hour on daylight saving time changes.
+     */
+    public List<Pair<OffsetDateTime, OffsetDateTime>> occurrences() {
+        val duration = Duration.between(firstBegins, firstEnds);
+        val firstBeginsZoned = firstBegins.atZoneSameInstant(zone);
+
+        val occurrences = new ArrayList<Pair<OffsetDateTime, OffsetDateTime>>();
+        for (int week = 0; ; week += intervalWeeks) {
+            val begins = firstBeginsZoned.plusWeeks(week);
+            if (begins.toLocalDate().isAfter(until))
+                break;
+
+            if (excludedDates.contains(begins.toLocalDate()))
+                continue;
+
+            if (occurrences.size() == MAX_OCCURRENCES)
+                throw new IllegalArgumentException("Session recurrence exceeds " +
+                        MAX_OCCURRENCES + " occurrences");
+
+            occurrences.add(Pair.of(begins.toOffsetDateTime(), begins.plus(duration).toOffsetDateTime()));
+        }
+
+        return occurrences;
+    }
+}
@@ -23,7 +23,7 @@ import static org.apache.commons.lang3.Validate.*;
  * information about his or her name, roles, email, matrik. number
  * and login data.
  */
-@Entity @Access(AccessType.FIELD)
+@Entity @Table(name = "users") @Access(AccessType.FIELD)
 @Accessors(fluent = true) @ToString
 @NoArgsConstructor(force = true, access = AccessLevel.PACKAGE)
 public class User {
@@ -4,10 +4,16 @@ import de.tum.ase.kleo.domain.id.UserId;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends CrudRepository<User, UserId> {
 
     Optional<User> findOptionalByEmail(String email);
+
+    List<User> findAllByEmailIn(Collection<String> emails);
+
+    List<User> findAllByStudentIdIn(Collection<String> studentIds);
 }
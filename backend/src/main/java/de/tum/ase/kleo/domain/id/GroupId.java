@@ -2,16 +2,21 @@ package de.tum.ase.kleo.domain.id;
 
 import javax.persistence.*;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 @Embeddable @Access(AccessType.FIELD)
-@AttributeOverride(name = "id", column = @Column(name = "group_id"))
+@AttributeOverride(name = "id", column = @Column(name = "group_id", columnDefinition = "uuid"))
 public class GroupId extends Identifier {
 
     public GroupId() {
-        this(UUID.randomUUID().toString());
+        this(UUID.randomUUID());
+    }
+
+    public GroupId(UUID id) {
+        super(id);
     }
 
     public GroupId(String id) {
@@ -24,4 +29,8 @@ public class GroupId extends Identifier {
 
         return new GroupId(id);
     }
+
+    public static GroupId fromBytes(ByteBuffer bytes) {
+        return new GroupId(uuidFromBytes(bytes));
+    }
 }
@@ -2,36 +2,96 @@ package de.tum.ase.kleo.domain.id;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
-import lombok.EqualsAndHashCode;
 
 import javax.persistence.Access;
 import javax.persistence.AccessType;
 import javax.persistence.Column;
 import javax.persistence.MappedSuperclass;
 import java.io.Serializable;
-import java.nio.charset.Charset;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
 import static org.apache.commons.lang3.Validate.notBlank;
+import static org.apache.commons.lang3.Validate.notNull;
 
-@EqualsAndHashCode(callSuper = false)
+/**
+ * {@code Identifier} is a UUID based identity of aggregates and entities.
+ * It is kept as two longs and stored as a native 16 byte uuid column rather
+ * than its 36 characters long textual representation.
+ */
 @MappedSuperclass @Access(AccessType.FIELD)
 public abstract class Identifier implements Serializable {
 
-    @Column(name = "id", nullable = false)
-    protected final String id;
+    public static final int BYTES = 2 * Long.BYTES;
+
+    private static final Pattern UUID_PATTERN = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    @Column(name = "id", nullable = false, columnDefinition = "uuid")
+    protected final UUID id;
+
+    private transient int hash;
+
+    protected Identifier(UUID id) {
+        this.id = notNull(id);
+    }
 
     @JsonCreator
     protected Identifier(String id) {
-        this.id = notBlank(id);
+        this(parseUuid(id));
     }
 
-    @JsonValue
-    @Override
-    public String toString() {
+    public static boolean isValid(String id) {
+        return id != null && UUID_PATTERN.matcher(id).matches();
+    }
+
+    public UUID toUuid() {
         return id;
     }
 
-    public byte[] toBytes(Charset charset) {
-        return id.getBytes(charset);
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(BYTES)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static UUID parseUuid(String id) {
+        if (!isValid(notBlank(id)))
+            throw new MalformedIdentifierException(id);
+
+        return UUID.fromString(id);
+    }
+
+    protected static UUID uuidFromBytes(ByteBuffer bytes) {
+        return new UUID(bytes.getLong(), bytes.getLong());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof Identifier))
+            return false;
+
+        return id.equals(((Identifier) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // Hibernate injects the id after instantiation, so the hash is computed lazily
+        int h = hash;
+        if (h == 0) {
+            h = id.hashCode();
+            hash = h;
+        }
+        return h;
+    }
+
+    @JsonValue
+    @Override
+    public String toString() {
+        return id.toString();
     }
 }
@@ -0,0 +1,11 @@
+package de.tum.ase.kleo.domain.id;
+
+/**
+ * Thrown if a textual {@link Identifier} is no UUID.
+ */
+public class MalformedIdentifierException extends IllegalArgumentException {
+
+    public MalformedIdentifierException(String id) {
+        super("Malformed identifier " + id);
+    }
+}
@@ -1,16 +1,22 @@
 package de.tum.ase.kleo.domain.id;
 
 import javax.persistence.*;
+
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 @Embeddable @Access(AccessType.FIELD)
-@AttributeOverride(name = "id", column = @Column(name = "session_id"))
+@AttributeOverride(name = "id", column = @Column(name = "session_id", columnDefinition = "uuid"))
 public class SessionId extends Identifier {
 
     public SessionId() {
-        this(UUID.randomUUID().toString());
+        this(UUID.randomUUID());
+    }
+
+    public SessionId(UUID id) {
+        super(id);
     }
 
     public SessionId(String id) {
@@ -23,4 +29,8 @@ public class SessionId extends Identifier {
 
         return new SessionId(id);
     }
+
+    public static SessionId fromBytes(ByteBuffer bytes) {
+        return new SessionId(uuidFromBytes(bytes));
+    }
 }
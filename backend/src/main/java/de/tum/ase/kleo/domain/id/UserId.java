@@ -1,16 +1,22 @@
 package de.tum.ase.kleo.domain.id;
 
 import javax.persistence.*;
+
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 @Embeddable @Access(AccessType.FIELD)
-@AttributeOverride(name = "id", column = @Column(name = "user_id"))
+@AttributeOverride(name = "id", column = @Column(name = "user_id", columnDefinition = "uuid"))
 public class UserId extends Identifier {
 
     public UserId() {
-        this(UUID.randomUUID().toString());
+        this(UUID.randomUUID());
+    }
+
+    public UserId(UUID id) {
+        super(id);
     }
 
     public UserId(String id) {
@@ -23,4 +29,8 @@ public class UserId extends Identifier {
 
         return new UserId(id);
     }
+
+    public static UserId fromBytes(ByteBuffer bytes) {
+        return new UserId(uuidFromBytes(bytes));
+    }
 }
@@ -10,7 +10,7 @@ INSERT INTO PUBLIC.SESSION(SESSION_ID, BEGINS, ENDS, LOCATION, SESSION_TYPE, GRO
 ('7ac8e4a7-2dc3-493a-b0ac-cab44d369942', TIMESTAMP '2018-02-21 15:30:33.975', TIMESTAMP '2018-02-21 16:30:33.975', 'MI 1.2', 'TUTORIAL', 'c4c33ee5-af76-4614-b898-e4585c2908f6');
 
 -- Password for all users is "password"
-INSERT INTO PUBLIC.USER(USER_ID, EMAIL, NAME, PASSWORD_HASH, STUDENT_ID) VALUES
+INSERT INTO PUBLIC.USERS(USER_ID, EMAIL, NAME, PASSWORD_HASH, STUDENT_ID) VALUES
 ('ad591b51-9f6c-438a-afbd-fd19e1760c4b', 'student@tum.de', 'Student Studenter', '$2a$10$f0LW9DXHD6ku3EtjJkbiIuBeJ/V5xmQnVrwQP1OXDG/r482BpzJ0O', '123456789'),
 ('3eba335f-fca5-4adc-b398-f81c748421d8', 'tutor@tum.de', 'Tum Tutor', '$2a$10$KDxTNOZVansY/QGuICPuy.0bmS2k1FnUUr8u6Xx/NrjXqJXipXud2', '123456789'),
 ('ad591b51-9f6c-438a-afbd-fd19e1760c4a', 'superuser@tum.de', 'Superuser Superuserer', '$2a$10$f0LW9DXHD6ku3EtjJkbiIuBeJ/V5xmQnVrwQP1OXDG/r482BpzJ0O', '123456789');
@@ -0,0 +1,51 @@
+-- Baseline of the schema previously generated by Hibernate (ddl-auto)
+-- Users are kept in "users", as USER is reserved in PostgreSQL and standard SQL
+
+CREATE TABLE gr0up (
+    group_id VARCHAR(255) NOT NULL,
+    code     VARCHAR(255) NOT NULL,
+    name     VARCHAR(255) NOT NULL,
+    PRIMARY KEY (group_id)
+);
+
+CREATE TABLE group_students (
+    group_id VARCHAR(255) NOT NULL,
+    user_id  VARCHAR(255) NOT NULL,
+    PRIMARY KEY (group_id, user_id),
+    FOREIGN KEY (group_id) REFERENCES gr0up (group_id)
+);
+
+CREATE TABLE session (
+    session_id   VARCHAR(255) NOT NULL,
+    session_type VARCHAR(255) NOT NULL,
+    location     VARCHAR(255) NOT NULL,
+    begins       TIMESTAMP    NOT NULL,
+    ends         TIMESTAMP    NOT NULL,
+    group_id     VARCHAR(255),
+    PRIMARY KEY (session_id),
+    FOREIGN KEY (group_id) REFERENCES gr0up (group_id)
+);
+
+CREATE TABLE group_attendances (
+    group_id    VARCHAR(255) NOT NULL,
+    session_id  VARCHAR(255) NOT NULL,
+    student_id  VARCHAR(255) NOT NULL,
+    attended_at TIMESTAMP    NOT NULL,
+    PRIMARY KEY (group_id, session_id, student_id),
+    FOREIGN KEY (group_id) REFERENCES gr0up (group_id)
+);
+
+CREATE TABLE users (
+    user_id       VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    name          VARCHAR(255) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    student_id    VARCHAR(255),
+    PRIMARY KEY (user_id)
+);
+
+CREATE TABLE user_roles (
+    user_id    VARCHAR(255) NOT NULL,
+    user_roles VARCHAR(255) NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
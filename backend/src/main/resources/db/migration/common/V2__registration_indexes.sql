@@ -0,0 +1,11 @@
+-- Reverse indexes for looking up registrations by student rather than by group
+-- (GroupRepository.findAllByStudentIdsContaining, findAllByAttendancesStudentId)
+CREATE INDEX group_students_user_id_idx ON group_students (user_id, group_id);
+CREATE INDEX group_attendances_student_id_idx ON group_attendances (student_id, group_id);
+
+-- Foreign keys and lookup columns used by derived queries
+CREATE INDEX session_group_id_idx ON session (group_id);
+CREATE UNIQUE INDEX gr0up_code_idx ON gr0up (code);
+CREATE INDEX user_email_idx ON users (email);
+CREATE INDEX user_student_id_idx ON users (student_id);
+CREATE INDEX user_roles_user_id_idx ON user_roles (user_id);
@@ -0,0 +1,15 @@
+-- Mutations of groups, sessions, enrollments, attendances and users, numbered
+-- in insertion order, for clients pulling what changed since their last sync.
+-- BIGSERIAL is PostgreSQL's auto increment, which H2 accepts as well.
+CREATE TABLE change_log (
+    seq         BIGSERIAL   PRIMARY KEY,
+    changed_at  TIMESTAMP   NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    deleted     BOOLEAN     NOT NULL,
+    group_id    UUID,
+    session_id  UUID,
+    user_id     UUID
+);
+
+-- Settled head of the log handed to clients before their first sync
+CREATE INDEX change_log_changed_at_idx ON change_log (changed_at);
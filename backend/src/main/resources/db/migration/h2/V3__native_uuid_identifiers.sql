@@ -0,0 +1,18 @@
+-- Identifiers are stored as native 16 byte UUIDs instead of their 36 characters
+-- long textual representation. Existing values are converted in place.
+-- Referencing columns are converted first, referenced primary keys last.
+
+ALTER TABLE group_students ALTER COLUMN group_id UUID NOT NULL;
+ALTER TABLE group_students ALTER COLUMN user_id UUID NOT NULL;
+
+ALTER TABLE group_attendances ALTER COLUMN group_id UUID NOT NULL;
+ALTER TABLE group_attendances ALTER COLUMN session_id UUID NOT NULL;
+ALTER TABLE group_attendances ALTER COLUMN student_id UUID NOT NULL;
+
+ALTER TABLE session ALTER COLUMN group_id UUID;
+ALTER TABLE session ALTER COLUMN session_id UUID NOT NULL;
+
+ALTER TABLE user_roles ALTER COLUMN user_id UUID NOT NULL;
+
+ALTER TABLE gr0up ALTER COLUMN group_id UUID NOT NULL;
+ALTER TABLE users ALTER COLUMN user_id UUID NOT NULL;
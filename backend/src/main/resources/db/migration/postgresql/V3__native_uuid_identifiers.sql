@@ -0,0 +1,36 @@
+-- Identifiers are stored as native 16 byte UUIDs instead of their 36 characters
+-- long textual representation. Existing values are converted in place.
+-- Foreign keys can't span columns of different types, so they are dropped
+-- while converting and added again afterwards, under their previous names.
+
+ALTER TABLE group_students DROP CONSTRAINT group_students_group_id_fkey;
+ALTER TABLE group_attendances DROP CONSTRAINT group_attendances_group_id_fkey;
+ALTER TABLE session DROP CONSTRAINT session_group_id_fkey;
+ALTER TABLE user_roles DROP CONSTRAINT user_roles_user_id_fkey;
+
+ALTER TABLE group_students
+    ALTER COLUMN group_id TYPE UUID USING group_id::uuid,
+    ALTER COLUMN user_id TYPE UUID USING user_id::uuid;
+
+ALTER TABLE group_attendances
+    ALTER COLUMN group_id TYPE UUID USING group_id::uuid,
+    ALTER COLUMN session_id TYPE UUID USING session_id::uuid,
+    ALTER COLUMN student_id TYPE UUID USING student_id::uuid;
+
+ALTER TABLE session
+    ALTER COLUMN group_id TYPE UUID USING group_id::uuid,
+    ALTER COLUMN session_id TYPE UUID USING session_id::uuid;
+
+ALTER TABLE user_roles ALTER COLUMN user_id TYPE UUID USING user_id::uuid;
+
+ALTER TABLE gr0up ALTER COLUMN group_id TYPE UUID USING group_id::uuid;
+ALTER TABLE users ALTER COLUMN user_id TYPE UUID USING user_id::uuid;
+
+ALTER TABLE group_students ADD CONSTRAINT group_students_group_id_fkey
+    FOREIGN KEY (group_id) REFERENCES gr0up (group_id);
+ALTER TABLE group_attendances ADD CONSTRAINT group_attendances_group_id_fkey
+    FOREIGN KEY (group_id) REFERENCES gr0up (group_id);
+ALTER TABLE session ADD CONSTRAINT session_group_id_fkey
+    FOREIGN KEY (group_id) REFERENCES gr0up (group_id);
+ALTER TABLE user_roles ADD CONSTRAINT user_roles_user_id_fkey
+    FOREIGN KEY (user_id) REFERENCES users (user_id);
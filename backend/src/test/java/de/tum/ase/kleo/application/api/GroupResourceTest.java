@@ -0,0 +1,110 @@
+package de.tum.ase.kleo.application.api;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+
+import javax.servlet.http.HttpServletResponse;
+
+import de.tum.ase.kleo.application.api.dto.GroupDTO;
+import de.tum.ase.kleo.application.api.dto.GroupFromDtoFactory;
+import de.tum.ase.kleo.application.api.dto.GroupToDtoSerializer;
+import de.tum.ase.kleo.application.api.dto.MalformedRequestBodyException;
+import de.tum.ase.kleo.application.api.dto.PassDTO;
+import de.tum.ase.kleo.application.api.dto.PassDtoMapper;
+import de.tum.ase.kleo.application.api.dto.SessionDelegationToDtoSerializer;
+import de.tum.ase.kleo.application.api.dto.SessionRecurrenceFromDtoFactory;
+import de.tum.ase.kleo.application.api.dto.SessionScheduleDTO;
+import de.tum.ase.kleo.application.api.dto.SessionToDtoSerializer;
+import de.tum.ase.kleo.application.api.dto.UserToDtoSerializer;
+import de.tum.ase.kleo.application.service.GroupService;
+import de.tum.ase.kleo.domain.id.MalformedIdentifierException;
+import de.tum.ase.kleo.domain.id.SessionId;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class GroupResourceTest {
+
+    private static final String MALFORMED_ID = "not-a-uuid";
+
+    private GroupService groupService;
+    private GroupResource groupResource;
+
+    @Before
+    public void setUp() {
+        groupService = mock(GroupService.class);
+        groupResource = new GroupResource(groupService, mock(GroupToDtoSerializer.class),
+                new GroupFromDtoFactory(), mock(UserToDtoSerializer.class), mock(SessionToDtoSerializer.class),
+                new SessionRecurrenceFromDtoFactory(), mock(PassDtoMapper.class),
+                mock(SessionDelegationToDtoSerializer.class));
+    }
+
+    @Test
+    public void rejectsMalformedStudentIdsOfGroupAsBadRequest() {
+        val groupDto = new GroupDTO().name("Group").studentIds(Collections.singletonList(MALFORMED_ID));
+
+        assertThatThrownBy(() -> groupResource.updateGroup("group", groupDto))
+                .isInstanceOf(MalformedRequestBodyException.class);
+        assertThatThrownBy(() -> groupResource.addGroup(groupDto))
+                .isInstanceOf(MalformedRequestBodyException.class);
+        verify(groupService, never()).updateGroup(anyString(), any(), any());
+    }
+
+    @Test
+    public void rejectsMalformedIdsOfPassAsBadRequest() {
+        val passDto = new PassDTO().sessionId(new SessionId().toString()).studentId(MALFORMED_ID);
+
+        assertThatThrownBy(() -> groupResource.generateSessionPass("group", passDto))
+                .isInstanceOf(MalformedRequestBodyException.class);
+        verify(groupService, never()).generateSessionPassCode(anyString(), any(), any());
+    }
+
+    @Test
+    public void rejectsScheduleInUnknownTimeZoneAsBadRequest() {
+        val begins = OffsetDateTime.of(2018, 4, 17, 10, 0, 0, 0, ZoneOffset.ofHours(2));
+        val scheduleDto = new SessionScheduleDTO()
+                .type(SessionScheduleDTO.TypeEnum.TUTORIAL)
+                .location("MI 00.08.038")
+                .begins(begins)
+                .ends(begins.plusHours(2))
+                .until(LocalDate.of(2018, 7, 20))
+                .timeZone("Europe/Garching");
+
+        assertThatThrownBy(() -> groupResource.scheduleGroupSessions("group", scheduleDto))
+                .isInstanceOf(MalformedRequestBodyException.class)
+                .hasMessageContaining("Europe/Garching");
+        verify(groupService, never()).scheduleGroupSessions(anyString(), any(), any(), any());
+    }
+
+    @Test
+    public void rejectsIncompleteScheduleAsBadRequest() {
+        val scheduleDto = new SessionScheduleDTO()
+                .type(SessionScheduleDTO.TypeEnum.TUTORIAL)
+                .until(LocalDate.of(2018, 7, 20));
+
+        assertThatThrownBy(() -> groupResource.scheduleGroupSessions("group", scheduleDto))
+                .isInstanceOf(MalformedRequestBodyException.class);
+    }
+
+    @Test
+    public void mapsMalformedBodiesToBadRequestAndMalformedPathIdsToNotFound() throws Exception {
+        val handler = new ApiExceptionHandler();
+        val response = mock(HttpServletResponse.class);
+
+        handler.handleBadRequest(new MalformedRequestBodyException("Malformed identifier"), response);
+        handler.handleNotFound(new MalformedIdentifierException(MALFORMED_ID), response);
+
+        verify(response).sendError(400, "Malformed identifier");
+        verify(response).sendError(404, "Malformed identifier " + MALFORMED_ID);
+    }
+}
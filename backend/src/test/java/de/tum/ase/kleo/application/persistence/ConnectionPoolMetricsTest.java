@@ -0,0 +1,36 @@
+package de.tum.ase.kleo.application.persistence;
+
+import org.junit.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.util.LinkedHashMap;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConnectionPoolMetricsTest {
+
+    @Test
+    public void publishesEachPoolTaggedByName() {
+        val primary = new org.apache.tomcat.jdbc.pool.DataSource();
+        primary.setMaxActive(20);
+        val replica = new org.apache.tomcat.jdbc.pool.DataSource();
+        replica.setMaxActive(10);
+
+        val pools = new LinkedHashMap<String, DataSource>();
+        pools.put("primary", primary);
+        pools.put("replica-0", replica);
+        pools.put("routing", new LazyConnectionDataSourceProxy(primary));
+
+        val meterRegistry = new SimpleMeterRegistry();
+        new ConnectionPoolMetrics(pools).bindTo(meterRegistry);
+
+        assertThat(meterRegistry.get("kleo.db.pool.max").tag("pool", "primary").gauge().value()).isEqualTo(20);
+        assertThat(meterRegistry.get("kleo.db.pool.max").tag("pool", "replica-0").gauge().value()).isEqualTo(10);
+        assertThat(meterRegistry.find("kleo.db.pool.max").tag("pool", "routing").gauge()).isNull();
+    }
+}
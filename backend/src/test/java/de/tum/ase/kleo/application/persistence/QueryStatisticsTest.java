@@ -0,0 +1,55 @@
+package de.tum.ase.kleo.application.persistence;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryStatisticsTest {
+
+    private QueryStatistics queryStatistics;
+
+    @Before
+    public void setUp() {
+        queryStatistics = new QueryStatistics(1000);
+    }
+
+    @Test
+    public void aggregatesStatementsWithDifferentInListLengths() {
+        execute("select * from users where email in (?, ?)", 5, 2);
+        execute("select * from users where email in (?, ?, ?)", 15, 1);
+        execute("delete from group_students where group_id=?", 1, 3);
+
+        assertThat(queryStatistics.topByTotalTime(10)).hasSize(2);
+
+        final QueryStatistic top = queryStatistics.topByTotalTime(1).get(0);
+        assertThat(top.query()).isEqualTo("select * from users where email in (?...)");
+        assertThat(top.executions()).isEqualTo(2);
+        assertThat(top.totalTimeMillis()).isEqualTo(20);
+        assertThat(top.maxTimeMillis()).isEqualTo(15);
+        assertThat(top.rows()).isEqualTo(3);
+    }
+
+    @Test
+    public void countsStatementsOfCurrentThread() {
+        QueryStatistics.startCounting();
+        execute("select * from gr0up", 1, 0);
+        execute("select * from session where group_id=?", 1, 0);
+
+        assertThat(QueryStatistics.stopCounting()).isEqualTo(2);
+        assertThat(QueryStatistics.stopCounting()).isZero();
+    }
+
+    private void execute(String query, long elapsedMillis, int affectedRows) {
+        final ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(elapsedMillis);
+        executionInfo.setSuccess(true);
+        executionInfo.setResult(affectedRows);
+
+        queryStatistics.afterQuery(executionInfo, singletonList(new QueryInfo(query)));
+    }
+}
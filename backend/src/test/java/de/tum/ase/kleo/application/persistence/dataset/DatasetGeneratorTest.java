@@ -0,0 +1,78 @@
+package de.tum.ase.kleo.application.persistence.dataset;
+
+import org.flywaydb.core.Flyway;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import de.tum.ase.kleo.application.persistence.MigrationLocations;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DatasetGeneratorTest {
+
+    private static final DatasetSpec SPEC = new DatasetSpec(7, 20, 300, 0.05, 4, 1.1,
+            LocalDate.of(2018, 4, 16), 6, 0.6, 64);
+
+    @Test
+    public void writesAsManyRowsAsReported() {
+        val jdbcTemplate = migratedDatabase("dataset-counts");
+
+        val statistics = new DatasetGenerator(jdbcTemplate, "hash").generate(SPEC);
+
+        assertThat(count(jdbcTemplate, "gr0up")).isEqualTo(statistics.groups()).isEqualTo(20);
+        assertThat(count(jdbcTemplate, "session")).isEqualTo(statistics.sessions()).isEqualTo(20 * 6);
+        assertThat(count(jdbcTemplate, "users")).isEqualTo(statistics.users()).isEqualTo(300);
+        assertThat(count(jdbcTemplate, "user_roles")).isEqualTo(300);
+        assertThat(count(jdbcTemplate, "group_students")).isEqualTo(statistics.registrations());
+        assertThat(count(jdbcTemplate, "group_attendances")).isEqualTo(statistics.attendances()).isPositive();
+    }
+
+    @Test
+    public void skewsRegistrationsTowardsPopularGroups() {
+        val jdbcTemplate = migratedDatabase("dataset-skew");
+        new DatasetGenerator(jdbcTemplate, "hash").generate(SPEC);
+
+        final List<Long> groupSizes = jdbcTemplate.queryForList("SELECT COUNT(*) FROM group_students " +
+                "GROUP BY group_id ORDER BY COUNT(*) DESC", Long.class);
+
+        assertThat(groupSizes.get(0)).isGreaterThan(groupSizes.get(groupSizes.size() - 1) * 5);
+    }
+
+    @Test
+    public void generatesSameRowsForSameSeed() {
+        val first = migratedDatabase("dataset-first");
+        val second = migratedDatabase("dataset-second");
+
+        new DatasetGenerator(first, "hash").generate(SPEC);
+        new DatasetGenerator(second, "hash").generate(SPEC);
+
+        assertThat(attendances(first)).isEqualTo(attendances(second));
+    }
+
+    private static JdbcTemplate migratedDatabase(String name) {
+        val dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+        val flyway = new Flyway();
+        flyway.setDataSource(dataSource);
+        flyway.setLocations(MigrationLocations.of(dataSource));
+        flyway.clean();
+        flyway.migrate();
+
+        return new JdbcTemplate(dataSource);
+    }
+
+    private static long count(JdbcTemplate jdbcTemplate, String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private static List<Map<String, Object>> attendances(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("SELECT * FROM group_attendances " +
+                "ORDER BY group_id, session_id, student_id");
+    }
+}
@@ -0,0 +1,97 @@
+package de.tum.ase.kleo.application.persistence.routing;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import lombok.val;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT lag_millis FROM replication";
+
+    private final AtomicReference<String> currentUser = new AtomicReference<>();
+
+    private JdbcTemplate replicaJdbcTemplate;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @Before
+    public void setUp() {
+        val primary = database("routing-primary", "primary");
+        val replica = database("routing-replica", "replica");
+        replicaJdbcTemplate = new JdbcTemplate(replica);
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, singletonList(new Replica("replica-0", replica)),
+                new ReadYourWritesTracker(Duration.ofMinutes(1)), currentUser::get);
+        routingDataSource.probeReplicas(LAG_QUERY, 1000);
+
+        val dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @Test
+    public void routesReadOnlyTransactionsToReplica() {
+        assertThat(nodeIn(true)).isEqualTo("replica");
+    }
+
+    @Test
+    public void routesReadWriteTransactionsAndNonTransactionalCallsToPrimary() {
+        assertThat(nodeIn(false)).isEqualTo("primary");
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM node", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    public void readsOwnWritesFromPrimary() {
+        currentUser.set("anna");
+        nodeIn(false);
+
+        assertThat(nodeIn(true)).isEqualTo("primary");
+
+        currentUser.set("bernd");
+        assertThat(nodeIn(true)).isEqualTo("replica");
+    }
+
+    @Test
+    public void fallsBackToPrimaryWhenReplicaLags() {
+        replicaJdbcTemplate.update("UPDATE replication SET lag_millis = 5000");
+        routingDataSource.probeReplicas(LAG_QUERY, 1000);
+
+        assertThat(nodeIn(true)).isEqualTo("primary");
+    }
+
+    private String nodeIn(boolean readOnlyTransaction) {
+        val transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnlyTransaction);
+
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static DataSource database(String name, String node) {
+        val dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+        val jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(16))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", node);
+        jdbcTemplate.execute("CREATE TABLE replication (lag_millis BIGINT)");
+        jdbcTemplate.update("INSERT INTO replication VALUES (0)");
+
+        return dataSource;
+    }
+}
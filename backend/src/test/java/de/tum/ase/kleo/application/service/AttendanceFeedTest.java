@@ -0,0 +1,230 @@
+package de.tum.ase.kleo.application.service;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.tum.ase.kleo.domain.Attendance;
+import de.tum.ase.kleo.domain.id.GroupId;
+import de.tum.ase.kleo.domain.id.SessionId;
+import de.tum.ase.kleo.domain.id.UserId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AttendanceFeedTest {
+
+    private static final int BUFFER_SIZE = 2;
+    private static final int DISPATCH_THREADS = 4;
+    private static final int DISPATCH_QUEUE_SIZE = 8;
+
+    private AttendanceFeed attendanceFeed;
+
+    private final GroupId groupId = new GroupId();
+    private final SessionId sessionId = new SessionId();
+
+    @Before
+    public void setUp() {
+        attendanceFeed = new AttendanceFeed(BUFFER_SIZE, DISPATCH_THREADS, DISPATCH_QUEUE_SIZE, 60_000, 60_000,
+                new SimpleMeterRegistry());
+    }
+
+    @After
+    public void tearDown() {
+        attendanceFeed.destroy();
+    }
+
+    @Test
+    public void deliversAttendancesOfSubscribedGroupAndSession() throws InterruptedException {
+        val groupSink = new RecordingSink();
+        val sessionSink = new RecordingSink();
+        attendanceFeed.subscribe(groupId, null, groupSink);
+        attendanceFeed.subscribe(groupId, sessionId, sessionSink);
+
+        val sessionEvent = event(groupId, sessionId);
+        val otherSessionEvent = event(groupId, new SessionId());
+        attendanceFeed.onAttendanceRegistered(sessionEvent);
+        attendanceFeed.onAttendanceRegistered(otherSessionEvent);
+        attendanceFeed.onAttendanceRegistered(event(new GroupId(), sessionId));
+
+        assertThat(groupSink.next()).isSameAs(sessionEvent);
+        assertThat(groupSink.next()).isSameAs(otherSessionEvent);
+        assertThat(sessionSink.next()).isSameAs(sessionEvent);
+        assertThat(sessionSink.events.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(groupSink.events).isEmpty();
+    }
+
+    @Test
+    public void dropsSlowSubscriberWithoutAffectingOthers() throws InterruptedException {
+        val blockedSink = new RecordingSink();
+        blockedSink.blocked = new CountDownLatch(1);
+        val healthySink = new RecordingSink();
+
+        attendanceFeed.subscribe(groupId, null, blockedSink);
+        attendanceFeed.subscribe(groupId, null, healthySink);
+
+        // One at a time, so only the blocked sink's buffer can overflow
+        for (int i = 0; i < BUFFER_SIZE + 2; i++) {
+            attendanceFeed.onAttendanceRegistered(event(groupId, sessionId));
+            assertThat(healthySink.next()).isNotNull();
+        }
+        assertThat(blockedSink.closed.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(attendanceFeed.subscribersCount()).isEqualTo(1);
+
+        blockedSink.blocked.countDown();
+    }
+
+    @Test
+    public void dropsStalledSubscribersWithoutHoldingUpOthers() throws InterruptedException {
+        attendanceFeed.destroy();
+        attendanceFeed = new AttendanceFeed(BUFFER_SIZE, DISPATCH_THREADS, DISPATCH_QUEUE_SIZE, 60_000, 200,
+                new SimpleMeterRegistry());
+
+        val stalled = new CountDownLatch(1);
+        val stalledSinks = new RecordingSink[DISPATCH_THREADS - 1];
+        for (int i = 0; i < stalledSinks.length; i++) {
+            stalledSinks[i] = new RecordingSink();
+            stalledSinks[i].blocked = stalled;
+            attendanceFeed.subscribe(groupId, null, stalledSinks[i]);
+        }
+        val healthySink = new RecordingSink();
+        attendanceFeed.subscribe(groupId, null, healthySink);
+
+        attendanceFeed.onAttendanceRegistered(event(groupId, sessionId));
+
+        assertThat(healthySink.next()).isNotNull();
+        for (val stalledSink : stalledSinks) {
+            assertThat(stalledSink.closed.await(1, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(attendanceFeed.subscribersCount()).isEqualTo(1);
+
+        stalled.countDown();
+    }
+
+    @Test
+    public void dropsSubscribersOnceDispatchingIsSaturated() throws InterruptedException {
+        attendanceFeed.destroy();
+        attendanceFeed = new AttendanceFeed(BUFFER_SIZE, 1, 1, 60_000, 60_000, new SimpleMeterRegistry());
+
+        val stalledGroupId = new GroupId();
+        val stalledSink = new RecordingSink();
+        stalledSink.blocked = new CountDownLatch(1);
+        attendanceFeed.subscribe(stalledGroupId, null, stalledSink);
+        attendanceFeed.onAttendanceRegistered(event(stalledGroupId, sessionId));
+
+        val queuedGroupId = new GroupId();
+        val queuedSink = new RecordingSink();
+        attendanceFeed.subscribe(queuedGroupId, null, queuedSink);
+        attendanceFeed.onAttendanceRegistered(event(queuedGroupId, sessionId));
+
+        val rejectedSink = new RecordingSink();
+        attendanceFeed.subscribe(groupId, null, rejectedSink);
+        attendanceFeed.onAttendanceRegistered(event(groupId, sessionId));
+
+        assertThat(rejectedSink.closed.getCount()).isZero();
+        assertThat(attendanceFeed.subscribersCount()).isEqualTo(2);
+
+        stalledSink.blocked.countDown();
+        assertThat(queuedSink.next()).isNotNull();
+    }
+
+    @Test
+    public void writesHeartbeatsAndEventsOfSubscriberOneAtATime() throws InterruptedException {
+        attendanceFeed.destroy();
+        attendanceFeed = new AttendanceFeed(BUFFER_SIZE, DISPATCH_THREADS, DISPATCH_QUEUE_SIZE, 5, 60_000,
+                new SimpleMeterRegistry());
+
+        val writing = new AtomicInteger();
+        val overlapped = new AtomicBoolean();
+        val heartbeats = new CountDownLatch(3);
+        final RecordingSink sink = new RecordingSink() {
+            @Override
+            public void send(AttendanceRegisteredEvent event) {
+                write(() -> super.send(event));
+            }
+
+            @Override
+            public void heartbeat() {
+                write(heartbeats::countDown);
+            }
+
+            private void write(Runnable write) {
+                if (writing.incrementAndGet() > 1)
+                    overlapped.set(true);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                write.run();
+                writing.decrementAndGet();
+            }
+        };
+        attendanceFeed.subscribe(groupId, null, sink);
+
+        for (int i = 0; i < BUFFER_SIZE; i++) {
+            attendanceFeed.onAttendanceRegistered(event(groupId, sessionId));
+        }
+
+        assertThat(heartbeats.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(sink.events).hasSize(BUFFER_SIZE);
+        assertThat(overlapped.get()).isFalse();
+    }
+
+    @Test
+    public void forgetsCancelledSubscriptions() {
+        val sink = new RecordingSink();
+        val subscription = attendanceFeed.subscribe(groupId, null, sink);
+
+        subscription.cancel();
+        subscription.cancel();
+        attendanceFeed.onAttendanceRegistered(event(groupId, sessionId));
+
+        assertThat(attendanceFeed.subscribersCount()).isZero();
+        assertThat(sink.closed.getCount()).isZero();
+        assertThat(sink.events).isEmpty();
+    }
+
+    private static AttendanceRegisteredEvent event(GroupId groupId, SessionId sessionId) {
+        return new AttendanceRegisteredEvent(groupId, new Attendance(sessionId, new UserId()));
+    }
+
+    private static class RecordingSink implements AttendanceFeed.Sink {
+
+        private final BlockingQueue<AttendanceRegisteredEvent> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private volatile CountDownLatch blocked;
+
+        @Override
+        public void send(AttendanceRegisteredEvent event) {
+            try {
+                if (blocked != null)
+                    blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(event);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        private AttendanceRegisteredEvent next() throws InterruptedException {
+            return events.poll(1, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package de.tum.ase.kleo.application.service;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import de.tum.ase.kleo.domain.AttendanceRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+
+import static de.tum.ase.kleo.domain.AttendanceRejectedException.Reason.EXPIRED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class AttendanceMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AttendanceMetrics attendanceMetrics;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        attendanceMetrics = new AttendanceMetrics(meterRegistry);
+    }
+
+    @Test
+    public void countsRejectedAttendancesByReason() {
+        try {
+            attendanceMetrics.recordAttendance(() -> {
+                throw new AttendanceRejectedException(EXPIRED, "expired");
+            });
+            fail("Rejection should have been rethrown");
+        } catch (AttendanceRejectedException e) {
+            val rejections = meterRegistry.get("kleo.attendances.rejected").tag("reason", "expired").counter();
+
+            assertThat(rejections.count()).isEqualTo(1);
+            assertThat(meterRegistry.get("kleo.attendances.in_flight").gauge().value()).isZero();
+        }
+    }
+
+    @Test
+    public void tracksChainSendsUntilCompletion() {
+        val futureReceipt = new CompletableFuture<String>();
+
+        attendanceMetrics.recordChainSend(() -> futureReceipt);
+        assertThat(meterRegistry.get("kleo.chain.sends.pending").gauge().value()).isEqualTo(1);
+
+        futureReceipt.completeExceptionally(new IllegalStateException("Out of gas"));
+
+        assertThat(meterRegistry.get("kleo.chain.sends.pending").gauge().value()).isZero();
+        assertThat(meterRegistry.get("kleo.chain.sends.completed").tag("outcome", "failure")
+                .counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,152 @@
+package de.tum.ase.kleo.application.service;
+
+import org.flywaydb.core.Flyway;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import de.tum.ase.kleo.application.persistence.MigrationLocations;
+import de.tum.ase.kleo.domain.id.GroupId;
+import de.tum.ase.kleo.domain.id.SessionId;
+import de.tum.ase.kleo.domain.id.UserId;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChangeLogTest {
+
+    private final GroupId groupId = new GroupId();
+    private final SessionId sessionId = new SessionId();
+    private final UserId anna = new UserId();
+    private final UserId bernd = new UserId();
+
+    @Test
+    public void pagesChangesInTheOrderRecorded() {
+        val changeLog = new ChangeLog(migratedDatabase("changes-paging"), 0);
+        changeLog.recordAll(Arrays.asList(
+                Change.group(groupId, false),
+                Change.session(groupId, sessionId, false),
+                Change.enrollment(groupId, anna, false)));
+        changeLog.record(Change.group(groupId, true));
+
+        val first = changeLog.changesSince(0, 3, anna, false);
+        assertThat(first.changes()).extracting(Change::type)
+                .containsExactly(Change.Type.GROUP, Change.Type.SESSION, Change.Type.ENROLLMENT);
+        assertThat(first.changes().get(1).sessionId()).isEqualTo(sessionId);
+        assertThat(first.hasMore()).isTrue();
+
+        val second = changeLog.changesSince(first.cursor(), 3, anna, false);
+        assertThat(second.changes()).extracting(Change::deleted).containsExactly(true);
+        assertThat(second.hasMore()).isFalse();
+        assertThat(second.cursor()).isEqualTo(changeLog.head());
+
+        val third = changeLog.changesSince(second.cursor(), 3, anna, false);
+        assertThat(third.changes()).isEmpty();
+        assertThat(third.cursor()).isEqualTo(second.cursor());
+    }
+
+    @Test
+    public void skipsAttendancesOfOtherStudentsButAdvancesCursor() {
+        val changeLog = new ChangeLog(migratedDatabase("changes-visibility"), 0);
+        changeLog.recordAll(Arrays.asList(
+                Change.attendance(groupId, sessionId, anna),
+                Change.attendance(groupId, sessionId, bernd)));
+
+        val annas = changeLog.changesSince(0, 10, anna, false);
+        assertThat(annas.changes()).extracting(Change::userId).containsExactly(anna);
+        assertThat(annas.cursor()).isEqualTo(changeLog.head());
+
+        val tutors = changeLog.changesSince(0, 10, anna, true);
+        assertThat(tutors.changes()).extracting(Change::userId).containsExactly(anna, bernd);
+    }
+
+    @Test
+    public void skipsEnrollmentsOfOtherStudentsInGroupsOfOthers() {
+        val jdbcTemplate = migratedDatabase("changes-enrollments");
+        jdbcTemplate.update("INSERT INTO gr0up (group_id, code, name) VALUES (?, ?, ?)",
+                groupId.toUuid(), "ANNAS", "Anna's group");
+        jdbcTemplate.update("INSERT INTO group_students (group_id, user_id) VALUES (?, ?)",
+                groupId.toUuid(), anna.toUuid());
+
+        val otherGroupId = new GroupId();
+        val changeLog = new ChangeLog(jdbcTemplate, 0);
+        changeLog.recordAll(Arrays.asList(
+                Change.enrollment(groupId, bernd, false),
+                Change.enrollment(otherGroupId, bernd, false),
+                Change.enrollment(otherGroupId, anna, true)));
+
+        val annas = changeLog.changesSince(0, 10, anna, false);
+        assertThat(annas.changes()).extracting(Change::groupId).containsExactly(groupId, otherGroupId);
+        assertThat(annas.changes()).extracting(Change::userId).containsExactly(bernd, anna);
+        assertThat(annas.cursor()).isEqualTo(changeLog.head());
+
+        val tutors = changeLog.changesSince(0, 10, anna, true);
+        assertThat(tutors.changes()).hasSize(3);
+    }
+
+    @Test
+    public void holdsBackChangesUntilSettled() {
+        val changeLog = new ChangeLog(migratedDatabase("changes-settle"), 60_000);
+        changeLog.record(Change.user(anna, false));
+
+        assertThat(changeLog.changesSince(0, 10, anna, true).changes()).isEmpty();
+        assertThat(changeLog.head()).isZero();
+    }
+
+    @Test
+    public void insertsChangesOfTransactionAsItCommits() {
+        val jdbcTemplate = migratedDatabase("changes-commit");
+        val changeLog = new ChangeLog(jdbcTemplate, 0);
+        val transactionTemplate = new TransactionTemplate(
+                new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+
+        val recordedBefore = new AtomicReference<Timestamp>();
+        transactionTemplate.execute(status -> {
+            changeLog.record(Change.group(groupId, false));
+            changeLog.record(Change.enrollment(groupId, anna, false));
+            recordedBefore.set(new Timestamp(System.currentTimeMillis()));
+
+            assertThat(changeLog.head()).isZero();
+            return null;
+        });
+
+        assertThat(changeLog.changesSince(0, 10, anna, false).changes()).extracting(Change::type)
+                .containsExactly(Change.Type.GROUP, Change.Type.ENROLLMENT);
+        assertThat(jdbcTemplate.queryForObject("SELECT MIN(changed_at) FROM change_log", Timestamp.class).getTime())
+                .isGreaterThanOrEqualTo(recordedBefore.get().getTime());
+    }
+
+    @Test
+    public void discardsChangesOfRolledBackTransaction() {
+        val jdbcTemplate = migratedDatabase("changes-rollback");
+        val changeLog = new ChangeLog(jdbcTemplate, 0);
+        val transactionTemplate = new TransactionTemplate(
+                new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+
+        transactionTemplate.execute(status -> {
+            changeLog.record(Change.group(groupId, false));
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(changeLog.head()).isZero();
+    }
+
+    private static JdbcTemplate migratedDatabase(String name) {
+        val dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+        val flyway = new Flyway();
+        flyway.setDataSource(dataSource);
+        flyway.setLocations(MigrationLocations.of(dataSource));
+        flyway.clean();
+        flyway.migrate();
+
+        return new JdbcTemplate(dataSource);
+    }
+}
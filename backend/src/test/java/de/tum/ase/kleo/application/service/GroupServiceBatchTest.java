@@ -0,0 +1,160 @@
+package de.tum.ase.kleo.application.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.security.spec.AlgorithmParameterSpec;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import de.tum.ase.kleo.application.tracing.AsyncTracer;
+import de.tum.ase.kleo.domain.Group;
+import de.tum.ase.kleo.domain.GroupRepository;
+import de.tum.ase.kleo.domain.Pass;
+import de.tum.ase.kleo.domain.PassDetokenizer;
+import de.tum.ase.kleo.domain.PassTokenizer;
+import de.tum.ase.kleo.domain.SessionType;
+import de.tum.ase.kleo.domain.id.SessionId;
+import de.tum.ase.kleo.domain.id.UserId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import lombok.val;
+
+import static de.tum.ase.kleo.application.service.PassUtilization.Status.ATTENDED;
+import static de.tum.ase.kleo.application.service.PassUtilization.Status.DUPLICATE;
+import static de.tum.ase.kleo.application.service.PassUtilization.Status.EXPIRED;
+import static de.tum.ase.kleo.application.service.PassUtilization.Status.INVALID_PASS;
+import static de.tum.ase.kleo.application.service.PassUtilization.Status.UNREGISTERED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GroupServiceBatchTest {
+
+    private final SessionId sessionId = new SessionId();
+    private final UserId anna = new UserId();
+    private final UserId bernd = new UserId();
+
+    private Group group;
+    private PassTokenizer passTokenizer;
+    private ApplicationEventPublisher eventPublisher;
+    private ChangeLog changeLog;
+    private GroupService groupService;
+
+    @Before
+    public void setUp() throws Exception {
+        val key = new SecretKeySpec(Arrays.copyOf("batch-test-key".getBytes(), 16), "AES");
+        val cipher = Cipher.getInstance("AES/CBC/PKCS5PADDING");
+        final AlgorithmParameterSpec algParamSpec = new IvParameterSpec(new byte[16]);
+
+        passTokenizer = new PassTokenizer(cipher, key, algParamSpec);
+        val passDetokenizer = new PassDetokenizer(cipher, key, algParamSpec);
+
+        group = new Group("Batch Test Group");
+        group.addStudent(anna);
+        group.addStudent(bernd);
+
+        val groupRepository = mock(GroupRepository.class);
+        when(groupRepository.findOneByIdOrCode(group.code().toString())).thenReturn(Optional.of(group));
+
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        changeLog = mock(ChangeLog.class);
+
+        groupService = new GroupService(groupRepository, mock(UserService.class),
+                passTokenizer, passDetokenizer, null,
+                attendance -> CompletableFuture.completedFuture("0x0"),
+                new AttendanceMetrics(new SimpleMeterRegistry()),
+                new AsyncTracer(SdkTracerProvider.builder().build().get("test")),
+                eventPublisher, changeLog);
+    }
+
+    @Test
+    public void reportsOutcomePerPassInBatchOrder() {
+        val annaPass = passCode(anna, Duration.ofMinutes(15));
+        val berndExpiredPass = passCode(bernd, Duration.ofMinutes(-1));
+        val strangerPass = passCode(new UserId(), Duration.ofMinutes(15));
+
+        val utilizations = groupService.utilizeSessionPassCodes(group.code().toString(),
+                Arrays.asList(annaPass, berndExpiredPass, strangerPass, annaPass, "garbage"));
+
+        assertThat(utilizations).extracting(PassUtilization::status)
+                .containsExactly(ATTENDED, EXPIRED, UNREGISTERED, DUPLICATE, INVALID_PASS);
+        assertThat(utilizations).extracting(PassUtilization::passCode)
+                .containsExactly(annaPass, berndExpiredPass, strangerPass, annaPass, "garbage");
+    }
+
+    @Test
+    public void registersAttendancesOfAcceptedPassesOnly() {
+        groupService.utilizeSessionPassCodes(group.code().toString(), Arrays.asList(
+                passCode(anna, Duration.ofMinutes(15)),
+                passCode(bernd, Duration.ofMinutes(15)),
+                passCode(bernd, Duration.ofMinutes(15))));
+
+        assertThat(group.hasAttended(anna, sessionId)).isTrue();
+        assertThat(group.hasAttended(bernd, sessionId)).isTrue();
+        assertThat(group.attendances()).hasSize(2);
+        verify(eventPublisher, times(2)).publishEvent(any(AttendanceRegisteredEvent.class));
+        verify(changeLog).recordAll(Arrays.asList(
+                Change.attendance(group.id(), sessionId, anna),
+                Change.attendance(group.id(), sessionId, bernd)));
+    }
+
+    @Test
+    public void checksExpiryAtCollectionTime() {
+        val collectedBeforeExpiry = new CollectedPassCode(passCode(anna, Duration.ofMinutes(-1)),
+                OffsetDateTime.now().minusMinutes(2));
+        val collectedAfterExpiry = new CollectedPassCode(passCode(bernd, Duration.ofMinutes(-2)),
+                OffsetDateTime.now().minusMinutes(1));
+
+        val utilizations = groupService.utilizeCollectedPassCodes(group.code().toString(),
+                Arrays.asList(collectedBeforeExpiry, collectedAfterExpiry));
+
+        assertThat(utilizations).extracting(PassUtilization::status).containsExactly(ATTENDED, EXPIRED);
+    }
+
+    @Test
+    public void boundsCollectionTimeOfPasses() {
+        val collectedInFuture = new CollectedPassCode(passCode(anna, Duration.ofMinutes(-1)),
+                OffsetDateTime.now().plusDays(1));
+        val collectedLongAgo = new CollectedPassCode(passCode(bernd, Duration.ofDays(-3)),
+                OffsetDateTime.now().minusDays(3).minusMinutes(1));
+
+        val utilizations = groupService.utilizeCollectedPassCodes(group.code().toString(),
+                Arrays.asList(collectedInFuture, collectedLongAgo));
+
+        assertThat(utilizations).extracting(PassUtilization::status).containsExactly(EXPIRED, EXPIRED);
+    }
+
+    @Test
+    public void rejectsPrefetchedPassesExpiringOutOfBounds() {
+        assertThatThrownBy(() -> groupService.generateSessionPassCodes(group.code().toString(), sessionId,
+                Duration.ZERO)).isInstanceOf(InvalidPassExpiryException.class);
+        assertThatThrownBy(() -> groupService.generateSessionPassCodes(group.code().toString(), sessionId,
+                Duration.ofDays(365))).isInstanceOf(InvalidPassExpiryException.class);
+    }
+
+    @Test
+    public void refusesToDelegatePassesOfEndedSessions() {
+        val endedSessionId = group.addSession(SessionType.TUTORIAL, "MI 00.08.038",
+                OffsetDateTime.now().minusHours(2), OffsetDateTime.now().minusHours(1));
+
+        assertThatThrownBy(() -> groupService.delegateSessionPasses(group.code().toString(), endedSessionId))
+                .isInstanceOf(SessionEndedException.class);
+    }
+
+    private String passCode(UserId studentId, Duration expiresIn) {
+        return passTokenizer.tokenizeToString(new Pass(sessionId, studentId, expiresIn));
+    }
+}
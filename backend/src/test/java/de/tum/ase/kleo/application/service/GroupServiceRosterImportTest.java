@@ -0,0 +1,77 @@
+package de.tum.ase.kleo.application.service;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import de.tum.ase.kleo.domain.Group;
+import de.tum.ase.kleo.domain.GroupRepository;
+import de.tum.ase.kleo.domain.User;
+import de.tum.ase.kleo.domain.id.UserId;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GroupServiceRosterImportTest {
+
+    private final User anna = new User(new UserId(), "anna@tum.de", "hash", null, "Anna", "03671234");
+    private final User bernd = new User(new UserId(), "bernd@tum.de", "hash", null, "Bernd", "03675678");
+    private final User berndsNamesake = new User(new UserId(), "bernd2@tum.de", "hash", null, "Bernd", "03675678");
+
+    private Group group;
+    private UserService userService;
+    private GroupService groupService;
+
+    @Before
+    public void setUp() {
+        group = new Group("Roster Test Group");
+        group.addStudent(anna.id());
+
+        val groupRepository = mock(GroupRepository.class);
+        when(groupRepository.findOneByIdOrCode(group.code().toString())).thenReturn(Optional.of(group));
+
+        userService = mock(UserService.class);
+        when(userService.getUsersByEmails(anyCollection())).thenReturn(Collections.singletonList(anna));
+        when(userService.getUsersByStudentIds(anyCollection())).thenReturn(Collections.emptyList());
+
+        groupService = new GroupService(groupRepository, userService, null, null, null, null, null, null, null,
+                mock(ChangeLog.class));
+    }
+
+    @Test
+    public void enrollsResolvedStudentsAndReportsTheRest() {
+        when(userService.getUsersByStudentIds(anyCollection())).thenReturn(Collections.singletonList(bernd));
+
+        val result = groupService.importGroupStudents(group.code().toString(), new StringReader(
+                "anna@tum.de\n03675678\nnobody@tum.de\n"));
+
+        assertThat(result.enrolled()).isEqualTo(1);
+        assertThat(result.alreadyEnrolled()).isEqualTo(1);
+        assertThat(result.unresolved()).containsExactly("nobody@tum.de");
+        assertThat(group.studentIds()).containsOnly(anna.id(), bernd.id());
+    }
+
+    @Test
+    public void reportsIdentifiersSharedByUsersAsAmbiguous() {
+        when(userService.getUsersByStudentIds(anyCollection())).thenReturn(Arrays.asList(bernd, berndsNamesake));
+
+        val result = groupService.importGroupStudents(group.code().toString(), new StringReader("03675678\n"));
+
+        assertThat(result.enrolled()).isZero();
+        assertThat(result.ambiguous()).containsExactly("03675678");
+        assertThat(result.unresolved()).isEmpty();
+        assertThat(group.studentIds()).containsOnly(anna.id());
+    }
+
+    @Test(expected = MalformedRosterException.class)
+    public void rejectsMalformedRoster() {
+        groupService.importGroupStudents(group.code().toString(), new StringReader("{\"email\": \n"));
+    }
+}
@@ -0,0 +1,48 @@
+package de.tum.ase.kleo.application.service;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RosterReaderTest {
+
+    @Test
+    public void readsIdentifiersFromCsvSkippingHeader() {
+        val rosterReader = new RosterReader(new StringReader(
+                "name;email;matriculation\n" +
+                "Anna;anna@tum.de;03671234\n" +
+                "\n" +
+                "Bernd;;03675678\n"));
+
+        assertThat(rosterReader.nextChunk(10)).containsExactly("anna@tum.de", "03675678");
+    }
+
+    @Test
+    public void readsIdentifiersFromJsonLines() {
+        val rosterReader = new RosterReader(new StringReader(
+                "{\"email\": \"anna@tum.de\"}\n" +
+                "{\"studentId\": \"03675678\"}\n" +
+                "\"bernd@mytum.de\"\n"));
+
+        assertThat(rosterReader.nextChunk(10))
+                .containsExactly("anna@tum.de", "03675678", "bernd@mytum.de");
+    }
+
+    @Test
+    public void readsRosterInChunks() {
+        val rosterReader = new RosterReader(new StringReader("a@tum.de\nb@tum.de\nc@tum.de\n"));
+
+        assertThat(rosterReader.nextChunk(2)).containsExactly("a@tum.de", "b@tum.de");
+        assertThat(rosterReader.nextChunk(2)).containsExactly("c@tum.de");
+        assertThat(rosterReader.nextChunk(2)).isEmpty();
+    }
+
+    @Test(expected = MalformedRosterException.class)
+    public void rejectsMalformedJsonLines() {
+        new RosterReader(new StringReader("{\"email\": \"anna@tum.de\"\n")).nextChunk(10);
+    }
+}
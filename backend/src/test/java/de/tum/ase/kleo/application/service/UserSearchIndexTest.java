@@ -0,0 +1,78 @@
+package de.tum.ase.kleo.application.service;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tum.ase.kleo.domain.User;
+import de.tum.ase.kleo.domain.UserRepository;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class UserSearchIndexTest {
+
+    private UserSearchIndex userSearchIndex;
+
+    private User anna;
+    private User annika;
+    private User bernd;
+
+    @Before
+    public void setUp() {
+        userSearchIndex = new UserSearchIndex(mock(UserRepository.class));
+
+        anna = new User("anna.mueller@tum.de", null, "Anna M\u00fcller", "03671234");
+        annika = new User("annika@tum.de", null, "Annika Schmidt", "03675678");
+        bernd = new User("bernd@mytum.de", null, "Bernd Anner", null);
+
+        userSearchIndex.index(anna);
+        userSearchIndex.index(annika);
+        userSearchIndex.index(bernd);
+    }
+
+    @Test
+    public void findsUsersByNamePrefix() {
+        assertThat(userSearchIndex.search("ann", 10)).containsOnly(anna, annika, bernd);
+        assertThat(userSearchIndex.search("schm", 10)).containsExactly(annika);
+    }
+
+    @Test
+    public void findsUsersByEmailAndStudentId() {
+        assertThat(userSearchIndex.search("bernd@my", 10)).containsExactly(bernd);
+        assertThat(userSearchIndex.search("0367", 10)).containsOnly(anna, annika);
+    }
+
+    @Test
+    public void requiresEveryTermToMatchIgnoringCaseAndAccents() {
+        assertThat(userSearchIndex.search("ANN mull", 10)).containsExactly(anna);
+        assertThat(userSearchIndex.search("anna nobody", 10)).isEmpty();
+    }
+
+    @Test
+    public void ranksExactTokenMatchesFirstAndRespectsLimit() {
+        val results = userSearchIndex.search("anna", 1);
+
+        assertThat(results).containsExactly(anna);
+    }
+
+    @Test
+    public void stopsAtLimitOfUsersMatchingEveryTerm() {
+        User lastStudent = null;
+        for (int i = 0; i < 1000; i++) {
+            lastStudent = new User("student" + i + "@tum.de", null, "Student " + i, null);
+            userSearchIndex.index(lastStudent);
+        }
+
+        assertThat(userSearchIndex.search("stu", 5)).hasSize(5);
+        assertThat(userSearchIndex.search("student 999", 1)).containsExactly(lastStudent);
+    }
+
+    @Test
+    public void forgetsRemovedUsers() {
+        userSearchIndex.remove(annika.id());
+
+        assertThat(userSearchIndex.search("annika", 10)).isEmpty();
+        assertThat(userSearchIndex.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,140 @@
+package de.tum.ase.kleo.application.tracing;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.repository.Repository;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import de.tum.ase.kleo.application.api.AttendanceFeedResource;
+import de.tum.ase.kleo.application.api.ChangeResource;
+import de.tum.ase.kleo.application.api.ChangesApiDelegate;
+import de.tum.ase.kleo.application.api.dto.AttendanceEventToDtoSerializer;
+import de.tum.ase.kleo.application.api.dto.ChangeToDtoSerializer;
+import de.tum.ase.kleo.application.auth.CurrentUserSecurity;
+import de.tum.ase.kleo.application.service.AttendanceFeed;
+import de.tum.ase.kleo.application.service.ChangeLog;
+import de.tum.ase.kleo.application.service.GroupService;
+import de.tum.ase.kleo.application.service.RecordNotFoundException;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TracingAspectTest {
+
+    private InMemorySpanExporter spanExporter;
+    private SdkTracerProvider tracerProvider;
+
+    private NameRepository nameRepository;
+
+    @Before
+    public void setUp() {
+        spanExporter = InMemorySpanExporter.create();
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+                .build();
+
+        val proxyFactory = new AspectJProxyFactory(new MdcCapturingNameRepository());
+        proxyFactory.addAspect(new TracingAspect(tracerProvider.get("test")));
+        nameRepository = proxyFactory.getProxy();
+    }
+
+    @Test
+    public void wrapsRepositoryCallsIntoSpans() {
+        val traceId = nameRepository.findName("anna");
+
+        val spans = spanExporter.getFinishedSpanItems();
+        assertThat(spans).hasSize(1);
+        assertThat(spans.get(0).getName()).isEqualTo("NameRepository.findName");
+        assertThat(spans.get(0).getKind()).isEqualTo(SpanKind.CLIENT);
+        assertThat(traceId).isEqualTo(spans.get(0).getTraceId());
+        assertThat(MDC.get(TracingAspect.MDC_TRACE_ID)).isNull();
+    }
+
+    @Test
+    public void marksFailedCallsAsErrors() {
+        try {
+            nameRepository.findName(null);
+            fail("Exception should have been rethrown");
+        } catch (IllegalArgumentException e) {
+            val span = spanExporter.getFinishedSpanItems().get(0);
+            assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+        }
+    }
+
+    @Test
+    public void wrapsRestControllerResourcesIntoSpans() {
+        val groupService = mock(GroupService.class);
+        when(groupService.getGroup("unknown")).thenReturn(Optional.empty());
+
+        val proxyFactory = new AspectJProxyFactory(new AttendanceFeedResource(groupService,
+                mock(AttendanceFeed.class), mock(AttendanceEventToDtoSerializer.class)));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new TracingAspect(tracerProvider.get("test")));
+        final AttendanceFeedResource resource = proxyFactory.getProxy();
+
+        try {
+            resource.getAttendanceFeed("unknown", null);
+            fail("Exception should have been rethrown");
+        } catch (RecordNotFoundException e) {
+            val span = spanExporter.getFinishedSpanItems().get(0);
+            assertThat(span.getName()).isEqualTo("AttendanceFeedResource.getAttendanceFeed");
+            assertThat(span.getKind()).isEqualTo(SpanKind.SERVER);
+            assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+        }
+    }
+
+    @Test
+    public void wrapsApiDelegateResourcesIntoSpans() {
+        val proxyFactory = new AspectJProxyFactory(new ChangeResource(mock(ChangeLog.class),
+                mock(CurrentUserSecurity.class), mock(ChangeToDtoSerializer.class)));
+        proxyFactory.addAspect(new TracingAspect(tracerProvider.get("test")));
+        final ChangesApiDelegate resource = proxyFactory.getProxy();
+
+        resource.getChanges(-1L, null);
+
+        val spans = spanExporter.getFinishedSpanItems();
+        assertThat(spans).hasSize(1);
+        assertThat(spans.get(0).getName()).isEqualTo("ChangeResource.getChanges");
+        assertThat(spans.get(0).getKind()).isEqualTo(SpanKind.SERVER);
+    }
+
+    @Test
+    public void endsAsyncSpansOnCompletion() {
+        val asyncTracer = new AsyncTracer(tracerProvider.get("test"));
+        val futureResult = new CompletableFuture<String>();
+
+        asyncTracer.trace("Chain.send", () -> futureResult);
+        assertThat(spanExporter.getFinishedSpanItems()).isEmpty();
+
+        futureResult.complete("0xcafe");
+        assertThat(spanExporter.getFinishedSpanItems()).extracting("name").containsExactly("Chain.send");
+    }
+
+    public interface NameRepository extends Repository<String, String> {
+
+        String findName(String name);
+    }
+
+    static class MdcCapturingNameRepository implements NameRepository {
+
+        @Override
+        public String findName(String name) {
+            if (name == null)
+                throw new IllegalArgumentException("Null name given");
+
+            return MDC.get(TracingAspect.MDC_TRACE_ID);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package de.tum.ase.kleo.domain;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import de.tum.ase.kleo.domain.id.GroupId;
+import de.tum.ase.kleo.domain.id.Identifier;
+import de.tum.ase.kleo.domain.id.MalformedIdentifierException;
+import de.tum.ase.kleo.domain.id.UserId;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IdentifierTest {
+
+    private static final String UUID_STRING = "ad591b51-9f6c-438a-afbd-fd19e1760c4b";
+
+    @Test
+    public void equalsIdentifierOfSameUuid() {
+        val userId = UserId.of(UUID_STRING);
+
+        assertThat(userId).isEqualTo(UserId.of(UUID_STRING.toUpperCase()));
+        assertThat(userId.hashCode()).isEqualTo(UserId.of(UUID_STRING).hashCode());
+        assertThat(userId.toString()).isEqualTo(UUID_STRING);
+    }
+
+    @Test
+    public void convertsToAndFromSixteenBytes() {
+        val userId = new UserId();
+
+        val bytes = userId.toBytes();
+
+        assertThat(bytes).hasSize(Identifier.BYTES);
+        assertThat(UserId.fromBytes(ByteBuffer.wrap(bytes))).isEqualTo(userId);
+    }
+
+    @Test
+    public void tellsGroupCodesFromIds() {
+        assertThat(GroupId.isValid(UUID_STRING)).isTrue();
+        assertThat(GroupId.isValid("AG1-112")).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMalformedIds() {
+        UserId.of("not-a-uuid");
+    }
+
+    @Test(expected = MalformedIdentifierException.class)
+    public void rejectsIdsUuidParsingWouldTolerate() {
+        UserId.of("1-1-1-1-1");
+    }
+}
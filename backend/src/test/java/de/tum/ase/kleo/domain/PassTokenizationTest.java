@@ -7,7 +7,9 @@ import java.security.NoSuchAlgorithmException;
 import java.security.spec.AlgorithmParameterSpec;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import javax.crypto.Cipher;
 import javax.crypto.NoSuchPaddingException;
@@ -18,6 +20,7 @@ import de.tum.ase.kleo.domain.id.SessionId;
 import de.tum.ase.kleo.domain.id.UserId;
 import lombok.val;
 
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 
 public class PassTokenizationTest {
@@ -51,4 +54,20 @@ public class PassTokenizationTest {
         assertEquals(pass.requestedAt(), decryptedPass.requestedAt());
         assertEquals(pass.expiresAt(), decryptedPass.expiresAt());
     }
+
+    @Test
+    public void tokenizesPassesConcurrently() {
+        final List<Pass> passes = IntStream.range(0, 1000)
+                .mapToObj(i -> new Pass(new SessionId(), new UserId(), Duration.ofHours(2)))
+                .collect(toList());
+
+        final List<Pass> decryptedPasses = passes.parallelStream()
+                .map(passTokenizer::tokenizeToString)
+                .map(passDetokenizer::detokenize)
+                .collect(toList());
+
+        for (int i = 0; i < passes.size(); i++) {
+            assertEquals(passes.get(i).studentId(), decryptedPasses.get(i).studentId());
+        }
+    }
 }
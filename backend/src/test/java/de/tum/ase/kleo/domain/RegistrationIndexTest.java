@@ -0,0 +1,139 @@
+package de.tum.ase.kleo.domain;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.boot.orm.jpa.hibernate.SpringPhysicalNamingStrategy;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.Database;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+
+import de.tum.ase.kleo.application.persistence.MigrationLocations;
+import de.tum.ase.kleo.domain.id.UserId;
+import lombok.val;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the query plans of the student-to-group lookups against
+ * regressions in the schema migrations. The plans are those of the SQL
+ * Hibernate issues for the derived repository queries.
+ */
+public class RegistrationIndexTest {
+
+    private static final String DB_URL = "jdbc:h2:mem:registration-index;DB_CLOSE_DELAY=-1";
+    private static final String PARAMETER = "ad591b51-9f6c-438a-afbd-fd19e1760c4b";
+
+    private final List<String> statements = new ArrayList<>();
+
+    private DataSource dataSource;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private EntityManager entityManager;
+    private GroupRepository groupRepository;
+    private UserRepository userRepository;
+
+    @Before
+    public void setUp() {
+        dataSource = new DriverManagerDataSource(DB_URL, "sa", "");
+
+        val flyway = new Flyway();
+        flyway.setDataSource(dataSource);
+        flyway.setLocations(MigrationLocations.of(dataSource));
+        flyway.clean();
+        flyway.migrate();
+
+        val vendorAdapter = new HibernateJpaVendorAdapter();
+        vendorAdapter.setDatabase(Database.H2);
+
+        val jpaProperties = new HashMap<String, Object>();
+        jpaProperties.put("hibernate.physical_naming_strategy", SpringPhysicalNamingStrategy.class.getName());
+        jpaProperties.put("hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName());
+        jpaProperties.put("hibernate.session_factory.statement_inspector", (StatementInspector) sql -> {
+            statements.add(sql);
+            return sql;
+        });
+
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setJpaVendorAdapter(vendorAdapter);
+        entityManagerFactory.setPackagesToScan(Group.class.getPackage().getName());
+        entityManagerFactory.setJpaPropertyMap(jpaProperties);
+        entityManagerFactory.afterPropertiesSet();
+
+        entityManager = entityManagerFactory.getObject().createEntityManager();
+        val repositoryFactory = new JpaRepositoryFactory(entityManager);
+        groupRepository = repositoryFactory.getRepository(GroupRepository.class);
+        userRepository = repositoryFactory.getRepository(UserRepository.class);
+    }
+
+    @After
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.destroy();
+    }
+
+    @Test
+    public void looksUpGroupStudentsByUser() throws SQLException {
+        groupRepository.findAllByStudentIdsContaining(new UserId());
+
+        assertThat(explainIssuedQuery()).contains("GROUP_STUDENTS_USER_ID_IDX");
+    }
+
+    @Test
+    public void looksUpGroupAttendancesByStudent() throws SQLException {
+        groupRepository.findAllByAttendancesStudentId(new UserId());
+
+        assertThat(explainIssuedQuery()).contains("GROUP_ATTENDANCES_STUDENT_ID_IDX");
+    }
+
+    @Test
+    public void looksUpUsersByEmail() throws SQLException {
+        userRepository.findAllByEmailIn(singletonList("anna@tum.de"));
+
+        assertThat(explainIssuedQuery()).contains("USER_EMAIL_IDX");
+    }
+
+    @Test
+    public void looksUpUsersByStudentId() throws SQLException {
+        userRepository.findAllByStudentIdIn(singletonList("03671234"));
+
+        assertThat(explainIssuedQuery()).contains("USER_STUDENT_ID_IDX");
+    }
+
+    /**
+     * Explains the single query issued by the repository call under test,
+     * binding the same value to every parameter.
+     */
+    private String explainIssuedQuery() throws SQLException {
+        assertThat(statements).hasSize(1);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + statements.get(0))) {
+            val parameterCount = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++)
+                statement.setString(i, PARAMETER);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1).toUpperCase();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package de.tum.ase.kleo.domain;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+import de.tum.ase.kleo.domain.id.SessionId;
+import de.tum.ase.kleo.domain.id.UserId;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SessionDelegationTest {
+
+    private final SessionKeyDerivation sessionKeyDerivation = new SessionKeyDerivation(masterKey(7));
+
+    private final SessionId sessionId = new SessionId();
+    private final UserId studentId = new UserId();
+
+    @Test
+    public void verifiesPassesMintedWithDelegatedKey() {
+        val now = Instant.now();
+        val delegation = sessionKeyDerivation.delegate(sessionId, now.minusSeconds(60), now.plus(Duration.ofHours(1)));
+
+        val pass = sessionKeyDerivation.verifyPassCode(delegation.mintPassCode(studentId, now));
+
+        assertThat(pass.sessionId()).isEqualTo(sessionId);
+        assertThat(pass.studentId()).isEqualTo(studentId);
+        assertThat(pass.notExpired()).isTrue();
+        assertThat(Duration.between(pass.requestedAt(), pass.expiresAt())).isEqualTo(SessionDelegation.PASS_EXPIRE);
+    }
+
+    @Test
+    public void expiresPassesNotLaterThanDelegation() {
+        val now = Instant.now();
+        val delegation = sessionKeyDerivation.delegate(sessionId, now.minusSeconds(60), now.plusSeconds(30));
+
+        val pass = sessionKeyDerivation.verifyPassCode(delegation.mintPassCode(studentId, now));
+
+        assertThat(pass.expiresAt().toInstant()).isEqualTo(delegation.notAfter());
+    }
+
+    @Test
+    public void rejectsTamperedPassesAndForeignKeys() {
+        val now = Instant.now();
+        val delegation = sessionKeyDerivation.delegate(sessionId, now.minusSeconds(60), now.plusSeconds(600));
+        val passCode = delegation.mintPassCode(studentId, now);
+
+        // Flip a hex digit of the student id
+        val tamperedCharIndex = SessionDelegation.PASS_CODE_PREFIX.length() + 40;
+        val tamperedPassCode = passCode.substring(0, tamperedCharIndex)
+                + (passCode.charAt(tamperedCharIndex) == '0' ? '1' : '0')
+                + passCode.substring(tamperedCharIndex + 1);
+
+        assertThatThrownBy(() -> sessionKeyDerivation.verifyPassCode(tamperedPassCode))
+                .isInstanceOf(PassTokenizationException.class);
+        assertThatThrownBy(() -> new SessionKeyDerivation(masterKey(8)).verifyPassCode(passCode))
+                .isInstanceOf(PassTokenizationException.class);
+    }
+
+    @Test
+    public void refusesToMintOutsideDelegationWindow() {
+        val now = Instant.now();
+        val delegation = sessionKeyDerivation.delegate(sessionId, now, now.plusSeconds(600));
+
+        assertThatThrownBy(() -> delegation.mintPassCode(studentId, now.plusSeconds(601)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void derivesSameKeyForSameSessionAndWindow() {
+        val now = Instant.now();
+
+        val delegation = sessionKeyDerivation.delegate(sessionId, now, now.plusSeconds(600));
+        val sameDelegation = sessionKeyDerivation.delegate(sessionId, now, now.plusSeconds(600));
+        val otherSessionDelegation = sessionKeyDerivation.delegate(new SessionId(), now, now.plusSeconds(600));
+
+        assertThat(delegation.key()).isEqualTo(sameDelegation.key());
+        assertThat(delegation.key()).isNotEqualTo(otherSessionDelegation.key());
+    }
+
+    private static byte[] masterKey(int seed) {
+        val key = new byte[32];
+        Arrays.fill(key, (byte) seed);
+        return key;
+    }
+}
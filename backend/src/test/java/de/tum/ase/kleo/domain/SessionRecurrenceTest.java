@@ -0,0 +1,68 @@
+package de.tum.ase.kleo.domain;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import lombok.val;
+
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SessionRecurrenceTest {
+
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    @Test
+    public void expandsWeeklyOccurrencesUntilInclusiveDate() {
+        val begins = OffsetDateTime.of(2017, 10, 17, 10, 0, 0, 0, ZoneOffset.ofHours(2));
+        val recurrence = new SessionRecurrence(begins, begins.plusHours(2), LocalDate.of(2017, 10, 31));
+
+        val occurrences = recurrence.occurrences();
+
+        assertThat(occurrences).hasSize(3);
+        assertThat(occurrences.get(2).getLeft()).isEqualTo(begins.plusWeeks(2));
+        assertThat(occurrences.get(2).getRight()).isEqualTo(begins.plusWeeks(2).plusHours(2));
+    }
+
+    @Test
+    public void skipsExcludedDatesAndRespectsInterval() {
+        val begins = OffsetDateTime.of(2017, 10, 17, 10, 0, 0, 0, ZoneOffset.ofHours(2));
+        val recurrence = new SessionRecurrence(begins, begins.plusHours(2), LocalDate.of(2017, 11, 28),
+                2, null, singleton(LocalDate.of(2017, 11, 14)));
+
+        val occurrences = recurrence.occurrences();
+
+        assertThat(occurrences).extracting(occurrence -> occurrence.getLeft().toLocalDate())
+                .containsExactly(LocalDate.of(2017, 10, 17), LocalDate.of(2017, 10, 31),
+                        LocalDate.of(2017, 11, 28));
+    }
+
+    @Test
+    public void keepsLocalTimeAcrossDaylightSavingTimeChange() {
+        val begins = LocalDateTime.of(2017, 10, 24, 10, 0).atZone(BERLIN).toOffsetDateTime();
+        val recurrence = new SessionRecurrence(begins, begins.plusHours(2), LocalDate.of(2017, 10, 31),
+                1, BERLIN, null);
+
+        val afterChange = recurrence.occurrences().get(1).getLeft();
+
+        assertThat(afterChange.getHour()).isEqualTo(10);
+        assertThat(afterChange.getOffset()).isEqualTo(ZoneOffset.ofHours(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRecurrenceEndingBeforeFirstSession() {
+        val begins = OffsetDateTime.of(2017, 10, 17, 10, 0, 0, 0, ZoneOffset.UTC);
+        new SessionRecurrence(begins, begins.plusHours(2), LocalDate.of(2017, 10, 16));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooManyOccurrences() {
+        val begins = OffsetDateTime.of(2017, 10, 17, 10, 0, 0, 0, ZoneOffset.UTC);
+        new SessionRecurrence(begins, begins.plusHours(2), begins.toLocalDate().plusYears(10)).occurrences();
+    }
+}
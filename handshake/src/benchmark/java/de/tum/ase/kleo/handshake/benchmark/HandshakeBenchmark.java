@@ -0,0 +1,218 @@
+package de.tum.ase.kleo.handshake.benchmark;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import de.tum.ase.kleo.handshake.HandshakeClientProtocol;
+import de.tum.ase.kleo.handshake.HandshakeRequest;
+import de.tum.ase.kleo.handshake.HandshakeServerProtocol;
+import de.tum.ase.kleo.handshake.HandshakeSupplier;
+import de.tum.ase.kleo.handshake.simulation.LinkConditions;
+import de.tum.ase.kleo.handshake.simulation.SimulatedBle;
+import de.tum.ase.kleo.handshake.simulation.SimulatedPeripheral;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Measures handshakes per second of concurrent clients against one server
+ * over a {@link SimulatedBle} link. Every client is a central of its own
+ * running its handshakes one after the other, like students tapping a
+ * group again. Options are given as {@code --name=value}:
+ * <ul>
+ *     <li>{@code clients}: comma separated client counts to run, e.g. {@code 1,10,100}</li>
+ *     <li>{@code handshakes}: handshakes per client</li>
+ *     <li>{@code mtu}, {@code latency} (ms) and {@code loss} of the link</li>
+ *     <li>{@code supply} (ms): time the server takes to generate a pass</li>
+ *     <li>{@code pass}: length of generated passes</li>
+ *     <li>{@code seed}: seed of lost packets</li>
+ * </ul>
+ */
+public class HandshakeBenchmark {
+
+    private static final String SERVER_ADDRESS = "tutor";
+    private static final long RUN_TIMEOUT_MINUTES = 10;
+
+    private final int handshakesPerClient;
+    private final LinkConditions link;
+    private final Duration supplyTime;
+    private final int passLength;
+    private final long seed;
+
+    private HandshakeBenchmark(Map<String, String> options) {
+        this.handshakesPerClient = Integer.parseInt(options.getOrDefault("handshakes", "20"));
+        this.link = new LinkConditions(
+                Integer.parseInt(options.getOrDefault("mtu", "185")),
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("latency", "15"))),
+                Double.parseDouble(options.getOrDefault("loss", "0")));
+        this.supplyTime = Duration.ofMillis(Long.parseLong(options.getOrDefault("supply", "0")));
+        this.passLength = Integer.parseInt(options.getOrDefault("pass", "120"));
+        this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        final Map<String, String> options = parse(args);
+        final HandshakeBenchmark benchmark = new HandshakeBenchmark(options);
+
+        final int[] clientCounts = Arrays.stream(options.getOrDefault("clients", "1,10,50,100").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        System.out.printf("%s, %d handshakes per client, supply time %d ms, pass length %d%n%n",
+                benchmark.link, benchmark.handshakesPerClient, benchmark.supplyTime.toMillis(),
+                benchmark.passLength);
+        Result.printHeader(System.out);
+
+        for (int clients : clientCounts) {
+            benchmark.run(clients).print(System.out);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        final Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("="))
+                throw new IllegalArgumentException("Option expected as --name=value, got " + arg);
+
+            final int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return options;
+    }
+
+    private Result run(int clients) throws Exception {
+        final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+
+        try (SimulatedBle ble = new SimulatedBle(link, seed)) {
+            final SimulatedPeripheral peripheral = ble.peripheral(SERVER_ADDRESS);
+            final HandshakeServerProtocol server = new HandshakeServerProtocol(passSupplier(), peripheral);
+            peripheral.serve(server);
+            server.open();
+
+            final Result result = new Result(clients, handshakesPerClient);
+            final List<CompletableFuture<Void>> runs = new ArrayList<>();
+            final List<HandshakeClientProtocol> clientProtocols = new ArrayList<>();
+
+            final long start = System.nanoTime();
+            for (int i = 0; i < clients; i++) {
+                final HandshakeClientProtocol client = new HandshakeClientProtocol(ble.central(), scheduler);
+                final HandshakeRequest handshakeReq = new HandshakeRequest(UUID.randomUUID().toString(),
+                        UUID.randomUUID().toString(), UUID.randomUUID().toString());
+
+                clientProtocols.add(client);
+                runs.add(handshakes(client, handshakeReq, handshakesPerClient, result));
+            }
+
+            CompletableFuture.allOf(runs.toArray(new CompletableFuture<?>[0]))
+                    .get(RUN_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+            result.finish(System.nanoTime() - start, ble.packetsSent(), ble.packetsLost());
+
+            clientProtocols.forEach(HandshakeClientProtocol::close);
+            server.close();
+            return result;
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<Void> handshakes(HandshakeClientProtocol client, HandshakeRequest handshakeReq,
+                                               int remaining, Result result) {
+        if (remaining == 0)
+            return CompletableFuture.completedFuture(null);
+
+        final long start = System.nanoTime();
+        return client.requestHandshake(SERVER_ADDRESS, handshakeReq)
+                .handle((handshakeRes, error) -> {
+                    result.record(System.nanoTime() - start, error);
+                    return null;
+                })
+                .thenCompose(recorded -> handshakes(client, handshakeReq, remaining - 1, result));
+    }
+
+    private HandshakeSupplier passSupplier() {
+        final char[] pass = new char[passLength];
+        Arrays.fill(pass, 'p');
+        final String passCode = new String(pass);
+
+        return (studentId, groupIdOrCode, sessionId) -> {
+            if (!supplyTime.isZero())
+                LockSupport.parkNanos(supplyTime.toNanos());
+
+            return passCode;
+        };
+    }
+
+    private static class Result {
+
+        private final int clients;
+        private final int handshakes;
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        private long elapsedNanos;
+        private long packetsSent;
+        private long packetsLost;
+
+        private Result(int clients, int handshakesPerClient) {
+            this.clients = clients;
+            this.handshakes = clients * handshakesPerClient;
+        }
+
+        private void record(long latencyNanos, Throwable error) {
+            if (error == null) {
+                latencies.add(latencyNanos);
+                return;
+            }
+
+            final Throwable cause = error.getCause() != null ? error.getCause() : error;
+            errors.computeIfAbsent(cause.getClass().getSimpleName(), key -> new LongAdder()).increment();
+        }
+
+        private void finish(long elapsedNanos, long packetsSent, long packetsLost) {
+            this.elapsedNanos = elapsedNanos;
+            this.packetsSent = packetsSent;
+            this.packetsLost = packetsLost;
+        }
+
+        private static void printHeader(PrintStream out) {
+            out.printf("%8s %10s %8s %12s %9s %9s %9s %9s %10s %8s%n", "clients", "completed", "failed",
+                    "handshakes/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "packets", "lost");
+        }
+
+        private void print(PrintStream out) {
+            final long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            final double seconds = elapsedNanos / 1e9;
+
+            out.printf("%8d %10d %8d %12.1f %9.1f %9.1f %9.1f %9.1f %10d %8d%n", clients, sorted.length,
+                    handshakes - sorted.length, sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    percentile(sorted, 1.0), packetsSent, packetsLost);
+
+            errors.forEach((error, count) -> out.printf("%8s %s: %d%n", "", error, count.sum()));
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0)
+                return 0;
+
+            final int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return NANOSECONDS.toMicros(sorted[Math.max(0, index)]) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package de.tum.ase.kleo.handshake.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import de.tum.ase.kleo.handshake.HandshakeRequest;
+import de.tum.ase.kleo.handshake.HandshakeResponse;
+
+/**
+ * Compares the handshake codecs with the {@link LegacyHandshakeCodec} they
+ * replace. Requests carry either UUIDs, as students pick groups from the
+ * list, or a short group code, as advertised by tutors' devices.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HandshakeCodecBenchmark {
+
+    @Param({"uuid", "code"})
+    public String groupId;
+
+    private String studentId;
+    private String groupIdOrCode;
+    private String sessionId;
+    private String pass;
+
+    private HandshakeRequest handshakeReq;
+    private byte[] requestBytes;
+    private byte[] legacyRequestBytes;
+    private byte[] responseBytes;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(HandshakeRequest.MAX_BYTES);
+
+    @Setup
+    public void setUp() {
+        studentId = UUID.randomUUID().toString();
+        groupIdOrCode = groupId.equals("uuid") ? UUID.randomUUID().toString() : "GRP7K2";
+        sessionId = UUID.randomUUID().toString();
+        pass = new String(new char[120]).replace('\0', 'p');
+
+        handshakeReq = new HandshakeRequest(studentId, groupIdOrCode, sessionId);
+        requestBytes = handshakeReq.toBytes();
+        legacyRequestBytes = LegacyHandshakeCodec.encodeRequest(studentId, groupIdOrCode, sessionId);
+        responseBytes = HandshakeResponse.from(pass, HandshakeResponse.Status.REDEEM).toBytes();
+    }
+
+    @Benchmark
+    public byte[] encodeRequestLegacy() {
+        return LegacyHandshakeCodec.encodeRequest(studentId, groupIdOrCode, sessionId);
+    }
+
+    @Benchmark
+    public byte[] encodeRequest() {
+        return new HandshakeRequest(studentId, groupIdOrCode, sessionId).toBytes();
+    }
+
+    @Benchmark
+    public ByteBuffer encodeRequestIntoBuffer() {
+        buffer.clear();
+        handshakeReq.writeTo(buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public String[] decodeRequestLegacy() {
+        return LegacyHandshakeCodec.decodeRequest(legacyRequestBytes);
+    }
+
+    @Benchmark
+    public void decodeRequest(Blackhole blackhole) {
+        final HandshakeRequest decoded = HandshakeRequest.fromBytes(requestBytes);
+        blackhole.consume(decoded.studentId());
+        blackhole.consume(decoded.groupIdOrCode());
+        blackhole.consume(decoded.sessionId());
+    }
+
+    @Benchmark
+    public HandshakeRequest validateRequest() {
+        return HandshakeRequest.fromBytes(requestBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeResponseLegacy() {
+        return LegacyHandshakeCodec.encodeResponse(pass, HandshakeResponse.Status.REDEEM.ordinal());
+    }
+
+    @Benchmark
+    public byte[] encodeResponse() {
+        return HandshakeResponse.from(pass, HandshakeResponse.Status.REDEEM).toBytes();
+    }
+
+    @Benchmark
+    public String decodeResponseLegacy() {
+        return LegacyHandshakeCodec.decodeResponse(responseBytes);
+    }
+
+    @Benchmark
+    public String decodeResponse() {
+        return HandshakeResponse.fromBytes(responseBytes).handshake();
+    }
+}
@@ -0,0 +1,64 @@
+package de.tum.ase.kleo.handshake.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * The handshake encoding as it was before the wire format got versioned,
+ * ids prefixed by 4-byte lengths, kept as the baseline of
+ * {@link HandshakeCodecBenchmark}.
+ */
+final class LegacyHandshakeCodec {
+
+    private static final Charset ENCODING = Charset.forName("UTF-8");
+
+    private LegacyHandshakeCodec() {
+    }
+
+    static byte[] encodeRequest(String studentId, String groupIdOrCode, String sessionId) {
+        final byte[] studentIdBytes = studentId.getBytes(ENCODING);
+        final byte[] groupIdOrCodeBytes = groupIdOrCode.getBytes(ENCODING);
+        final byte[] sessionIdBytes = sessionId.getBytes(ENCODING);
+
+        final ByteBuffer handshakeReqBuffer = ByteBuffer.allocate(
+                Integer.BYTES + studentIdBytes.length +
+                        Integer.BYTES + groupIdOrCodeBytes.length +
+                        Integer.BYTES + sessionIdBytes.length);
+
+        handshakeReqBuffer
+                .putInt(studentIdBytes.length).put(studentIdBytes)
+                .putInt(groupIdOrCodeBytes.length).put(groupIdOrCodeBytes)
+                .putInt(sessionIdBytes.length).put(sessionIdBytes);
+
+        final byte[] handshakeReqBytes = new byte[handshakeReqBuffer.capacity()];
+        handshakeReqBuffer.clear();
+        handshakeReqBuffer.get(handshakeReqBytes);
+        return handshakeReqBytes;
+    }
+
+    static String[] decodeRequest(byte[] bytes) {
+        final ByteBuffer handshakeReqBuffer = ByteBuffer.wrap(bytes);
+        final String[] ids = new String[3];
+
+        for (int i = 0; i < ids.length; i++) {
+            final byte[] idBytes = new byte[handshakeReqBuffer.getInt()];
+            handshakeReqBuffer.get(idBytes);
+            ids[i] = new String(idBytes, ENCODING);
+        }
+        return ids;
+    }
+
+    static byte[] encodeResponse(String handshake, int status) {
+        final byte[] handshakeBytes = handshake.getBytes(ENCODING);
+
+        final byte[] bytes = new byte[handshakeBytes.length + 1];
+        bytes[0] = (byte) status;
+        System.arraycopy(handshakeBytes, 0, bytes, 1, handshakeBytes.length);
+        return bytes;
+    }
+
+    static String decodeResponse(byte[] bytes) {
+        return new String(Arrays.copyOfRange(bytes, 1, bytes.length), ENCODING);
+    }
+}
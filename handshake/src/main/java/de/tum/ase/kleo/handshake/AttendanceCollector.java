@@ -0,0 +1,5 @@
+package de.tum.ase.kleo.handshake;
+
+public interface AttendanceCollector {
+    void collect(String passCode);
+}
@@ -0,0 +1,37 @@
+package de.tum.ase.kleo.handshake;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A connection of a {@link HandshakeClientProtocol} to one server, e.g. a
+ * GATT client. Operations complete asynchronously and must not be issued
+ * before the previous one has completed. Once the connection is lost, it
+ * is closed and its uncompleted operations fail.
+ */
+public interface ClientTransport {
+
+    /**
+     * Connects and discovers the handshake service, negotiating the given
+     * MTU or less.
+     */
+    CompletableFuture<Void> connect(int mtu);
+
+    /**
+     * Enables notifications of the response characteristic, completing with
+     * false if the server doesn't support them.
+     */
+    CompletableFuture<Boolean> subscribe(Consumer<byte[]> notificationListener);
+
+    CompletableFuture<Void> write(byte[] request);
+
+    CompletableFuture<byte[]> read();
+
+    boolean isClosed();
+
+    void close();
+
+    interface Factory {
+        ClientTransport open(String peer);
+    }
+}
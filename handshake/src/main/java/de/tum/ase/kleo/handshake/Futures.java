@@ -0,0 +1,58 @@
+package de.tum.ase.kleo.handshake;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Timeouts and delays of {@link CompletableFuture}s, which Java 8 lacks.
+ */
+final class Futures {
+
+    private Futures() {
+    }
+
+    static <T> CompletableFuture<T> within(CompletableFuture<T> future, long timeoutMillis,
+                                           ScheduledExecutorService scheduler) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final ScheduledFuture<?> timeout = scheduler.schedule(() -> result.completeExceptionally(
+                new TimeoutException("Timed out after " + timeoutMillis + " ms")),
+                timeoutMillis, TimeUnit.MILLISECONDS);
+
+        future.whenComplete((value, error) -> {
+            timeout.cancel(false);
+
+            if (error != null) {
+                result.completeExceptionally(unwrap(error));
+            } else {
+                result.complete(value);
+            }
+        });
+
+        return result;
+    }
+
+    static CompletableFuture<Void> delay(long delayMillis, ScheduledExecutorService scheduler) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        scheduler.schedule(() -> result.complete(null), delayMillis, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    static <T> CompletableFuture<T> failed(Throwable error) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally(error);
+        return result;
+    }
+
+    static Throwable unwrap(Throwable error) {
+        if ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null)
+            return error.getCause();
+
+        return error;
+    }
+}
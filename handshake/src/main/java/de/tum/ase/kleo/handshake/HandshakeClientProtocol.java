@@ -0,0 +1,247 @@
+package de.tum.ase.kleo.handshake;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static de.tum.ase.kleo.handshake.Futures.delay;
+import static de.tum.ase.kleo.handshake.Futures.unwrap;
+import static java.lang.Math.max;
+
+/**
+ * Client side of the handshake protocol, independent of the transport.
+ * Connections are kept open for a while with response notifications
+ * enabled, so another handshake with the same server is a single write
+ * answered by a notification. Servers not notifying, or notifying that a
+ * handshake too big to notify is ready, are read instead, polling while
+ * the handshake is pending. Every step times out and a
+ * failed attempt is retried over a fresh connection.
+ */
+public class HandshakeClientProtocol {
+
+    private static final Logger LOG = Logger.getLogger(HandshakeClientProtocol.class.getName());
+
+    public static final int MTU = max(HandshakeRequest.MAX_BYTES, HandshakeResponse.MAX_BYTES);
+    public static final int MAX_ATTEMPTS = 3;
+
+    private final ClientTransport.Factory transports;
+    private final ScheduledExecutorService scheduler;
+    private final HandshakeTimeouts timeouts;
+
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+
+    public HandshakeClientProtocol(ClientTransport.Factory transports, ScheduledExecutorService scheduler) {
+        this(transports, scheduler, HandshakeTimeouts.defaults());
+    }
+
+    public HandshakeClientProtocol(ClientTransport.Factory transports, ScheduledExecutorService scheduler,
+                                   HandshakeTimeouts timeouts) {
+        this.transports = transports;
+        this.scheduler = scheduler;
+        this.timeouts = timeouts;
+    }
+
+    public CompletableFuture<HandshakeResponse> requestHandshake(String peer, HandshakeRequest handshakeReq) {
+        return attempt(peer, handshakeReq, MAX_ATTEMPTS);
+    }
+
+    /**
+     * Closes all connections kept open.
+     */
+    public void close() {
+        for (Connection connection : connections.values()) {
+            connection.close();
+        }
+    }
+
+    private CompletableFuture<HandshakeResponse> attempt(String peer, HandshakeRequest handshakeReq,
+                                                         int attemptsLeft) {
+        final Connection connection = connectionTo(peer);
+
+        final boolean acquired = connection.acquire();
+
+        final CompletableFuture<HandshakeResponse> exchange;
+        if (acquired) {
+            exchange = exchange(connection, handshakeReq);
+            exchange.whenComplete((handshakeRes, error) -> connection.release());
+        } else {
+            exchange = failed(new IllegalStateException("Another handshake with " + peer + " is in progress"));
+        }
+
+        return exchange.handle((handshakeRes, error) -> {
+            if (error == null)
+                return CompletableFuture.completedFuture(handshakeRes);
+
+            LOG.log(Level.FINE, "Handshake with " + peer + " failed", unwrap(error));
+            if (acquired)
+                connection.close();
+
+            return attemptsLeft > 1 ? attempt(peer, handshakeReq, attemptsLeft - 1)
+                    : HandshakeClientProtocol.<HandshakeResponse>failed(unwrap(error));
+        }).thenCompose(handshakeRes -> handshakeRes);
+    }
+
+    private Connection connectionTo(String peer) {
+        return connections.compute(peer, (address, connection) -> {
+            if (connection != null && !connection.isClosed())
+                return connection;
+
+            return new Connection(peer, transports.open(peer));
+        });
+    }
+
+    private CompletableFuture<HandshakeResponse> exchange(Connection connection, HandshakeRequest handshakeReq) {
+        return within(connection.ready, timeouts.connect().toMillis())
+                .thenCompose(notifying -> within(connection.write(handshakeReq), timeouts.write().toMillis())
+                        .thenApply(written -> notifying))
+                .thenCompose(notifying -> {
+                    if (!notifying)
+                        return read(connection);
+
+                    return within(connection.response, timeouts.notification().toMillis())
+                            .handle((handshakeRes, error) -> {
+                                if (error == null && handshakeRes.isReady())
+                                    return read(connection);
+                                if (error == null)
+                                    return CompletableFuture.completedFuture(handshakeRes);
+                                if (!(unwrap(error) instanceof TimeoutException))
+                                    return HandshakeClientProtocol.<HandshakeResponse>failed(unwrap(error));
+
+                                LOG.fine("No handshake notified, reading it instead");
+                                return read(connection);
+                            }).thenCompose(handshakeRes -> handshakeRes);
+                });
+    }
+
+    private CompletableFuture<HandshakeResponse> read(Connection connection) {
+        final long deadline = System.nanoTime() + timeouts.read().toNanos();
+        return read(connection, deadline);
+    }
+
+    private CompletableFuture<HandshakeResponse> read(Connection connection, long deadlineNanos) {
+        final long timeoutMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        if (timeoutMillis <= 0)
+            return failed(new TimeoutException("Handshake is still pending"));
+
+        return within(connection.transport.read(), timeoutMillis)
+                .thenApply(HandshakeResponse::fromBytes)
+                .thenCompose(handshakeRes -> {
+                    if (!handshakeRes.isPending())
+                        return CompletableFuture.completedFuture(handshakeRes);
+                    if (connection.hasNotifiedHandshake())
+                        return connection.response;
+
+                    // The server is still generating the handshake, ask again shortly
+                    return delay(timeouts.pendingReadDelay().toMillis(), scheduler)
+                            .thenCompose(delayed -> read(connection, deadlineNanos));
+                });
+    }
+
+    private <T> CompletableFuture<T> within(CompletableFuture<T> future, long timeoutMillis) {
+        return Futures.within(future, timeoutMillis, scheduler);
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable error) {
+        return Futures.failed(error);
+    }
+
+    private class Connection {
+
+        private final String peer;
+        private final ClientTransport transport;
+
+        private final CompletableFuture<Boolean> ready;
+        private final AtomicBoolean busy = new AtomicBoolean();
+
+        private volatile CompletableFuture<HandshakeResponse> response = new CompletableFuture<>();
+        private volatile boolean closed;
+
+        private ScheduledFuture<?> idleClose;
+
+        private Connection(String peer, ClientTransport transport) {
+            this.peer = peer;
+            this.transport = transport;
+            this.ready = transport.connect(MTU)
+                    .thenCompose(connected -> transport.subscribe(this::onNotification));
+        }
+
+        private boolean acquire() {
+            if (!busy.compareAndSet(false, true))
+                return false;
+
+            cancelIdleClose();
+            return true;
+        }
+
+        private void release() {
+            busy.set(false);
+
+            synchronized (this) {
+                if (!closed)
+                    idleClose = scheduler.schedule(this::close,
+                            timeouts.idleConnection().toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private CompletableFuture<Void> write(HandshakeRequest handshakeReq) {
+            response = new CompletableFuture<>();
+            return transport.write(handshakeReq.toBytes());
+        }
+
+        private void onNotification(byte[] value) {
+            final HandshakeResponse handshakeRes;
+            try {
+                handshakeRes = HandshakeResponse.fromBytes(value);
+            } catch (IllegalArgumentException e) {
+                response.completeExceptionally(e);
+                return;
+            }
+
+            if (!handshakeRes.isPending())
+                response.complete(handshakeRes);
+        }
+
+        /**
+         * Whether the handshake itself, or a failure, has been notified
+         * rather than just that it is ready to be read.
+         */
+        private boolean hasNotifiedHandshake() {
+            return response.isDone() && (response.isCompletedExceptionally() || !response.join().isReady());
+        }
+
+        private boolean isClosed() {
+            return closed || transport.isClosed();
+        }
+
+        private void close() {
+            synchronized (this) {
+                if (closed)
+                    return;
+
+                closed = true;
+                cancelIdleClose();
+            }
+
+            connections.remove(peer, this);
+            transport.close();
+
+            final IllegalStateException error = new IllegalStateException("Connection to " + peer + " closed");
+            ready.completeExceptionally(error);
+            response.completeExceptionally(error);
+        }
+
+        private synchronized void cancelIdleClose() {
+            if (idleClose != null) {
+                idleClose.cancel(false);
+                idleClose = null;
+            }
+        }
+    }
+}
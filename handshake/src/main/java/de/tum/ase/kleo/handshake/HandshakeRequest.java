@@ -0,0 +1,169 @@
+package de.tum.ase.kleo.handshake;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Request of a student's handshake for a group's session.
+ * <p>
+ * Encoded as a version byte followed by the student id, the group id or
+ * code and the session id as {@link WireFormat} fields, which packs UUIDs
+ * into 16 bytes. Requests of the former format, ids headed by 4-byte
+ * lengths, are still decoded; their first byte is always zero. Decoded
+ * requests keep the received bytes, decode ids on first access and are
+ * written as received.
+ */
+public class HandshakeRequest {
+
+    public static final int MAX_BYTES = 128;
+    public static final UUID CHAR_UUID = UUID.fromString("97C4FF95-F41A-477B-8CE9-BA95714D7060");
+
+    private static final byte VERSION = 2;
+    private static final byte LEGACY_VERSION = 0;
+
+    private final byte[] bytes;
+    private final int studentIdOffset, studentIdHeader;
+    private final int groupIdOrCodeOffset, groupIdOrCodeHeader;
+    private final int sessionIdOffset, sessionIdHeader;
+    private final int encodedLength;
+
+    private String studentId;
+    private String groupIdOrCode;
+    private String sessionId;
+
+    public HandshakeRequest(String studentId, String groupIdOrCode, String sessionId) {
+        this.studentId = studentId;
+        this.groupIdOrCode = groupIdOrCode;
+        this.sessionId = sessionId;
+
+        this.bytes = null;
+        this.studentIdOffset = this.groupIdOrCodeOffset = this.sessionIdOffset = 0;
+        this.studentIdHeader = WireFormat.headerOf(studentId);
+        this.groupIdOrCodeHeader = WireFormat.headerOf(groupIdOrCode);
+        this.sessionIdHeader = WireFormat.headerOf(sessionId);
+        this.encodedLength = encodedLength(studentIdHeader, groupIdOrCodeHeader, sessionIdHeader);
+    }
+
+    private HandshakeRequest(byte[] bytes, int[] fields) {
+        this.bytes = bytes;
+        this.studentIdOffset = fields[0];
+        this.studentIdHeader = fields[1];
+        this.groupIdOrCodeOffset = fields[2];
+        this.groupIdOrCodeHeader = fields[3];
+        this.sessionIdOffset = fields[4];
+        this.sessionIdHeader = fields[5];
+        this.encodedLength = bytes.length;
+    }
+
+    public String studentId() {
+        if (studentId == null)
+            studentId = WireFormat.readField(bytes, studentIdOffset, studentIdHeader);
+        return studentId;
+    }
+
+    public String groupIdOrCode() {
+        if (groupIdOrCode == null)
+            groupIdOrCode = WireFormat.readField(bytes, groupIdOrCodeOffset, groupIdOrCodeHeader);
+        return groupIdOrCode;
+    }
+
+    public String sessionId() {
+        if (sessionId == null)
+            sessionId = WireFormat.readField(bytes, sessionIdOffset, sessionIdHeader);
+        return sessionId;
+    }
+
+    public int encodedLength() {
+        return encodedLength;
+    }
+
+    /**
+     * Encodes the request at the buffer's position, so a buffer can be
+     * reused for many requests.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        if (encodedLength > MAX_BYTES) {
+            throw new IllegalStateException("Handshake request is too big, check ids passed");
+        }
+
+        if (bytes != null) {
+            buffer.put(bytes);
+            return;
+        }
+
+        buffer.put(VERSION);
+        WireFormat.writeField(buffer, studentId(), studentIdHeader);
+        WireFormat.writeField(buffer, groupIdOrCode(), groupIdOrCodeHeader);
+        WireFormat.writeField(buffer, sessionId(), sessionIdHeader);
+    }
+
+    public byte[] toBytes() {
+        final byte[] handshakeReqBytes = new byte[encodedLength];
+        writeTo(ByteBuffer.wrap(handshakeReqBytes));
+        return handshakeReqBytes;
+    }
+
+    /**
+     * Decodes the request without copying the bytes, which therefore must
+     * not be modified afterwards. Requests of the former format are decoded
+     * right away.
+     *
+     * @throws IllegalArgumentException if the bytes are no well-formed request
+     */
+    public static HandshakeRequest fromBytes(byte[] bytes) {
+        if (bytes.length == 0 || bytes.length > MAX_BYTES)
+            throw new IllegalArgumentException("Handshake request of " + bytes.length + " bytes");
+
+        final byte version = bytes[0];
+        if (version == LEGACY_VERSION)
+            return fromLegacyBytes(bytes);
+        if (version != VERSION)
+            throw new IllegalArgumentException("Unknown handshake request version " + version);
+
+        final ByteBuffer handshakeReqBuffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        final int[] fields = new int[6];
+
+        for (int i = 0; i < fields.length; i += 2) {
+            final int header = WireFormat.skipField(handshakeReqBuffer);
+            fields[i] = handshakeReqBuffer.position() - WireFormat.valueLength(header);
+            fields[i + 1] = header;
+        }
+
+        if (handshakeReqBuffer.hasRemaining())
+            throw new IllegalArgumentException(handshakeReqBuffer.remaining()
+                    + " bytes trailing handshake request");
+
+        return new HandshakeRequest(bytes, fields);
+    }
+
+    private static HandshakeRequest fromLegacyBytes(byte[] bytes) {
+        final ByteBuffer handshakeReqBuffer = ByteBuffer.wrap(bytes);
+        final String[] ids = new String[3];
+
+        for (int i = 0; i < ids.length; i++) {
+            if (handshakeReqBuffer.remaining() < Integer.BYTES)
+                throw new IllegalArgumentException("Truncated handshake request");
+
+            final int length = handshakeReqBuffer.getInt();
+            if (length < 0 || length > handshakeReqBuffer.remaining())
+                throw new IllegalArgumentException("Field of " + length + " bytes exceeds the "
+                        + handshakeReqBuffer.remaining() + " bytes left");
+
+            ids[i] = new String(bytes, handshakeReqBuffer.position(), length, StandardCharsets.UTF_8);
+            handshakeReqBuffer.position(handshakeReqBuffer.position() + length);
+        }
+
+        if (handshakeReqBuffer.hasRemaining())
+            throw new IllegalArgumentException(handshakeReqBuffer.remaining()
+                    + " bytes trailing handshake request");
+
+        return new HandshakeRequest(ids[0], ids[1], ids[2]);
+    }
+
+    private static int encodedLength(int studentIdHeader, int groupIdOrCodeHeader, int sessionIdHeader) {
+        return 1 + WireFormat.fieldLength(studentIdHeader)
+                + WireFormat.fieldLength(groupIdOrCodeHeader)
+                + WireFormat.fieldLength(sessionIdHeader);
+    }
+}
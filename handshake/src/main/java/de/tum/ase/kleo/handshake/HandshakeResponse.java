@@ -0,0 +1,125 @@
+package de.tum.ase.kleo.handshake;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * {@code HandshakeResponse} carries a pass code prefixed with a status byte
+ * telling the student whether to redeem the pass or whether the tutor's
+ * device has already collected it for a batch upload. While the handshake
+ * is still being generated, reads are answered with a {@link Status#PENDING}
+ * response without a pass code. A handshake too big to be notified over the
+ * connection's MTU is announced by a {@link Status#READY} notification
+ * without a pass code instead, telling the client to read it right away.
+ */
+public class HandshakeResponse {
+
+    public enum Status {
+        REDEEM, COLLECTED, PENDING, READY
+    }
+
+    public static final int MAX_BYTES = 512;
+    public static final UUID CHAR_UUID = UUID.fromString("2E65B0EF-4D5D-4878-9534-765A7702847B");
+    public static final UUID CLIENT_CONFIG_UUID = UUID.fromString("00002902-0000-1000-8000-00805F9B34FB");
+
+    public static final byte[] NOTIFICATIONS_ENABLED = {0x01, 0x00};
+    public static final byte[] NOTIFICATIONS_DISABLED = {0x00, 0x00};
+
+    private final Status status;
+    private final byte[] bytes;
+    private String handshake;
+
+    private HandshakeResponse(Status status, byte[] bytes, String handshake) {
+        this.status = status;
+        this.bytes = bytes;
+        this.handshake = handshake;
+    }
+
+    /**
+     * Encodes the response right away, straight into the array sent.
+     */
+    public static HandshakeResponse from(String handshake, Status status) {
+        final int length = 1 + WireFormat.utf8Length(handshake);
+        if (length > MAX_BYTES) {
+            throw new IllegalArgumentException("Handshake size is too big. " +
+                    "Actual = " + length + ", allowed = " + MAX_BYTES);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.put((byte) status.ordinal());
+        WireFormat.writeUtf8(buffer, handshake);
+
+        return new HandshakeResponse(status, buffer.array(), handshake);
+    }
+
+    public static HandshakeResponse pending() {
+        return new HandshakeResponse(Status.PENDING, new byte[] {(byte) Status.PENDING.ordinal()}, "");
+    }
+
+    public static HandshakeResponse ready() {
+        return new HandshakeResponse(Status.READY, new byte[] {(byte) Status.READY.ordinal()}, "");
+    }
+
+    /**
+     * Decodes the response without copying the bytes, which therefore must
+     * not be modified afterwards. The pass code is decoded on first access.
+     *
+     * @throws IllegalArgumentException if the bytes are no well-formed response
+     */
+    public static HandshakeResponse fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0)
+            throw new IllegalArgumentException("Empty handshake response");
+
+        if (bytes.length > MAX_BYTES)
+            throw new IllegalArgumentException("Handshake response of " + bytes.length + " bytes");
+
+        final int statusOrdinal = bytes[0];
+        if (statusOrdinal < 0 || statusOrdinal >= Status.values().length)
+            throw new IllegalArgumentException("Unknown handshake status " + statusOrdinal);
+
+        return new HandshakeResponse(Status.values()[statusOrdinal], bytes, null);
+    }
+
+    public int encodedLength() {
+        return bytes.length;
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(bytes);
+    }
+
+    /**
+     * The encoded response itself rather than a copy, not to be modified.
+     */
+    public byte[] toBytes() {
+        return bytes;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public boolean isCollected() {
+        return status == Status.COLLECTED;
+    }
+
+    public boolean isPending() {
+        return status == Status.PENDING;
+    }
+
+    public boolean isReady() {
+        return status == Status.READY;
+    }
+
+    public String handshake() {
+        if (handshake == null)
+            handshake = new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+        return handshake;
+    }
+
+    @Override
+    public String toString() {
+        return handshake();
+    }
+}
@@ -0,0 +1,212 @@
+package de.tum.ase.kleo.handshake;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.lang.String.format;
+
+/**
+ * Server side of the handshake protocol, independent of the transport. A
+ * handshake request is acknowledged at once and the handshake is generated
+ * on a bounded worker pool, as suppliers may block on the network. Peers
+ * that subscribed to the response characteristic are notified with the
+ * handshake once it is ready; reads before are answered as pending. If the
+ * handshake exceeds what the transport can notify, the peer is notified
+ * it is ready to be read instead, rather than left waiting for a timeout.
+ * <p>
+ * The transport forwards its peers' requests to the {@code on*} methods,
+ * which may be called concurrently.
+ */
+public class HandshakeServerProtocol {
+
+    private static final Logger LOG = Logger.getLogger(HandshakeServerProtocol.class.getName());
+
+    public static final int MAX_PENDING_HANDSHAKES = 1024;
+    public static final int HANDSHAKE_WORKERS = 4;
+
+    private final HandshakeSupplier handshakeSupplier;
+    private final ServerTransport transport;
+    private final int workers;
+    private final int maxPendingHandshakes;
+    private final HandshakeStore handshakeStore;
+
+    private final Set<String> subscribedPeers = ConcurrentHashMap.newKeySet();
+
+    private volatile ExecutorService handshakeWorkers;
+    private volatile AttendanceCollector attendanceCollector;
+
+    public HandshakeServerProtocol(HandshakeSupplier handshakeSupplier, ServerTransport transport) {
+        this(handshakeSupplier, transport, HANDSHAKE_WORKERS, MAX_PENDING_HANDSHAKES);
+    }
+
+    public HandshakeServerProtocol(HandshakeSupplier handshakeSupplier, ServerTransport transport,
+                                   int workers, int maxPendingHandshakes) {
+        if (workers <= 0)
+            throw new IllegalArgumentException("Handshake workers must be positive");
+
+        this.handshakeSupplier = handshakeSupplier;
+        this.transport = transport;
+        this.workers = workers;
+        this.maxPendingHandshakes = maxPendingHandshakes;
+        this.handshakeStore = new HandshakeStore(HandshakeSupplier.PASS_EXPIRE_IN, maxPendingHandshakes);
+    }
+
+    /**
+     * Makes the server collect pass codes of completed handshakes for a batch
+     * upload instead of leaving students to redeem their passes themselves.
+     * Must be set before {@link #open()}.
+     */
+    public HandshakeServerProtocol collectAttendances(AttendanceCollector attendanceCollector) {
+        this.attendanceCollector = attendanceCollector;
+        return this;
+    }
+
+    public synchronized void open() {
+        if (handshakeWorkers != null)
+            return;
+
+        handshakeWorkers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxPendingHandshakes));
+    }
+
+    public synchronized void close() {
+        if (handshakeWorkers != null) {
+            handshakeWorkers.shutdownNow();
+            handshakeWorkers = null;
+        }
+
+        handshakeStore.clear();
+        subscribedPeers.clear();
+    }
+
+    public void onRequest(String peer, int requestId, byte[] value, boolean responseNeeded) {
+        final ExecutorService handshakeWorkers = this.handshakeWorkers;
+        if (handshakeWorkers == null) {
+            if (responseNeeded)
+                transport.reject(peer, requestId);
+            return;
+        }
+
+        final HandshakeRequest handshakeReq;
+        try {
+            handshakeReq = HandshakeRequest.fromBytes(value);
+        } catch (RuntimeException e) {
+            LOG.warning("onRequest: Malformed handshake request of peer " + peer);
+            if (responseNeeded)
+                transport.reject(peer, requestId);
+            return;
+        }
+
+        handshakeStore.markPending(peer);
+
+        try {
+            handshakeWorkers.execute(() -> supplyHandshake(peer, handshakeReq));
+        } catch (RejectedExecutionException e) {
+            LOG.warning("onRequest: Too many pending handshakes, rejecting peer " + peer);
+            handshakeStore.failPending(peer);
+
+            if (responseNeeded)
+                transport.reject(peer, requestId);
+            return;
+        }
+
+        if (responseNeeded)
+            transport.respond(peer, requestId, null);
+    }
+
+    public void onRead(String peer, int requestId) {
+        final String handshake = handshakeStore.take(peer);
+        if (handshake == null) {
+            if (handshakeStore.isPending(peer)) {
+                transport.respond(peer, requestId, HandshakeResponse.pending().toBytes());
+                return;
+            }
+
+            LOG.warning("onRead: Peer " + peer + " tried to access a handshake without a pending handshake request");
+            transport.reject(peer, requestId);
+            return;
+        }
+
+        final AttendanceCollector collector = attendanceCollector;
+        final boolean sent = transport.respond(peer, requestId, responseOf(handshake, collector).toBytes());
+        if (sent && collector != null)
+            collector.collect(handshake);
+
+        LOG.fine(format("onRead: Handshake %s has been sent to peer %s", handshake, peer));
+    }
+
+    public void onSubscribe(String peer, int requestId, byte[] value, boolean responseNeeded) {
+        if (Arrays.equals(HandshakeResponse.NOTIFICATIONS_ENABLED, value)) {
+            subscribedPeers.add(peer);
+        } else {
+            subscribedPeers.remove(peer);
+        }
+
+        if (responseNeeded)
+            transport.respond(peer, requestId, null);
+    }
+
+    public void onSubscriptionRead(String peer, int requestId) {
+        transport.respond(peer, requestId, subscribedPeers.contains(peer)
+                ? HandshakeResponse.NOTIFICATIONS_ENABLED
+                : HandshakeResponse.NOTIFICATIONS_DISABLED);
+    }
+
+    public void onDisconnected(String peer) {
+        handshakeStore.forget(peer);
+        subscribedPeers.remove(peer);
+    }
+
+    private void supplyHandshake(String peer, HandshakeRequest handshakeReq) {
+        final String handshake;
+        try {
+            handshake = handshakeSupplier.supply(handshakeReq.studentId(),
+                    handshakeReq.groupIdOrCode(),
+                    handshakeReq.sessionId());
+        } catch (RuntimeException e) {
+            LOG.log(Level.SEVERE, "supplyHandshake: Failed to create handshake for peer " + peer, e);
+            handshakeStore.failPending(peer);
+            return;
+        }
+
+        if (!handshakeStore.complete(peer, handshake)) {
+            LOG.fine("supplyHandshake: Peer " + peer + " has gone meanwhile");
+            return;
+        }
+
+        if (subscribedPeers.contains(peer))
+            notifyHandshake(peer);
+    }
+
+    private void notifyHandshake(String peer) {
+        final String handshake = handshakeStore.take(peer);
+        if (handshake == null)
+            return;
+
+        final AttendanceCollector collector = attendanceCollector;
+        if (!transport.notify(peer, responseOf(handshake, collector).toBytes())) {
+            // Left to be read by the peer instead, told so with a response fitting any MTU
+            handshakeStore.store(peer, handshake);
+            transport.notify(peer, HandshakeResponse.ready().toBytes());
+            return;
+        }
+
+        if (collector != null)
+            collector.collect(handshake);
+
+        LOG.fine(format("notifyHandshake: Handshake %s has been sent to peer %s", handshake, peer));
+    }
+
+    private static HandshakeResponse responseOf(String handshake, AttendanceCollector collector) {
+        return HandshakeResponse.from(handshake, collector == null
+                ? HandshakeResponse.Status.REDEEM : HandshakeResponse.Status.COLLECTED);
+    }
+}
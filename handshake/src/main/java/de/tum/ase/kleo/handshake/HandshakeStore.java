@@ -0,0 +1,129 @@
+package de.tum.ase.kleo.handshake;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds handshakes created for devices until they are read. Transport
+ * callbacks of many devices arrive on several threads, so the store is safe
+ * for concurrent use. A device's entry is pending from its handshake
+ * request until the handshake has been generated. Handshakes are handed
+ * out once and expire with the pass they carry; once full, the handshakes
+ * expiring first are evicted.
+ */
+public class HandshakeStore {
+
+    private final long ttlMillis;
+    private final int maxSize;
+
+    private final Map<String, Entry> deviceHandshakes = new ConcurrentHashMap<>();
+
+    public HandshakeStore(Duration ttl, int maxSize) {
+        if (ttl.isNegative() || ttl.isZero())
+            throw new IllegalArgumentException("Handshake ttl must be positive");
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("Handshake store size must be positive");
+
+        this.ttlMillis = ttl.toMillis();
+        this.maxSize = maxSize;
+    }
+
+    public void store(String deviceAddress, String handshake) {
+        put(deviceAddress, handshake);
+    }
+
+    /**
+     * Reserves an entry for the device, replacing its previous handshake,
+     * until {@link #complete(String, String)} provides the handshake.
+     */
+    public void markPending(String deviceAddress) {
+        put(deviceAddress, null);
+    }
+
+    /**
+     * Stores the generated handshake unless the device has gone meanwhile.
+     */
+    public boolean complete(String deviceAddress, String handshake) {
+        final Entry handshakeEntry = new Entry(handshake, System.currentTimeMillis() + ttlMillis);
+        return deviceHandshakes.computeIfPresent(deviceAddress,
+                (address, entry) -> entry.isPending() ? handshakeEntry : entry) == handshakeEntry;
+    }
+
+    public void failPending(String deviceAddress) {
+        deviceHandshakes.computeIfPresent(deviceAddress,
+                (address, entry) -> entry.isPending() ? null : entry);
+    }
+
+    public boolean isPending(String deviceAddress) {
+        final Entry entry = deviceHandshakes.get(deviceAddress);
+        return entry != null && entry.isPending() && !entry.isExpiredAt(System.currentTimeMillis());
+    }
+
+    /**
+     * Removes and returns the handshake of the device, or null if there is
+     * none yet or it has expired.
+     */
+    public String take(String deviceAddress) {
+        final Entry entry = deviceHandshakes.get(deviceAddress);
+        if (entry == null || entry.isPending() || !deviceHandshakes.remove(deviceAddress, entry))
+            return null;
+
+        return entry.isExpiredAt(System.currentTimeMillis()) ? null : entry.handshake;
+    }
+
+    public void forget(String deviceAddress) {
+        deviceHandshakes.remove(deviceAddress);
+    }
+
+    public void clear() {
+        deviceHandshakes.clear();
+    }
+
+    public int size() {
+        return deviceHandshakes.size();
+    }
+
+    private void put(String deviceAddress, String handshake) {
+        final long now = System.currentTimeMillis();
+
+        if (deviceHandshakes.size() >= maxSize && !deviceHandshakes.containsKey(deviceAddress)) {
+            purgeExpired(now);
+
+            while (deviceHandshakes.size() >= maxSize)
+                evictExpiringFirst();
+        }
+
+        deviceHandshakes.put(deviceAddress, new Entry(handshake, now + ttlMillis));
+    }
+
+    private void purgeExpired(long now) {
+        deviceHandshakes.values().removeIf(entry -> entry.isExpiredAt(now));
+    }
+
+    private void evictExpiringFirst() {
+        deviceHandshakes.entrySet().stream()
+                .min((entry, other) -> Long.compare(entry.getValue().expiresAtMillis,
+                        other.getValue().expiresAtMillis))
+                .ifPresent(eldest -> deviceHandshakes.remove(eldest.getKey(), eldest.getValue()));
+    }
+
+    private static class Entry {
+
+        private final String handshake;
+        private final long expiresAtMillis;
+
+        private Entry(String handshake, long expiresAtMillis) {
+            this.handshake = handshake;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        private boolean isPending() {
+            return handshake == null;
+        }
+
+        private boolean isExpiredAt(long epochMillis) {
+            return epochMillis >= expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package de.tum.ase.kleo.handshake;
+
+import java.time.Duration;
+
+public interface HandshakeSupplier {
+
+    /**
+     * How long supplied passes stay valid at least. Handshakes not read
+     * within this time are dropped.
+     */
+    Duration PASS_EXPIRE_IN = Duration.ofMinutes(2);
+
+    String supply(String studentId, String groupIdOrCode, String sessionId);
+}
@@ -0,0 +1,65 @@
+package de.tum.ase.kleo.handshake;
+
+import java.time.Duration;
+
+/**
+ * Timeouts of the steps of a handshake exchange of a
+ * {@link HandshakeClientProtocol}.
+ */
+public class HandshakeTimeouts {
+
+    private final Duration connect;
+    private final Duration write;
+    private final Duration notification;
+    private final Duration read;
+    private final Duration pendingReadDelay;
+    private final Duration idleConnection;
+
+    public HandshakeTimeouts(Duration connect, Duration write, Duration notification, Duration read,
+                             Duration pendingReadDelay, Duration idleConnection) {
+        this.connect = connect;
+        this.write = write;
+        this.notification = notification;
+        this.read = read;
+        this.pendingReadDelay = pendingReadDelay;
+        this.idleConnection = idleConnection;
+    }
+
+    public static HandshakeTimeouts defaults() {
+        return new HandshakeTimeouts(Duration.ofSeconds(10), Duration.ofSeconds(3), Duration.ofSeconds(3),
+                Duration.ofSeconds(5), Duration.ofMillis(250), Duration.ofSeconds(30));
+    }
+
+    public Duration connect() {
+        return connect;
+    }
+
+    public Duration write() {
+        return write;
+    }
+
+    /**
+     * How long to wait for a notified handshake before reading it instead.
+     */
+    public Duration notification() {
+        return notification;
+    }
+
+    /**
+     * How long to read, including reads answered as pending.
+     */
+    public Duration read() {
+        return read;
+    }
+
+    public Duration pendingReadDelay() {
+        return pendingReadDelay;
+    }
+
+    /**
+     * How long connections are kept open after a handshake.
+     */
+    public Duration idleConnection() {
+        return idleConnection;
+    }
+}
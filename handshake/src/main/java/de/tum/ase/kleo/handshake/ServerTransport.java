@@ -0,0 +1,22 @@
+package de.tum.ase.kleo.handshake;
+
+/**
+ * The link a {@link HandshakeServerProtocol} answers its peers over, e.g. a
+ * GATT server. Peers are identified by their addresses, requests by the ids
+ * the transport handed to the protocol along with them.
+ */
+public interface ServerTransport {
+
+    /**
+     * Answers a request successfully, with the value read if any.
+     */
+    boolean respond(String peer, int requestId, byte[] value);
+
+    boolean reject(String peer, int requestId);
+
+    /**
+     * Pushes a value of the response characteristic to a subscribed peer.
+     * Returns false if it could not be sent, e.g. as it exceeds the MTU.
+     */
+    boolean notify(String peer, byte[] value);
+}
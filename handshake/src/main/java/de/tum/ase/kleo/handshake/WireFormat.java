@@ -0,0 +1,243 @@
+package de.tum.ase.kleo.handshake;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Primitives of the handshake wire format, reading and writing in place
+ * without intermediate arrays.
+ * <p>
+ * Ids are written as fields headed by an unsigned varint. Its lowest bit
+ * flags a canonical UUID string packed into 16 bytes, the remaining bits
+ * give the length of the UTF-8 text following otherwise.
+ */
+final class WireFormat {
+
+    private static final int UUID_BYTES = 16;
+    private static final int MAX_VARINT_BYTES = 5;
+    private static final int UUID_STRING_LENGTH = 36;
+    private static final int UUID_FLAG = 1;
+
+    private WireFormat() {
+    }
+
+    /**
+     * Header of the field the id is written as.
+     */
+    static int headerOf(String id) {
+        return isCanonicalUuid(id) ? UUID_FLAG : textHeader(utf8Length(id));
+    }
+
+    /**
+     * Number of bytes the field with the given header takes, header included.
+     */
+    static int fieldLength(int header) {
+        return varintLength(header) + valueLength(header);
+    }
+
+    static void writeField(ByteBuffer buffer, String id, int header) {
+        writeVarint(buffer, header);
+
+        if ((header & UUID_FLAG) != 0) {
+            buffer.putLong(hexToLong(id, 0, 18)).putLong(hexToLong(id, 19, UUID_STRING_LENGTH));
+        } else {
+            writeUtf8(buffer, id);
+        }
+    }
+
+    /**
+     * Skips over the field at the buffer's position, returning its header.
+     * Refuses headers of fields running past the buffer's limit.
+     */
+    static int skipField(ByteBuffer buffer) {
+        final int header = readVarint(buffer);
+        if ((header & UUID_FLAG) != 0 && header != UUID_FLAG)
+            throw new IllegalArgumentException("Malformed field header " + header);
+
+        final int length = valueLength(header);
+        if (length > buffer.remaining())
+            throw new IllegalArgumentException("Field of " + length + " bytes exceeds the "
+                    + buffer.remaining() + " bytes left");
+
+        buffer.position(buffer.position() + length);
+        return header;
+    }
+
+    /**
+     * Decodes the field with the given header whose value starts at the
+     * given offset of the array.
+     */
+    static String readField(byte[] bytes, int offset, int header) {
+        if ((header & UUID_FLAG) != 0)
+            return new UUID(getLong(bytes, offset), getLong(bytes, offset + 8)).toString();
+
+        return new String(bytes, offset, valueLength(header), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Number of bytes of the value following the given header.
+     */
+    static int valueLength(int header) {
+        return (header & UUID_FLAG) != 0 ? UUID_BYTES : header >>> 1;
+    }
+
+    private static int textHeader(int textLength) {
+        return textLength << 1;
+    }
+
+    static int varintLength(int value) {
+        int length = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    static void writeVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint, refusing truncated, overlong or negative
+     * values.
+     */
+    static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int i = 0; i < MAX_VARINT_BYTES; i++) {
+            if (!buffer.hasRemaining())
+                throw new IllegalArgumentException("Truncated varint");
+
+            final byte b = buffer.get();
+            value |= (b & 0x7F) << (7 * i);
+
+            if ((b & 0x80) == 0) {
+                if (value < 0)
+                    throw new IllegalArgumentException("Varint out of range");
+                return value;
+            }
+        }
+
+        throw new IllegalArgumentException("Varint longer than " + MAX_VARINT_BYTES + " bytes");
+    }
+
+    static int utf8Length(String text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Writes the text as UTF-8 the same as {@link String#getBytes}, unpaired
+     * surrogates becoming '?'.
+     */
+    static void writeUtf8(ByteBuffer buffer, String text) {
+        int i = 0;
+
+        // Ids are mostly ASCII, copied straight into the backing array
+        if (buffer.hasArray() && buffer.remaining() >= text.length()) {
+            final byte[] array = buffer.array();
+            final int offset = buffer.arrayOffset() + buffer.position();
+
+            for (; i < text.length(); i++) {
+                final char c = text.charAt(i);
+                if (c >= 0x80)
+                    break;
+                array[offset + i] = (byte) c;
+            }
+            buffer.position(buffer.position() + i);
+        }
+
+        for (; i < text.length(); i++) {
+            final char c = text.charAt(i);
+
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >>> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >>> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >>> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >>> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >>> 12)));
+                buffer.put((byte) (0x80 | ((c >>> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Whether the id is a UUID exactly as {@link UUID#toString()} prints it,
+     * so packing it into 16 bytes loses nothing.
+     */
+    static boolean isCanonicalUuid(String id) {
+        if (id.length() != UUID_STRING_LENGTH)
+            return false;
+
+        for (int i = 0; i < UUID_STRING_LENGTH; i++) {
+            final char c = id.charAt(i);
+
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-')
+                    return false;
+            } else if (hexDigit(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hexToLong(String id, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            final char c = id.charAt(i);
+            if (c != '-')
+                value = (value << 4) | hexDigit(c);
+        }
+        return value;
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9')
+            return c - '0';
+        if (c >= 'a' && c <= 'f')
+            return c - 'a' + 10;
+        return -1;
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,78 @@
+package de.tum.ase.kleo.handshake.simulation;
+
+import java.time.Duration;
+
+/**
+ * Conditions of the simulated radio link: the largest MTU peers may
+ * negotiate, the one-way latency of a packet and the probability of a
+ * packet getting lost.
+ */
+public class LinkConditions {
+
+    /**
+     * The MTU every BLE link starts with.
+     */
+    public static final int DEFAULT_MTU = 23;
+
+    /**
+     * The largest ATT MTU there is.
+     */
+    public static final int MAX_MTU = 517;
+
+    private static final int ATT_HEADER_BYTES = 3;
+
+    private final int mtu;
+    private final Duration latency;
+    private final double packetLoss;
+
+    public LinkConditions(int mtu, Duration latency, double packetLoss) {
+        if (mtu < DEFAULT_MTU || mtu > MAX_MTU)
+            throw new IllegalArgumentException("MTU must be within " + DEFAULT_MTU + " and " + MAX_MTU);
+        if (latency.isNegative())
+            throw new IllegalArgumentException("Latency must not be negative");
+        if (packetLoss < 0 || packetLoss >= 1)
+            throw new IllegalArgumentException("Packet loss must be within [0, 1)");
+
+        this.mtu = mtu;
+        this.latency = latency;
+        this.packetLoss = packetLoss;
+    }
+
+    /**
+     * A link of the largest MTU without latency or loss.
+     */
+    public static LinkConditions ideal() {
+        return new LinkConditions(MAX_MTU, Duration.ZERO, 0);
+    }
+
+    public int mtu() {
+        return mtu;
+    }
+
+    public Duration latency() {
+        return latency;
+    }
+
+    public double packetLoss() {
+        return packetLoss;
+    }
+
+    /**
+     * Number of packets carrying a value of the given size at the given MTU,
+     * e.g. a long read or write split into several ATT PDUs.
+     */
+    static int packetsOf(int valueBytes, int mtu) {
+        final int payloadBytes = mtu - ATT_HEADER_BYTES;
+        return Math.max(1, (valueBytes + payloadBytes - 1) / payloadBytes);
+    }
+
+    static int maxNotificationBytes(int mtu) {
+        return mtu - ATT_HEADER_BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return "LinkConditions(mtu=" + mtu + ", latency=" + latency.toMillis()
+                + " ms, packetLoss=" + packetLoss + ")";
+    }
+}
@@ -0,0 +1,123 @@
+package de.tum.ase.kleo.handshake.simulation;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.tum.ase.kleo.handshake.ClientTransport;
+
+/**
+ * In-process simulation of the BLE radio between peripherals serving
+ * handshakes and centrals requesting them. Values are split into packets
+ * of the negotiated MTU, each delayed by the link's latency and lost with
+ * the link's packet loss. A value with a lost packet is never delivered,
+ * so the requesting side has to time out just like over the air.
+ * Deliveries happen on radio threads, concurrently to the peers' own.
+ */
+public class SimulatedBle implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(SimulatedBle.class.getName());
+
+    private static final int RADIO_THREADS = 2;
+
+    private final LinkConditions link;
+    private final Random random;
+    private final ScheduledExecutorService radio;
+
+    private final Map<String, SimulatedPeripheral> peripherals = new ConcurrentHashMap<>();
+    private final AtomicInteger centrals = new AtomicInteger();
+
+    private final LongAdder packetsSent = new LongAdder();
+    private final LongAdder packetsLost = new LongAdder();
+
+    public SimulatedBle(LinkConditions link) {
+        this(link, System.nanoTime());
+    }
+
+    /**
+     * Simulates the link losing the same packets on every run with the same
+     * seed and the same order of transmissions.
+     */
+    public SimulatedBle(LinkConditions link, long seed) {
+        this.link = link;
+        this.random = new Random(seed);
+        this.radio = Executors.newScheduledThreadPool(RADIO_THREADS, runnable -> {
+            final Thread thread = new Thread(runnable, "simulated-ble-radio");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public LinkConditions link() {
+        return link;
+    }
+
+    public SimulatedPeripheral peripheral(String address) {
+        return peripherals.computeIfAbsent(address, peripheralAddress ->
+                new SimulatedPeripheral(this, peripheralAddress));
+    }
+
+    /**
+     * A new central device opening connections to the peripherals.
+     */
+    public ClientTransport.Factory central() {
+        final String centralAddress = "central-" + centrals.incrementAndGet();
+        return peer -> new SimulatedConnection(this, centralAddress, peripherals.get(peer));
+    }
+
+    public long packetsSent() {
+        return packetsSent.sum();
+    }
+
+    public long packetsLost() {
+        return packetsLost.sum();
+    }
+
+    @Override
+    public void close() {
+        radio.shutdownNow();
+    }
+
+    /**
+     * Delivers a value of the given size over a connection of the given MTU
+     * once all its packets have arrived, unless one of them gets lost.
+     */
+    void transmit(int valueBytes, int mtu, Runnable delivery) {
+        final int packets = LinkConditions.packetsOf(valueBytes, mtu);
+
+        boolean lost = false;
+        for (int i = 0; i < packets; i++) {
+            packetsSent.increment();
+
+            if (random.nextDouble() < link.packetLoss()) {
+                packetsLost.increment();
+                lost = true;
+            }
+        }
+
+        if (lost)
+            return;
+
+        try {
+            radio.schedule(() -> deliver(delivery), link.latency().toNanos() * packets, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // The radio has been shut down, packets are gone
+        }
+    }
+
+    private static void deliver(Runnable delivery) {
+        try {
+            delivery.run();
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Failed to deliver a simulated packet", e);
+        }
+    }
+}
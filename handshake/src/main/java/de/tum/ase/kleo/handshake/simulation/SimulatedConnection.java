@@ -0,0 +1,116 @@
+package de.tum.ase.kleo.handshake.simulation;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import de.tum.ase.kleo.handshake.ClientTransport;
+import de.tum.ase.kleo.handshake.HandshakeResponse;
+import de.tum.ase.kleo.handshake.simulation.SimulatedPeripheral.Operation;
+
+/**
+ * A central's connection to a {@link SimulatedPeripheral}. Connecting takes
+ * a round trip and settles the MTU at the smaller of the requested one and
+ * the link's.
+ */
+class SimulatedConnection implements ClientTransport {
+
+    private final SimulatedBle ble;
+    private final String address;
+    private final SimulatedPeripheral peripheral;
+
+    private final Set<CompletableFuture<?>> pendingOperations = ConcurrentHashMap.newKeySet();
+
+    private volatile int mtu = LinkConditions.DEFAULT_MTU;
+    private volatile Consumer<byte[]> notificationListener;
+    private volatile boolean closed;
+
+    SimulatedConnection(SimulatedBle ble, String address, SimulatedPeripheral peripheral) {
+        this.ble = ble;
+        this.address = address;
+        this.peripheral = peripheral;
+    }
+
+    String address() {
+        return address;
+    }
+
+    int mtu() {
+        return mtu;
+    }
+
+    @Override
+    public CompletableFuture<Void> connect(int mtu) {
+        final CompletableFuture<Void> connected = track(new CompletableFuture<>());
+        if (peripheral == null) {
+            connected.completeExceptionally(new IllegalStateException("No peripheral in range"));
+            return connected;
+        }
+
+        ble.transmit(0, LinkConditions.DEFAULT_MTU, () -> {
+            if (closed)
+                return;
+
+            peripheral.connected(this);
+            this.mtu = Math.min(mtu, ble.link().mtu());
+            ble.transmit(0, LinkConditions.DEFAULT_MTU, () -> connected.complete(null));
+        });
+
+        return connected;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> subscribe(Consumer<byte[]> notificationListener) {
+        this.notificationListener = notificationListener;
+        return track(peripheral.request(this, Operation.SUBSCRIBE, HandshakeResponse.NOTIFICATIONS_ENABLED))
+                .thenApply(answer -> true);
+    }
+
+    @Override
+    public CompletableFuture<Void> write(byte[] request) {
+        return track(peripheral.request(this, Operation.WRITE, request))
+                .thenApply(answer -> null);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> read() {
+        return track(peripheral.request(this, Operation.READ, null));
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if (closed)
+            return;
+
+        closed = true;
+        if (peripheral != null)
+            peripheral.disconnected(this);
+
+        final IllegalStateException error = new IllegalStateException("Connection " + address + " closed");
+        for (CompletableFuture<?> operation : pendingOperations) {
+            operation.completeExceptionally(error);
+        }
+    }
+
+    void notified(byte[] value) {
+        final Consumer<byte[]> notificationListener = this.notificationListener;
+        if (!closed && notificationListener != null)
+            notificationListener.accept(value);
+    }
+
+    private <T> CompletableFuture<T> track(CompletableFuture<T> operation) {
+        pendingOperations.add(operation);
+        operation.whenComplete((value, error) -> pendingOperations.remove(operation));
+
+        if (closed)
+            operation.completeExceptionally(new IllegalStateException("Connection " + address + " closed"));
+
+        return operation;
+    }
+}
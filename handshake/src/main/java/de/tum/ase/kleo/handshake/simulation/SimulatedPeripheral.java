@@ -0,0 +1,133 @@
+package de.tum.ase.kleo.handshake.simulation;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.tum.ase.kleo.handshake.HandshakeServerProtocol;
+import de.tum.ase.kleo.handshake.ServerTransport;
+
+/**
+ * A simulated peripheral answering its centrals with the
+ * {@link HandshakeServerProtocol} it serves. Notifications exceeding a
+ * connection's MTU aren't sent, as the app's GATT server refuses them
+ * rather than having Android truncate them.
+ */
+public class SimulatedPeripheral implements ServerTransport {
+
+    enum Operation {
+        WRITE, READ, SUBSCRIBE
+    }
+
+    private final SimulatedBle ble;
+    private final String address;
+
+    private final Map<String, SimulatedConnection> connections = new ConcurrentHashMap<>();
+    private final Map<Integer, PendingRequest> requests = new ConcurrentHashMap<>();
+    private final AtomicInteger requestIds = new AtomicInteger();
+
+    private volatile HandshakeServerProtocol server;
+
+    SimulatedPeripheral(SimulatedBle ble, String address) {
+        this.ble = ble;
+        this.address = address;
+    }
+
+    public String address() {
+        return address;
+    }
+
+    public SimulatedPeripheral serve(HandshakeServerProtocol server) {
+        this.server = server;
+        return this;
+    }
+
+    @Override
+    public boolean respond(String peer, int requestId, byte[] value) {
+        final PendingRequest request = requests.remove(requestId);
+        if (request == null || !request.connection.address().equals(peer))
+            return false;
+
+        ble.transmit(value == null ? 0 : value.length, request.connection.mtu(),
+                () -> request.answer.complete(value));
+        return true;
+    }
+
+    @Override
+    public boolean reject(String peer, int requestId) {
+        final PendingRequest request = requests.remove(requestId);
+        if (request == null || !request.connection.address().equals(peer))
+            return false;
+
+        ble.transmit(0, request.connection.mtu(), () -> request.answer.completeExceptionally(
+                new IllegalStateException("Request rejected by " + address)));
+        return true;
+    }
+
+    @Override
+    public boolean notify(String peer, byte[] value) {
+        final SimulatedConnection connection = connections.get(peer);
+        if (connection == null || value.length > LinkConditions.maxNotificationBytes(connection.mtu()))
+            return false;
+
+        ble.transmit(value.length, connection.mtu(), () -> connection.notified(value));
+        return true;
+    }
+
+    void connected(SimulatedConnection connection) {
+        connections.put(connection.address(), connection);
+    }
+
+    void disconnected(SimulatedConnection connection) {
+        if (!connections.remove(connection.address(), connection))
+            return;
+
+        requests.values().removeIf(request -> request.connection == connection);
+
+        final HandshakeServerProtocol server = this.server;
+        if (server != null)
+            server.onDisconnected(connection.address());
+    }
+
+    CompletableFuture<byte[]> request(SimulatedConnection connection, Operation operation, byte[] value) {
+        final CompletableFuture<byte[]> answer = new CompletableFuture<>();
+        final int requestId = requestIds.incrementAndGet();
+        requests.put(requestId, new PendingRequest(connection, answer));
+
+        ble.transmit(value == null ? 0 : value.length, connection.mtu(),
+                () -> dispatch(connection.address(), requestId, operation, value));
+        return answer;
+    }
+
+    private void dispatch(String peer, int requestId, Operation operation, byte[] value) {
+        final HandshakeServerProtocol server = this.server;
+        if (server == null || !connections.containsKey(peer)) {
+            reject(peer, requestId);
+            return;
+        }
+
+        switch (operation) {
+            case WRITE:
+                server.onRequest(peer, requestId, value, true);
+                break;
+            case READ:
+                server.onRead(peer, requestId);
+                break;
+            case SUBSCRIBE:
+                server.onSubscribe(peer, requestId, value, true);
+                break;
+        }
+    }
+
+    private static class PendingRequest {
+
+        private final SimulatedConnection connection;
+        private final CompletableFuture<byte[]> answer;
+
+        private PendingRequest(SimulatedConnection connection, CompletableFuture<byte[]> answer) {
+            this.connection = connection;
+            this.answer = answer;
+        }
+    }
+}
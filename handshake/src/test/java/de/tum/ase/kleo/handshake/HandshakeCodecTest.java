@@ -0,0 +1,158 @@
+package de.tum.ase.kleo.handshake;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HandshakeCodecTest {
+
+    @Test
+    public void decodesEncodedRequest() {
+        final HandshakeRequest handshakeReq = new HandshakeRequest("student", "GROUP1", "session");
+
+        final HandshakeRequest decoded = HandshakeRequest.fromBytes(handshakeReq.toBytes());
+
+        assertThat(decoded.studentId()).isEqualTo("student");
+        assertThat(decoded.groupIdOrCode()).isEqualTo("GROUP1");
+        assertThat(decoded.sessionId()).isEqualTo("session");
+    }
+
+    @Test
+    public void packsUuidsIntoSixteenBytes() {
+        final String studentId = "0f8fad5b-d9cb-469f-a165-70867728950e";
+        final String groupId = "7c9e6679-7425-40de-944b-e07fc1f90ae7";
+        final String sessionId = "b3f2a1c4-5d6e-4f70-8192-a3b4c5d6e7f8";
+
+        final byte[] bytes = new HandshakeRequest(studentId, groupId, sessionId).toBytes();
+        final HandshakeRequest decoded = HandshakeRequest.fromBytes(bytes);
+
+        assertThat(bytes).hasSize(1 + 3 * 17);
+        assertThat(decoded.studentId()).isEqualTo(studentId);
+        assertThat(decoded.groupIdOrCode()).isEqualTo(groupId);
+        assertThat(decoded.sessionId()).isEqualTo(sessionId);
+    }
+
+    @Test
+    public void keepsUuidsNotInCanonicalFormAsText() {
+        final String upperCaseId = "0F8FAD5B-D9CB-469F-A165-70867728950E";
+
+        final HandshakeRequest decoded = HandshakeRequest.fromBytes(
+                new HandshakeRequest(upperCaseId, "GRÜPPE", "session").toBytes());
+
+        assertThat(decoded.studentId()).isEqualTo(upperCaseId);
+        assertThat(decoded.groupIdOrCode()).isEqualTo("GRÜPPE");
+    }
+
+    @Test
+    public void writesRequestsIntoReusedBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocate(HandshakeRequest.MAX_BYTES);
+
+        for (String studentId : new String[] {"a-rather-long-student-id", "student"}) {
+            buffer.clear();
+            new HandshakeRequest(studentId, "GROUP1", "session").writeTo(buffer);
+
+            final byte[] bytes = Arrays.copyOf(buffer.array(), buffer.position());
+            assertThat(HandshakeRequest.fromBytes(bytes).studentId()).isEqualTo(studentId);
+        }
+    }
+
+    @Test
+    public void decodesRequestsOfLegacyFormat() {
+        final ByteBuffer legacy = ByteBuffer.allocate(3 * Integer.BYTES + 7 + 6 + 7);
+        legacy.putInt(7).put("student".getBytes(StandardCharsets.UTF_8))
+                .putInt(6).put("GROUP1".getBytes(StandardCharsets.UTF_8))
+                .putInt(7).put("session".getBytes(StandardCharsets.UTF_8));
+
+        final HandshakeRequest decoded = HandshakeRequest.fromBytes(legacy.array());
+
+        assertThat(decoded.studentId()).isEqualTo("student");
+        assertThat(decoded.groupIdOrCode()).isEqualTo("GROUP1");
+        assertThat(decoded.sessionId()).isEqualTo("session");
+    }
+
+    @Test
+    public void encodesDecodedRequestsAsReceived() {
+        final byte[] bytes = new HandshakeRequest("stüdent", "GROUP1", "session").toBytes();
+
+        assertThat(HandshakeRequest.fromBytes(bytes).toBytes()).isEqualTo(bytes);
+    }
+
+    @Test
+    public void refusesMalformedRequests() {
+        final byte[] valid = new HandshakeRequest("student", "GROUP1", "session").toBytes();
+
+        // Field length running past the end
+        final byte[] overlong = valid.clone();
+        overlong[1] = (byte) (100 << 1);
+        assertThatThrownBy(() -> HandshakeRequest.fromBytes(overlong))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Varint never terminating
+        assertThatThrownBy(() -> HandshakeRequest.fromBytes(new byte[] {2, (byte) 0x80, (byte) 0x80,
+                (byte) 0x80, (byte) 0x80, (byte) 0x80, 0})).isInstanceOf(IllegalArgumentException.class);
+
+        // Legacy field of negative length
+        assertThatThrownBy(() -> HandshakeRequest.fromBytes(new byte[] {0, 0, 0, 0, -1, -1, -1, -1}))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThatThrownBy(() -> HandshakeRequest.fromBytes(Arrays.copyOf(valid, valid.length + 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HandshakeRequest.fromBytes(Arrays.copyOf(valid, valid.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HandshakeRequest.fromBytes(new byte[] {7, 0, 0, 0}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HandshakeRequest.fromBytes(new byte[0]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void refusesRequestsExceedingMaxSize() {
+        final String id = new String(new char[HandshakeRequest.MAX_BYTES]).replace('\0', 'x');
+
+        assertThatThrownBy(() -> new HandshakeRequest(id, "GROUP1", "session").toBytes())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void decodesEncodedResponseWithStatus() {
+        final HandshakeResponse handshakeRes = HandshakeResponse.from("pass", HandshakeResponse.Status.COLLECTED);
+
+        final HandshakeResponse decoded = HandshakeResponse.fromBytes(handshakeRes.toBytes());
+
+        assertThat(decoded.handshake()).isEqualTo("pass");
+        assertThat(decoded.isCollected()).isTrue();
+        assertThat(decoded.isPending()).isFalse();
+    }
+
+    @Test
+    public void encodesResponsesAsStringGetBytesDoes() {
+        final String pass = "päss-\uD83D\uDE00-\uD800";
+
+        final byte[] bytes = HandshakeResponse.from(pass, HandshakeResponse.Status.REDEEM).toBytes();
+
+        assertThat(Arrays.copyOfRange(bytes, 1, bytes.length)).isEqualTo(pass.getBytes(StandardCharsets.UTF_8));
+        assertThat(HandshakeResponse.fromBytes(bytes).handshake()).isEqualTo(new String(
+                pass.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void encodesPendingResponseAsStatusOnly() {
+        final byte[] pending = HandshakeResponse.pending().toBytes();
+
+        assertThat(pending).hasSize(1);
+        assertThat(HandshakeResponse.fromBytes(pending).isPending()).isTrue();
+    }
+
+    @Test
+    public void refusesResponsesOfUnknownStatus() {
+        assertThatThrownBy(() -> HandshakeResponse.fromBytes(new byte[] {42, 'p'}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HandshakeResponse.fromBytes(new byte[0]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,167 @@
+package de.tum.ase.kleo.handshake;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HandshakeServerProtocolTest {
+
+    private static final String PEER = "peer";
+    private static final byte[] NO_VALUE = new byte[0];
+
+    private final byte[] handshakeReq = new HandshakeRequest("student", "GROUP1", "session").toBytes();
+
+    private final CountDownLatch supplied = new CountDownLatch(1);
+    private RecordingTransport transport;
+    private HandshakeServerProtocol server;
+
+    @Before
+    public void setUp() {
+        transport = new RecordingTransport();
+        server = new HandshakeServerProtocol((studentId, groupIdOrCode, sessionId) -> {
+            await(supplied);
+            return "pass-of-" + studentId;
+        }, transport);
+        server.open();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void rejectsReadsWithoutRequest() {
+        server.onRead(PEER, 1);
+
+        assertThat(transport.rejected).containsExactly(1);
+    }
+
+    @Test
+    public void answersReadsAsPendingUntilHandshakeIsSupplied() {
+        server.onRequest(PEER, 1, handshakeReq, true);
+        assertThat(transport.responses).containsKey(1);
+
+        server.onRead(PEER, 2);
+        assertThat(HandshakeResponse.fromBytes(transport.responses.get(2)).isPending()).isTrue();
+
+        supplied.countDown();
+
+        final HandshakeResponse handshakeRes = readUntilSupplied(3);
+        assertThat(handshakeRes.handshake()).isEqualTo("pass-of-student");
+        assertThat(handshakeRes.status()).isEqualTo(HandshakeResponse.Status.REDEEM);
+    }
+
+    @Test
+    public void handsOutHandshakesOnce() {
+        server.onRequest(PEER, 1, handshakeReq, false);
+        supplied.countDown();
+        readUntilSupplied(2);
+
+        server.onRead(PEER, 1000);
+
+        assertThat(transport.rejected).contains(1000);
+    }
+
+    @Test
+    public void notifiesSubscribedPeersAndCollectsTheirPasses() throws Exception {
+        final BlockingQueue<String> collected = new LinkedBlockingQueue<>();
+        server.collectAttendances(collected::add);
+
+        server.onSubscribe(PEER, 1, HandshakeResponse.NOTIFICATIONS_ENABLED, false);
+        server.onRequest(PEER, 2, handshakeReq, false);
+        supplied.countDown();
+
+        final byte[] notified = transport.notifications.poll(1, TimeUnit.SECONDS);
+        assertThat(notified).isNotNull();
+        assertThat(HandshakeResponse.fromBytes(notified).isCollected()).isTrue();
+        assertThat(collected.poll(1, TimeUnit.SECONDS)).isEqualTo("pass-of-student");
+    }
+
+    @Test
+    public void leavesHandshakesNotNotifiedToBeRead() {
+        transport.notifying = false;
+
+        server.onSubscribe(PEER, 1, HandshakeResponse.NOTIFICATIONS_ENABLED, false);
+        server.onRequest(PEER, 2, handshakeReq, false);
+        supplied.countDown();
+
+        assertThat(readUntilSupplied(3).handshake()).isEqualTo("pass-of-student");
+    }
+
+    @Test
+    public void forgetsHandshakesOfDisconnectedPeers() {
+        server.onRequest(PEER, 1, handshakeReq, false);
+        server.onDisconnected(PEER);
+        supplied.countDown();
+
+        server.onRead(PEER, 2);
+
+        assertThat(transport.rejected).containsExactly(2);
+    }
+
+    private HandshakeResponse readUntilSupplied(int firstRequestId) {
+        for (int requestId = firstRequestId; requestId < firstRequestId + 100; requestId++) {
+            server.onRead(PEER, requestId);
+
+            final byte[] value = transport.responses.get(requestId);
+            if (value != null && !HandshakeResponse.fromBytes(value).isPending())
+                return HandshakeResponse.fromBytes(value);
+
+            sleep(10);
+        }
+
+        throw new AssertionError("Handshake has not been supplied");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingTransport implements ServerTransport {
+
+        private final Map<Integer, byte[]> responses = new ConcurrentHashMap<>();
+        private final Set<Integer> rejected = ConcurrentHashMap.newKeySet();
+        private final BlockingQueue<byte[]> notifications = new LinkedBlockingQueue<>();
+        private volatile boolean notifying = true;
+
+        @Override
+        public boolean respond(String peer, int requestId, byte[] value) {
+            responses.put(requestId, value == null ? NO_VALUE : value);
+            return true;
+        }
+
+        @Override
+        public boolean reject(String peer, int requestId) {
+            rejected.add(requestId);
+            return true;
+        }
+
+        @Override
+        public boolean notify(String peer, byte[] value) {
+            return notifying && notifications.add(value);
+        }
+    }
+}
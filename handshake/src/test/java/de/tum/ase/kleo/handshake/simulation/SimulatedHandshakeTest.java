@@ -0,0 +1,167 @@
+package de.tum.ase.kleo.handshake.simulation;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import de.tum.ase.kleo.handshake.HandshakeClientProtocol;
+import de.tum.ase.kleo.handshake.HandshakeRequest;
+import de.tum.ase.kleo.handshake.HandshakeResponse;
+import de.tum.ase.kleo.handshake.HandshakeServerProtocol;
+import de.tum.ase.kleo.handshake.HandshakeSupplier;
+import de.tum.ase.kleo.handshake.HandshakeTimeouts;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SimulatedHandshakeTest {
+
+    private static final String SERVER_ADDRESS = "tutor";
+
+    private static final HandshakeTimeouts TIMEOUTS = new HandshakeTimeouts(Duration.ofMillis(500),
+            Duration.ofMillis(300), Duration.ofMillis(200), Duration.ofSeconds(1),
+            Duration.ofMillis(10), Duration.ofSeconds(5));
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+
+    private SimulatedBle ble;
+    private HandshakeServerProtocol server;
+
+    @After
+    public void tearDown() {
+        server.close();
+        ble.close();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void handsNotifiedHandshakesToConcurrentClients() throws Exception {
+        serve(LinkConditions.ideal(), passOfStudent(Duration.ZERO));
+
+        final List<CompletableFuture<HandshakeResponse>> handshakes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            handshakes.add(newClient().requestHandshake(SERVER_ADDRESS, request("student-" + i)));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            final HandshakeResponse handshakeRes = handshakes.get(i).get(5, TimeUnit.SECONDS);
+            assertThat(handshakeRes.handshake()).isEqualTo("pass-of-student-" + i);
+            assertThat(handshakeRes.status()).isEqualTo(HandshakeResponse.Status.REDEEM);
+        }
+    }
+
+    @Test
+    public void readsPendingHandshakesTooBigToNotify() throws Exception {
+        serve(new LinkConditions(LinkConditions.DEFAULT_MTU, Duration.ofMillis(1), 0),
+                passOfStudent(Duration.ofMillis(400)));
+
+        final HandshakeResponse handshakeRes = newClient()
+                .requestHandshake(SERVER_ADDRESS, request("student-with-a-long-id"))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(handshakeRes.handshake()).isEqualTo("pass-of-student-with-a-long-id");
+    }
+
+    @Test
+    public void readsHandshakesTooBigToNotifyWithoutWaitingForNotificationTimeout() throws Exception {
+        serve(new LinkConditions(LinkConditions.DEFAULT_MTU, Duration.ofMillis(1), 0), passOfStudent(Duration.ZERO));
+        final HandshakeTimeouts timeouts = HandshakeTimeouts.defaults();
+        final HandshakeClientProtocol client = new HandshakeClientProtocol(ble.central(), scheduler, timeouts);
+
+        final long startedAt = System.nanoTime();
+        final HandshakeResponse handshakeRes = client
+                .requestHandshake(SERVER_ADDRESS, request("student-with-a-long-id"))
+                .get(5, TimeUnit.SECONDS);
+        final long tookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        assertThat(handshakeRes.handshake()).isEqualTo("pass-of-student-with-a-long-id");
+        assertThat(tookMillis).isLessThan(timeouts.notification().toMillis() / 3);
+    }
+
+    @Test
+    public void reusesConnectionsForRepeatedHandshakes() throws Exception {
+        serve(LinkConditions.ideal(), passOfStudent(Duration.ZERO));
+        final HandshakeClientProtocol client = newClient();
+
+        client.requestHandshake(SERVER_ADDRESS, request("student")).get(5, TimeUnit.SECONDS);
+        final long packetsOfFirstHandshake = ble.packetsSent();
+        client.requestHandshake(SERVER_ADDRESS, request("student")).get(5, TimeUnit.SECONDS);
+
+        assertThat(ble.packetsSent() - packetsOfFirstHandshake).isLessThan(packetsOfFirstHandshake);
+    }
+
+    @Test
+    public void reportsCollectedAttendances() throws Exception {
+        serve(LinkConditions.ideal(), passOfStudent(Duration.ZERO));
+        final BlockingQueue<String> collected = new LinkedBlockingQueue<>();
+        server.collectAttendances(collected::add);
+
+        final HandshakeResponse handshakeRes = newClient()
+                .requestHandshake(SERVER_ADDRESS, request("student"))
+                .get(5, TimeUnit.SECONDS);
+
+        // Collected once the notification has been sent, which may be after its arrival
+        assertThat(handshakeRes.isCollected()).isTrue();
+        assertThat(collected.poll(1, TimeUnit.SECONDS)).isEqualTo("pass-of-student");
+    }
+
+    @Test
+    public void retriesHandshakesOverLossyLink() throws Exception {
+        serve(new LinkConditions(185, Duration.ofMillis(2), 0.02), passOfStudent(Duration.ZERO));
+
+        final List<CompletableFuture<HandshakeResponse>> handshakes = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            handshakes.add(newClient().requestHandshake(SERVER_ADDRESS, request("student-" + i)));
+        }
+
+        int completed = 0;
+        for (CompletableFuture<HandshakeResponse> handshake : handshakes) {
+            try {
+                handshake.get(10, TimeUnit.SECONDS);
+                completed++;
+            } catch (Exception e) {
+                // Failed all attempts
+            }
+        }
+
+        assertThat(ble.packetsLost()).isPositive();
+        assertThat(completed).isGreaterThanOrEqualTo(45);
+    }
+
+    private void serve(LinkConditions link, HandshakeSupplier handshakeSupplier) {
+        ble = new SimulatedBle(link, 42);
+
+        final SimulatedPeripheral peripheral = ble.peripheral(SERVER_ADDRESS);
+        server = new HandshakeServerProtocol(handshakeSupplier, peripheral);
+        peripheral.serve(server);
+        server.open();
+    }
+
+    private HandshakeClientProtocol newClient() {
+        return new HandshakeClientProtocol(ble.central(), scheduler, TIMEOUTS);
+    }
+
+    private static HandshakeRequest request(String studentId) {
+        return new HandshakeRequest(studentId, "GROUP1", "session");
+    }
+
+    private static HandshakeSupplier passOfStudent(Duration supplyTime) {
+        return (studentId, groupIdOrCode, sessionId) -> {
+            try {
+                Thread.sleep(supplyTime.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return "pass-of-" + studentId;
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package de.tum.ase.kleo.loadtest;
+
+import java.time.Duration;
+
+/**
+ * {@code ArrivalCurve} describes how the arrivals of virtual clients are
+ * distributed over the arrival window. Arrival offsets are derived from the
+ * inverse of the cumulative distribution, so a run is deterministic.
+ */
+public enum ArrivalCurve {
+
+    /**
+     * Clients arrive at a constant rate.
+     */
+    CONSTANT {
+        @Override
+        double inverseCdf(double u) {
+            return u;
+        }
+    },
+
+    /**
+     * The arrival rate grows linearly from zero to its peak at the end of the window.
+     */
+    RAMP_UP {
+        @Override
+        double inverseCdf(double u) {
+            return Math.sqrt(u);
+        }
+    },
+
+    /**
+     * Most clients arrive right away, the rate decays linearly to zero,
+     * like students redeeming passes as a lecture starts.
+     */
+    LECTURE_START {
+        @Override
+        double inverseCdf(double u) {
+            return 1 - Math.sqrt(1 - u);
+        }
+    };
+
+    abstract double inverseCdf(double u);
+
+    public long[] arrivalOffsetsMillis(int clients, Duration window) {
+        final long[] offsets = new long[clients];
+        final long windowMillis = window.toMillis();
+
+        for (int i = 0; i < clients; i++) {
+            offsets[i] = Math.round(windowMillis * inverseCdf((i + 0.5) / clients));
+        }
+
+        return offsets;
+    }
+}
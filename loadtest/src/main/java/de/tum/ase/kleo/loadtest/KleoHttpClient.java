@@ -0,0 +1,184 @@
+package de.tum.ase.kleo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.FormBody;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * {@code KleoHttpClient} issues the backend's REST calls asynchronously, so
+ * thousands of virtual clients can be in flight without a thread each.
+ */
+public class KleoHttpClient {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+    private static final MediaType CSV = MediaType.parse("text/csv");
+    private static final String ACCEPT = "application/vnd.tum.aes.kleo.v5.0.5+json, application/json";
+
+    private static final String OAUTH_CLIENT_ID = "kleo-client";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final OkHttpClient httpClient;
+    private final String baseUrl;
+
+    public KleoHttpClient(String baseUrl, int maxConcurrentRequests) {
+        final Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxConcurrentRequests);
+        dispatcher.setMaxRequestsPerHost(maxConcurrentRequests);
+
+        this.httpClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectTimeout(30, TimeUnit.SECONDS)
+                .readTimeout(60, TimeUnit.SECONDS)
+                .build();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+    }
+
+    public CompletableFuture<String> token(String email, String password) {
+        final RequestBody form = new FormBody.Builder()
+                .add("grant_type", "password")
+                .add("client_id", OAUTH_CLIENT_ID)
+                .add("username", email)
+                .add("password", password)
+                .build();
+
+        return call(new Request.Builder().url(baseUrl + "oauth/token").post(form).build())
+                .thenApply(tokenJson -> tokenJson.get("access_token").asText());
+    }
+
+    /**
+     * Reads the user id claim of the JWT access token.
+     */
+    public String userId(String accessToken) {
+        try {
+            final String payload = accessToken.split("\\.")[1];
+            final byte[] payloadJson = Base64.getUrlDecoder().decode(payload);
+            return objectMapper.readTree(payloadJson).get("user_id").asText();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed access token", e);
+        }
+    }
+
+    public CompletableFuture<String> addGroup(String accessToken, String name) {
+        final ObjectNode group = objectMapper.createObjectNode().put("name", name);
+
+        return call(authorized(accessToken, "groups/").post(json(group)).build())
+                .thenApply(groupJson -> groupJson.get("id").asText());
+    }
+
+    public CompletableFuture<JsonNode> importGroupStudents(String accessToken, String groupId, List<String> emails) {
+        final RequestBody roster = RequestBody.create(CSV, String.join("\n", emails));
+
+        return call(authorized(accessToken, "groups/" + groupId + "/students/import").post(roster).build());
+    }
+
+    public CompletableFuture<String> addGroupSession(String accessToken, String groupId,
+                                                     OffsetDateTime begins, OffsetDateTime ends) {
+        final ObjectNode session = objectMapper.createObjectNode()
+                .put("type", "OTHER")
+                .put("location", "Audimax")
+                .put("begins", begins.toString())
+                .put("ends", ends.toString());
+
+        return call(authorized(accessToken, "groups/" + groupId + "/sessions/").post(json(session)).build())
+                .thenApply(sessionJson -> sessionJson.get("id").asText());
+    }
+
+    public CompletableFuture<String> generateSessionPass(String accessToken, String groupId,
+                                                         String sessionId, String studentId) {
+        final ObjectNode pass = objectMapper.createObjectNode()
+                .put("sessionId", sessionId)
+                .put("studentId", studentId);
+
+        return call(authorized(accessToken, "groups/" + groupId + "/passes").post(json(pass)).build())
+                .thenApply(passJson -> passJson.get("code").asText());
+    }
+
+    public CompletableFuture<JsonNode> utilizeSessionPass(String accessToken, String groupId, String passCode) {
+        final RequestBody empty = RequestBody.create(JSON, new byte[0]);
+
+        return call(authorized(accessToken, "groups/" + groupId + "/passes/" + passCode).put(empty).build());
+    }
+
+    public void shutdown() {
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+
+    private Request.Builder authorized(String accessToken, String path) {
+        return new Request.Builder()
+                .url(baseUrl + path)
+                .header("Authorization", "Bearer " + accessToken)
+                .header("Accept", ACCEPT);
+    }
+
+    private RequestBody json(JsonNode body) {
+        try {
+            return RequestBody.create(JSON, objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to serialize request body", e);
+        }
+    }
+
+    private CompletableFuture<JsonNode> call(Request request) {
+        final CompletableFuture<JsonNode> futureResponse = new CompletableFuture<>();
+
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                futureResponse.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (Response closedResponse = response) {
+                    if (!closedResponse.isSuccessful()) {
+                        futureResponse.completeExceptionally(new HttpStatusException(closedResponse.code()));
+                        return;
+                    }
+
+                    final byte[] body = closedResponse.body().bytes();
+                    futureResponse.complete(body.length == 0
+                            ? objectMapper.createObjectNode()
+                            : objectMapper.readTree(new String(body, StandardCharsets.UTF_8)));
+                } catch (IOException e) {
+                    futureResponse.completeExceptionally(e);
+                }
+            }
+        });
+
+        return futureResponse;
+    }
+
+    public static class HttpStatusException extends RuntimeException {
+
+        private final int status;
+
+        public HttpStatusException(int status) {
+            super("HTTP " + status);
+            this.status = status;
+        }
+
+        public int status() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package de.tum.ase.kleo.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import de.tum.ase.kleo.application.Launcher;
+import de.tum.ase.kleo.loadtest.LoadTestReport.Stage;
+
+import static de.tum.ase.kleo.application.config.loadtest.LoadTestUsersConfig.STUDENT_EMAIL_FORMAT;
+import static de.tum.ase.kleo.application.config.loadtest.LoadTestUsersConfig.TUTOR_EMAIL;
+import static java.lang.String.format;
+
+/**
+ * Simulates the start of a lecture: a tutor opens a session of a group and
+ * the given number of students redeem attendance passes, arriving along an
+ * {@link ArrivalCurve}. Every virtual student runs the real HTTP flow of
+ * obtaining an OAuth token, getting a pass generated by the tutor and
+ * utilizing it.
+ * <p>
+ * Unless a {@code --baseUrl} is given, the backend is started in-process
+ * with the {@code loadtest} profile, i.e. an in-memory database, seeded
+ * users and no blockchain.
+ */
+public class LoadTest {
+
+    private static final int MAX_CONCURRENT_REQUESTS = 4096;
+
+    private final LoadTestOptions options;
+    private final KleoHttpClient client;
+    private final LoadTestReport report = new LoadTestReport();
+
+    private String tutorToken;
+    private String groupId;
+    private String sessionId;
+
+    private LoadTest(LoadTestOptions options, String baseUrl) {
+        this.options = options;
+        this.client = new KleoHttpClient(baseUrl, MAX_CONCURRENT_REQUESTS);
+    }
+
+    public static void main(String[] args) throws Exception {
+        final LoadTestOptions options = LoadTestOptions.parse(args);
+
+        ConfigurableApplicationContext backend = null;
+        String baseUrl = options.baseUrl();
+
+        if (baseUrl == null) {
+            backend = new SpringApplicationBuilder(Launcher.class).run(
+                    "--spring.profiles.active=loadtest",
+                    "--server.port=0",
+                    "--loadtest.students=" + options.students(),
+                    "--loadtest.password=" + options.password());
+
+            final String port = backend.getEnvironment().getProperty("local.server.port");
+            final String contextPath = backend.getEnvironment().getProperty("server.contextPath", "");
+            baseUrl = "http://localhost:" + port + contextPath + "/";
+        }
+
+        final LoadTest loadTest = new LoadTest(options, baseUrl);
+        try {
+            loadTest.prepareClassroom();
+            loadTest.run();
+        } finally {
+            loadTest.client.shutdown();
+            if (backend != null)
+                backend.close();
+        }
+    }
+
+    private void prepareClassroom() {
+        tutorToken = client.token(TUTOR_EMAIL, options.password()).join();
+        groupId = client.addGroup(tutorToken, "Load Test Lecture").join();
+
+        final List<String> studentEmails = new ArrayList<>(options.students());
+        for (int i = 0; i < options.students(); i++) {
+            studentEmails.add(format(STUDENT_EMAIL_FORMAT, i));
+        }
+        client.importGroupStudents(tutorToken, groupId, studentEmails).join();
+
+        final OffsetDateTime now = OffsetDateTime.now();
+        sessionId = client.addGroupSession(tutorToken, groupId, now, now.plusHours(2)).join();
+    }
+
+    private void run() throws InterruptedException {
+        final long[] arrivalOffsets = options.arrivalCurve()
+                .arrivalOffsetsMillis(options.students(), options.arrivalWindow());
+
+        System.out.printf("Starting %d virtual students over %d s (%s)%n", options.students(),
+                options.arrivalWindow().getSeconds(), options.arrivalCurve());
+
+        final ScheduledExecutorService arrivals = Executors.newSingleThreadScheduledExecutor();
+        final List<CompletableFuture<Void>> flows = new ArrayList<>(options.students());
+        final long startedAt = System.nanoTime();
+
+        for (int i = 0; i < options.students(); i++) {
+            final String email = format(STUDENT_EMAIL_FORMAT, i);
+            final CompletableFuture<Void> flow = new CompletableFuture<>();
+            flows.add(flow);
+
+            arrivals.schedule(() -> attend(email).whenComplete((result, error) -> flow.complete(null)),
+                    arrivalOffsets[i], TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            CompletableFuture.allOf(flows.toArray(new CompletableFuture[0]))
+                    .get(options.arrivalWindow().plus(options.timeout()).toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            System.out.println("Not all virtual students finished in time");
+        } finally {
+            arrivals.shutdownNow();
+        }
+
+        report.print(System.out, options.students(), Duration.ofNanos(System.nanoTime() - startedAt));
+    }
+
+    private CompletableFuture<Void> attend(String email) {
+        final long flowStartedAt = System.nanoTime();
+
+        return timed(Stage.TOKEN, () -> client.token(email, options.password()))
+                .thenCompose(studentToken -> timed(Stage.GENERATE_PASS, () ->
+                        client.generateSessionPass(tutorToken, groupId, sessionId, client.userId(studentToken)))
+                        .thenCompose(passCode -> timed(Stage.UTILIZE_PASS, () ->
+                                client.utilizeSessionPass(studentToken, groupId, passCode))))
+                .thenAccept(utilized -> report.recordLatency(Stage.FLOW, System.nanoTime() - flowStartedAt));
+    }
+
+    private <T> CompletableFuture<T> timed(Stage stage, Supplier<CompletableFuture<T>> call) {
+        final long startedAt = System.nanoTime();
+
+        return call.get().whenComplete((result, error) -> {
+            if (error == null) {
+                report.recordLatency(stage, System.nanoTime() - startedAt);
+            } else {
+                report.recordError(stage, error);
+            }
+        });
+    }
+}
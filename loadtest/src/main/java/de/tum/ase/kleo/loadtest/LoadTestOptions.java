@@ -0,0 +1,51 @@
+package de.tum.ase.kleo.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+/**
+ * Options of a load test run given as {@code --name=value} arguments.
+ */
+@ToString
+@Getter @Accessors(fluent = true)
+public class LoadTestOptions {
+
+    private final int students;
+    private final Duration arrivalWindow;
+    private final ArrivalCurve arrivalCurve;
+    private final String baseUrl;
+    private final String password;
+    private final Duration timeout;
+
+    private LoadTestOptions(Map<String, String> options) {
+        this.students = Integer.parseInt(options.getOrDefault("students", "800"));
+        this.arrivalWindow = Duration.ofSeconds(Long.parseLong(options.getOrDefault("window", "120")));
+        this.arrivalCurve = ArrivalCurve.valueOf(options.getOrDefault("curve", "LECTURE_START").toUpperCase());
+        this.baseUrl = options.get("baseUrl");
+        this.password = options.getOrDefault("password", "password");
+        this.timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "600")));
+    }
+
+    /**
+     * Parses e.g. {@code --students=800 --window=120 --curve=lecture_start}.
+     * Without {@code --baseUrl} the backend is started in-process.
+     */
+    public static LoadTestOptions parse(String[] args) {
+        final Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("="))
+                throw new IllegalArgumentException("Option expected as --name=value, got " + arg);
+
+            final int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return new LoadTestOptions(options);
+    }
+}
@@ -0,0 +1,84 @@
+package de.tum.ase.kleo.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * {@code LoadTestReport} collects latencies and errors of every stage of
+ * the attendance flow and prints throughput, percentiles and an error
+ * breakdown once the run is over.
+ */
+public class LoadTestReport {
+
+    public enum Stage {
+        TOKEN, GENERATE_PASS, UTILIZE_PASS, FLOW
+    }
+
+    private final Map<Stage, ConcurrentLinkedQueue<Long>> latencies = new EnumMap<>(Stage.class);
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    public LoadTestReport() {
+        for (Stage stage : Stage.values()) {
+            latencies.put(stage, new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    public void recordLatency(Stage stage, long nanos) {
+        latencies.get(stage).add(nanos);
+    }
+
+    public void recordError(Stage stage, Throwable error) {
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+
+        final String errorKey = stage + ": " + (cause instanceof KleoHttpClient.HttpStatusException
+                ? cause.getMessage() : cause.getClass().getSimpleName());
+
+        errors.computeIfAbsent(errorKey, key -> new LongAdder()).increment();
+    }
+
+    public void print(PrintStream out, int clients, Duration elapsed) {
+        final int completed = latencies.get(Stage.FLOW).size();
+        final double seconds = elapsed.toMillis() / 1000.0;
+
+        out.println();
+        out.printf("Virtual clients: %d, completed flows: %d, failed flows: %d, wall time: %.1f s%n",
+                clients, completed, clients - completed, seconds);
+        out.printf("Throughput: %.1f flows/s%n%n", completed / seconds);
+
+        out.printf("%-14s %8s %9s %9s %9s %9s%n", "stage", "count", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Stage stage : Stage.values()) {
+            final long[] sorted = latencies.get(stage).stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+
+            out.printf("%-14s %8d %9.1f %9.1f %9.1f %9.1f%n", stage, sorted.length,
+                    percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.95),
+                    percentileMillis(sorted, 0.99), percentileMillis(sorted, 1.0));
+        }
+
+        if (!errors.isEmpty()) {
+            out.println();
+            out.println("Errors:");
+            errors.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                    .forEach(error -> out.printf("  %-40s %8d%n", error.getKey(), error.getValue().sum()));
+        }
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0)
+            return 0;
+
+        final int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return NANOSECONDS.toMicros(sorted[Math.max(index, 0)]) / 1000.0;
+    }
+}